@@ -1,12 +1,20 @@
 package es.us.isa.restest.cli;
 
+import es.us.isa.restest.execution.Shard;
 import es.us.isa.restest.main.CreateTestConf;
 import es.us.isa.restest.runners.RESTestExecutor;
 import es.us.isa.restest.runners.RESTestLoader;
 import es.us.isa.restest.runners.RESTestRunner;
+import es.us.isa.restest.runners.RESTestShardMerger;
+import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.util.ColumnarStore;
 import es.us.isa.restest.util.PropertyManager;
 import es.us.isa.restest.util.RESTestException;
+import es.us.isa.restest.util.TestManager;
+import es.us.isa.restest.util.TestSuiteValidationResult;
+import es.us.isa.restest.util.TestSuiteValidator;
+import es.us.isa.restest.util.UncheckedRESTestException;
 import es.us.isa.restest.writers.restassured.RESTAssuredWriter;
 import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
@@ -54,6 +62,15 @@ public class RESTestCLI {
                 .optionalArg(true)
                 .desc("Execute test cases")
                 .build());
+        options.addOption("s", "shard", true, "Generate/execute only a shard of the test suite, in the format index/count (e.g., 0/4)");
+        options.addOption("m", "merge-shards", true, "Merge the test cases, results and coverage of all shards");
+        options.addOption(Option.builder("v")
+                .longOpt("validate")
+                .numberOfArgs(2)
+                .argName("oasFile> <testCasesCsv")
+                .desc("Validate the test cases stored in a CSV file against an OpenAPI specification")
+                .build());
+        options.addOption("b", "columnar", true, "Convert the test cases and test results stored as CSV in a directory to binary columnar format");
 
 
         if (args.length == 0) {
@@ -101,6 +118,60 @@ public class RESTestCLI {
 
             }
 
+            if (cmd.hasOption("s")) {
+                // The shard is read by RESTestLoader, overriding the one in the property file (if any)
+                int[] shard = Shard.parse(cmd.getOptionValue("s"));
+                System.setProperty("shard.index", String.valueOf(shard[0]));
+                System.setProperty("shard.count", String.valueOf(shard[1]));
+            }
+
+            if (cmd.hasOption("m")) {
+                String propFile = cmd.getOptionValue("m");
+
+                if (isWindowsPath(propFile)) {
+                    propFile = propFile.replace("\\", "/");
+                }
+
+                if (!isPropertyFile(propFile)) {
+                    throw new RuntimeException("Error: The provided file is not a valid property file.");
+                }
+
+                if (checkFileExists(propFile)) {
+                    RESTestShardMerger merger = new RESTestShardMerger(propFile);
+                    Collection<TestCase> testCases = merger.merge();
+                    logger.info(testCases.size() + " test cases merged. CSV stats available at " + PropertyManager.readProperty("data.tests.dir") + "/" + merger.getExperimentName());
+                }
+                return;
+            }
+
+            if (cmd.hasOption("v")) {
+                String[] files = cmd.getOptionValues("v");
+                String oasFile = isWindowsPath(files[0]) ? files[0].replace("\\", "/") : files[0];
+                String csvFile = isWindowsPath(files[1]) ? files[1].replace("\\", "/") : files[1];
+
+                if (!isOASFile(oasFile)) {
+                    throw new RuntimeException("Error: The provided file is not a valid OpenAPI specification.");
+                }
+
+                if (checkFileExists(oasFile) && checkFileExists(csvFile)) {
+                    TestSuiteValidationResult result = new TestSuiteValidator(new OpenAPISpecification(oasFile)).validate(TestManager.getTestCases(csvFile));
+                    result.getInvalidTestCases().forEach((id, errors) -> logger.info(id + ": " + errors));
+                    logger.info(result);
+                }
+                return;
+            }
+
+            if (cmd.hasOption("b")) {
+                String testDataDir = cmd.getOptionValue("b");
+                if (isWindowsPath(testDataDir)) {
+                    testDataDir = testDataDir.replace("\\", "/");
+                }
+
+                int converted = ColumnarStore.convertDirectory(testDataDir);
+                logger.info(converted + " CSV files converted to binary columnar format in " + testDataDir);
+                return;
+            }
+
             if (cmd.hasOption("o")) {
                 String oasFile = checkGetOAS(cmd);
 
@@ -260,17 +331,19 @@ public class RESTestCLI {
 
                     try {
                         var generator = loader.createGenerator();
-                        Collection<TestCase> testCases = generator.generate();
 
                         createDir(loader.getTargetDirJava());
 
+                        // Test cases are written as they are generated, so they are not kept in memory
                         RESTAssuredWriter writer = (RESTAssuredWriter) loader.createWriter();
-                        writer.write(testCases);
+                        writer.write(generator.generateIterator());
 
-                        logger.info(testCases.size() + " test cases generated and written to " + loader.getTargetDirJava());
+                        logger.info(generator.getnTotalTests() + " test cases generated and written to " + loader.getTargetDirJava());
 
                     } catch (RESTestException e) {
                         logger.error("Error during test generation: " + e.getMessage());
+                    } catch (UncheckedRESTestException e) {
+                        logger.error("Error during test generation: " + e.getCause().getMessage());
                     }
                 }
             }
@@ -3,6 +3,7 @@ package es.us.isa.restest.coverage;
 import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.testcases.TestCase;
 import es.us.isa.restest.testcases.TestResult;
+import es.us.isa.restest.util.ColumnarStore;
 import es.us.isa.restest.util.PropertyManager;
 import es.us.isa.restest.util.TestManager;
 import org.apache.logging.log4j.LogManager;
@@ -10,6 +11,7 @@ import org.apache.logging.log4j.Logger;
 import org.javatuples.Pair;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -23,7 +25,9 @@ import static es.us.isa.restest.util.FileManager.deleteFile;
  * results. It takes as input: 1) path to OpenAPI Specification; and 2) paths to
  * a set of "test-cases*.csv" files. It is *REQUIRED* that the files containing the
  * test cases are named this way. It is also *REQUIRED* that there exists one
- * "test-results*.csv" file per "test-cases*.csv" file, named in the same way
+ * "test-results*.csv" file per "test-cases*.csv" file, named in the same way.
+ * If the test cases and test results are also stored in binary columnar format (".rtb"
+ * files, see {@link ColumnarStore}), these are read instead, which is much faster
  *
  */
 public class CoverageComputation {
@@ -35,7 +39,6 @@ public class CoverageComputation {
         OpenAPISpecification spec;
         String testDirPath = "src/test/resources/restest-test-resources/coverage-data";
         File testDir;
-        int batchSize = Integer.MAX_VALUE;
         CoverageMeter coverageMeter;
         List<Pair<String, String>> testCasesResultsFiles = new ArrayList<>(); // left = testCasesFile; right = testResultsFile
 
@@ -53,12 +56,13 @@ public class CoverageComputation {
 
         if (args.length == 3) {
             try {
-                batchSize = Integer.parseInt(args[2]);
-                if (batchSize <= 0)
+                if (Integer.parseInt(args[2]) <= 0)
                     throw new Exception();
             } catch (Exception e) {
                 throw new IllegalArgumentException("The batch size must be an integer greater than 0.");
             }
+            // Batch size, no longer needed
+            logger.warn("The batch size argument is ignored: coverage is computed in a single pass for test suites of any size");
         }
 
         try {
@@ -86,7 +90,10 @@ public class CoverageComputation {
         logger.info("Reading CSV files (test cases and test results)");
 
         List<String> dirFiles = Arrays.asList(testDir.list());
-        List<String> testCasesFiles = dirFiles.stream().filter(f -> f.startsWith("test-cases")).collect(Collectors.toList());
+        List<String> testCasesFiles = dirFiles.stream()
+                .filter(f -> f.startsWith("test-cases"))
+                .filter(f -> !f.endsWith(ColumnarStore.EXTENSION) || !dirFiles.contains(f.replace(ColumnarStore.EXTENSION, ".csv"))) // Binary files are only listed if there is no CSV file
+                .collect(Collectors.toList());
 
         for (String testCasesFile: testCasesFiles) {
             String testResultsFile = testCasesFile.replaceAll("test-cases", "test-results");
@@ -94,15 +101,14 @@ public class CoverageComputation {
                 testCasesResultsFiles.add(Pair.with(testDir.getPath() + "/" + testCasesFile, testDir.getPath() + "/" + testResultsFile));
         }
 
-        // Add test cases and test results to coverageMeter progressively
+        // Add the coverage of the test cases and test results to coverageMeter progressively, without keeping them in memory
         int i = 1;
         int total = testCasesResultsFiles.size();
         logger.info("Computing coverage");
         for (Pair<String, String> testCasesResultsFile: testCasesResultsFiles) {
-            Collection<TestCase> testSuite = TestManager.getTestCases(testCasesResultsFile.getValue0());
-            Collection<TestResult> testResults = TestManager.getTestResults(testCasesResultsFile.getValue1());
-            coverageMeter.addTestSuite(testSuite);
-            coverageMeter.addTestResults(testResults, testSuite);
+            Collection<TestCase> testSuite = readTestCases(testCasesResultsFile.getValue0());
+            Collection<TestResult> testResults = readTestResults(testCasesResultsFile.getValue1());
+            coverageMeter.applyDelta(testSuite, testResults);
             logger.info("Progress: {}/{}", i++, total);
         }
 
@@ -116,10 +122,41 @@ public class CoverageComputation {
         logger.info("Generating coverage a priori");
         exportCoverageReport(coverageMeter, aPrioriCoveragePath);
         logger.info("Generating coverage a posteriori");
-        exportCoverageReport(coverageMeter.getAPosteriorCoverageMeter(batchSize), aPosterioriCoveragePath);
+        exportCoverageReport(coverageMeter.getAPosteriorCoverageMeter(), aPosterioriCoveragePath);
         logger.info("Coverage files generated in path {}", testDirPath);
     }
 
+    // Read the test cases from the binary columnar file, if it is up to date, or from the CSV file otherwise
+    private static Collection<TestCase> readTestCases(String path) {
+        String storePath = ColumnarStore.getStorePath(path);
+        boolean csvAvailable = !path.endsWith(ColumnarStore.EXTENSION);
+        if (!csvAvailable || ColumnarStore.isUpToDate(path, storePath)) {
+            try {
+                return ColumnarStore.readTestCases(storePath);
+            } catch (IOException e) {
+                if (!csvAvailable)
+                    throw new IllegalStateException("The test cases could not be read from " + storePath, e);
+                logger.warn("The test cases could not be read from {}: {}", storePath, e.getMessage());
+            }
+        }
+        return TestManager.getTestCases(path);
+    }
+
+    private static Collection<TestResult> readTestResults(String path) {
+        String storePath = ColumnarStore.getStorePath(path);
+        boolean csvAvailable = !path.endsWith(ColumnarStore.EXTENSION);
+        if (!csvAvailable || ColumnarStore.isUpToDate(path, storePath)) {
+            try {
+                return ColumnarStore.readTestResults(storePath);
+            } catch (IOException e) {
+                if (!csvAvailable)
+                    throw new IllegalStateException("The test results could not be read from " + storePath, e);
+                logger.warn("The test results could not be read from {}: {}", storePath, e.getMessage());
+            }
+        }
+        return TestManager.getTestResults(path);
+    }
+
     private static void exportCoverageReport(CoverageMeter coverageMeter, String path) {
         CoverageResults results = new CoverageResults(coverageMeter);
         results.setCoverageOfCoverageCriteriaFromCoverageMeter(coverageMeter);
@@ -1,8 +1,11 @@
 package es.us.isa.restest.coverage;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.function.BiConsumer;
 
 /**
  * Class that represents a specific coverage criterion, e.g. paths,
@@ -13,7 +16,9 @@ import java.util.Map.Entry;
 public class CoverageCriterion {
 
     private CriterionType type;             // Type of coverage criterion: paths, operations, content-type, etc.
-    private Map<String, Boolean> elements;  // Keys are the elements to cover and values represent whether they have already been covered or not
+    private String[] elements;              // Elements to cover, sorted and interned. The index of an element is its ID
+    private BitSet coveredElements;         // IDs of the elements already covered
+    private int coveredElementsCount;       // Number of bits set in coveredElements
 
     /**
      * The following property's purpose is to locate the criterion inside the API resources hierarchy. There could be several parameter values
@@ -26,7 +31,8 @@ public class CoverageCriterion {
 
     public CoverageCriterion(CriterionType type) {
         this.type = type;
-        this.elements = new HashMap<>();
+        this.elements = new String[0];
+        this.coveredElements = new BitSet();
         this.rootPath = "";
     }
 
@@ -38,12 +44,61 @@ public class CoverageCriterion {
         this.type = type;
     }
 
+    /**
+     * @return Map whose keys are the elements to cover and whose values represent whether
+     * they have already been covered or not. Changes to the map do not affect the criterion
+     */
     public Map<String, Boolean> getElements() {
-        return elements;
+        Map<String, Boolean> elementsMap = new LinkedHashMap<>();
+        forEachElement(elementsMap::put);
+        return elementsMap;
     }
 
+    /**
+     * Set the elements of the criterion, and whether they have already been covered or not
+     * @param elements Map whose keys are the elements and whose values are true if they are covered
+     */
     public void setElements(Map<String, Boolean> elements) {
-        this.elements = elements;
+        setElements(elements.keySet());
+        elements.forEach((element, isCovered) -> {
+            if (Boolean.TRUE.equals(isCovered))
+                coverElement(element);
+        });
+    }
+
+    /**
+     * Set the elements of the criterion. None of them is covered
+     * @param elements Elements to cover
+     */
+    public void setElements(Collection<String> elements) {
+        String[] sortedElements = ((Collection<?>) elements).stream() // enum values of the spec may not be strings
+                .map(e -> String.valueOf(e).intern()) // elements such as "GET" or "200" are shared by many criteria
+                .sorted()
+                .distinct()
+                .toArray(String[]::new);
+        this.elements = sortedElements;
+        this.coveredElements = new BitSet(sortedElements.length);
+        this.coveredElementsCount = 0;
+    }
+
+    /**
+     * @return A criterion with the same type, rootPath and elements, none of them covered
+     */
+    public CoverageCriterion copyWithoutCoverage() {
+        CoverageCriterion copy = new CoverageCriterion(type);
+        copy.elements = elements; // the array is never modified, so it can be shared
+        copy.coveredElements = new BitSet(elements.length);
+        copy.rootPath = rootPath;
+        return copy;
+    }
+
+    /**
+     * Performs the given action for every element of the criterion, in alphabetical order
+     * @param action Action receiving the element and whether it has already been covered or not
+     */
+    public void forEachElement(BiConsumer<String, Boolean> action) {
+        for (int i = 0; i < elements.length; i++)
+            action.accept(elements[i], coveredElements.get(i));
     }
 
     public String getRootPath() {
@@ -60,51 +115,64 @@ public class CoverageCriterion {
      * @return Map of covered elements, i.e. all those whose value is true
      */
     public Map<String, Boolean> getCoveredElements() {
-        Map<String, Boolean> coveredElements = new HashMap<>();
-        for (Entry<String, Boolean> element: elements.entrySet()) {
-            if (element.getValue()) {
-                coveredElements.put(element.getKey(), element.getValue());
-            }
-        }
-        return coveredElements;
+        Map<String, Boolean> coveredElementsMap = new LinkedHashMap<>();
+        for (int i = coveredElements.nextSetBit(0); i >= 0; i = coveredElements.nextSetBit(i + 1))
+            coveredElementsMap.put(elements[i], true);
+        return coveredElementsMap;
     }
 
     /**
      * @return Number of elements in this criterion
      */
     public long getElementsCount() {
-        return elements.size();
+        return elements.length;
     }
 
     /**
      * @return Number of elements already covered in this criterion
      */
     public long getCoveredElementsCount() {
-        return elements.entrySet().stream()
-                .filter(e -> e.getValue())
-                .count();
+        return coveredElementsCount;
     }
 
     /**
-     * Set an element as covered (set value to 'true')
+     * @param element the element to look for
+     * @return true if the element exists and has already been covered
+     */
+    public boolean isCovered(String element) {
+        int id = getElementId(element);
+        return id >= 0 && coveredElements.get(id);
+    }
+
+    /**
+     * Set an element as covered
      * @param newlyCoveredElement the element to cover
      */
     public void coverElement(String newlyCoveredElement) {
-        if (elements.get(newlyCoveredElement) != null) { // check that the element exists
-            elements.put(newlyCoveredElement, true);
+        int id = getElementId(newlyCoveredElement);
+        if (id >= 0 && !coveredElements.get(id)) { // check that the element exists and was not covered
+            coveredElements.set(id);
+            coveredElementsCount++;
         }
     }
 
+    // Index of the element in the sorted array, or a negative number if it does not exist
+    private int getElementId(String element) {
+        if (element == null)
+            return -1;
+        return Arrays.binarySearch(elements, element);
+    }
+
     /**
      * Get coverage of this criterion as a percentage by dividing the
      * number of covered elements by the number of total elements.
      * @return coverage percentage
      */
     public float getCoverage() {
-        if (elements.size() == 0) {
+        if (elements.length == 0) {
             return 100;
         }
 
-        return 100 * (float)getCoveredElementsCount() / (float)getElementsCount();
+        return 100 * (float)coveredElementsCount / (float)elements.length;
     }
 }
\ No newline at end of file
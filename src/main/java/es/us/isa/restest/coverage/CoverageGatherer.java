@@ -17,13 +17,14 @@ import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Given an OpenAPI specification, obtain coverage level needed to reach 100% for
@@ -37,6 +38,8 @@ public class CoverageGatherer {
     private OpenAPISpecification spec;                  // OpenAPI specification to deduce coverage levels from
     private List<CriterionType> coverageCriterionTypes; // Types of criteria to be covered
     private List<CoverageCriterion> coverageCriteria;   // Coverage criteria to keep track of
+    private Map<CriterionType, Map<String, CoverageCriterion>> criteriaIndex;  // Criteria by type and rootPath, built when first needed
+    private int indexedCriteriaCount;                   // Size of coverageCriteria when the index was built
 //    private int bodyPropertyDepthLevel = 0;
 
     public CoverageGatherer(OpenAPISpecification spec) {
@@ -54,6 +57,24 @@ public class CoverageGatherer {
         createCoverageCriteria();
     }
 
+    private CoverageGatherer(OpenAPISpecification spec, List<CriterionType> coverageCriterionTypes, List<CoverageCriterion> coverageCriteria) {
+        this.spec = spec;
+        this.coverageCriterionTypes = coverageCriterionTypes;
+        this.coverageCriteria = coverageCriteria;
+    }
+
+    /**
+     * Create a gatherer with the same criteria as this one, none of them covered. This is much
+     * faster than creating the criteria again from the specification.
+     * @return A new CoverageGatherer whose criteria have no covered elements
+     */
+    public CoverageGatherer copyWithoutCoverage() {
+        List<CoverageCriterion> criteriaCopy = new ArrayList<>(coverageCriteria.size());
+        for (CoverageCriterion criterion: coverageCriteria)
+            criteriaCopy.add(criterion.copyWithoutCoverage());
+        return new CoverageGatherer(spec, new ArrayList<>(coverageCriterionTypes), criteriaCopy);
+    }
+
     public OpenAPISpecification getSpec() {
         return this.spec;
     }
@@ -76,6 +97,29 @@ public class CoverageGatherer {
 
     public void setCoverageCriteria(List<CoverageCriterion> coverageCriteria) {
         this.coverageCriteria = coverageCriteria;
+        this.criteriaIndex = null;
+    }
+
+    /**
+     * Find a coverage criterion by its type and rootPath, in constant time. If there are several
+     * criteria with the same type and rootPath, the first one is returned.
+     * @param type Type of criterion (e.g. PATH, STATUS_CODE, etc.)
+     * @param rootPath path that uniquely identifies the criterion (e.g. "/pet-&gt;getPetById-&gt;id")
+     * @return The coverage criterion, or null if it does not exist
+     */
+    public CoverageCriterion getCoverageCriterion(CriterionType type, String rootPath) {
+        if (criteriaIndex == null || indexedCriteriaCount != coverageCriteria.size()) // criteria may be added to the list returned by getCoverageCriteria()
+            indexCoverageCriteria();
+        Map<String, CoverageCriterion> criteriaOfType = criteriaIndex.get(type);
+        return criteriaOfType != null ? criteriaOfType.get(rootPath) : null;
+    }
+
+    private void indexCoverageCriteria() {
+        Map<CriterionType, Map<String, CoverageCriterion>> index = new EnumMap<>(CriterionType.class);
+        for (CoverageCriterion criterion: coverageCriteria)
+            index.computeIfAbsent(criterion.getType(), t -> new HashMap<>()).putIfAbsent(criterion.getRootPath(), criterion);
+        criteriaIndex = index;
+        indexedCriteriaCount = coverageCriteria.size();
     }
 
     /**
@@ -402,9 +446,8 @@ public class CoverageGatherer {
 
     /**
      * Helper function to create a coverage criterion. Given a list of elements
-     * as strings, it transforms it into a Map with Boolean values representing
-     * whether that element has been covered or not. All are set to 'false' (no
-     * elements covered at the beginning).
+     * as strings, it sets them as the elements of the criterion. None of them
+     * is covered at the beginning.
      * 
      * @param elementsList Elements (only strings) to be included in the criterion
      * @param type CriterionType of the criterion (PATH, OPERATION, etc.)
@@ -414,12 +457,7 @@ public class CoverageGatherer {
      */
     private CoverageCriterion createCriterion(List<String> elementsList, CriterionType type, String rootPath) {
         CoverageCriterion criterion = new CoverageCriterion(type);
-        Map<String, Boolean> elements = elementsList.stream()
-                .collect(Collectors.toMap(
-                    e -> e,
-                    e -> Boolean.FALSE
-                )); // create Map whose keys are the elements and whose values are 'false'
-        criterion.setElements(elements);
+        criterion.setElements(elementsList); // no elements covered at the beginning
         criterion.setRootPath(rootPath); // set rootPath for the criterion (this together with the TYPE conform a unique ID)
         return criterion;
     }
@@ -12,10 +12,6 @@ import es.us.isa.restest.testcases.TestResult;
 import static es.us.isa.restest.util.CSVManager.*;
 import static es.us.isa.restest.util.FileManager.*;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -31,6 +27,7 @@ public class CoverageMeter {
     private CoverageGatherer coverageGatherer;  // coverage gatherer already containing all criteria to be covered
     private Collection<TestCase> testSuite;     // full set of abstract test cases addressing the API
     private Collection<TestResult> testResults; // test outputs generated after running the test suite against the API
+    private CoverageMeter aPosterioriCoverageMeter; // a posteriori coverage updated by applyDelta, null if no delta has been applied
 
     public CoverageMeter(CoverageGatherer coverageGatherer) {
         this.coverageGatherer = coverageGatherer;
@@ -75,7 +72,43 @@ public class CoverageMeter {
     }
 
     public void resetCoverage() {
-        this.coverageGatherer = new CoverageGatherer(this.coverageGatherer.getSpec());
+        this.coverageGatherer = this.coverageGatherer.copyWithoutCoverage();
+        this.aPosterioriCoverageMeter = null;
+    }
+
+    /**
+     * @return A CoverageMeter with the same coverage criteria as this one, none of them covered,
+     * and no test cases or test results
+     */
+    public CoverageMeter copyWithoutCoverage() {
+        return new CoverageMeter(coverageGatherer.copyWithoutCoverage());
+    }
+
+    /**
+     * Update the coverage (both a priori and a posteriori) with a new batch of test cases and their
+     * test results. Unlike {@link #addTestSuite(Collection)} and {@link #addTestResults(Collection, Collection)},
+     * the test cases and test results are not kept, only the coverage achieved, so the memory used and
+     * the cost of every call do not grow with the number of batches. Test results are only matched with
+     * the test cases of the same batch, and those without a test case in the batch are ignored. The
+     * a posteriori coverage (see {@link #getAPosteriorCoverageMeter()}) only includes the batches
+     * applied with this method.
+     *
+     * @param testCases Test cases of the batch
+     * @param testResults Test results of the batch, or null if the test cases were not executed
+     */
+    public void applyDelta(Collection<TestCase> testCases, Collection<TestResult> testResults) {
+        if (aPosterioriCoverageMeter == null)
+            aPosterioriCoverageMeter = copyWithoutCoverage();
+
+        setCoveredInputElements(testCases);
+        if (testResults != null) {
+            Map<String, TestCase> testCasesById = indexTestCases(testCases);
+            List<TestResult> matchedTestResults = testResults.stream()
+                    .filter(tr -> testCasesById.containsKey(tr.getId()))
+                    .collect(Collectors.toList());
+            setCoveredOutputElements(matchedTestResults, testCasesById);
+            aPosterioriCoverageMeter.setAPosterioriCoveredElements(testCases, matchedTestResults, testCasesById);
+        }
     }
 
     public Collection<TestResult> getTestResults() {
@@ -210,10 +243,7 @@ public class CoverageMeter {
      * @return Coverage percentage
      */
     public float getCriterionCoverage(CriterionType type, String rootPath) {
-        CoverageCriterion criterion = coverageGatherer.getCoverageCriteria().stream() // find criterion
-                .filter(c -> c.getType() == type && c.getRootPath().equals(rootPath))
-                .findFirst()
-                .orElse(null);
+        CoverageCriterion criterion = coverageGatherer.getCoverageCriterion(type, rootPath); // find criterion
 
         if (criterion != null) {
             return criterion.getCoverage();
@@ -229,52 +259,64 @@ public class CoverageMeter {
      * @return A modified CoverageMeter object
      */
     public CoverageMeter getAPosteriorCoverageMeter() {
-        return getAPosteriorCoverageMeter(Integer.MAX_VALUE);
-    }
+        if (aPosterioriCoverageMeter != null) // coverage updated with applyDelta, already up to date
+            return aPosterioriCoverageMeter;
 
-    public CoverageMeter getAPosteriorCoverageMeter(int maxTestSuiteSize) {
-        CoverageMeter aPosterioriCoverageMeter = new CoverageMeter(new CoverageGatherer(coverageGatherer.getSpec()));
+        CoverageMeter aPosterioriCoverageMeter = copyWithoutCoverage();
 
         if(testResults != null) {
-            List<String> tcIds = testSuite.stream().map(TestCase::getId).collect(Collectors.toList());
-            List<String> trIds = testResults.stream().map(TestResult::getId).collect(Collectors.toList());
-            List<TestCase> orderedTestSuite = new ArrayList<>(testSuite).stream()
+            // Join test cases and test results by ID with hash lookups
+            Map<String, TestCase> testCasesById = indexTestCases(testSuite);
+            Set<String> trIds = testResults.stream().map(TestResult::getId).collect(Collectors.toSet());
+
+            List<TestCase> orderedTestSuite = testSuite.stream()
                     .filter(tc -> trIds.contains(tc.getId()))
                     .sorted(Comparator.comparing(TestCase::getId))
                     .collect(Collectors.toList());
-            List<TestResult> orderedTestResults = new ArrayList<>(testResults).stream()
-                    .filter(tr -> tcIds.contains(tr.getId()))
+            List<TestResult> orderedTestResults = testResults.stream()
+                    .filter(tr -> testCasesById.containsKey(tr.getId()))
                     .sorted(Comparator.comparing(TestResult::getId))
                     .collect(Collectors.toList());
 
             aPosterioriCoverageMeter.testSuite = orderedTestSuite;
             aPosterioriCoverageMeter.testResults = orderedTestResults;
-            int totalSize = orderedTestSuite.size();
-
-            for (int i=0; i*maxTestSuiteSize < totalSize; i++) {
-                int upperLimit = Math.min((i + 1) * maxTestSuiteSize, totalSize);
-                Collection<TestCase> testSuiteFragment = orderedTestSuite.subList(i*maxTestSuiteSize, upperLimit);
-                Collection<TestResult> testResultsFragment = orderedTestResults.subList(i*maxTestSuiteSize, upperLimit);
-
-                List<String> invalidResponseResultsIds = new ArrayList<>(testResultsFragment).stream()
-                        .filter(testResult -> Integer.parseInt(testResult.getStatusCode()) >= 400)
-                        .map(TestResult::getId)
-                        .collect(Collectors.toList());
-
-                aPosterioriCoverageMeter.setCoveredOutputElements(testResultsFragment, testSuiteFragment);
-                testSuiteFragment = testSuiteFragment.stream()
-                        .filter(testCase -> !invalidResponseResultsIds.contains(testCase.getId()))
-                        .collect(Collectors.toList());
-                aPosterioriCoverageMeter.setCoveredInputElements(testSuiteFragment);
-
-                if (maxTestSuiteSize != Integer.MAX_VALUE)
-                    log.info("Creating a posteriori coverage meter. Progress: {}/{}", upperLimit, totalSize);
-            }
+            aPosterioriCoverageMeter.setAPosterioriCoveredElements(orderedTestSuite, orderedTestResults, testCasesById);
         }
 
         return aPosterioriCoverageMeter;
     }
 
+    /**
+     * Set the covered elements of the a posteriori coverage: output elements of all test results, and
+     * input elements of the test cases whose responses were successful
+     * @param testSuite Test cases with a test result
+     * @param testResults Test results with a test case
+     * @param testCasesById Test cases indexed by ID
+     */
+    private void setAPosterioriCoveredElements(Collection<TestCase> testSuite, Collection<TestResult> testResults, Map<String, TestCase> testCasesById) {
+        Set<String> trIds = new HashSet<>();
+        Set<String> invalidResponseResultsIds = new HashSet<>();
+        for (TestResult testResult: testResults) {
+            trIds.add(testResult.getId());
+            if (Integer.parseInt(testResult.getStatusCode()) >= 400)
+                invalidResponseResultsIds.add(testResult.getId());
+        }
+
+        setCoveredOutputElements(testResults, testCasesById);
+        setCoveredInputElements(testSuite.stream()
+                .filter(testCase -> trIds.contains(testCase.getId()) && !invalidResponseResultsIds.contains(testCase.getId()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * @deprecated Test suites are no longer processed in batches, since test cases and test results
+     * are joined by ID in linear time. Use {@link #getAPosteriorCoverageMeter()} instead.
+     */
+    @Deprecated
+    public CoverageMeter getAPosteriorCoverageMeter(int maxTestSuiteSize) {
+        return getAPosteriorCoverageMeter();
+    }
+
     /**
      * Set 'coveredElements' field of every input CoverageCriterion
      * @param testSuite
@@ -308,8 +350,14 @@ public class CoverageMeter {
     }
 
     private void setCoveredOutputElements(Collection<TestResult> testResults, Collection<TestCase> testSuite) {
+        setCoveredOutputElements(testResults, indexTestCases(testSuite));
+    }
+
+    private void setCoveredOutputElements(Collection<TestResult> testResults, Map<String, TestCase> testCasesById) {
         // Traverse all test results and, for each one, modify the coverage criteria it affects, by adding new covered elements
         for (TestResult testResult: testResults) {
+            TestCase testCase = findTestCase(testResult.getId(), testCasesById);
+            String operationRootPath = testCase.getPath() + "->" + testCase.getMethod().toString();
 
             String statusCodeClass = null;
             if(testResult.getStatusCode().charAt(0) == '4') {
@@ -319,18 +367,15 @@ public class CoverageMeter {
             }
 
             if (statusCodeClass != null)
-                updateCriterion(STATUS_CODE_CLASS, findTestCase(testResult.getId(), testSuite).getPath() + "->" + findTestCase(testResult.getId(), testSuite).getMethod().toString(), statusCodeClass, coverageGatherer);
-            updateCriterion(STATUS_CODE, findTestCase(testResult.getId(), testSuite).getPath() + "->" + findTestCase(testResult.getId(), testSuite).getMethod().toString(), testResult.getStatusCode(), coverageGatherer);
-            updateCriterion(OUTPUT_CONTENT_TYPE, findTestCase(testResult.getId(), testSuite).getPath() + "->" + findTestCase(testResult.getId(), testSuite).getMethod().toString(), outputContentTypeTranslator(testResult.getOutputFormat()), coverageGatherer);
+                updateCriterion(STATUS_CODE_CLASS, operationRootPath, statusCodeClass, coverageGatherer);
+            updateCriterion(STATUS_CODE, operationRootPath, testResult.getStatusCode(), coverageGatherer);
+            updateCriterion(OUTPUT_CONTENT_TYPE, operationRootPath, outputContentTypeTranslator(testResult.getOutputFormat()), coverageGatherer);
 
             // Response body properties criteria
-            ObjectMapper objectMapper = new ObjectMapper();
             try {
-                JsonNode jsonResponse = objectMapper.readTree(testResult.getResponseBody());
-                String baseRootPath = findTestCase(testResult.getId(), testSuite).getPath() +
-                        "->" + findTestCase(testResult.getId(), testSuite).getMethod().toString() +
-                        "->" + testResult.getStatusCode() + "->"; // note the final arrow, since new elements will be added to the rootPath
-                iterateOverJsonNode(jsonResponse, baseRootPath, coverageGatherer, null, null, null);
+                String baseRootPath = operationRootPath + "->" + testResult.getStatusCode() + "->"; // note the final arrow, since new elements will be added to the rootPath
+                ResponseBodyPropertiesExtractor.forEachProperty(testResult.getResponseBody(), (rootPath, property) ->
+                        updateCriterion(RESPONSE_BODY_PROPERTIES, baseRootPath + rootPath, property, coverageGatherer)); // set the property as 'covered'
             } catch (IOException e) {
 //                System.out.println("Error setting response body properties coverage criteria: response body is text/html; expected application/json.");
 //                e.printStackTrace();
@@ -353,81 +398,6 @@ public class CoverageMeter {
         return translation;
     }
 
-    /**
-     * This method can be used in two ways: a) to mark several RESPONSE_BODY_PROPERTIES as 'covered'
-     * in the CoverageGatherer of the class, or b) to export that same data to CSV. Given a JSON node, if
-     * it is a JSON object or an array of JSON objects, apply one of the two processes mentioned for
-     * every RESPONSE_BODY_PROPERTIES criterion affected. This function is to be called recursively,
-     * so as to cover all sub-properties of the root element.
-     *
-     * @param jsonNode JsonNode object that may contain some properties which will be marked as 'covered'
-     *                 on the {@link CoverageGatherer} object, or exported to CSV. A JsonNode can be a
-     *                 JSON object, an array or any other data type (such as an integer or a string)
-     * @param baseRootPath Case a): Initial rootPath: "{path}->{httpMethod}->{statusCode}->". Example of
-     *                     baseRootPath after 2 iterations: "{path}->{httpMethod}->{statusCode}->{prop1[{prop2".
-     *                     Case b): Initial rootPath: "". Example of baseRootPath after 2 iterations:
-     *                     "{prop1[{prop2"
-     * @param covGath CoverageGatherer where to update the criteria. {@code null} for case a)
-     * @param filePath Path to the CSV file where to export the data. {@code null} for case b)
-     * @param testResultId ID of the test result that is being exported (must be added in the row of the CSV
-     *                     file). {@code null} for case b)
-     * @param coveredRootPaths List of rootPaths that have already been covered (added to the CSV file). This
-     *                         is necessary because, for an array, the same element could be written multiple
-     *                         times (e.g. thousands of duplicated lines for an array with thousands of
-     *                         elements). {@code null} for case b)
-     */
-    private static void iterateOverJsonNode(JsonNode jsonNode, String baseRootPath, CoverageGatherer covGath, String filePath, String testResultId, List<String> coveredRootPaths) {
-        Iterator<Entry<String,JsonNode>> objectPropertiesIterator = null;
-
-        if (jsonNode instanceof ObjectNode) { // if the jsonNode is actually a JSON object
-            baseRootPath += "{"; // update rootPath accordingly
-            objectPropertiesIterator = jsonNode.fields(); // get all properties from the JSON object
-            updateResponseBodyPropertiesCriteria(objectPropertiesIterator, baseRootPath, covGath, filePath, testResultId, coveredRootPaths);
-        } else if (jsonNode instanceof ArrayNode && jsonNode.get(0) instanceof ObjectNode) { // if the jsonNode is an array of JSON objects
-            baseRootPath += "[{"; // update rootPath
-            for (int i = 0; i<jsonNode.size(); i++) { // for every element of the array
-                JsonNode arrayItem = jsonNode.get(i);
-                objectPropertiesIterator = arrayItem.fields(); // get all properties from the JSON object
-                updateResponseBodyPropertiesCriteria(objectPropertiesIterator, baseRootPath, covGath, filePath, testResultId, coveredRootPaths);
-
-            }
-        }
-    }
-
-    /**
-     * Given some object properties, iterate over all of them and update the affected RESPONSE_BODY_PROPERTIES
-     * criteria accordingly. For each property, iterate over all of their sub-properties again (recursively)
-     * to continue covering all sub-properties.
-     *
-     * @param objectPropertiesIterator Iterator of entries where the key is the name of the property and the
-     *                                 value is the JsonNode property
-     * @param rootPath Root path to locate the coverage criterion among all criteria of the
-     *                 {@link CoverageGatherer} object. To be updated with the name of the property when
-     *                 calling {@link #iterateOverJsonNode(JsonNode, String, CoverageGatherer, String, String, List) iterateOverJsonNode}
-     * @param covGath CoverageGatherer where to update the criteria
-     * @param filePath Path to the CSV file where to export the data
-     * @param testResultId ID of the test result that is being exported (must added in the row of the CSV file).
-     * @param coveredRootPaths List of rootPaths that have already been covered (added to the CSV file). This
-     *                         is necessary because, for an array, the same element could be written multiple
-     *                         times (e.g. thousands of duplicated lines for an array with thousands of
-     *                         elements).
-     */
-    private static void updateResponseBodyPropertiesCriteria(Iterator<Entry<String,JsonNode>> objectPropertiesIterator, String rootPath, CoverageGatherer covGath, String filePath, String testResultId, List<String> coveredRootPaths) {
-        while (objectPropertiesIterator != null && objectPropertiesIterator.hasNext()) { // iterate over all properties of the object
-            Entry<String,JsonNode> responseProperty = objectPropertiesIterator.next();
-            if (filePath == null) // if we want to update the CoverageGatherer object
-                updateCriterion(RESPONSE_BODY_PROPERTIES, rootPath, responseProperty.getKey(), covGath); // set the property as 'covered'
-            else { // if we want to export the results to CSV
-                String updatedRootPath = rootPath + responseProperty.getKey();
-                if (!coveredRootPaths.contains(updatedRootPath)) {
-                    writeCSVRow(filePath, testResultId + ",RESPONSE_BODY_PROPERTIES," + rootPath + responseProperty.getKey());
-                    coveredRootPaths.add(updatedRootPath); // add the rootPath to the list of covered ones, in order not to duplicate lines in the CSV file
-                }
-            }
-            iterateOverJsonNode(responseProperty.getValue(), rootPath+responseProperty.getKey(), covGath, filePath, testResultId, coveredRootPaths); // iterate over the sub-properties of that property
-        }
-    }
-
     /**
      * Find a specific coverage criterion and cover the element passed in.
      * @param type Type of coverage criterion to look for (PATH, STATUS_CODE, etc.)
@@ -438,10 +408,7 @@ public class CoverageMeter {
      */
     private static void updateCriterion(CriterionType type, String rootPath, String element, CoverageGatherer covGath) {
         // Find unique criterion by type and rootPath
-        CoverageCriterion criterion = covGath.getCoverageCriteria().stream()
-                .filter(c -> c.getType() == type && c.getRootPath().equals(rootPath))
-                .findFirst()
-                .orElse(null);
+        CoverageCriterion criterion = covGath.getCoverageCriterion(type, rootPath);
 
         if (criterion != null) { // if the criterion exists
             criterion.coverElement(element); // add element to the already covered elements of the criterion
@@ -451,14 +418,24 @@ public class CoverageMeter {
     /**
      * Given a test case ID (or test result ID), return the test case
      * @param id ID of the test case
-     * @param testSuite collection of test cases where to look for the ID
+     * @param testCasesById test cases where to look for the ID, indexed by ID (see {@link #indexTestCases(Collection)})
      * @return Test case matching the ID passed in
      */
-    private TestCase findTestCase(String id, Collection<TestCase> testSuite) {
-        return testSuite.stream()
-                .filter(tc -> Objects.equals(tc.getId(), id))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("There is no test case with id <" + id + ">"));
+    private TestCase findTestCase(String id, Map<String, TestCase> testCasesById) {
+        TestCase testCase = testCasesById.get(id);
+        if (testCase == null)
+            throw new IllegalArgumentException("There is no test case with id <" + id + ">");
+        return testCase;
+    }
+
+    /**
+     * Index a collection of test cases by ID. If several test cases have the same ID, the first one is kept
+     */
+    private static Map<String, TestCase> indexTestCases(Collection<TestCase> testSuite) {
+        Map<String, TestCase> testCasesById = new HashMap<>(Math.max(16, (int) (testSuite.size() / 0.75f) + 1));
+        for (TestCase testCase: testSuite)
+            testCasesById.putIfAbsent(testCase.getId(), testCase);
+        return testCasesById;
     }
 
     /**
@@ -474,62 +451,48 @@ public class CoverageMeter {
             createCSVwithHeader(path, "criterionType,rootPath,element,isCovered");
         coverageGatherer.getCoverageCriteria().stream()
                 .filter(criterion -> CriterionType.getTypes(criterionType).contains(criterion.getType()))
-                .forEach(criterion -> criterion.getElements()
-                        .forEach((element, isCovered) ->
-                                writeCSVRow(path, criterion.getType().toString() + "," + criterion.getRootPath() + "," + element + "," + isCovered)
+                .forEach(criterion -> criterion
+                        .forEachElement((element, isCovered) ->
+                                writeCSVFields(path, null, criterion.getType(), criterion.getRootPath(), element, isCovered)
                         )
                 );
     }
 
     public static void exportCoverageOfTestCaseToCSV(String path, TestCase tc) {
-        if (!checkIfExists(path)) // If the file doesn't exist, create it (only once)
-            createCSVwithHeader(path, "testCaseId,criterionType,rootPath,element");
-
-        String row;
+        // If the file doesn't exist, create it (only once)
+        String header = "testCaseId,criterionType,rootPath,element";
+        String operation = tc.getPath() + "->" + tc.getMethod().toString();
 
         // Path criterion
-        row = tc.getId() + ",PATH,," + tc.getPath();
-        writeCSVRow(path, row);
+        writeCSVFields(path, header, tc.getId(), "PATH", "", tc.getPath());
 
         // Operation criterion
-        row = tc.getId() + ",OPERATION," + tc.getPath() + "," + tc.getMethod().toString();
-        writeCSVRow(path, row);
+        writeCSVFields(path, header, tc.getId(), "OPERATION", tc.getPath(), tc.getMethod());
 
         // Parameters and parameter values criteria
         for (Map.Entry<String, String> h: tc.getHeaderParameters().entrySet()) {
-            row = tc.getId() + ",PARAMETER," + tc.getPath() + "->" + tc.getMethod().toString() + "," + h.getKey();
-            writeCSVRow(path, row);
-            row = tc.getId() + ",PARAMETER_VALUE," + tc.getPath() + "->" + tc.getMethod().toString() + "->" + h.getKey() + "," + h.getValue();
-            writeCSVRow(path, row);
+            writeCSVFields(path, header, tc.getId(), "PARAMETER", operation, h.getKey());
+            writeCSVFields(path, header, tc.getId(), "PARAMETER_VALUE", operation + "->" + h.getKey(), h.getValue());
         }
         for (Map.Entry<String, String> p: tc.getPathParameters().entrySet()) {
-            row = tc.getId() + ",PARAMETER," + tc.getPath() + "->" + tc.getMethod().toString() + "," + p.getKey();
-            writeCSVRow(path, row);
-            row = tc.getId() + ",PARAMETER_VALUE," + tc.getPath() + "->" + tc.getMethod().toString() + "->" + p.getKey() + "," + p.getValue();
-            writeCSVRow(path, row);
+            writeCSVFields(path, header, tc.getId(), "PARAMETER", operation, p.getKey());
+            writeCSVFields(path, header, tc.getId(), "PARAMETER_VALUE", operation + "->" + p.getKey(), p.getValue());
         }
         for (Map.Entry<String, String> q: tc.getQueryParameters().entrySet()) {
-            row = tc.getId() + ",PARAMETER," + tc.getPath() + "->" + tc.getMethod().toString() + "," + q.getKey();
-            writeCSVRow(path, row);
-            row = tc.getId() + ",PARAMETER_VALUE," + tc.getPath() + "->" + tc.getMethod().toString() + "->" + q.getKey() + "," + q.getValue();
-            writeCSVRow(path, row);
+            writeCSVFields(path, header, tc.getId(), "PARAMETER", operation, q.getKey());
+            writeCSVFields(path, header, tc.getId(), "PARAMETER_VALUE", operation + "->" + q.getKey(), q.getValue());
         }
         // For the body parameter, we do not consider parameter values, only the parameter itself
-        if (tc.getBodyParameter() != null) {
-            row = tc.getId() + ",PARAMETER," + tc.getPath() + "->" + tc.getMethod().toString() + ",body";
-            writeCSVRow(path, row);
-        }
+        if (tc.getBodyParameter() != null)
+            writeCSVFields(path, header, tc.getId(), "PARAMETER", operation, "body");
 
         // Input content-type criterion
-        row = tc.getId() + ",INPUT_CONTENT_TYPE," + tc.getPath() + "->" + tc.getMethod().toString() + "," + tc.getInputFormat();
-        writeCSVRow(path, row);
+        writeCSVFields(path, header, tc.getId(), "INPUT_CONTENT_TYPE", operation, tc.getInputFormat());
     }
 
     public static void exportCoverageOfTestResultToCSV(String path, TestResult tr) {
-        if (!checkIfExists(path)) // If the file doesn't exist, create it (only once)
-            createCSVwithHeader(path, "testResultId,criterionType,element");
-
-        String row;
+        // If the file doesn't exist, create it (only once)
+        String header = "testResultId,criterionType,element";
 
         // Status code class criterion
         String statusCodeClass = null;
@@ -538,23 +501,18 @@ public class CoverageMeter {
         } else if(tr.getStatusCode().charAt(0) == '2') {
             statusCodeClass = "2XX";
         }
-
-        row = tr.getId() + ",STATUS_CODE_CLASS," + statusCodeClass;
-        writeCSVRow(path, row);
+        writeCSVFields(path, header, tr.getId(), "STATUS_CODE_CLASS", statusCodeClass);
 
         // Status code criterion
-        row = tr.getId() + ",STATUS_CODE," + tr.getStatusCode();
-        writeCSVRow(path, row);
+        writeCSVFields(path, header, tr.getId(), "STATUS_CODE", tr.getStatusCode());
 
         // Output content-type criterion
-        row = tr.getId() + ",OUTPUT_CONTENT_TYPE," + tr.getOutputFormat();
-        writeCSVRow(path, row);
+        writeCSVFields(path, header, tr.getId(), "OUTPUT_CONTENT_TYPE", tr.getOutputFormat());
 
         // Response body properties criteria
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            JsonNode jsonResponse = objectMapper.readTree(tr.getResponseBody());
-            iterateOverJsonNode(jsonResponse, "", null, path, tr.getId(), new ArrayList<>());
+            ResponseBodyPropertiesExtractor.forEachProperty(tr.getResponseBody(), (rootPath, property) ->
+                    writeCSVFields(path, null, tr.getId(), "RESPONSE_BODY_PROPERTIES", rootPath + property));
         } catch (IOException e) {
             log.error("Unable to get body properties, body is not formatted in JSON", e);
             log.error(e.getMessage());
@@ -0,0 +1,120 @@
+package es.us.isa.restest.coverage;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Extracts the properties of a JSON response body covered by the RESPONSE_BODY_PROPERTIES criteria.
+ * The body is read as a stream of tokens, without building a tree. The properties found in the objects
+ * of an array are merged, so every property is reported once, no matter how many items contain it.
+ * <br>
+ * Properties are identified by the rootPath of the object containing them, e.g. "{prop1[{prop2{"
+ * for the properties of the object prop2 inside the items of the array prop1 of the root object.
+ * Only JSON objects and arrays whose first item is a JSON object are traversed.
+ */
+public class ResponseBodyPropertiesExtractor {
+
+    private static final JsonFactory jsonFactory = new JsonFactory(); // Thread-safe, shared by all parsers
+
+    private ResponseBodyPropertiesExtractor() {}
+
+    /**
+     * Reads a response body and performs the given action once for every distinct property, in the
+     * order in which they first appear. No action is performed if the body is not valid JSON.
+     *
+     * @param responseBody JSON response body
+     * @param action Action receiving the rootPath of the object containing the property (e.g. "{prop1[{")
+     *               and the name of the property
+     * @throws IOException if the response body is not valid JSON
+     */
+    public static void forEachProperty(String responseBody, BiConsumer<String, String> action) throws IOException {
+        if (responseBody == null)
+            return;
+
+        Property root = new Property("");
+        try (JsonParser parser = jsonFactory.createParser(responseBody)) {
+            JsonToken token = parser.nextToken();
+            if (token != null)
+                readValue(parser, token, root);
+        }
+        root.forEachProperty(action); // Only once the whole body has been read, in case it is not valid
+    }
+
+    private static void readValue(JsonParser parser, JsonToken token, Property property) throws IOException {
+        if (token == JsonToken.START_OBJECT) {
+            if (property.object == null)
+                property.object = new ObjectProperties(property.rootPath + "{");
+            readObject(parser, property.object);
+        } else if (token == JsonToken.START_ARRAY) {
+            token = parser.nextToken();
+            ObjectProperties items = null;
+            if (token == JsonToken.START_OBJECT) { // Items are only traversed if the first one is an object
+                if (property.arrayOfObjects == null)
+                    property.arrayOfObjects = new ObjectProperties(property.rootPath + "[{");
+                items = property.arrayOfObjects;
+            }
+            while (token != JsonToken.END_ARRAY && token != null) {
+                if (items != null && token == JsonToken.START_OBJECT)
+                    readObject(parser, items);
+                else
+                    parser.skipChildren();
+                token = parser.nextToken();
+            }
+        }
+    }
+
+    private static void readObject(JsonParser parser, ObjectProperties objectProperties) throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            Property property = objectProperties.properties.get(name);
+            if (property == null) {
+                property = new Property(objectProperties.rootPath + name);
+                objectProperties.properties.put(name, property);
+            }
+            readValue(parser, parser.nextToken(), property);
+            token = parser.nextToken();
+        }
+    }
+
+    // Properties of all the objects with the same rootPath
+    private static class ObjectProperties {
+        private final String rootPath;
+        private final Map<String, Property> properties = new LinkedHashMap<>();
+
+        private ObjectProperties(String rootPath) {
+            this.rootPath = rootPath;
+        }
+
+        private void forEachProperty(BiConsumer<String, String> action) {
+            for (Map.Entry<String, Property> property: properties.entrySet()) {
+                action.accept(rootPath, property.getKey());
+                property.getValue().forEachProperty(action);
+            }
+        }
+    }
+
+    // Property whose value may be an object or an array of objects (or both, in different items of an array)
+    private static class Property {
+        private final String rootPath;              // rootPath of the object containing the property, plus its name
+        private ObjectProperties object;            // Properties of the value, if it is an object
+        private ObjectProperties arrayOfObjects;    // Properties of the items, if the value is an array of objects
+
+        private Property(String rootPath) {
+            this.rootPath = rootPath;
+        }
+
+        private void forEachProperty(BiConsumer<String, String> action) {
+            if (object != null)
+                object.forEachProperty(action);
+            if (arrayOfObjects != null)
+                arrayOfObjects.forEachProperty(action);
+        }
+    }
+}
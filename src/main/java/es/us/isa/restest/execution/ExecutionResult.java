@@ -0,0 +1,35 @@
+package es.us.isa.restest.execution;
+
+/**
+ * Summary of the execution of a set of test cases by an in-process executor. It is
+ * the counterpart of JUnit's {@link org.junit.runner.Result} for test cases that are
+ * not compiled into a test class.
+ */
+public class ExecutionResult {
+
+    private int runCount;       // Number of test cases executed
+    private int failureCount;   // Number of test cases that violated an oracle (or could not be sent)
+    private long runTime;       // Execution time in milliseconds
+
+    public ExecutionResult(int runCount, int failureCount, long runTime) {
+        this.runCount = runCount;
+        this.failureCount = failureCount;
+        this.runTime = runTime;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public int getSuccessfulCount() {
+        return runCount - failureCount;
+    }
+
+    public long getRunTime() {
+        return runTime;
+    }
+}
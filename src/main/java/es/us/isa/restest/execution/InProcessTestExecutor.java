@@ -0,0 +1,393 @@
+package es.us.isa.restest.execution;
+
+import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.util.TestResultSink;
+import es.us.isa.restest.writers.restassured.filters.AuthQuotaFilter;
+import es.us.isa.restest.writers.restassured.filters.CSVFilter;
+import es.us.isa.restest.writers.restassured.filters.ConcurrencyLimitFilter;
+import es.us.isa.restest.writers.restassured.filters.NominalOrFaultyTestCaseFilter;
+import es.us.isa.restest.writers.restassured.filters.RateLimitFilter;
+import es.us.isa.restest.writers.restassured.filters.ResponseValidationFilter;
+import es.us.isa.restest.writers.restassured.filters.StatefulFilter;
+import es.us.isa.restest.writers.restassured.filters.StatusCode5XXFilter;
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.ProxySpecification;
+import io.restassured.specification.RequestSpecification;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static es.us.isa.restest.util.FileManager.checkIfExists;
+
+/**
+ * This class executes test cases directly from memory, without writing, compiling and
+ * loading a REST Assured test class. Every test case is sent through a single pooled
+ * HTTP client, and the response is checked with the same RESTest filters used by the
+ * classes generated by {@link es.us.isa.restest.writers.restassured.RESTAssuredWriter}
+ * (5XX status codes, nominal/faulty test cases and OAS validation of the response),
+ * so the test results exported to CSV are the same in both cases.
+ */
+public class InProcessTestExecutor {
+
+	public static final int DEFAULT_MAX_CONNECTIONS = 20;
+	private static final int PENDING_TEST_CASES_PER_WORKER = 2;		// Test cases being executed or waiting for a worker, per worker
+	private static final int MAX_PENDING_VIRTUAL_THREADS = 10000;	// Test cases executed or waiting to be executed in virtual threads
+
+	private String specPath;						// Path to OAS specification file
+	private String baseURI;							// API base URI
+	private String APIName;							// API name (necessary for folder name of exported data)
+	private boolean enableStats = false;			// If true, export test results data to CSV
+	private boolean enableOutputCoverage = false;	// If true, export output coverage data to CSV
+	private int maxConnections = DEFAULT_MAX_CONNECTIONS;	// Maximum number of pooled connections per host
+	private int workers = 1;						// Number of test cases executed at the same time
+	private int maxRequestsPerHost = -1;			// Maximum number of concurrent requests per base URI (-1 = no limit)
+	private boolean virtualThreads = false;			// If true (and supported by the JVM), each test case is executed in its own virtual thread
+	private RequestScheduler requestScheduler;		// If not null, requests are sent according to its rate limits
+	private String proxy;							// Proxy to use for all requests in format host:port
+
+	// Oracles. They are created only once, so the OAS is parsed only once per executor
+	private final StatusCode5XXFilter statusCode5XXFilter;
+	private final NominalOrFaultyTestCaseFilter nominalOrFaultyTestCaseFilter;
+	private final ResponseValidationFilter validationFilter;
+	private final StatefulFilter statefulFilter;	// null if there are no stateful generators
+	private ConcurrencyLimitFilter concurrencyLimitFilter;	// null if there is no limit of concurrent requests per host
+	private RateLimitFilter rateLimitFilter;		// null if there is no request scheduler
+	private AuthQuotaFilter authQuotaFilter;		// null if the remaining quota of auth keys is not tracked
+
+	private RestAssuredConfig config;				// REST Assured configuration, holding the pooled HTTP client
+	private ProxySpecification proxySpecification;	// null if requests are not sent through a proxy
+
+	private static final Logger logger = LogManager.getLogger(InProcessTestExecutor.class.getName());
+
+	public InProcessTestExecutor(String specPath, String baseURI, boolean statefulFilter) {
+		this.specPath = specPath;
+		this.baseURI = baseURI;
+		this.statusCode5XXFilter = new StatusCode5XXFilter();
+		this.nominalOrFaultyTestCaseFilter = new NominalOrFaultyTestCaseFilter();
+		this.validationFilter = new ResponseValidationFilter(specPath);
+		this.statefulFilter = statefulFilter ? new StatefulFilter(specPath.substring(0, specPath.lastIndexOf('/'))) : null;
+	}
+
+	/**
+	 * Executes a collection of test cases. If more than one worker (or virtual threads) is
+	 * configured, test cases are executed concurrently, otherwise they are executed one
+	 * after another.
+	 * @param testCases Test cases to execute
+	 * @param testId Test suite ID, used to name the CSV file where test results are exported
+	 * @return Summary of the execution
+	 */
+	public ExecutionResult execute(Collection<TestCase> testCases, String testId) {
+		return execute(testCases.iterator(), testId);
+	}
+
+	/**
+	 * Executes the test cases returned by an iterator (e.g., test cases generated lazily), so
+	 * they do not need to be kept in memory. When test cases are executed concurrently, the
+	 * iterator is only advanced when there is room for more pending test cases, so test cases
+	 * are not generated faster than they can be executed.
+	 * @param testCases Test cases to execute
+	 * @param testId Test suite ID, used to name the CSV file where test results are exported
+	 * @return Summary of the execution
+	 */
+	public ExecutionResult execute(Iterator<TestCase> testCases, String testId) {
+		long start = System.currentTimeMillis();
+		setUp(testId);
+
+		AtomicInteger runCount = new AtomicInteger();
+		int failures = workers > 1 || virtualThreads ? executeConcurrently(testCases, testId, runCount) : executeSequentially(testCases, testId, runCount);
+		validationFilter.awaitPendingValidations();		// Responses validated in deferred mode must be exported before returning
+		TestResultSink.flush();
+
+		return new ExecutionResult(runCount.get(), failures, System.currentTimeMillis() - start);
+	}
+
+	private int executeSequentially(Iterator<TestCase> testCases, String testId, AtomicInteger runCount) {
+		int failures = 0;
+		while (testCases.hasNext()) {
+			runCount.incrementAndGet();
+			if (!execute(testCases.next(), testId))
+				failures++;
+		}
+		return failures;
+	}
+
+	private int executeConcurrently(Iterator<TestCase> testCases, String testId, AtomicInteger runCount) {
+		ExecutorService executor = RequestScheduler.newExecutor(workers, virtualThreads);
+		AtomicInteger failures = new AtomicInteger();
+		Semaphore pending = new Semaphore(virtualThreads ? MAX_PENDING_VIRTUAL_THREADS : workers * PENDING_TEST_CASES_PER_WORKER);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			while (testCases.hasNext()) {
+				pending.acquire();
+				TestCase testCase = testCases.next();
+				runCount.incrementAndGet();
+				futures.add(executor.submit(() -> {
+					try {
+						if (!execute(testCase, testId))
+							failures.incrementAndGet();
+					} finally {
+						pending.release();
+					}
+				}));
+				futures.removeIf(Future::isDone);
+			}
+			for (Future<?> future: futures)
+				future.get();
+		} catch (InterruptedException e) {
+			logger.warn("Interrupted while waiting for test cases to finish");
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			logger.error("Error executing test cases: {}", e.getMessage());
+			logger.error("Exception: ", e);
+		} finally {
+			executor.shutdownNow();
+		}
+		return failures.get();
+	}
+
+	/**
+	 * Executes a single test case.
+	 * @param testCase Test case to execute
+	 * @param testId Test suite ID, used to name the CSV file where test results are exported
+	 * @return {@code true} if the test case passed all oracles, {@code false} otherwise
+	 */
+	protected boolean execute(TestCase testCase, String testId) {
+		CSVFilter csvFilter = enableStats || enableOutputCoverage ? new CSVFilter(APIName, testId) : null;
+		initializeFilters(testCase, csvFilter);
+
+		try {
+			RequestSpecification request = buildRequest(testCase, csvFilter);
+			request.when().request(testCase.getMethod().name(), testCase.getPath());
+			validationFilter.awaitVerdict();		// Only waits if the response is validated asynchronously
+			logger.debug("Test {} passed.", testCase.getId());
+			return true;
+		} catch (RuntimeException ex) {
+			logger.warn("Test {} failed: {}", testCase.getId(), ex.getMessage());
+			return false;
+		}
+	}
+
+	// Same set up as the one performed in the @BeforeClass method of generated test classes
+	private void setUp(String testId) {
+		if (config == null)
+			config = createConfig();
+		// The pooled client ignores the proxy system properties set by generated test classes, so the proxy is set on every request
+		proxySpecification = proxy != null && !isLocalhost(baseURI) ? ProxySpecification.host(proxy.split(":")[0]).withPort(Integer.parseInt(proxy.split(":")[1])) : null;
+		concurrencyLimitFilter = maxRequestsPerHost > 0 ? new ConcurrencyLimitFilter(maxRequestsPerHost) : null;
+		rateLimitFilter = requestScheduler != null ? new RateLimitFilter(requestScheduler) : null;
+
+		if (enableStats || enableOutputCoverage) {
+			statusCode5XXFilter.setAPIName(APIName);
+			statusCode5XXFilter.setTestId(testId);
+			nominalOrFaultyTestCaseFilter.setAPIName(APIName);
+			nominalOrFaultyTestCaseFilter.setTestId(testId);
+			validationFilter.setAPIName(APIName);
+			validationFilter.setTestId(testId);
+		}
+	}
+
+	// Create a REST Assured configuration that reuses the same HTTP client (and its connection pool) for all requests
+	private RestAssuredConfig createConfig() {
+		// Workers (and requests allowed in flight) should never wait for a pooled connection
+		int poolSize = Math.max(Math.max(maxConnections, workers), requestScheduler != null ? requestScheduler.getMaxInFlight() : 0);
+		HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig()
+				.httpClientFactory(() -> {
+					PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager();
+					connectionManager.setMaxTotal(poolSize);
+					connectionManager.setDefaultMaxPerRoute(poolSize);
+					return new DefaultHttpClient(connectionManager);
+				})
+				.reuseHttpClientInstance();
+
+		return RestAssuredConfig.config().httpClient(httpClientConfig);
+	}
+
+	// Same hosts excluded from the proxy by generated test classes (http.nonProxyHosts)
+	private static boolean isLocalhost(String baseURI) {
+		String host = URI.create(baseURI).getHost();
+		return "localhost".equals(host) || "127.0.0.1".equals(host);
+	}
+
+	private void initializeFilters(TestCase testCase, CSVFilter csvFilter) {
+		nominalOrFaultyTestCaseFilter.updateFaultyData(testCase.getFaulty(), testCase.getFulfillsDependencies(), testCase.getFaultyReason());
+		statusCode5XXFilter.updateFaultyData(testCase.getFaulty(), testCase.getFulfillsDependencies(), testCase.getFaultyReason());
+
+		if (csvFilter != null) {
+			csvFilter.setTestResultId(testCase.getId());
+			statusCode5XXFilter.setTestResultId(testCase.getId());
+			nominalOrFaultyTestCaseFilter.setTestResultId(testCase.getId());
+			validationFilter.setTestResultId(testCase.getId());
+		}
+
+		if (statefulFilter != null && testCase.getMethod().equals(HttpMethod.GET))
+			statefulFilter.setOperation(testCase.getMethod().toString(), testCase.getPath());
+	}
+
+	// Build the request in the same way as RESTAssuredWriter writes it in the test method
+	private RequestSpecification buildRequest(TestCase testCase, CSVFilter csvFilter) {
+		RequestSpecification request = RestAssured
+				.given()
+				.config(config)
+				.baseUri(baseURI);
+
+		if (proxySpecification != null)
+			request.proxy(proxySpecification);
+
+		for (Entry<String, String> param: testCase.getHeaderParameters().entrySet())
+			request.header(param.getKey(), param.getValue());
+
+		for (Entry<String, String> param: testCase.getQueryParameters().entrySet())
+			request.queryParam(param.getKey(), param.getValue());
+
+		for (Entry<String, String> param: testCase.getPathParameters().entrySet())
+			request.pathParam(param.getKey(), param.getValue().replace("{", ""));
+
+		// Form-data parameters
+		if (testCase.getFormParameters().entrySet().stream().anyMatch(x -> checkIfExists(x.getValue())))
+			request.contentType("multipart/form-data");
+		else if (!testCase.getFormParameters().isEmpty())
+			request.contentType("application/x-www-form-urlencoded");
+
+		for (Entry<String, String> param: testCase.getFormParameters().entrySet()) {
+			if (checkIfExists(param.getValue()))
+				request.multiPart(param.getKey(), new File(param.getValue()));
+			else
+				request.formParam(param.getKey(), param.getValue());
+		}
+
+		// Body parameter
+		HttpMethod method = testCase.getMethod();
+		if ((testCase.getFormParameters() == null || testCase.getFormParameters().isEmpty()) &&
+				(method.equals(HttpMethod.POST) || method.equals(HttpMethod.PUT) || method.equals(HttpMethod.PATCH) ||
+				(testCase.getBodyParameter() != null && method.equals(HttpMethod.DELETE))))
+			request.contentType(testCase.getInputFormat());
+		if (testCase.getBodyParameter() != null)
+			request.body(testCase.getBodyParameter());
+
+		// Filters (oracles and CSV export)
+		request.filter(statusCode5XXFilter)
+				.filter(nominalOrFaultyTestCaseFilter)
+				.filter(validationFilter);
+		if (csvFilter != null)
+			request.filter(csvFilter);
+		if (statefulFilter != null && method.equals(HttpMethod.GET))
+			request.filter(statefulFilter);
+		if (authQuotaFilter != null)
+			request.filter(authQuotaFilter);
+		if (concurrencyLimitFilter != null) // Must be after all oracles
+			request.filter(concurrencyLimitFilter);
+		if (rateLimitFilter != null) // Must be the last one, since it may send the request again
+			request.filter(rateLimitFilter);
+
+		return request;
+	}
+
+	public String getSpecPath() {
+		return specPath;
+	}
+
+	public String getBaseURI() {
+		return baseURI;
+	}
+
+	public void setBaseURI(String baseURI) {
+		this.baseURI = baseURI;
+	}
+
+	public String getAPIName() {
+		return APIName;
+	}
+
+	public void setAPIName(String APIName) {
+		this.APIName = APIName;
+	}
+
+	public boolean getEnableStats() {
+		return enableStats;
+	}
+
+	public void setEnableStats(boolean enableStats) {
+		this.enableStats = enableStats;
+	}
+
+	public boolean isEnableOutputCoverage() {
+		return enableOutputCoverage;
+	}
+
+	public void setEnableOutputCoverage(boolean enableOutputCoverage) {
+		this.enableOutputCoverage = enableOutputCoverage;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+
+	public int getMaxRequestsPerHost() {
+		return maxRequestsPerHost;
+	}
+
+	public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+		this.maxRequestsPerHost = maxRequestsPerHost;
+	}
+
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	public RequestScheduler getRequestScheduler() {
+		return requestScheduler;
+	}
+
+	public void setRequestScheduler(RequestScheduler requestScheduler) {
+		this.requestScheduler = requestScheduler;
+	}
+
+	public String getProxy() {
+		return proxy;
+	}
+
+	public void setProxy(String proxy) {
+		this.proxy = proxy;
+	}
+
+	public AuthQuotaFilter getAuthQuotaFilter() {
+		return authQuotaFilter;
+	}
+
+	public void setAuthQuotaFilter(AuthQuotaFilter authQuotaFilter) {
+		this.authQuotaFilter = authQuotaFilter;
+	}
+}
@@ -0,0 +1,70 @@
+package es.us.isa.restest.execution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.runner.Computer;
+import org.junit.runner.Runner;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.RunnerScheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JUnit {@link Computer} that runs the test methods of a test class concurrently,
+ * using a fixed number of worker threads. Unlike JUnit's ParallelComputer, whose thread
+ * pool is unbounded, the number of requests sent at the same time to the API under test
+ * is bounded by the number of workers.
+ */
+public class ParallelTestComputer extends Computer {
+
+	private final int workers;		// Number of test methods executed at the same time
+
+	private static final Logger logger = LogManager.getLogger(ParallelTestComputer.class.getName());
+
+	public ParallelTestComputer(int workers) {
+		if (workers < 1)
+			throw new IllegalArgumentException("The number of workers must be greater than 0");
+		this.workers = workers;
+	}
+
+	@Override
+	protected Runner getRunner(RunnerBuilder builder, Class<?> testClass) throws Throwable {
+		Runner runner = super.getRunner(builder, testClass);
+		if (runner instanceof ParentRunner)
+			((ParentRunner<?>) runner).setScheduler(new WorkerPoolScheduler(workers));
+		return runner;
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	private static class WorkerPoolScheduler implements RunnerScheduler {
+
+		private final ExecutorService executor;
+
+		private WorkerPoolScheduler(int workers) {
+			this.executor = Executors.newFixedThreadPool(workers);
+		}
+
+		@Override
+		public void schedule(Runnable childStatement) {
+			executor.submit(childStatement);
+		}
+
+		@Override
+		public void finished() {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				logger.warn("Interrupted while waiting for test cases to finish");
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package es.us.isa.restest.execution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class schedules the requests sent to the API under test, enforcing a budget
+ * of requests per second (using token buckets) and of requests in flight (using
+ * semaphores). Budgets can be set globally and for specific operations, in which case
+ * a request must fit in both. Operations are identified by their HTTP method and path
+ * (e.g., "GET /search").
+ * <p>
+ * Per-operation budgets are configured with a string with the following format:
+ * {@code METHOD path:requestsPerSecond:maxInFlight;METHOD path:requestsPerSecond:maxInFlight;...}.
+ * A value of -1 means no limit, e.g., {@code GET /search:5:-1;POST /playlists:1:1}.
+ * <p>
+ * Schedulers are shared by all test classes of the same JVM with the same configuration
+ * (see {@link #getInstance(double, int, String, int)}), so the budget is not reset when a
+ * new test class is generated and executed.
+ */
+public class RequestScheduler {
+
+	public static final int DEFAULT_MAX_429_RETRIES = 3;
+
+	private final double requestsPerSecond;		// Global budget of requests per second (-1 = no limit)
+	private final int maxInFlight;				// Global budget of requests in flight (-1 = no limit)
+	private final String operationLimits;		// Per-operation budgets
+	private final int max429Retries;			// Number of times a request answered with a 429 status code is retried
+
+	private final TokenBucket globalRate;
+	private final Semaphore globalInFlight;
+	private final Map<String, TokenBucket> operationRates = new HashMap<>();
+	private final Map<String, Semaphore> operationInFlight = new HashMap<>();
+
+	private static final Map<String, RequestScheduler> instances = new ConcurrentHashMap<>();
+	private static final Logger logger = LogManager.getLogger(RequestScheduler.class.getName());
+
+	public RequestScheduler(double requestsPerSecond, int maxInFlight, String operationLimits, int max429Retries) {
+		this.requestsPerSecond = requestsPerSecond;
+		this.maxInFlight = maxInFlight;
+		this.operationLimits = operationLimits == null ? "" : operationLimits.trim();
+		this.max429Retries = max429Retries;
+
+		this.globalRate = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond) : null;
+		this.globalInFlight = maxInFlight > 0 ? new Semaphore(maxInFlight, true) : null;
+		parseOperationLimits(this.operationLimits);
+	}
+
+	/**
+	 * Returns the scheduler with the given configuration, creating it if it does not exist yet.
+	 * This method is called by generated test classes, so that all of them share the same budget.
+	 */
+	public static RequestScheduler getInstance(double requestsPerSecond, int maxInFlight, String operationLimits, int max429Retries) {
+		String key = requestsPerSecond + "|" + maxInFlight + "|" + operationLimits + "|" + max429Retries;
+		return instances.computeIfAbsent(key, k -> new RequestScheduler(requestsPerSecond, maxInFlight, operationLimits, max429Retries));
+	}
+
+	private void parseOperationLimits(String operationLimits) {
+		if (operationLimits.isEmpty())
+			return;
+
+		for (String operationLimit: operationLimits.split(";")) {
+			String[] values = operationLimit.trim().split(":");
+			if (values.length != 3)
+				throw new IllegalArgumentException("Wrong per-operation limit: '" + operationLimit + "'. The format must be 'METHOD path:requestsPerSecond:maxInFlight'");
+
+			String operation = normalizeOperation(values[0]);
+			double operationRequestsPerSecond = Double.parseDouble(values[1].trim());
+			int operationMaxInFlight = Integer.parseInt(values[2].trim());
+			if (operationRequestsPerSecond > 0)
+				operationRates.put(operation, new TokenBucket(operationRequestsPerSecond));
+			if (operationMaxInFlight > 0)
+				operationInFlight.put(operation, new Semaphore(operationMaxInFlight, true));
+		}
+	}
+
+	/**
+	 * Waits until the request can be sent according to the global and the operation budgets.
+	 * Every call to this method must be followed by a call to {@link #release(String)} once
+	 * the response is received.
+	 * @param operation Method and path of the operation (e.g., "GET /search")
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public void acquire(String operation) throws InterruptedException {
+		String key = normalizeOperation(operation);
+		Semaphore opInFlight = operationInFlight.get(key);
+
+		if (opInFlight != null)
+			opInFlight.acquire();
+		try {
+			if (globalInFlight != null)
+				globalInFlight.acquire();
+		} catch (InterruptedException e) {
+			if (opInFlight != null)
+				opInFlight.release();
+			throw e;
+		}
+
+		try {
+			TokenBucket opRate = operationRates.get(key);
+			if (opRate != null)
+				opRate.acquire();
+			if (globalRate != null)
+				globalRate.acquire();
+		} catch (InterruptedException e) {
+			release(operation);
+			throw e;
+		}
+	}
+
+	/**
+	 * Frees the in-flight budget taken by {@link #acquire(String)}.
+	 * @param operation Method and path of the operation (e.g., "GET /search")
+	 */
+	public void release(String operation) {
+		if (globalInFlight != null)
+			globalInFlight.release();
+		Semaphore opInFlight = operationInFlight.get(normalizeOperation(operation));
+		if (opInFlight != null)
+			opInFlight.release();
+	}
+
+	/**
+	 * Stops sending requests for some time, because the API signalled that its rate limit was
+	 * exceeded. If the operation has its own requests-per-second budget, only that operation
+	 * is paused. Otherwise, all requests are paused.
+	 * @param operation Method and path of the operation (e.g., "GET /search")
+	 * @param millis Time to wait, in milliseconds
+	 */
+	public void backOff(String operation, long millis) {
+		logger.info("Rate limit exceeded in operation {}. Backing off for {} ms", operation, millis);
+		TokenBucket opRate = operationRates.get(normalizeOperation(operation));
+		if (opRate != null)
+			opRate.pause(millis, TimeUnit.MILLISECONDS);
+		else if (globalRate != null)
+			globalRate.pause(millis, TimeUnit.MILLISECONDS);
+		else {
+			try { // Without a bucket to pause, at least this thread backs off
+				TimeUnit.MILLISECONDS.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	// "get  /search" and "GET /search" refer to the same operation
+	private static String normalizeOperation(String operation) {
+		String[] parts = operation.trim().split("\\s+", 2);
+		return parts.length == 2 ? parts[0].toUpperCase() + " " + parts[1] : operation.trim();
+	}
+
+	/**
+	 * Creates the executor service used to execute test cases concurrently. If virtual threads
+	 * are requested and supported by the JVM (Java 21+), every test case is executed in its own
+	 * virtual thread, so that thousands of requests can be waiting for a response at the same
+	 * time. Otherwise, a fixed pool of platform threads is used.
+	 * @param workers Number of platform threads, if virtual threads are not used
+	 * @param virtualThreads Whether to use virtual threads
+	 * @return The executor service
+	 */
+	public static ExecutorService newExecutor(int workers, boolean virtualThreads) {
+		if (virtualThreads) {
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException e) {
+				logger.warn("Virtual threads are not supported by this JVM (Java 21+ is required). Using {} platform threads instead", workers);
+			}
+		}
+		return Executors.newFixedThreadPool(workers);
+	}
+
+	public double getRequestsPerSecond() {
+		return requestsPerSecond;
+	}
+
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	public String getOperationLimits() {
+		return operationLimits;
+	}
+
+	public int getMax429Retries() {
+		return max429Retries;
+	}
+
+	public Map<String, TokenBucket> getOperationRates() {
+		return Collections.unmodifiableMap(operationRates);
+	}
+}
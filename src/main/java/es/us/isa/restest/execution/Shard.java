@@ -0,0 +1,142 @@
+package es.us.isa.restest.execution;
+
+import es.us.isa.restest.configuration.pojos.Operation;
+import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
+import es.us.isa.restest.testcases.TestCase;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * A shard of a test suite, i.e., one of several disjoint parts of the suite that can be
+ * generated and executed by different processes (or machines) at the same time. Test cases
+ * are partitioned by operation: all the test cases of an operation belong to the same shard.
+ * The operations of the test configuration are sorted by ID and assigned to shards in
+ * round-robin, so the partition is the same in all processes and the number of operations
+ * per shard differs in one at most. Operations not present in the test configuration are
+ * assigned according to the hash code of their ID.
+ * <p>
+ * Every shard writes its own CSV files (test cases and test results), whose test ID ends
+ * with {@link #getSuffix()}. Once all shards are finished, their files can be merged into
+ * a single report with {@link es.us.isa.restest.reporting.StatsReportManager#mergeShards(String, int, boolean)}.
+ */
+public class Shard {
+
+	private static volatile Shard current;			// Shard executed by this JVM (null if the suite is not sharded)
+
+	private final int index;						// Index of this shard (from 0 to count-1)
+	private final int count;						// Total number of shards
+	private final Map<String, Integer> assignments = new HashMap<>();	// Operation ID (alphanumeric characters only) -> shard index
+
+	/**
+	 * @param index Index of the shard (from 0 to count-1)
+	 * @param count Total number of shards
+	 * @param operationIds IDs of all the operations of the test suite
+	 */
+	public Shard(int index, int count, Collection<String> operationIds) {
+		if (count < 1)
+			throw new IllegalArgumentException("The number of shards must be greater than 0");
+		if (index < 0 || index >= count)
+			throw new IllegalArgumentException("The shard index must be between 0 and " + (count - 1));
+		this.index = index;
+		this.count = count;
+
+		int i = 0;
+		for (String operationId: operationIds.stream().map(Shard::normalize).collect(Collectors.toCollection(TreeSet::new)))
+			assignments.put(operationId, i++ % count);
+	}
+
+	public Shard(int index, int count, TestConfigurationObject conf) {
+		this(index, count, conf.getTestConfiguration().getOperations().stream().map(Operation::getOperationId).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Parses a shard given in the format "index/count" (e.g., "0/4").
+	 */
+	public static int[] parse(String shard) {
+		String[] values = shard.trim().split("/");
+		if (values.length != 2)
+			throw new IllegalArgumentException("Wrong shard: '" + shard + "'. The format must be 'index/count' (e.g., 0/4)");
+		return new int[] { Integer.parseInt(values[0].trim()), Integer.parseInt(values[1].trim()) };
+	}
+
+	/**
+	 * @param operationId ID of the operation
+	 * @return True if the test cases of the operation belong to this shard
+	 */
+	public boolean contains(String operationId) {
+		String key = normalize(operationId);
+		Integer shard = assignments.get(key);
+		return (shard != null ? shard : Math.floorMod(key.hashCode(), count)) == index;
+	}
+
+	/**
+	 * @param testCaseId ID of the test case (also the name of its test method), in the
+	 *                   format "test_{id}_{operationId}"
+	 * @return True if the test case belongs to this shard
+	 */
+	public boolean containsTestCase(String testCaseId) {
+		String[] parts = testCaseId.split("_", 3);
+		return parts.length == 3 && contains(parts[2]);
+	}
+
+	/**
+	 * @return The test cases of the collection that belong to this shard
+	 */
+	public List<TestCase> filter(Collection<TestCase> testCases) {
+		return testCases.stream().filter(tc -> contains(tc.getOperationId())).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return Suffix added to the test ID (and to the CSV files) of this shard
+	 */
+	public String getSuffix() {
+		return getSuffix(index);
+	}
+
+	public static String getSuffix(int index) {
+		return "_shard" + index;
+	}
+
+	/**
+	 * Returns the test ID under which the results of the shard executed by this JVM must be
+	 * stored. Generated test classes call this method, so that a test class generated for the
+	 * whole suite writes the results of each shard to a different file.
+	 * @param testId Test ID of the whole suite
+	 * @return The test ID with the suffix of the current shard (if any)
+	 */
+	public static String testId(String testId) {
+		Shard shard = current;
+		return shard == null || testId.endsWith(shard.getSuffix()) ? testId : testId + shard.getSuffix();
+	}
+
+	public static Shard getCurrent() {
+		return current;
+	}
+
+	public static void setCurrent(Shard shard) {
+		current = shard;
+	}
+
+	// IDs of test cases only contain alphanumeric characters of the operation ID
+	private static String normalize(String operationId) {
+		return operationId.replaceAll("[^A-Za-z0-9]", "");
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return index + "/" + count;
+	}
+}
@@ -0,0 +1,30 @@
+package es.us.isa.restest.execution;
+
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * JUnit filter that only runs the test methods of a generated test class that belong to
+ * a given {@link Shard}. Test methods are named after the ID of their test case, which
+ * ends with the ID of the operation under test.
+ */
+public class ShardFilter extends Filter {
+
+	private final Shard shard;
+
+	public ShardFilter(Shard shard) {
+		this.shard = shard;
+	}
+
+	@Override
+	public boolean shouldRun(Description description) {
+		if (description.getMethodName() == null) // Test class (or suite): run it if any of its methods must be run
+			return description.getChildren().stream().anyMatch(this::shouldRun);
+		return shard.containsTestCase(description.getMethodName());
+	}
+
+	@Override
+	public String describe() {
+		return "shard " + shard;
+	}
+}
@@ -0,0 +1,101 @@
+package es.us.isa.restest.execution;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe token bucket. Tokens are refilled continuously at a fixed rate, up
+ * to the capacity of the bucket, and every request consumes one token. When the
+ * bucket is empty, callers wait until a new token is available. The bucket can
+ * also be paused for a given time (e.g., when the API answers with a 429 status
+ * code and a Retry-After header), in which case no tokens are handed out until
+ * the pause expires.
+ */
+public class TokenBucket {
+
+	private final double capacity;			// Maximum number of tokens (i.e., maximum burst of requests)
+	private final double tokensPerNano;		// Refill rate
+	private double tokens;					// Tokens currently available
+	private long lastRefill;				// Last time the bucket was refilled (System.nanoTime())
+	private long pausedUntil;				// No tokens are handed out until this time (System.nanoTime())
+
+	/**
+	 * @param tokensPerSecond Number of tokens added to the bucket every second (i.e., requests per second)
+	 * @param capacity Maximum number of tokens that the bucket can hold
+	 */
+	public TokenBucket(double tokensPerSecond, double capacity) {
+		if (tokensPerSecond <= 0)
+			throw new IllegalArgumentException("The number of tokens per second must be greater than 0");
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity of the bucket must be at least 1");
+		this.capacity = capacity;
+		this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+		this.tokens = capacity;
+		this.lastRefill = System.nanoTime();
+		this.pausedUntil = lastRefill;
+	}
+
+	/**
+	 * Creates a bucket that allows bursts of one second worth of tokens.
+	 * @param tokensPerSecond Number of tokens added to the bucket every second (i.e., requests per second)
+	 */
+	public TokenBucket(double tokensPerSecond) {
+		this(tokensPerSecond, Math.max(1, tokensPerSecond));
+	}
+
+	/**
+	 * Takes one token from the bucket, waiting until one is available if necessary.
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public void acquire() throws InterruptedException {
+		long wait;
+		while ((wait = tryAcquire()) > 0)
+			TimeUnit.NANOSECONDS.sleep(wait);
+	}
+
+	/**
+	 * Tries to take one token from the bucket without waiting.
+	 * @return 0 if a token was taken, otherwise the number of nanoseconds to wait before trying again
+	 */
+	public synchronized long tryAcquire() {
+		long now = System.nanoTime();
+		if (now - pausedUntil < 0)
+			return pausedUntil - now;
+
+		refill(now);
+		if (tokens >= 1) {
+			tokens--;
+			return 0;
+		}
+		return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+	}
+
+	/**
+	 * Stops handing out tokens for the given time. Tokens are not refilled during the
+	 * pause, so the requests are resumed at the configured rate, without bursts.
+	 * @param time Duration of the pause
+	 * @param unit Time unit of the duration
+	 */
+	public synchronized void pause(long time, TimeUnit unit) {
+		long until = System.nanoTime() + unit.toNanos(time);
+		if (until - pausedUntil > 0) {
+			pausedUntil = until;
+			tokens = 0;
+			lastRefill = until;
+		}
+	}
+
+	private void refill(long now) {
+		if (now - lastRefill > 0) {
+			tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+			lastRefill = now;
+		}
+	}
+
+	public double getCapacity() {
+		return capacity;
+	}
+
+	public double getTokensPerSecond() {
+		return tokensPerNano * TimeUnit.SECONDS.toNanos(1);
+	}
+}
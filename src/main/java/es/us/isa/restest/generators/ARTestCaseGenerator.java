@@ -20,7 +20,8 @@ public class ARTestCaseGenerator extends ConstraintBasedTestCaseGenerator {
 
     private Diversity diversity;
     private Integer numberOfCandidates = 100;
-    private List<TestCase> testCases;
+    private List<TestCase> testCases;                   // Test cases generated so far, to measure the diversity of new ones
+    private int nPreviousTestCases;                     // Number of test cases generated before this copy was created (see createOperationContext())
 
 
     public ARTestCaseGenerator(OpenAPISpecification spec, TestConfigurationObject conf, int nTests) {
@@ -79,6 +80,26 @@ public class ARTestCaseGenerator extends ConstraintBasedTestCaseGenerator {
         return test;
     }
 
+    /*
+     * When operations are generated in parallel, each one is compared with the test cases generated before (e.g.,
+     * in previous iterations), but not with those of the operations generated at the same time. The test cases of
+     * every operation are added to the previous ones afterwards (see addOperationContext()).
+     */
+    @Override
+    protected AbstractTestCaseGenerator createOperationContext() {
+        ARTestCaseGenerator context = (ARTestCaseGenerator) super.createOperationContext();
+        context.testCases = new ArrayList<>(testCases);
+        context.nPreviousTestCases = testCases.size();
+        return context;
+    }
+
+    @Override
+    protected void addOperationContext(AbstractTestCaseGenerator context) {
+        super.addOperationContext(context);
+        ARTestCaseGenerator artContext = (ARTestCaseGenerator) context;
+        testCases.addAll(artContext.testCases.subList(artContext.nPreviousTestCases, artContext.testCases.size()));
+    }
+
     public void setDiversity(String similarityMetric) {
         SimilarityMeter.METRIC metric = SimilarityMeter.METRIC.valueOf(similarityMetric);
         this.diversity = new Diversity(metric, true);
@@ -1,9 +1,14 @@
 package es.us.isa.restest.generators;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import es.us.isa.restest.configuration.pojos.Generator;
+import es.us.isa.restest.execution.Shard;
 import es.us.isa.restest.inputs.stateful.BodyGenerator;
 import es.us.isa.restest.inputs.stateful.ParameterGenerator;
 import es.us.isa.restest.mutation.TestCaseMutation;
@@ -35,7 +40,7 @@ import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.MEDIA_
  * @author Sergio Segura
  */
 
-public abstract class AbstractTestCaseGenerator {
+public abstract class AbstractTestCaseGenerator implements Cloneable {
 
 	public static final String INDIVIDUAL_PARAMETER_CONSTRAINT = "individual_parameter_constraint";
 	private static Logger logger = LogManager.getLogger(AbstractTestCaseGenerator.class.getName());
@@ -64,6 +69,9 @@ public abstract class AbstractTestCaseGenerator {
 
 	private boolean hasStatefulGenerators;
 	private boolean checkTestCases;
+	private Shard shard;													// If not null, only the operations of this shard are tested
+	private boolean deferValidityCheck = false;								// Whether nominal test cases are checked after generating the whole test suite
+	private int parallelism = 1;											// Number of operations whose test cases are generated at the same time (1 = sequential)
 
 
 	public AbstractTestCaseGenerator(OpenAPISpecification spec, TestConfigurationObject conf, int nTests) {
@@ -88,9 +96,8 @@ public abstract class AbstractTestCaseGenerator {
 		// Reset counters
 		resetGenerator();
 
-		this.rand = new Random();
-		this.seed = rand.nextLong();
-		rand.setSeed(this.seed);
+		this.seed = SeedTree.nextSeed();
+		this.rand = SeedTree.newRandom(this.seed);
 	}
 
 
@@ -151,34 +158,226 @@ public abstract class AbstractTestCaseGenerator {
 	 */
 	public Collection<TestCase> generate(Collection<TestConfigurationFilter> filters) throws RESTestException {
 
-		List<TestCase> testCases = new ArrayList<>();
+		List<Pair<String, HttpMethod>> operations = getPathsAndMethods(filters);
+		List<TestCase> testCases;
+
+		// The whole test suite is checked at once after being generated
+		deferValidityCheck = true;
+		try {
+			testCases = generateByOperation(operations);
+		} finally {
+			deferValidityCheck = false;
+		}
 
-		// Generate test cases for each path and method
-		for(TestConfigurationFilter filter:filters) {
+		if (checkTestCases)
+			checkTestSuiteValidity(testCases);
 
-			if (filter.getPath()==null) {
+		return testCases;
+	}
+
+	/**
+	 * Make sure all test cases generated conform to the specification, validating them in parallel. Otherwise, throw
+	 * an exception with the errors found. As in {@link #checkTestCaseValidity(TestCase)}, faulty test cases and test
+	 * cases of operations with stateful generators are not checked
+	 */
+	protected void checkTestSuiteValidity(Collection<TestCase> testCases) throws RESTestException {
+		Map<String, Boolean> statefulOperations = new HashMap<>();
+		List<TestCase> nominalTestCases = testCases.stream()
+				.filter(tc -> !tc.getFaulty())
+				.filter(tc -> !statefulOperations.computeIfAbsent(tc.getMethod() + " " + tc.getPath(),
+						k -> hasStatefulGenerators(TestConfigurationVisitor.getOperation(conf, tc.getPath(), tc.getMethod().name()))))
+				.collect(Collectors.toList());
+
+		TestSuiteValidationResult result = new TestSuiteValidator(spec).validate(nominalTestCases);
+		if (!result.isValid()) {
+			logger.error(result);
+			throw new RESTestException("The test case generated does not conform to the specification: " + result.getInvalidTestCases().values().iterator().next());
+		}
+	}
+
+	// Paths and methods to be tested, in the order in which they are generated
+	private static List<Pair<String, HttpMethod>> getPathsAndMethods(Collection<TestConfigurationFilter> filters) {
+		List<Pair<String, HttpMethod>> pathsAndMethods = new ArrayList<>();
+		for (TestConfigurationFilter filter: filters) {
+			if (filter.getPath()==null)
 				throw new IllegalArgumentException("Specify the path(s) to be tested");
-			}
+			for (HttpMethod method: filter.getMethods())
+				pathsAndMethods.add(Pair.with(filter.getPath(), method));
+		}
+		return pathsAndMethods;
+	}
 
-			for(HttpMethod method: filter.getMethods()) {
-				// Generate test cases for the operation
-				testCases.addAll(generate(filter.getPath(), method));
-			}
+	/*
+	 * Generate the test cases of each operation. If the parallelism is greater than 1, operations are generated in a
+	 * ForkJoinPool, each one with its own copy of the generator (see createOperationContext()), so the per-operation
+	 * state (test data generators, counters, random numbers...) is not shared. Contexts are created in order, so the same
+	 * test cases are generated (and returned in the same order) whatever the parallelism above 1. Otherwise, all operations
+	 * are generated by this generator, one after another.
+	 */
+	private List<TestCase> generateByOperation(List<Pair<String, HttpMethod>> operations) throws RESTestException {
+		List<TestCase> testCases = new ArrayList<>();
+		if (parallelism <= 1 || operations.size() <= 1) {
+			for (Pair<String, HttpMethod> operation: operations)
+				testCases.addAll(generate(operation.getValue0(), operation.getValue1()));
+			return testCases;
+		}
+
+		// Contexts are created in order and before any operation is generated, so every operation always gets the same seed
+		List<AbstractTestCaseGenerator> contexts = new ArrayList<>();
+		for (int i = 0; i < operations.size(); i++)
+			contexts.add(createOperationContext());
+
+		logger.info("Generating test cases for {} operations using {} threads", operations.size(), parallelism);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			testCases = pool.invoke(new OperationGenerationTask(operations, contexts, 0, operations.size()));
+		} catch (UncheckedRESTestException e) {
+			throw e.getCause();
+		} finally {
+			pool.shutdown();
 		}
 
+		for (AbstractTestCaseGenerator context: contexts)
+			addOperationContext(context);
+
+		return testCases;
+	}
+
+	// Generates the test cases of an operation with its context, and releases the generators of its parameters (e.g., dictionaries),
+	// since the context is kept until all operations have been generated
+	private static Collection<TestCase> generateOperation(AbstractTestCaseGenerator context, Pair<String, HttpMethod> operation) throws RESTestException {
+		Collection<TestCase> testCases = context.generate(operation.getValue0(), operation.getValue1());
+		context.nominalGenerators = null;
+		context.faultyGenerators = null;
 		return testCases;
 	}
 
+	/**
+	 * Update this generator with a copy used to generate the test cases of an operation (see {@link #createOperationContext()}).
+	 * Contexts are added in the order of the operations, so the counters of the current operation end up being those of
+	 * the last operation, as if all of them had been generated by this generator. Subclasses with additional counters
+	 * must override this method.
+	 * @param context The copy of the generator
+	 */
+	protected void addOperationContext(AbstractTestCaseGenerator context) {
+		nTotalTests += context.nTotalTests;
+		nTotalFaulty += context.nTotalFaulty;
+		nTotalNominal += context.nTotalNominal;
+		nTests = context.nTests;
+		nFaulty = context.nFaulty;
+		nNominal = context.nNominal;
+	}
+
+	/**
+	 * Create a copy of this generator to generate the test cases of a single operation in parallel with others.
+	 * The copy shares the configuration of this generator (specification, test configuration, ratios...) and its
+	 * AuthManager, so the auth keys are still handed out according to their load, but the test cases that get each
+	 * key depend on the order of the threads. The copy has its own counters and random number generator, seeded
+	 * from this one (see {@link SeedTree}). Subclasses with additional state that must not be shared between
+	 * operations must override this method.
+	 * @return The copy of the generator
+	 */
+	protected AbstractTestCaseGenerator createOperationContext() {
+		try {
+			AbstractTestCaseGenerator context = (AbstractTestCaseGenerator) clone();
+			context.seed = rand.nextLong();
+			context.rand = SeedTree.newRandom(context.seed);	// Not shared with this generator
+			context.nominalGenerators = null;
+			context.faultyGenerators = null;
+			context.parallelism = 1;
+			context.resetGenerator();
+			return context;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException("Generator " + getClass().getSimpleName() + " cannot be copied", e);
+		}
+	}
+
+	// Generates the test cases of a range of operations, splitting it in halves until there is only one operation
+	private static class OperationGenerationTask extends RecursiveTask<List<TestCase>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient List<Pair<String, HttpMethod>> operations;
+		private final transient List<AbstractTestCaseGenerator> contexts;
+		private final int from;
+		private final int to;
+
+		private OperationGenerationTask(List<Pair<String, HttpMethod>> operations, List<AbstractTestCaseGenerator> contexts, int from, int to) {
+			this.operations = operations;
+			this.contexts = contexts;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<TestCase> compute() {
+			if (to - from == 1) {
+				try {
+					return new ArrayList<>(generateOperation(contexts.get(from), operations.get(from)));
+				} catch (RESTestException e) {
+					throw new UncheckedRESTestException(e);
+				}
+			}
+
+			int middle = (from + to) >>> 1;
+			OperationGenerationTask left = new OperationGenerationTask(operations, contexts, from, middle);
+			OperationGenerationTask right = new OperationGenerationTask(operations, contexts, middle, to);
+			right.fork();
+			List<TestCase> testCases = left.compute();
+			testCases.addAll(right.join());
+			return testCases;
+		}
+	}
+
 	/**
 	 * Generate a set of test cases for the whole configuration file (all paths, all operations)
 	 * @return Generated test cases (duplicates are possible)
 	 * @throws RESTestException if the test HTTP method is other than 'get', 'post', 'put' or 'delete'
 	 */
 	public Collection<TestCase> generate() throws RESTestException {
+		return generate(getFilters());
+	}
+
+	/**
+	 * Generate test cases for the whole configuration file (all paths, all operations) lazily: test cases
+	 * are generated one at a time, as they are requested, so they do not need to be kept in memory (except
+	 * by generators that compare each new test case with the previous ones, like {@link ARTestCaseGenerator}).
+	 * Test cases are returned in the same order as with {@link #generate()}. The generator must not be used
+	 * for anything else until the iterator is exhausted.
+	 * @return Iterator over the generated test cases. Its methods throw an {@link UncheckedRESTestException}
+	 * if a test case cannot be generated
+	 * @throws RESTestException if the test HTTP method is other than 'get', 'post', 'put', 'patch' or 'delete'
+	 */
+	public Iterator<TestCase> generateIterator() throws RESTestException {
+		return generateIterator(getFilters());
+	}
+
+	/**
+	 * Generate test cases lazily (see {@link #generateIterator()})
+	 * @param filters Set the paths and HTTP methods to be tested
+	 * @return Iterator over the generated test cases
+	 */
+	public Iterator<TestCase> generateIterator(Collection<TestConfigurationFilter> filters) {
+		return new TestCaseIterator(filters);
+	}
+
+	/**
+	 * Generate test cases for the whole configuration file lazily, as a sequential stream (see {@link #generateIterator()})
+	 * @return Stream of generated test cases
+	 * @throws RESTestException if the test HTTP method is other than 'get', 'post', 'put', 'patch' or 'delete'
+	 */
+	public Stream<TestCase> stream() throws RESTestException {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(generateIterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	// Create filters for all the operations in the API (or in the shard)
+	private List<TestConfigurationFilter> getFilters() throws RESTestException {
 		List<TestConfigurationFilter> filters = new ArrayList<>();
 
-		// Create filters for all the operations in the API
 		for (Operation testOperation: conf.getTestConfiguration().getOperations()) {
+			if (shard != null && !shard.contains(testOperation.getOperationId()))
+				continue;
+
 			TestConfigurationFilter filter = filters.stream().filter(x -> x.getPath().equalsIgnoreCase(testOperation.getTestPath())).findFirst().orElse(null);
 			int filterIndex = -1;
 
@@ -218,12 +417,28 @@ public abstract class AbstractTestCaseGenerator {
 
 		}
 
-		return generate(filters);
+		return filters;
 	}
 
 
 	/* Generate test cases for testOperation */
-	protected abstract Collection<TestCase> generateOperationTestCases(Operation testOperation) throws RESTestException;
+	protected Collection<TestCase> generateOperationTestCases(Operation testOperation) throws RESTestException {
+		List<TestCase> testCases = new ArrayList<>();
+
+		startOperation(testOperation);
+		while (hasNext())
+			testCases.add(nextOperationTestCase(testOperation));
+
+		return testCases;
+	}
+
+	/* Prepare the generation of test cases for testOperation (e.g., reset the counters of the operation) */
+	protected void startOperation(Operation testOperation) throws RESTestException {
+		resetOperation();
+	}
+
+	/* Generate the next test case for testOperation, ready to be written or executed (i.e., authenticated), and update the indexes */
+	protected abstract TestCase nextOperationTestCase(Operation testOperation) throws RESTestException;
 
 	/**
 	 * Generate the next test case and update the generation index. To be implemented on each subclass.
@@ -233,6 +448,16 @@ public abstract class AbstractTestCaseGenerator {
 
 	/* Generate test cases for the operation defined by path/method */
 	protected Collection<TestCase> generate(String path, HttpMethod method) throws RESTestException {
+		Random previous = SeedTree.bind(rand);		// Random numbers of mutation operators, stateful generators... are taken from this generator
+		try {
+			return generateOperationTestCases(getOperation(path, method));
+		} finally {
+			SeedTree.bind(previous);
+		}
+	}
+
+	/* Get the operation defined by path/method and create its test data generators */
+	private Operation getOperation(String path, HttpMethod method) {
 
 		// Get test configuration object for the operation
 		Operation testOperation = TestConfigurationVisitor.getOperation(conf, path, method.name());
@@ -243,8 +468,51 @@ public abstract class AbstractTestCaseGenerator {
 		// Update these booleans, which may differ for every operation
 		hasStatefulGenerators = hasStatefulGenerators(testOperation);
 
+		return testOperation;
+	}
+
+	// Generates the test cases of the operations one at a time, in the same order as generate(filters)
+	private class TestCaseIterator implements Iterator<TestCase> {
+
+		private final Iterator<Pair<String, HttpMethod>> operations;
+		private Operation testOperation;			// Operation whose test cases are being generated
 
-		return generateOperationTestCases(testOperation);
+		private TestCaseIterator(Collection<TestConfigurationFilter> filters) {
+			this.operations = getPathsAndMethods(filters).iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			Random previous = SeedTree.bind(rand);
+			try {
+				while (testOperation == null || !AbstractTestCaseGenerator.this.hasNext()) {
+					if (!operations.hasNext())
+						return false;
+					Pair<String, HttpMethod> next = operations.next();
+					testOperation = getOperation(next.getValue0(), next.getValue1());
+					startOperation(testOperation);
+				}
+				return true;
+			} catch (RESTestException e) {
+				throw new UncheckedRESTestException(e);
+			} finally {
+				SeedTree.bind(previous);
+			}
+		}
+
+		@Override
+		public TestCase next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			Random previous = SeedTree.bind(rand);
+			try {
+				return nextOperationTestCase(testOperation);
+			} catch (RESTestException e) {
+				throw new UncheckedRESTestException(e);
+			} finally {
+				SeedTree.bind(previous);
+			}
+		}
 	}
 
 
@@ -289,8 +557,8 @@ public abstract class AbstractTestCaseGenerator {
 	 * will be valid, therefore we omit this
 	 */
 	protected void checkTestCaseValidity(TestCase test) throws RESTestException {
-		if (!test.getFaulty() && checkTestCases && !hasStatefulGenerators) {
-			List<String> errors = test.getValidationErrors(OASAPIValidator.getValidator(spec));
+		if (!test.getFaulty() && checkTestCases && !deferValidityCheck && !hasStatefulGenerators) {
+			List<String> errors = OASAPIValidator.getValidationErrors(spec, test);
 			if (!errors.isEmpty()) {
 				throw new RESTestException("The test case generated does not conform to the specification: " + errors);
 			}
@@ -364,7 +632,7 @@ public abstract class AbstractTestCaseGenerator {
 			generationAlternatives.add("invalid_generator");
 		}
 
-		Collections.shuffle(generationAlternatives);
+		Collections.shuffle(generationAlternatives, rand);
 
 		int i = 0;
 		while (i < generationAlternatives.size() && originalTest.equals(testCase)) {
@@ -409,7 +677,7 @@ public abstract class AbstractTestCaseGenerator {
 					testCase.addParameter(bodyParam, ((BodyGenerator) bodyGenerator).nextValueAsString(true));
 				else if (bodyGenerator instanceof ObjectPerturbator)
 					testCase.addParameter(bodyParam, bodyGenerator.nextValueAsString());
-				errors = testCase.getValidationErrors(OASAPIValidator.getValidator(spec));
+				errors = testCase.getValidationErrors(OASAPIValidator.getOperationValidator(spec, testCase.getPath(), testCase.getMethod()));
 			}
 			// No invalid body generated. Return null and try to generate faulty test case in different way
 			if (errors.isEmpty()) {
@@ -437,7 +705,7 @@ public abstract class AbstractTestCaseGenerator {
 				boolean valid = false;
 				for(int i=0;i<maxTriesPerTestCase && !valid; i++) {
 					test.addParameter(confParam, generator.nextValueAsString());
-					valid = test.isValid(OASAPIValidator.getValidator(spec));
+					valid = test.isValid(OASAPIValidator.getOperationValidator(spec, test.getPath(), test.getMethod()));
 				}
 
 				// No valid perturbations generated. Set original object
@@ -474,15 +742,15 @@ public abstract class AbstractTestCaseGenerator {
 				for (Map.Entry<String, String> param: conf.getAuth().getQueryParams().entrySet())
 					test.addQueryParameter(param.getKey(), param.getValue());
 
-			// File containing all API keys
+			// File containing all API keys (all of them from the same group, selected according to its load)
 			if (conf.getAuth().getApiKeysPath()!=null)
-				for(String authProperty : authManager.getAuthPropertyNames())
-					test.addQueryParameter(authProperty, authManager.getAuthProperty(authProperty));
+				for(Map.Entry<String, String> authProperty : authManager.getAuthProperties().entrySet())
+					test.addQueryParameter(authProperty.getKey(), authProperty.getValue());
 
 			// File containing all auth headers
 			if (conf.getAuth().getHeadersPath()!=null)
-				for(String authProperty : authManager.getAuthPropertyNames())
-					test.addHeaderParameter(authProperty, authManager.getAuthProperty(authProperty));
+				for(Map.Entry<String, String> authProperty : authManager.getAuthProperties().entrySet())
+					test.addHeaderParameter(authProperty.getKey(), authProperty.getValue());
 
 			// File containing OAuth details
 			if (conf.getAuth().getOauthPath()!=null)
@@ -518,7 +786,7 @@ public abstract class AbstractTestCaseGenerator {
 		}
 	}
 
-	// Create all generators needed for the parameters of an operation.
+	// Create all generators needed for the parameters of an operation. Each one is seeded from this generator, in order
 	public void createGenerators(Operation operation) {
 
 		List<TestParameter> testParameters = operation.getTestParameters();
@@ -531,6 +799,7 @@ public abstract class AbstractTestCaseGenerator {
 				List<ITestDataGenerator> faultyGens = new ArrayList<>();
 				for(Generator g : param.getGenerators()) {
 					ITestDataGenerator gen = TestDataGeneratorFactory.createTestDataGenerator(g);
+					gen.setSeed(rand.nextLong());
 
 					if (gen instanceof BodyGenerator) {
 						((BodyGenerator) gen).setDataDirPath(spec.getPath().substring(0, spec.getPath().lastIndexOf('/')));
@@ -570,6 +839,18 @@ public abstract class AbstractTestCaseGenerator {
 		this.faultyRatio = faultyRatio;
 	}
 
+	public int getnTotalTests() {
+		return nTotalTests;
+	}
+
+	public int getnTotalFaulty() {
+		return nTotalFaulty;
+	}
+
+	public int getnTotalNominal() {
+		return nTotalNominal;
+	}
+
 	public int getnFaulty() {
 		return nTotalFaulty;
 	}
@@ -638,4 +919,22 @@ public abstract class AbstractTestCaseGenerator {
 	public void setCheckTestCases(boolean checkTestCases) {
 		this.checkTestCases = checkTestCases;
 	}
-}
\ No newline at end of file
+
+	public Shard getShard() {
+		return shard;
+	}
+
+	public void setShard(Shard shard) {
+		this.shard = shard;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be greater than 0");
+		this.parallelism = parallelism;
+	}
+}
@@ -5,7 +5,6 @@ import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.hasDep
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -87,12 +86,10 @@ public class ConstraintBasedTestCaseGenerator extends AbstractTestCaseGenerator
 	}
 
 	/*
-	 * Generate the collection of test cases 
+	 * Prepare the generation of test cases for the operation
 	 */
-	protected Collection<TestCase> generateOperationTestCases(Operation testOperation) throws RESTestException {
-
-		
-		List<TestCase> testCases = new ArrayList<>();
+	@Override
+	protected void startOperation(Operation testOperation) throws RESTestException {
 
 		setUpIDLReasoner(testOperation);
 
@@ -109,26 +106,30 @@ public class ConstraintBasedTestCaseGenerator extends AbstractTestCaseGenerator
 		
 		nFaultyTestDueToDependencyViolations = 0;
 		nFaultyTestsDueToIndividualConstraint = 0;
-		
+	}
 
-		while (hasNext()) {
-			checkIDLReasonerData(testOperation);
-
-			//Timer.startCounting(TEST_CASE_GENERATION);
-			TestCase test = generateNextTestCase(testOperation);
-			//Timer.stopCounting(TEST_CASE_GENERATION);
-			
-			// Set authentication data
-			authenticateTestCase(test);
-			
-			testCases.add(test);
-			
-			// Update indexes
-			updateIndexes(test);
-			
-		}
+	@Override
+	protected void addOperationContext(AbstractTestCaseGenerator context) {
+		super.addOperationContext(context);
+		nFaultyTestDueToDependencyViolations = ((ConstraintBasedTestCaseGenerator) context).nFaultyTestDueToDependencyViolations;
+		nFaultyTestsDueToIndividualConstraint = ((ConstraintBasedTestCaseGenerator) context).nFaultyTestsDueToIndividualConstraint;
+	}
 
-		return testCases;
+	@Override
+	protected TestCase nextOperationTestCase(Operation testOperation) throws RESTestException {
+		checkIDLReasonerData(testOperation);
+
+		//Timer.startCounting(TEST_CASE_GENERATION);
+		TestCase test = generateNextTestCase(testOperation);
+		//Timer.stopCounting(TEST_CASE_GENERATION);
+		
+		// Set authentication data
+		authenticateTestCase(test);
+		
+		// Update indexes
+		updateIndexes(test);
+
+		return test;
 	}
 
 
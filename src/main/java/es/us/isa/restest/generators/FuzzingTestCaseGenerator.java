@@ -39,7 +39,7 @@ import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.MEDIA_
 
 public class FuzzingTestCaseGenerator extends AbstractTestCaseGenerator {
 
-    private final ITestDataGenerator commonFuzzingGenerator; // Random strings to be used for all parameters
+    private ITestDataGenerator commonFuzzingGenerator; // Random strings to be used for all parameters
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private static Logger logger = LogManager.getLogger(FuzzingTestCaseGenerator.class.getName());
@@ -47,12 +47,19 @@ public class FuzzingTestCaseGenerator extends AbstractTestCaseGenerator {
     public FuzzingTestCaseGenerator(OpenAPISpecification spec, TestConfigurationObject conf, int nTests) {
         super(spec, conf, nTests);
         commonFuzzingGenerator = new RandomStringGenerator(10, 20, true, true, true);
+        commonFuzzingGenerator.setSeed(rand.nextLong());
     }
 
     @Override
-    protected Collection<TestCase> generateOperationTestCases(Operation testOperation) {
+    protected AbstractTestCaseGenerator createOperationContext() {
+        FuzzingTestCaseGenerator context = (FuzzingTestCaseGenerator) super.createOperationContext();
+        context.commonFuzzingGenerator = new RandomStringGenerator(10, 20, true, true, true);
+        context.commonFuzzingGenerator.setSeed(context.rand.nextLong());
+        return context;
+    }
 
-        List<TestCase> testCases = new ArrayList<>();
+    @Override
+    protected void startOperation(Operation testOperation) {
 
         resetOperation();
 
@@ -65,22 +72,23 @@ public class FuzzingTestCaseGenerator extends AbstractTestCaseGenerator {
                     if (param.getEnumValues() != null)
                         fuzzingList.addAll(param.getEnumValues());
                     ITestDataGenerator generator = new RandomInputValueIterator<>(fuzzingList);
+                    generator.setSeed(rand.nextLong());
                     nominalGenerators.replace(Pair.with(testParam.getName(), testParam.getIn()), Arrays.asList(generator, commonFuzzingGenerator));
                 }
             }
         }
+    }
 
-        while (hasNext()) {
-            TestCase test = generateNextTestCase(testOperation);
-            test.setFulfillsDependencies(false);
-            test.setFaulty(false);
+    @Override
+    protected TestCase nextOperationTestCase(Operation testOperation) {
+        TestCase test = generateNextTestCase(testOperation);
+        test.setFulfillsDependencies(false);
+        test.setFaulty(false);
 
-            authenticateTestCase(test);
-            testCases.add(test);
-            updateIndexes(test);
-        }
+        authenticateTestCase(test);
+        updateIndexes(test);
 
-        return testCases;
+        return test;
     }
 
     @Override
@@ -2,10 +2,6 @@ package es.us.isa.restest.generators;
 
 import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.hasDependencies;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
 import es.us.isa.restest.configuration.pojos.Operation;
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.specification.OpenAPISpecification;
@@ -26,35 +22,21 @@ public class RandomTestCaseGenerator extends AbstractTestCaseGenerator {
 	}
 
 	@Override
-	protected Collection<TestCase> generateOperationTestCases(Operation testOperation) throws RESTestException {
-
-		List<TestCase> testCases = new ArrayList<>();
-
-		// Reset counters for the current operation
-		resetOperation();
+	protected TestCase nextOperationTestCase(Operation testOperation) throws RESTestException {
 
-		boolean fulfillsDependencies = !hasDependencies(testOperation.getOpenApiOperation());
-		
-		while (hasNext()) {
+		// Create test case with specific parameters and values
+		//Timer.startCounting(TEST_CASE_GENERATION);
+		TestCase test = generateNextTestCase(testOperation);
+		test.setFulfillsDependencies(!hasDependencies(testOperation.getOpenApiOperation()));
+		//Timer.stopCounting(TEST_CASE_GENERATION);
 
-			// Create test case with specific parameters and values
-			//Timer.startCounting(TEST_CASE_GENERATION);
-			TestCase test = generateNextTestCase(testOperation);
-			test.setFulfillsDependencies(fulfillsDependencies);
-			//Timer.stopCounting(TEST_CASE_GENERATION);
+		// Set authentication data (if any)
+		authenticateTestCase(test);
 
-			// Set authentication data (if any)
-			authenticateTestCase(test);
+		// Update indexes
+		updateIndexes(test);
 
-			// Add test case to the collection
-			testCases.add(test);
-
-			// Update indexes
-			updateIndexes(test);
-
-		}
-		
-		return testCases;
+		return test;
 	}
 	
 
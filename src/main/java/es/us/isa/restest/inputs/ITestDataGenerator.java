@@ -3,4 +3,7 @@ package es.us.isa.restest.inputs;
 public interface ITestDataGenerator {
 	Object nextValue();
 	String nextValueAsString();
+
+	// Restart the random numbers of the generator (if any) from the given seed
+	default void setSeed(long seed) {}
 }
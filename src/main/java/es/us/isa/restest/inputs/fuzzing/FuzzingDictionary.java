@@ -1,5 +1,6 @@
 package es.us.isa.restest.inputs.fuzzing;
 
+import es.us.isa.restest.util.SeedTree;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,7 +17,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class FuzzingDictionary {
 
@@ -63,7 +63,7 @@ public class FuzzingDictionary {
 
     public static String getFuzzingValue(String type) {
         List<String> values = getFuzzingValues(type);
-        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+        return values.get(SeedTree.current().nextInt(values.size()));
     }
 
     public static List<String> getFuzzingValues(String type) {
@@ -5,11 +5,11 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import es.us.isa.jsonmutator.JsonMutator;
 import es.us.isa.restest.inputs.ITestDataGenerator;
+import es.us.isa.restest.util.SeedTree;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -29,7 +29,7 @@ public class ObjectPerturbator implements ITestDataGenerator {
     private JsonMutator jsonMutator;
     private ObjectMapper objectMapper;
     private Boolean singleOrder = true; // True if single order mutation, false otherwise
-    private Random random = new SecureRandom();
+    private Random random = SeedTree.newRandom(SeedTree.current().nextLong());
 
     private static final String LOGGER_ERROR_MSG = "An error occurred when deserializing JSON:";
     private static Logger logger = LogManager.getLogger(ObjectPerturbator.class.getName());
@@ -96,6 +96,11 @@ public class ObjectPerturbator implements ITestDataGenerator {
         return null;
     }
 
+    @Override
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
     public List<JsonNode> getOriginalObjects() {
         return originalObjects;
     }
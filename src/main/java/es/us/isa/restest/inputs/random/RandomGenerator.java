@@ -1,8 +1,12 @@
 package es.us.isa.restest.inputs.random;
 
+import java.util.Random;
+
 import org.apache.commons.math3.random.RandomDataGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
 
 import es.us.isa.restest.inputs.ITestDataGenerator;
+import es.us.isa.restest.util.SeedTree;
 
 /** Superclass for random generators. Seed management
  * @author Sergio Segura
@@ -12,13 +16,15 @@ public abstract class RandomGenerator implements ITestDataGenerator {
 
 	long seed=-1;
     RandomDataGenerator rand;
+    Random random;			// Same stream as rand, for the methods that need a java.util.Random
     
     public RandomGenerator() {
-    	this.rand = new RandomDataGenerator();
-    	this.seed = rand.getRandomGenerator().nextLong();
-    	rand.reSeed(seed);
+    	this.seed = SeedTree.current().nextLong();
+    	this.random = SeedTree.newRandom(seed);
+    	this.rand = new RandomDataGenerator(RandomGeneratorFactory.createRandomGenerator(random));
     }
 	
+	@Override
 	public void setSeed(long seed) {
 		this.seed = seed;
 		rand.reSeed(seed);
@@ -2,7 +2,6 @@ package es.us.isa.restest.inputs.random;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 /** Random iterator for a list of input values of type &lt;T&gt;
@@ -15,7 +14,6 @@ public class RandomInputValueIterator<T> extends RandomGenerator{
     private Integer minValues; // Defaults to 1
     private Integer maxValues; // Defaults to 1
     private String separator; // Defaults to ","
-	private Random random = new Random();
      
     public RandomInputValueIterator() {
     	super();
@@ -55,7 +55,9 @@ public class RandomRegExpGenerator extends RandomGenerator {
 		this.maxLength = maxLength;
 	}
 
+	@Override
 	public void setSeed(long seed) {
+		super.setSeed(seed);
     	generex.setSeed(seed);
 	}
 }
@@ -76,16 +76,16 @@ public class RandomStringGenerator extends RandomGenerator {
 
         switch(stringConf) {
             case 7:
-                generatedString = RandomStringUtils.randomAscii(stringLength);
+                generatedString = RandomStringUtils.random(stringLength, 32, 127, false, false, null, random);
                 break;
             case 6:
-                generatedString = RandomStringUtils.randomAlphanumeric(stringLength);
+                generatedString = RandomStringUtils.random(stringLength, 0, 0, true, true, null, random);
                 break;
             case 4:
-                generatedString = RandomStringUtils.randomAlphabetic(stringLength);
+                generatedString = RandomStringUtils.random(stringLength, 0, 0, true, false, null, random);
                 break;
             case 2:
-                generatedString = RandomStringUtils.randomNumeric(stringLength);
+                generatedString = RandomStringUtils.random(stringLength, 0, 0, false, true, null, random);
                 break;
             case 0:
                 generatedString = "";
@@ -93,7 +93,7 @@ public class RandomStringGenerator extends RandomGenerator {
             case 5:
             case 3:
             case 1:
-                generatedString = completeString(RandomStringUtils.randomAscii(stringLength), stringConf);
+                generatedString = completeString(RandomStringUtils.random(stringLength, 32, 127, false, false, null, random), stringConf);
                 break;
             default:
                 // TODO: Is the following exception being properly used?
@@ -113,7 +113,7 @@ public class RandomStringGenerator extends RandomGenerator {
 
         do {
             // Generate maximum-length ASCII string and then remove characters not permitted
-            finalString += RandomStringUtils.randomAscii(maxLength - finalString.length());
+            finalString += RandomStringUtils.random(maxLength - finalString.length(), 32, 127, false, false, null, random);
             switch (stringConf) {
                 case 5:
                     finalString = finalString.replaceAll("[0-9]", "");
@@ -11,6 +11,7 @@ import es.us.isa.restest.util.FileManager;
 import es.us.isa.restest.util.JSONManager;
 import es.us.isa.restest.util.RESTestException;
 import es.us.isa.restest.util.SchemaManager;
+import es.us.isa.restest.util.SeedTree;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.examples.Example;
 import io.swagger.v3.oas.models.media.ArraySchema;
@@ -19,7 +20,6 @@ import io.swagger.v3.oas.models.media.Schema;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.security.SecureRandom;
 import java.util.*;
 
 import static es.us.isa.restest.inputs.fuzzing.FuzzingDictionary.getNodeFuzzingValue;
@@ -47,7 +47,7 @@ public class BodyGenerator implements ITestDataGenerator {
     private static final String DOT_CONVERSION = "(dot)";
 
     public BodyGenerator() {
-        this.random = new SecureRandom();
+        this.random = SeedTree.newRandom(SeedTree.current().nextLong());
     }
 
     @Override
@@ -229,6 +229,11 @@ public class BodyGenerator implements ITestDataGenerator {
         return nextValueAsString();
     }
 
+    @Override
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
     public void setDataDirPath(String dataDirPath) {
         this.dataDirPath = dataDirPath;
     }
@@ -1,12 +1,12 @@
 package es.us.isa.restest.inputs.stateful;
 
+import es.us.isa.restest.util.SeedTree;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.stanford.nlp.process.Morphology;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -43,7 +43,7 @@ public class DataMatching {
         if (paramValue == null) {
             List<JsonNode> paramValues = getValuesOfSimilarParameterNames(operationDict, paramName);
             if (!paramValues.isEmpty())
-                paramValue = paramValues.get(ThreadLocalRandom.current().nextInt(paramValues.size()));
+                paramValue = paramValues.get(SeedTree.current().nextInt(paramValues.size()));
         }
 
         // 4th option: Other operations, similar parameter name
@@ -53,7 +53,7 @@ public class DataMatching {
             while (dictIterator.hasNext())
                 paramValues.addAll(getValuesOfSimilarParameterNames((ObjectNode) dictIterator.next(), paramName));
             if (!paramValues.isEmpty())
-                paramValue = paramValues.get(ThreadLocalRandom.current().nextInt(paramValues.size()));
+                paramValue = paramValues.get(SeedTree.current().nextInt(paramValues.size()));
         }
 
         // 5th option: Repeat whole process with sub-property name (e.g., "data.comment.id" -> "comment.id")
@@ -68,7 +68,7 @@ public class DataMatching {
         if (operationDict != null) {
             ArrayNode paramDict = ((ArrayNode) operationDict.get(paramName));
             if (paramDict != null) {
-                paramValue = paramDict.get(ThreadLocalRandom.current().nextInt(paramDict.size()));
+                paramValue = paramDict.get(SeedTree.current().nextInt(paramDict.size()));
             }
         }
         return paramValue;
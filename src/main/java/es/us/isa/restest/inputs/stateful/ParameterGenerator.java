@@ -8,7 +8,6 @@ import es.us.isa.restest.specification.OpenAPISpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.security.SecureRandom;
 import java.util.*;
 
 import static es.us.isa.restest.inputs.fuzzing.FuzzingDictionary.getNodeFuzzingValue;
@@ -30,15 +29,10 @@ public class ParameterGenerator implements ITestDataGenerator {
     private String defaultValue;
     private OpenAPISpecification spec;
 
-    private Random random;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private static final Logger logger = LogManager.getLogger(ParameterGenerator.class);
 
-    public ParameterGenerator() {
-        this.random = new SecureRandom();
-    }
-
     @Override
     public JsonNode nextValue() {
         JsonNode valueNode = null;
@@ -3,17 +3,17 @@ package es.us.isa.restest.mutation;
 import es.us.isa.restest.mutation.pipelines.DropSelectTypePipeline;
 import es.us.isa.restest.mutation.rules.DuplicateRule;
 import es.us.isa.restest.util.SchemaManager;
+import es.us.isa.restest.util.SeedTree;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.Schema;
 
-import java.security.SecureRandom;
 import java.util.Random;
 
 import static es.us.isa.restest.util.SchemaManager.generateFullyResolvedSchema;
 
 public class SchemaMutation {
 
-    private final Random random = new SecureRandom();
+    private final Random random = SeedTree.current(); // Shared by all threads, each one uses its own stream
 
     private Schema schema;
     private OpenAPI spec;
@@ -1,5 +1,6 @@
 package es.us.isa.restest.mutation;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -7,6 +8,7 @@ import java.util.List;
 import es.us.isa.restest.mutation.operators.invalidvalue.InvalidParameterValue;
 import es.us.isa.restest.mutation.operators.RemoveRequiredParameter;
 import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.util.SeedTree;
 import io.swagger.v3.oas.models.Operation;
 
 /**
@@ -39,8 +41,8 @@ public class TestCaseMutation {
 		String mutationApplied = "";
 
 		// Shuffle list of operators
-		List<String> operators = Arrays.asList(mutationOperators);
-		Collections.shuffle(operators);
+		List<String> operators = new ArrayList<>(Arrays.asList(mutationOperators));	// Copy, the array is shared by all threads
+		Collections.shuffle(operators, SeedTree.current());
 		
 		int index = 0;
 		while (index<operators.size() && mutationApplied.equals("")) {
@@ -1,11 +1,11 @@
 package es.us.isa.restest.mutation.operators;
 
+import es.us.isa.restest.util.SeedTree;
 import es.us.isa.restest.specification.OpenAPIParameter;
 import es.us.isa.restest.testcases.TestCase;
 import io.swagger.v3.oas.models.Operation;
 
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.getRequiredNotPathParametersFeatures;
 
@@ -33,7 +33,7 @@ public class RemoveRequiredParameter extends AbstractMutationOperator {
         	return "";
         
         // Remove random required parameter
-        OpenAPIParameter selectedParam = candidateParameters.get(ThreadLocalRandom.current().nextInt(0, candidateParameters.size()));
+        OpenAPIParameter selectedParam = candidateParameters.get(SeedTree.current().nextInt(candidateParameters.size()));
         tc.removeParameter(selectedParam);
         return "Removed required parameter " + selectedParam.getName();
     }
@@ -1,14 +1,15 @@
 package es.us.isa.restest.mutation.operators.invalidvalue;
 
+import es.us.isa.restest.util.SeedTree;
 import es.us.isa.restest.mutation.operators.AbstractMutationOperator;
 import es.us.isa.restest.specification.OpenAPIParameter;
 import es.us.isa.restest.testcases.TestCase;
 import org.apache.commons.lang3.RandomStringUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 import static es.us.isa.restest.mutation.operators.invalidvalue.InvalidParameterValue.INTEGER_TYPE;
 import static es.us.isa.restest.mutation.operators.invalidvalue.InvalidParameterValue.NUMBER_TYPE;
@@ -36,35 +37,35 @@ public abstract class AbstractToInvalidOperator extends AbstractMutationOperator
         String mutationApplied = "";
 
         // Shuffle list of mutations
-        List<String> mutationsList = Arrays.asList(mutations);
-        Collections.shuffle(mutationsList);
+        List<String> mutationsList = new ArrayList<>(Arrays.asList(mutations));    // Copy, the array is shared by all threads
+        Collections.shuffle(mutationsList, SeedTree.current());
 
         int index = 0;
         while (index<mutationsList.size() && mutationApplied.equals("")) {
             switch (mutationsList.get(index)) {
                 case REPLACE_WITH_INT:
-                    String randomInt = Integer.toString(ThreadLocalRandom.current().nextInt(1000, 10001));
+                    String randomInt = Integer.toString(1000 + SeedTree.current().nextInt(9001));
                     if (param.getEnumValues() == null || !param.getEnumValues().contains(randomInt)) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, randomInt);
                         tc.addParameter(param, randomInt);
                     }
                     break;
                 case REPLACE_WITH_BOOL:
-                    String randomBoolean = Boolean.toString(ThreadLocalRandom.current().nextBoolean());
+                    String randomBoolean = Boolean.toString(SeedTree.current().nextBoolean());
                     if (param.getEnumValues() == null || !param.getEnumValues().contains(randomBoolean)) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, randomBoolean);
                         tc.addParameter(param, randomBoolean);
                     }
                     break;
                 case REPLACE_WITH_STRING:
-                    String randomString = RandomStringUtils.randomAlphabetic(10, 20);
+                    String randomString = randomAlphabetic(10 + SeedTree.current().nextInt(10));
                     if (param.getEnumValues() == null || !param.getEnumValues().contains(randomString)) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, randomString);
                         tc.addParameter(param, randomString);
                     }
                     break;
                 case REPLACE_WITH_NUMBER:
-                    String randomNumber = Double.toString(ThreadLocalRandom.current().nextDouble(1000, 10001));
+                    String randomNumber = Double.toString(1000 + SeedTree.current().nextDouble() * 9001);
                     if (param.getEnumValues() == null || !param.getEnumValues().contains(randomNumber)) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, randomNumber);
                         tc.addParameter(param, randomNumber);
@@ -74,36 +75,36 @@ public abstract class AbstractToInvalidOperator extends AbstractMutationOperator
                     if (param.getMax() != null) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, null);
                         if (param.getType().equals(NUMBER_TYPE))
-                            tc.addParameter(param, Double.toString(param.getMax().doubleValue() + ThreadLocalRandom.current().nextDouble(1, 10)));
+                            tc.addParameter(param, Double.toString(param.getMax().doubleValue() + (1 + SeedTree.current().nextDouble() * 9)));
                         else if (param.getType().equals(INTEGER_TYPE))
-                            tc.addParameter(param, Integer.toString(param.getMax().intValue() + ThreadLocalRandom.current().nextInt(1, 10)));
+                            tc.addParameter(param, Integer.toString(param.getMax().intValue() + (1 + SeedTree.current().nextInt(9))));
                     }
                     break;
                 case VIOLATE_MIN_CONSTRAINT:
                     if (param.getMin() != null) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, null);
                         if (param.getType().equals(NUMBER_TYPE))
-                            tc.addParameter(param, Double.toString(param.getMin().doubleValue() - ThreadLocalRandom.current().nextDouble(1, 10)));
+                            tc.addParameter(param, Double.toString(param.getMin().doubleValue() - (1 + SeedTree.current().nextDouble() * 9)));
                         else if (param.getType().equals(INTEGER_TYPE))
-                            tc.addParameter(param, Integer.toString(param.getMin().intValue() - ThreadLocalRandom.current().nextInt(1, 10)));
+                            tc.addParameter(param, Integer.toString(param.getMin().intValue() - (1 + SeedTree.current().nextInt(9))));
                     }
                     break;
                 case VIOLATE_FORMAT_CONSTRAINT:
                     if (param.getFormat() != null || param.getPattern() != null) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, null);
-                        tc.addParameter(param, RandomStringUtils.randomAlphabetic(10, 20));
+                        tc.addParameter(param, randomAlphabetic(10 + SeedTree.current().nextInt(10)));
                     }
                     break;
                 case VIOLATE_MAX_LENGTH_CONSTRAINT:
                     if (param.getMaxLength() != null) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, null);
-                        tc.addParameter(param, RandomStringUtils.randomAlphabetic(param.getMaxLength() + ThreadLocalRandom.current().nextInt(1, 11)));
+                        tc.addParameter(param, randomAlphabetic(param.getMaxLength() + 1 + SeedTree.current().nextInt(10)));
                     }
                     break;
                 case VIOLATE_MIN_LENGTH_CONSTRAINT:
                     if (param.getMinLength() != null && param.getMinLength() > 1) {
                         mutationApplied = getMutationMessage(mutationsList.get(index), param, tc, null);
-                        tc.addParameter(param, RandomStringUtils.randomAlphabetic(param.getMinLength() - 1));
+                        tc.addParameter(param, randomAlphabetic(param.getMinLength() - 1));
                     }
                     break;
                 default:
@@ -139,4 +140,9 @@ public abstract class AbstractToInvalidOperator extends AbstractMutationOperator
                 throw new IllegalArgumentException("Mutation not supported: " + mutation);
         }
     }
+
+    // Letters taken from the random stream of the current thread
+    private static String randomAlphabetic(int count) {
+        return RandomStringUtils.random(count, 0, 0, true, false, null, SeedTree.current());
+    }
 }
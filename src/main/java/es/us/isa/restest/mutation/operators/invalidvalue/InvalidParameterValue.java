@@ -1,12 +1,12 @@
 package es.us.isa.restest.mutation.operators.invalidvalue;
 
+import es.us.isa.restest.util.SeedTree;
 import es.us.isa.restest.mutation.operators.AbstractMutationOperator;
 import es.us.isa.restest.specification.OpenAPIParameter;
 import es.us.isa.restest.testcases.TestCase;
 import io.swagger.v3.oas.models.Operation;
 
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.getParametersFeaturesSubjectToInvalidValueChange;
 
@@ -37,7 +37,7 @@ public class InvalidParameterValue extends AbstractMutationOperator {
         if (candidateParameters.isEmpty())
         	return "";
         	
-        OpenAPIParameter selectedParam = candidateParameters.get(ThreadLocalRandom.current().nextInt(0, candidateParameters.size())); // Select one randomly
+        OpenAPIParameter selectedParam = candidateParameters.get(SeedTree.current().nextInt(candidateParameters.size())); // Select one randomly
 
         if (selectedParam.getEnumValues() != null) // Value of enum range
             return EnumToInvalid.mutate(tc, selectedParam);
@@ -3,10 +3,10 @@ package es.us.isa.restest.mutation.pipelines;
 import es.us.isa.restest.mutation.rules.DropRule;
 import es.us.isa.restest.mutation.rules.SelectRule;
 import es.us.isa.restest.mutation.rules.TypeRule;
+import es.us.isa.restest.util.SeedTree;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.Schema;
 
-import java.security.SecureRandom;
 import java.util.Random;
 
 public class DropSelectTypePipeline {
@@ -22,7 +22,7 @@ public class DropSelectTypePipeline {
         return instance;
     }
 
-    private static final Random random = new SecureRandom();
+    private static final Random random = SeedTree.current(); // Shared by all threads, each one uses its own stream
 
     public void apply(Schema<?> schema, OpenAPI spec) {
         DropRule.getInstance().apply(schema, spec);
@@ -1,15 +1,15 @@
 package es.us.isa.restest.mutation.rules;
 
+import es.us.isa.restest.util.SeedTree;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.ArraySchema;
 import io.swagger.v3.oas.models.media.Schema;
 
-import java.security.SecureRandom;
 import java.util.*;
 
 public abstract class PathRule {
 
-    protected final Random random = new SecureRandom();
+    protected final Random random = SeedTree.current(); // Shared by all threads, each one uses its own stream
 
     protected PathRule() {}
 
@@ -1,10 +1,10 @@
 package es.us.isa.restest.mutation.rules;
 
+import es.us.isa.restest.util.SeedTree;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.ArraySchema;
 import io.swagger.v3.oas.models.media.Schema;
 
-import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -14,7 +14,7 @@ import static es.us.isa.restest.util.SchemaManager.resolveSchema;
 
 public abstract class SingleRule {
 
-    protected final Random random = new SecureRandom();
+    protected final Random random = SeedTree.current(); // Shared by all threads, each one uses its own stream
 
     protected SingleRule() {}
 
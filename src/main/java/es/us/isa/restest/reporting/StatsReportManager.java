@@ -2,17 +2,32 @@ package es.us.isa.restest.reporting;
 
 import es.us.isa.restest.coverage.CoverageMeter;
 import es.us.isa.restest.coverage.CoverageResults;
+import es.us.isa.restest.execution.Shard;
 import es.us.isa.restest.testcases.TestCase;
 import es.us.isa.restest.testcases.TestResult;
+import es.us.isa.restest.util.CSVManager;
+import es.us.isa.restest.util.ColumnarStore;
 import es.us.isa.restest.util.PropertyManager;
 import es.us.isa.restest.util.TestManager;
+import es.us.isa.restest.util.TestResultSink;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import static es.us.isa.restest.util.FileManager.checkIfExists;
 import static es.us.isa.restest.util.FileManager.copyFile;
 
 
@@ -28,6 +43,8 @@ public class StatsReportManager {
     private boolean enableCSVStats = true;
     private boolean enableInputCoverage = true;
     private boolean enableOutputCoverage = true;
+    private boolean enableColumnarStats = Boolean.parseBoolean(PropertyManager.readProperty("stats.columnar"));
+    private boolean enableIterationCoverage = Boolean.parseBoolean(PropertyManager.readProperty("coverage.iteration"));
     private CoverageMeter coverageMeter;
     Collection<TestCase> testCases = null;
 
@@ -51,48 +68,149 @@ public class StatsReportManager {
     // Generate statistics
     public void generateReport(String testId, boolean executeTestCases) {
 
-        // Generate CVS stats
-        if (enableCSVStats)
-            generateCSVStats(testId);
-
         // Generate coverage stats
         if (enableInputCoverage || enableOutputCoverage)
             generateCoverageStats(testId, executeTestCases);
 
+        // Convert test cases and test results to binary columnar format
+        if (enableCSVStats && enableColumnarStats)
+            generateColumnarStats(testId, executeTestCases);
+
     }
 
 
-    // Generate CSV statistics (test cases to CSV)
-    private void generateCSVStats(String testId) {
-        logger.info("Exporting test cases to CSV");
+    // Export a test case to CSV as soon as it is generated, so the test suite does not need to be kept in memory
+    public void exportTestCase(TestCase testCase, String testId) {
+        if (enableCSVStats)
+            testCase.exportToCSV(testDataDir + "/" + PropertyManager.readProperty("data.tests.testcases.file") + "_" + testId + ".csv");
+    }
+
+    // Write the test cases and test results next to the CSV files, in binary columnar format
+    private void generateColumnarStats(String testId, boolean executeTestCases) {
         String csvTcPath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testcases.file") + "_" + testId + ".csv";
-        testCases.forEach(tc -> tc.exportToCSV(csvTcPath));
+        String csvTrPath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_" + testId + ".csv";
+        TestResultSink.flush();
+        try {
+            if (checkIfExists(csvTcPath))
+                ColumnarStore.convertTestCases(csvTcPath, ColumnarStore.getStorePath(csvTcPath));
+            if (executeTestCases && checkIfExists(csvTrPath))
+                ColumnarStore.convertTestResults(csvTrPath, ColumnarStore.getStorePath(csvTrPath));
+            logger.info("Test cases and test results converted to binary columnar format.");
+        } catch (IOException e) {
+            logger.error("Error converting the test cases and test results of {} to binary columnar format", testId);
+            logger.error("Exception: ", e);
+        }
     }
 
     // Generate coverage statistics
     private void generateCoverageStats(String testId, boolean executeTestCases) {
 
-        // Add test cases
-        getCoverageMeter().addTestSuite(testCases);
-
+        List<TestResult> trs = null;
         if (enableOutputCoverage && executeTestCases) {
-            // Update CoverageMeter with the test results
             String csvTrPath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_" + testId + ".csv";
-            List<TestResult> trs = TestManager.getTestResults(csvTrPath);
-            coverageMeter.addTestResults(trs, testCases);
+            trs = TestManager.getTestResults(csvTrPath);
         }
 
-        if (enableInputCoverage || enableOutputCoverage) {
-            // Generate coverage report (input coverage a priori)
-            exportCoverageReport(coverageMeter, coverageDataDir + "/" + PropertyManager.readProperty("data.coverage.computation.priori.file") + "_" + testId + ".csv");
-            logger.info("Coverage report a priori generated.");
+        // Update the cumulative coverage with the test cases and test results of this test suite (they are not kept by the CoverageMeter)
+        getCoverageMeter().applyDelta(testCases, trs);
+        exportCoverageReports(coverageMeter, "", testId, executeTestCases);
+
+        if (enableIterationCoverage) {
+            // Coverage of this test suite alone
+            CoverageMeter iterationCoverageMeter = coverageMeter.copyWithoutCoverage();
+            iterationCoverageMeter.applyDelta(testCases, trs);
+            exportCoverageReports(iterationCoverageMeter, "-iteration", testId, executeTestCases);
+        }
+    }
 
-            if(executeTestCases) {
-                // Generate coverage report (input coverage a posteriori)
-                exportCoverageReport(coverageMeter.getAPosteriorCoverageMeter(), coverageDataDir + "/" + PropertyManager.readProperty("data.coverage.computation.posteriori.file") + "_" + testId + ".csv");
-                logger.info("Coverage report a posteriori generated.");
+    private void exportCoverageReports(CoverageMeter coverageMeter, String fileSuffix, String testId, boolean executeTestCases) {
+        // Generate coverage report (input coverage a priori)
+        exportCoverageReport(coverageMeter, coverageDataDir + "/" + PropertyManager.readProperty("data.coverage.computation.priori.file") + fileSuffix + "_" + testId + ".csv");
+        logger.info("Coverage report a priori generated.");
+
+        if(executeTestCases) {
+            // Generate coverage report (input coverage a posteriori)
+            exportCoverageReport(coverageMeter.getAPosteriorCoverageMeter(), coverageDataDir + "/" + PropertyManager.readProperty("data.coverage.computation.posteriori.file") + fileSuffix + "_" + testId + ".csv");
+            logger.info("Coverage report a posteriori generated.");
+        }
+    }
+
+    /**
+     * Merges the CSV files written by the shards of a test suite (see {@link Shard}) into a single
+     * test cases file and a single test results file with the given test ID, and generates the
+     * coverage reports of the whole suite from them. If the shards executed a test class generated
+     * for the whole suite, there are no test cases files of the shards, and the test cases file of
+     * the whole suite is used instead. All shards must have finished before calling this method.
+     * @param testId Test ID of the merged files
+     * @param shardCount Number of shards
+     * @param executeTestCases Whether the shards executed the test cases (i.e., whether there are test results)
+     * @return The test cases of all shards
+     */
+    public Collection<TestCase> mergeShards(String testId, int shardCount, boolean executeTestCases) {
+        String csvTcPath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testcases.file") + "_" + testId + ".csv";
+        int tcFiles = mergeShardFiles(PropertyManager.readProperty("data.tests.testcases.file"), testId, shardCount, csvTcPath);
+        if (tcFiles > 0) {
+            testCases = TestManager.getTestCases(csvTcPath);
+            logger.info("{} test cases merged from {} shard files", testCases.size(), tcFiles);
+        } else if (checkIfExists(csvTcPath)) {
+            CSVManager.flush(csvTcPath); // It may still be buffered if the test suite was generated by this process
+            testCases = TestManager.getTestCases(csvTcPath);
+            logger.info("{} test cases read from the test cases file of the whole suite: {}", testCases.size(), csvTcPath);
+        } else {
+            testCases = new ArrayList<>();
+            logger.warn("No test cases found for test ID {}", testId);
+        }
+
+        if (executeTestCases) {
+            String csvTrPath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_" + testId + ".csv";
+            int trFiles = mergeShardFiles(PropertyManager.readProperty("data.tests.testresults.file"), testId, shardCount, csvTrPath);
+            logger.info("Test results merged from {} shard files", trFiles);
+        }
+
+        // Generate coverage stats of the whole test suite
+        if (enableInputCoverage || enableOutputCoverage)
+            generateCoverageStats(testId, executeTestCases);
+
+        return testCases;
+    }
+
+    // Concatenate the CSV files of all shards of a test ID with the given prefix (e.g., "test-cases"), sorted by name, line by line.
+    // Returns the number of files merged
+    private int mergeShardFiles(String prefix, String testId, int shardCount, String targetPath) {
+        Pattern shardFile = Pattern.compile(Pattern.quote(prefix + "_" + testId) + "_shard(\\d+)\\.csv");
+        File[] files = new File(testDataDir).listFiles((dir, name) -> {
+            Matcher matcher = shardFile.matcher(name);
+            return matcher.matches() && Integer.parseInt(matcher.group(1)) < shardCount;
+        });
+        if (files == null || files.length == 0) {
+            logger.warn("No shard files found with prefix {} and test ID {} in {}", prefix, testId, testDataDir);
+            return 0;
+        }
+        Arrays.sort(files);
+        TestResultSink.flush();
+        CSVManager.close(targetPath);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(targetPath), StandardCharsets.UTF_8)) {
+            boolean headerWritten = false;
+            for (File file: files) {
+                try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    String line = reader.readLine();
+                    if (line != null && !headerWritten) { // The header is only written once
+                        writer.write(line);
+                        writer.newLine();
+                        headerWritten = true;
+                    }
+                    while ((line = reader.readLine()) != null) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
             }
+        } catch (IOException e) {
+            logger.error("Error merging the shard files with prefix {} into {}", prefix, targetPath);
+            logger.error("Exception: ", e);
         }
+        return files.length;
     }
 
     private void exportCoverageReport(CoverageMeter coverageMeter, String path) {
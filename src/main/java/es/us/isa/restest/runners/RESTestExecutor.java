@@ -1,6 +1,8 @@
 package es.us.isa.restest.runners;
 
 
+import es.us.isa.restest.execution.Shard;
+import es.us.isa.restest.execution.ShardFilter;
 import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.util.ClassLoader;
 
@@ -8,7 +10,9 @@ import es.us.isa.restest.util.Timer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
 import org.junit.runner.Result;
+import org.junit.runner.manipulation.Filter;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -38,15 +42,26 @@ public class RESTestExecutor {
     }
 
     public void execute() {
-        String filePath = loader.targetDirJava + "/" + loader.testClassName + ".java";
-        String className = loader.packageName + "." + loader.testClassName;
+        loader.spec = new OpenAPISpecification(loader.OAISpecPath);
+        Shard shard = loader.shardCount > 1 ? loader.createShard(loader.getTestConfigurationObject()) : null;
+
+        // Each shard runs its own test class or, if the test class was generated for the whole suite, the test cases of its operations
+        String testClassName = loader.getTestClassName();
+        Filter filter = null;
+        if (shard != null && !Files.exists(Paths.get(loader.targetDirJava + "/" + testClassName + ".java"))) {
+            testClassName = loader.testClassName;
+            filter = new ShardFilter(shard);
+        }
+
+        String filePath = loader.targetDirJava + "/" + testClassName + ".java";
+        String className = loader.packageName + "." + testClassName;
         Path path = Paths.get(filePath);
         if(!Files.exists(path)) {
             logger.error("Test class {} not found in {}", className, filePath);
             throw new IllegalArgumentException("Test class " + className + " not found in " + filePath);
         }else{
             Class<?> testClass = loadTestClass(filePath, className);
-            runTests(testClass);
+            runTests(testClass, filter);
         }
 
     }
@@ -56,14 +71,18 @@ public class RESTestExecutor {
         return ClassLoader.loadClass(filePath, className);
     }
 
-    private void runTests(Class<?> testClass) {
+    private void runTests(Class<?> testClass, Filter filter) {
 
         JUnitCore junit = new JUnitCore();
         junit.addListener(new io.qameta.allure.junit4.AllureJunit4());
-        loader.spec = new OpenAPISpecification(loader.OAISpecPath);
         loader.createStatsReportManager();
+        Request request = Request.aClass(testClass);
+        if (filter != null) {
+            logger.info("Running the test cases of {}", filter.describe());
+            request = request.filterWith(filter);
+        }
         Timer.startCounting(TEST_SUITE_EXECUTION);
-        Result result = junit.run(testClass);
+        Result result = junit.run(request);
         Timer.stopCounting(TEST_SUITE_EXECUTION);
         int successfulTests = result.getRunCount() - result.getFailureCount() - result.getIgnoreCount();
         logger.info("{} tests run in {} seconds. Successful: {}, Failures: {}, Ignored: {}", result.getRunCount(), result.getRunTime()/1000, successfulTests, result.getFailureCount(), result.getIgnoreCount());
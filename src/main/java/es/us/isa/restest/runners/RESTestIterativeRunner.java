@@ -3,16 +3,24 @@ package es.us.isa.restest.runners;
 import es.us.isa.restest.generators.AbstractTestCaseGenerator;
 import es.us.isa.restest.reporting.AllureReportManager;
 import es.us.isa.restest.reporting.StatsReportManager;
+import es.us.isa.restest.runners.RESTestWorkflow.TestBatch;
 import es.us.isa.restest.util.IDGenerator;
 import es.us.isa.restest.util.PropertyManager;
 import es.us.isa.restest.util.RESTestException;
 import es.us.isa.restest.util.Timer;
+import es.us.isa.restest.util.ValidationCache;
 import es.us.isa.restest.writers.IWriter;
 import es.us.isa.restest.writers.restassured.RESTAssuredWriter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static es.us.isa.restest.util.FileManager.createDir;
@@ -31,6 +39,8 @@ public class RESTestIterativeRunner extends RESTestLoader {
 	protected StatsReportManager statsReportManager;	// Stats report manager
 	protected RESTestWorkflow workflow;					// RESTest workflow (generation and execution)
 
+	private static final TestBatch END_OF_BATCHES = new TestBatch(null, null, null, 0, null);	// Marks the end of a pipeline queue
+
 	private static final Logger logger = LogManager.getLogger(RESTestIterativeRunner.class.getName());
 
 	public RESTestIterativeRunner(String userPropertiesFilePath) throws RESTestException {
@@ -57,6 +67,8 @@ public class RESTestIterativeRunner extends RESTestLoader {
 
 		workflow.setAllureReport(allureReports);			// Enable/disable allure generation
 		workflow.setExecuteTestCases(executeTestCases);		// Enable/disable test execution
+		workflow.setInProcessExecutor(createInProcessExecutor());	// Execute test cases in-process (if enabled)
+		workflow.setExecutionWorkers(executionWorkers);		// Number of test cases executed concurrently
 		workflow.setTestId(experimentName);
 
 	}
@@ -76,6 +88,18 @@ public class RESTestIterativeRunner extends RESTestLoader {
 		Timer.startCounting(ALL);
 
 		// Main loop
+		int iterations = pipelined ? runPipelined() : runSequentially();
+
+		Timer.stopCounting(ALL);
+
+		ValidationCache.logStatistics();
+
+		generateTimeReport(iterations);
+
+	}
+
+	// Each iteration generates, executes and reports a batch of test cases, one stage after another
+	private int runSequentially() throws RESTestException {
 		int iteration = 1;
 		while (totalNumTestCases == -1 || workflow.getNumTestCases() < totalNumTestCases) {
 
@@ -84,7 +108,7 @@ public class RESTestIterativeRunner extends RESTestLoader {
 				delay(timeDelay);
 
 			// Generate unique test class name to avoid the same class being loaded everytime
-			String id = IDGenerator.generateTimeId();
+			String id = getTestId(IDGenerator.generateTimeId());
 			String className = testClassName + "_" + id;
 			((RESTAssuredWriter) writer).setClassName(className);
 			((RESTAssuredWriter) writer).setTestId(id);
@@ -98,10 +122,88 @@ public class RESTestIterativeRunner extends RESTestLoader {
 			iteration++;
 		}
 
-		Timer.stopCounting(ALL);
+		return iteration-1;
+	}
+
+	/*
+	 * Stages run concurrently and communicate through bounded queues: while batch N is being
+	 * executed (in this thread), the next batches are generated and compiled, and the reports of
+	 * the previous batches are generated. Note that, with stateful generators, a batch cannot use
+	 * the data obtained from the responses of the batch executed right before it.
+	 */
+	private int runPipelined() throws RESTestException {
+		BlockingQueue<TestBatch> preparedBatches = new ArrayBlockingQueue<>(pipelineQueueSize);
+		BlockingQueue<TestBatch> executedBatches = new ArrayBlockingQueue<>(pipelineQueueSize);
+		ExecutorService stages = Executors.newFixedThreadPool(2);
+
+		Future<Void> generation = stages.submit(() -> {
+			try {
+				while (totalNumTestCases == -1 || workflow.getNumTestCases() < totalNumTestCases)
+					preparedBatches.put(prepareNextBatch());
+			} finally {
+				preparedBatches.put(END_OF_BATCHES);
+			}
+			return null;
+		});
+
+		Future<Void> reporting = stages.submit(() -> {
+			TestBatch batch;
+			while ((batch = executedBatches.take()) != END_OF_BATCHES)
+				workflow.reportBatch(batch);
+			return null;
+		});
+
+		int iteration = 1;
+		try {
+			TestBatch batch;
+			while ((batch = preparedBatches.take()) != END_OF_BATCHES) {
+
+				// Introduce optional delay
+				if (iteration != 1 && timeDelay != -1)
+					delay(timeDelay);
+
+				workflow.executeBatch(batch);
+				putExecutedBatch(executedBatches, batch, reporting);
+
+				logger.info("Iteration {}. {} test cases executed.", iteration, batch.getNumTestCases());
+				iteration++;
+			}
+			putExecutedBatch(executedBatches, END_OF_BATCHES, reporting);
+
+			generation.get();
+			reporting.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RESTestException("Interrupted while running the pipeline", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RESTestException)
+				throw (RESTestException) e.getCause();
+			throw new RESTestException("Error running the pipeline: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			stages.shutdownNow();
+		}
+
+		return iteration-1;
+	}
+
+	// Waits until there is room for the batch in the queue, unless the reporting stage fails (then nothing would take it)
+	private void putExecutedBatch(BlockingQueue<TestBatch> executedBatches, TestBatch batch, Future<Void> reporting) throws InterruptedException, ExecutionException, RESTestException {
+		while (!executedBatches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+			if (reporting.isDone()) {
+				reporting.get(); // Throws the exception of the reporting stage
+				throw new RESTestException("The reporting stage of the pipeline finished before all batches were executed");
+			}
+		}
+	}
 
-		generateTimeReport(iteration-1);
+	private TestBatch prepareNextBatch() throws RESTestException {
+		// Generate unique test class name to avoid the same class being loaded everytime
+		String id = getTestId(IDGenerator.generateTimeId());
+		String className = testClassName + "_" + id;
+		((RESTAssuredWriter) writer).setClassName(className);
+		((RESTAssuredWriter) writer).setTestId(id);
 
+		return workflow.prepareBatch(className, id);
 	}
 
 	// Introduce delay
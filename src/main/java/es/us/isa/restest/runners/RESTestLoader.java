@@ -3,6 +3,9 @@ package es.us.isa.restest.runners;
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.coverage.CoverageGatherer;
 import es.us.isa.restest.coverage.CoverageMeter;
+import es.us.isa.restest.execution.InProcessTestExecutor;
+import es.us.isa.restest.execution.RequestScheduler;
+import es.us.isa.restest.execution.Shard;
 import es.us.isa.restest.generators.*;
 import es.us.isa.restest.main.CreateTestConf;
 import es.us.isa.restest.reporting.AllureReportManager;
@@ -11,6 +14,7 @@ import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.util.*;
 import es.us.isa.restest.writers.IWriter;
 import es.us.isa.restest.writers.restassured.RESTAssuredWriter;
+import es.us.isa.restest.writers.restassured.filters.AuthQuotaFilter;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,6 +26,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static es.us.isa.restest.configuration.TestConfigurationIO.loadConfiguration;
+import static es.us.isa.restest.configuration.TestConfigurationVisitor.hasStatefulGenerators;
 import static es.us.isa.restest.util.FileManager.createDir;
 import static es.us.isa.restest.util.FileManager.deleteDir;
 
@@ -54,6 +59,23 @@ public class RESTestLoader {
 	String allureReportsPath;							// Path to Allure reports
 	Boolean checkTestCases;								// If 'true', test cases will be checked with OASValidator before executing them
 	String proxy;										// Proxy to use for all requests in format host:port
+	String executionMode = "junit";						// How test cases are executed (junit: write, compile and run a test class; inprocess: send them directly from memory)
+	Integer executionWorkers = 1;						// Number of test cases executed concurrently
+	Integer maxRequestsPerHost = -1;					// Maximum number of concurrent requests sent to the API base URI (-1 = no limit)
+	Boolean virtualThreads = false;						// If 'true', test cases are executed in virtual threads (in-process execution only, Java 21+)
+	Double requestsPerSecond = -1.0;					// Global budget of requests per second (-1 = no limit)
+	Integer maxRequestsInFlight = -1;					// Global budget of requests waiting for a response (-1 = no limit)
+	String operationRateLimits;							// Per-operation budgets ("METHOD path:requestsPerSecond:maxInFlight;...")
+	Integer max429Retries = RequestScheduler.DEFAULT_MAX_429_RETRIES;	// Number of times a request answered with 429 is retried (only if rate limiting is enabled)
+	Boolean pipelined = false;							// If 'true', the iterative runner generates the next batch of test cases while executing the current one
+	Integer pipelineQueueSize = 1;						// Maximum number of batches waiting to be executed (or reported) in pipelined runs
+	Integer shardIndex = 0;								// Index of the shard of the test suite generated/executed by this process (from 0 to shardCount-1)
+	Integer shardCount = 1;								// Number of shards in which the test suite is split (1 = no sharding)
+	Integer generationParallelism = 1;					// Number of operations whose test cases are generated at the same time (1 = sequential)
+	Long randomSeed;									// Root seed of all random numbers (null = a different seed on each run)
+	Long authKeyQuota = AuthManager.UNKNOWN_QUOTA;		// Quota of each group of API keys or auth headers (e.g., requests per day)
+	String authQuotaHeader = AuthQuotaFilter.DEFAULT_QUOTA_HEADER;	// Response header with the remaining quota of the auth keys used
+	AuthManager authManager;							// Auth keys of the generator, shared with the in-process executor
 
 	// For Constraint-based testing and AR Testing:
 	Float faultyDependencyRatio; 						// Percentage of faulty test cases due to dependencies to generate.
@@ -92,6 +114,10 @@ public class RESTestLoader {
 		// Load configuration
 		TestConfigurationObject conf = loadConfiguration(confPath, spec);
 
+		// Fix the seed before creating the generator, since all its random numbers are derived from it
+		if (randomSeed != null)
+			SeedTree.setSeed(randomSeed);
+
 		// Create generator
 		AbstractTestCaseGenerator gen = null;
 
@@ -124,6 +150,14 @@ public class RESTestLoader {
 		}
 
 		gen.setCheckTestCases(checkTestCases);
+		gen.setShard(createShard(conf));
+		gen.setParallelism(generationParallelism);
+
+		// Quotas are tracked for API keys and auth headers, not for OAuth tokens
+		if (gen.getAuthManager() != null && conf.getAuth().getOauthPath() == null) {
+			authManager = gen.getAuthManager();
+			authManager.setQuota(authKeyQuota);
+		}
 
 		return gen;
 	}
@@ -131,7 +165,7 @@ public class RESTestLoader {
 	// Create RESTAssured writer
 	public IWriter createWriter() {
 		String basePath = spec.getSpecification().getServers().get(0).getUrl();
-		RESTAssuredWriter writer = new RESTAssuredWriter(OAISpecPath, confPath, targetDirJava, testClassName, packageName,
+		RESTAssuredWriter writer = new RESTAssuredWriter(OAISpecPath, confPath, targetDirJava, getTestClassName(), packageName,
 				basePath, logToFile);
 		writer.setAllureReport(allureReports);
 		writer.setEnableStats(enableCSVStats);
@@ -139,9 +173,49 @@ public class RESTestLoader {
 		writer.setAPIName(experimentName);
 		writer.setTestId(experimentName);
 		writer.setProxy(proxy);
+		writer.setMaxRequestsPerHost(maxRequestsPerHost);
+		writer.setRequestScheduler(createRequestScheduler());
 		return writer;
 	}
 
+	// Create in-process test executor (only if test cases must be executed in-process, null otherwise)
+	public InProcessTestExecutor createInProcessExecutor() {
+		InProcessTestExecutor executor = null;
+		if ("inprocess".equals(executionMode)) {
+			String baseURI = spec.getSpecification().getServers().get(0).getUrl();
+			executor = new InProcessTestExecutor(OAISpecPath, baseURI, hasStatefulGenerators(loadConfiguration(confPath, spec)));
+			executor.setEnableStats(enableCSVStats);
+			executor.setEnableOutputCoverage(enableOutputCoverage);
+			executor.setAPIName(experimentName);
+			executor.setWorkers(executionWorkers);
+			executor.setMaxRequestsPerHost(maxRequestsPerHost);
+			executor.setVirtualThreads(virtualThreads);
+			executor.setRequestScheduler(createRequestScheduler());
+			executor.setProxy(proxy);
+			if (authManager != null)
+				executor.setAuthQuotaFilter(new AuthQuotaFilter(authManager, authQuotaHeader));
+		}
+		return executor;
+	}
+
+	// Create the shard of the test suite of this process (only if the suite is sharded, null otherwise)
+	public Shard createShard(TestConfigurationObject conf) {
+		Shard shard = null;
+		if (shardCount > 1) {
+			shard = new Shard(shardIndex, shardCount, conf);
+			Shard.setCurrent(shard);	// Generated test classes write their results to the files of this shard
+		}
+		return shard;
+	}
+
+	// Create request scheduler (only if a rate limit is configured, null otherwise)
+	public RequestScheduler createRequestScheduler() {
+		RequestScheduler scheduler = null;
+		if (requestsPerSecond > 0 || maxRequestsInFlight > 0 || (operationRateLimits != null && !operationRateLimits.trim().isEmpty()))
+			scheduler = RequestScheduler.getInstance(requestsPerSecond, maxRequestsInFlight, operationRateLimits, max429Retries);
+		return scheduler;
+	}
+
 	// Create Allure report manager
 	public AllureReportManager createAllureReportManager() {
 		AllureReportManager arm = null;
@@ -149,8 +223,8 @@ public class RESTestLoader {
 			String allureResultsDir = readProperty("allure.results.dir") + "/" + experimentName;
 			String allureReportDir = allureReportsPath + "/" + experimentName;
 
-			// Delete previous results (if any)
-			if (deletePreviousResults) {
+			// Delete previous results (if any). Shards do not delete them, since other shards may be writing to the same directories
+			if (deletePreviousResults && shardCount == 1) {
 				deleteDir(allureResultsDir);
 				deleteDir(allureReportDir);
 			}
@@ -170,14 +244,17 @@ public class RESTestLoader {
 		String testDataDir = readProperty("data.tests.dir") + "/" + experimentName;
 		String coverageDataDir = readProperty("data.coverage.dir") + "/" + experimentName;
 
-		// Delete previous results (if any)
-		if (deletePreviousResults) {
+		// Delete previous results (if any). Shards do not delete them, since other shards may be writing to the same directories
+		if (deletePreviousResults && shardCount == 1) {
 			deleteDir(testDataDir);
 			deleteDir(coverageDataDir);
 
 			// Recreate directories
 			createDir(testDataDir);
 			createDir(coverageDataDir);
+		} else if (shardCount > 1) {
+			createDir(testDataDir);
+			createDir(coverageDataDir);
 		}
 
 		CoverageMeter coverageMeter = enableInputCoverage || enableOutputCoverage ? new CoverageMeter(new CoverageGatherer(spec)) : null;
@@ -234,6 +311,63 @@ public class RESTestLoader {
 		}
 		logger.info("Proxy: {}", proxy);
 
+		if (readProperty("execution.mode") != null)
+			executionMode = readProperty("execution.mode");
+		if (!"junit".equals(executionMode) && !"inprocess".equals(executionMode))
+			throw new IllegalArgumentException("Property 'execution.mode' must be one of 'junit' or 'inprocess'");
+		logger.info("Execution mode: {}", executionMode);
+		if ("inprocess".equals(executionMode) && Boolean.TRUE.equals(allureReports))
+			logger.warn("Allure reports are not generated when test cases are executed in-process");
+
+		if (readProperty("execution.workers") != null)
+			executionWorkers = Integer.parseInt(readProperty("execution.workers"));
+		if (executionWorkers < 1)
+			throw new IllegalArgumentException("Property 'execution.workers' must be greater than 0");
+		logger.info("Execution workers: {}", executionWorkers);
+
+		if (readProperty("execution.maxrequestsperhost") != null)
+			maxRequestsPerHost = Integer.parseInt(readProperty("execution.maxrequestsperhost"));
+		logger.info("Max. concurrent requests per host: {}", maxRequestsPerHost);
+
+		if (readProperty("execution.virtualthreads") != null)
+			virtualThreads = Boolean.parseBoolean(readProperty("execution.virtualthreads"));
+		logger.info("Virtual threads: {}", virtualThreads);
+
+		if (readProperty("ratelimit.requestspersecond") != null)
+			requestsPerSecond = Double.parseDouble(readProperty("ratelimit.requestspersecond"));
+		logger.info("Rate limit (requests per second): {}", requestsPerSecond);
+
+		if (readProperty("ratelimit.maxinflight") != null)
+			maxRequestsInFlight = Integer.parseInt(readProperty("ratelimit.maxinflight"));
+		logger.info("Rate limit (requests in flight): {}", maxRequestsInFlight);
+
+		operationRateLimits = readProperty("ratelimit.operations");
+		logger.info("Rate limit per operation: {}", operationRateLimits);
+
+		if (readProperty("ratelimit.max429retries") != null)
+			max429Retries = Integer.parseInt(readProperty("ratelimit.max429retries"));
+		logger.info("Max. retries of requests answered with 429: {}", max429Retries);
+
+		if (readProperty("generation.parallelism") != null)
+			generationParallelism = Integer.parseInt(readProperty("generation.parallelism"));
+		if (generationParallelism < 1)
+			throw new IllegalArgumentException("Property 'generation.parallelism' must be greater than 0");
+		logger.info("Generation parallelism: {}", generationParallelism);
+
+		if (readProperty("auth.keyquota") != null)
+			authKeyQuota = Long.parseLong(readProperty("auth.keyquota"));
+		if (authKeyQuota < 0)
+			authKeyQuota = AuthManager.UNKNOWN_QUOTA;
+		logger.info("Quota of each group of auth keys: {}", authKeyQuota == AuthManager.UNKNOWN_QUOTA ? "unknown" : authKeyQuota);
+
+		if (readProperty("auth.quotaheader") != null)
+			authQuotaHeader = readProperty("auth.quotaheader");
+		logger.info("Remaining quota header: {}", authQuotaHeader);
+
+		if (readProperty("random.seed") != null && !readProperty("random.seed").trim().isEmpty())
+			randomSeed = Long.parseLong(readProperty("random.seed").trim());
+		logger.info("Random seed: {}", randomSeed);
+
 		if (readProperty("testcases.check") != null)
 			checkTestCases = Boolean.parseBoolean(readProperty("testcases.check"));
 		logger.info("Check test cases: {}", checkTestCases);
@@ -255,6 +389,27 @@ public class RESTestLoader {
 		if (readProperty("delay") != null)
 			timeDelay = Integer.parseInt(readProperty("delay"));
 		logger.info("Time delay: {}", timeDelay);
+		if (timeDelay != null && timeDelay != -1)
+			logger.warn("Property 'delay' is deprecated. Use 'ratelimit.requestspersecond' and 'ratelimit.maxinflight' instead");
+
+		if (readProperty("pipeline.enabled") != null)
+			pipelined = Boolean.parseBoolean(readProperty("pipeline.enabled"));
+		logger.info("Pipelined iterations: {}", pipelined);
+
+		if (readProperty("pipeline.queuesize") != null)
+			pipelineQueueSize = Integer.parseInt(readProperty("pipeline.queuesize"));
+		if (pipelineQueueSize < 1)
+			throw new IllegalArgumentException("Property 'pipeline.queuesize' must be greater than 0");
+		logger.info("Pipeline queue size: {}", pipelineQueueSize);
+
+		// The shard can also be set with JVM system properties, so that all shards can share the same properties file
+		if (System.getProperty("shard.index", readProperty("shard.index")) != null)
+			shardIndex = Integer.parseInt(System.getProperty("shard.index", readProperty("shard.index")));
+		if (System.getProperty("shard.count", readProperty("shard.count")) != null)
+			shardCount = Integer.parseInt(System.getProperty("shard.count", readProperty("shard.count")));
+		if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount)
+			throw new IllegalArgumentException("Property 'shard.count' must be greater than 0 and 'shard.index' must be between 0 and 'shard.count'-1");
+		logger.info("Shard: {}/{}", shardIndex, shardCount);
 
 		if (readProperty("reloadinputdataevery") != null)
 			reloadInputDataEvery = Integer.parseInt(readProperty("reloadinputdataevery"));
@@ -357,6 +512,29 @@ public class RESTestLoader {
 
 	public String getExperimentName(){ return experimentName; }
 
+	// Test ID of the generated test cases (and of their CSV files). Every shard has its own test ID
+	public String getTestId() {
+		return getTestId(experimentName);
+	}
+
+	// Name of the generated test class. Every shard generates its own test class
+	public String getTestClassName() {
+		return getTestId(testClassName);
+	}
+
+	// Test ID with the given prefix (e.g., a time ID in iterative runs)
+	public String getTestId(String id) {
+		return shardCount > 1 ? id + Shard.getSuffix(shardIndex) : id;
+	}
+
+	public Integer getShardIndex() {
+		return shardIndex;
+	}
+
+	public Integer getShardCount() {
+		return shardCount;
+	}
+
 	public String getAllureReportsPath() {
 		return allureReportsPath;
 	}
@@ -8,6 +8,7 @@ import es.us.isa.restest.testcases.TestCase;
 import es.us.isa.restest.util.ClassLoader;
 import es.us.isa.restest.util.RESTestException;
 import es.us.isa.restest.util.Timer;
+import es.us.isa.restest.util.ValidationCache;
 import es.us.isa.restest.writers.IWriter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -47,7 +48,7 @@ public class RESTestRunner extends RESTestLoader {
 		writer = createWriter(); 							// Test case writer
 		allureReportManager = createAllureReportManager(); 	// Allure test case reporter
 		statsReportManager = createStatsReportManager(); 	// Stats reporter
-		workflow = new RESTestWorkflow(testClassName,
+		workflow = new RESTestWorkflow(getTestClassName(),
 				targetDirJava,
 				packageName,
 				spec,
@@ -59,7 +60,9 @@ public class RESTestRunner extends RESTestLoader {
 
 		workflow.setAllureReport(allureReports);			// Enable/disable allure generation
 		workflow.setExecuteTestCases(executeTestCases);		// Enable/disable test execution
-		workflow.setTestId(experimentName);
+		workflow.setInProcessExecutor(createInProcessExecutor());	// Execute test cases in-process (if enabled)
+		workflow.setExecutionWorkers(executionWorkers);		// Number of test cases executed concurrently
+		workflow.setTestId(getTestId());					// Test ID (different for each shard)
 
 	}
 
@@ -72,6 +75,7 @@ public class RESTestRunner extends RESTestLoader {
 
 		logger.info("Running workflow (generation -> execution -> reporting)...");
 		workflow.run();										// Run RESTest workflow
+		ValidationCache.logStatistics();					// Hit rate of the request validation caches
 
 	}
 
@@ -0,0 +1,45 @@
+package es.us.isa.restest.runners;
+
+import es.us.isa.restest.reporting.StatsReportManager;
+import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.testcases.TestCase;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+
+/**
+ * This class merges the results of all the shards of a test suite (i.e., test cases generated and
+ * executed by different processes, see {@link es.us.isa.restest.execution.Shard}) into a single
+ * test cases file, test results file and coverage report, according to the configuration properties.
+ * It must be run once all shards have finished.
+ */
+public class RESTestShardMerger {
+
+    private static final Logger logger = LogManager.getLogger(RESTestShardMerger.class.getName());
+
+    RESTestLoader loader;
+
+    public RESTestShardMerger(String propertyFilePath) {
+        loader = new RESTestLoader(propertyFilePath);
+    }
+
+    public RESTestShardMerger(String propertyFilePath, boolean reloadProperties) {
+        loader = new RESTestLoader(propertyFilePath, reloadProperties);
+    }
+
+    /**
+     * Merges the CSV files of all shards and generates the coverage reports of the whole test suite
+     * @return The test cases of all shards
+     */
+    public Collection<TestCase> merge() {
+        logger.info("Merging {} shards of experiment {}", loader.shardCount, loader.experimentName);
+        loader.spec = new OpenAPISpecification(loader.OAISpecPath);
+        StatsReportManager statsReportManager = loader.createStatsReportManager();
+        return statsReportManager.mergeShards(loader.experimentName, loader.shardCount, Boolean.TRUE.equals(loader.executeTestCases));
+    }
+
+    public String getExperimentName() {
+        return loader.getExperimentName();
+    }
+}
@@ -1,7 +1,13 @@
 package es.us.isa.restest.runners;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 
+import es.us.isa.restest.execution.ExecutionResult;
+import es.us.isa.restest.execution.InProcessTestExecutor;
+import es.us.isa.restest.execution.ParallelTestComputer;
 import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.util.*;
 import es.us.isa.restest.util.ClassLoader;
@@ -36,7 +42,9 @@ public class RESTestWorkflow {
 	protected StatsReportManager statsReportManager;	// Stats report manager
 	private boolean executeTestCases = true;			// Whether to execute test cases
 	private boolean allureReports = true;				// Whether to actually generate reports or not (folder "allure-reports")
-	private int numTestCases = 0;						// Number of test cases generated so far
+	private volatile int numTestCases = 0;				// Number of test cases generated so far
+	private InProcessTestExecutor inProcessExecutor;	// If not null, test cases are executed in-process (no test class is written nor compiled)
+	private int executionWorkers = 1;					// Number of test methods executed concurrently by JUnit
 
 	private OpenAPISpecification spec;
 	private String confPath;
@@ -59,22 +67,85 @@ public class RESTestWorkflow {
 	  
 	public void run() throws RESTestException {
 
-		// Test generation and writing (RESTAssured)
-		testGeneration();
+		TestBatch batch;
+		if (executeTestCases && inProcessExecutor != null) {
+			// Test generation and execution (in-process), one test case at a time
+			batch = generateAndExecuteBatch(testClassName, testId);
+		} else {
+			// Test generation, writing (RESTAssured) and compilation
+			batch = prepareBatch(testClassName, testId);
 
+			// Test execution
+			executeBatch(batch);
+		}
+
+		// Test report generation
+		reportBatch(batch);
+
+	}
+
+	/**
+	 * Generates a batch of test cases and, unless they are executed in-process, writes
+	 * them to a test class and compiles it. The writer must be already configured to
+	 * write a class with the given name. Test cases are written (and exported to CSV) as
+	 * they are generated, so they are only kept in the batch if they must be executed
+	 * in-process later or if coverage is computed.
+	 * @param testClassName Name of the test class
+	 * @param testId Test suite ID
+	 * @return The batch, ready to be executed
+	 */
+	public TestBatch prepareBatch(String testClassName, String testId) throws RESTestException {
+		boolean keepTestCases = executeTestCases && inProcessExecutor != null;
+		GeneratedTestCases testCases = testGeneration(testClassName, testId, keepTestCases);
+
+		Class<?> testClass = null;
+		if (executeTestCases && inProcessExecutor == null)
+			testClass = getTestClass(testClassName);
+
+		return new TestBatch(testClassName, testId, testCases.getKeptTestCases(), testCases.getCount(), testClass);
+	}
+
+	// Test cases are pulled by the in-process executor as it executes them, so they are generated, executed and exported to CSV one at a time
+	private TestBatch generateAndExecuteBatch(String testClassName, String testId) throws RESTestException {
+		logger.info("Generating and running tests");
+		GeneratedTestCases testCases = new GeneratedTestCases(testCasesToGenerate(), testId, false);
+		try {
+			testExecution(testCases, testId);
+		} catch (UncheckedRESTestException e) {
+			throw e.getCause();
+		}
+		Timer.addMeasure(TEST_SUITE_GENERATION, testCases.getGenerationTime());
+		logger.info("{} test cases generated and executed", testCases.getCount());
+
+		return new TestBatch(testClassName, testId, testCases.getKeptTestCases(), testCases.getCount(), null);
+	}
+
+	/**
+	 * Executes a batch of test cases prepared with {@link #prepareBatch(String, String)}.
+	 */
+	public void executeBatch(TestBatch batch) {
 		if(executeTestCases) {
 			// Test execution
 			logger.info("Running tests");
-			System.setProperty("allure.results.directory", allureReportManager.getResultsDirPath());
-			testExecution(getTestClass());
+			if (inProcessExecutor != null)
+				testExecution(batch.getTestCases().iterator(), batch.getTestId());
+			else {
+				System.setProperty("allure.results.directory", allureReportManager.getResultsDirPath());
+				testExecution(batch.getTestClass());
+			}
 		}
+	}
 
-		generateReports();
-
+	/**
+	 * Generates the reports of a batch of test cases, once executed.
+	 */
+	public void reportBatch(TestBatch batch) {
+		generateReports(batch);
 	}
 
-	protected void generateReports() {
-		if(executeTestCases && allureReports) {
+	protected void generateReports(TestBatch batch) {
+		TestResultSink.flush();								// Test cases and results buffered must be written before reading them
+		if(executeTestCases && allureReports && inProcessExecutor == null) {
 			// Generate test report
 			logger.info("Generating test report");
 			allureReportManager.generateReport();
@@ -82,34 +153,48 @@ public class RESTestWorkflow {
 
 		// Generate coverage report
 		logger.info("Generating CSV data");
-		statsReportManager.generateReport(testId, executeTestCases);
+		statsReportManager.setTestCases(batch.getTestCases());
+		statsReportManager.generateReport(batch.getTestId(), executeTestCases);
 	}
 
-	protected Class<?> getTestClass() {
+	protected Class<?> getTestClass(String testClassName) {
 		// Load test class
 		String filePath = targetDir + "/" + testClassName + ".java";
 		String className = packageName + "." + testClassName;
 		logger.info("Compiling and loading test class {}.java", className);
-		return ClassLoader.loadClass(filePath, className);
+		Timer.startCounting(TEST_SUITE_COMPILATION);
+		Class<?> testClass = ClassLoader.loadClass(filePath, className);
+		Timer.stopCounting(TEST_SUITE_COMPILATION);
+		return testClass;
 	}
 
-	private void testGeneration() throws RESTestException {
+	private GeneratedTestCases testGeneration(String testClassName, String testId, boolean keepTestCases) throws RESTestException {
 	    
-		// Generate test cases
+		// Generate test cases and write them as they are generated (not needed if they are executed in-process)
 		logger.info("Generating tests");
 		Timer.startCounting(TEST_SUITE_GENERATION);
-		Collection<TestCase> testCases = generator.generate();
+		GeneratedTestCases testCases = new GeneratedTestCases(testCasesToGenerate(), testId, keepTestCases);
+		try {
+			if (inProcessExecutor == null) {
+				logger.info("Writing test cases to test class {}", targetDir + "/" + testClassName + ".java");
+				writer.write(testCases);
+			} else
+				testCases.forEachRemaining(tc -> {});
+		} catch (UncheckedRESTestException e) {
+			throw e.getCause();
+		}
 		Timer.stopCounting(TEST_SUITE_GENERATION);
-        this.numTestCases += testCases.size();
+		logger.info("{} test cases generated", testCases.getCount());
 
-        // Pass test cases to the statistic report manager (CSV writing, coverage)
-        statsReportManager.setTestCases(testCases);
-        
-        // Write test cases
-        String filePath = targetDir + "/" + testClassName + ".java";
-        logger.info("Writing {} test cases to test class {}", testCases.size(), filePath);
-        writer.write(testCases);
+		return testCases;
+	}
 
+	/*
+	 * Test cases are generated lazily, unless operations are generated in parallel: then the test cases of each
+	 * operation are generated at once, so the whole test suite is generated before returning the first test case.
+	 */
+	private Iterator<TestCase> testCasesToGenerate() throws RESTestException {
+		return generator.getParallelism() > 1 ? generator.generate().iterator() : generator.generateIterator();
 	}
 
 	protected void testExecution(Class<?> testClass)  {
@@ -118,12 +203,21 @@ public class RESTestWorkflow {
 		//junit.addListener(new TextListener(System.out));
 		junit.addListener(new io.qameta.allure.junit4.AllureJunit4());
 		Timer.startCounting(TEST_SUITE_EXECUTION);
-		Result result = junit.run(testClass);
+		Result result = executionWorkers > 1 ? junit.run(new ParallelTestComputer(executionWorkers), testClass) : junit.run(testClass);
 		Timer.stopCounting(TEST_SUITE_EXECUTION);
 		int successfulTests = result.getRunCount() - result.getFailureCount() - result.getIgnoreCount();
 		logger.info("{} tests run in {} seconds. Successful: {}, Failures: {}, Ignored: {}", result.getRunCount(), result.getRunTime()/1000, successfulTests, result.getFailureCount(), result.getIgnoreCount());
 
 	}
+
+	protected void testExecution(Iterator<TestCase> testCases, String testId) {
+
+		Timer.startCounting(TEST_SUITE_EXECUTION);
+		ExecutionResult result = inProcessExecutor.execute(testCases, testId);
+		Timer.stopCounting(TEST_SUITE_EXECUTION);
+		logger.info("{} tests run in {} seconds. Successful: {}, Failures: {}", result.getRunCount(), result.getRunTime()/1000, result.getSuccessfulCount(), result.getFailureCount());
+
+	}
 	
 	public String getTargetDir() {
 		return targetDir;
@@ -161,4 +255,119 @@ public class RESTestWorkflow {
 	public void setAllureReport(boolean allureReports) {
 		this.allureReports = allureReports;
 	}
+
+	public InProcessTestExecutor getInProcessExecutor() {
+		return inProcessExecutor;
+	}
+
+	public void setInProcessExecutor(InProcessTestExecutor inProcessExecutor) {
+		this.inProcessExecutor = inProcessExecutor;
+	}
+
+	public int getExecutionWorkers() {
+		return executionWorkers;
+	}
+
+	public void setExecutionWorkers(int executionWorkers) {
+		this.executionWorkers = executionWorkers;
+	}
+
+	/*
+	 * Test cases returned by the generator, counted and exported to CSV as they are pulled (e.g., by the writer or
+	 * the in-process executor). They are only kept if needed afterwards: to be executed in-process or to compute
+	 * the coverage of the test suite.
+	 */
+	private class GeneratedTestCases implements Iterator<TestCase> {
+
+		private final Iterator<TestCase> testCases;
+		private final String testId;
+		private final List<TestCase> keptTestCases;	// null if test cases are not kept
+		private int count = 0;
+		private long generationTime = 0;			// Time spent generating test cases, in milliseconds
+
+		private GeneratedTestCases(Iterator<TestCase> testCases, String testId, boolean keepTestCases) {
+			this.testCases = testCases;
+			this.testId = testId;
+			this.keptTestCases = keepTestCases || statsReportManager.getEnableInputCoverage() || statsReportManager.getEnableOutputCoverage() ? new ArrayList<>() : null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			long start = System.currentTimeMillis();
+			try {
+				return testCases.hasNext();
+			} finally {
+				generationTime += System.currentTimeMillis() - start;
+			}
+		}
+
+		@Override
+		public TestCase next() {
+			long start = System.currentTimeMillis();
+			TestCase testCase = testCases.next();
+			generationTime += System.currentTimeMillis() - start;
+
+			count++;
+			numTestCases++;
+			statsReportManager.exportTestCase(testCase, testId);
+			if (keptTestCases != null)
+				keptTestCases.add(testCase);
+			return testCase;
+		}
+
+		private List<TestCase> getKeptTestCases() {
+			return keptTestCases;
+		}
+
+		private int getCount() {
+			return count;
+		}
+
+		private long getGenerationTime() {
+			return generationTime;
+		}
+	}
+
+	/**
+	 * A batch of generated test cases, together with the compiled test class that
+	 * contains them (null if they are executed in-process or not executed at all).
+	 * The test cases are null if they were not kept once written or executed (see
+	 * {@link #prepareBatch(String, String)}).
+	 */
+	public static class TestBatch {
+
+		private final String testClassName;
+		private final String testId;
+		private final Collection<TestCase> testCases;
+		private final int numTestCases;
+		private final Class<?> testClass;
+
+		public TestBatch(String testClassName, String testId, Collection<TestCase> testCases, int numTestCases, Class<?> testClass) {
+			this.testClassName = testClassName;
+			this.testId = testId;
+			this.testCases = testCases;
+			this.numTestCases = numTestCases;
+			this.testClass = testClass;
+		}
+
+		public String getTestClassName() {
+			return testClassName;
+		}
+
+		public String getTestId() {
+			return testId;
+		}
+
+		public Collection<TestCase> getTestCases() {
+			return testCases;
+		}
+
+		public int getNumTestCases() {
+			return numTestCases;
+		}
+
+		public Class<?> getTestClass() {
+			return testClass;
+		}
+	}
 }
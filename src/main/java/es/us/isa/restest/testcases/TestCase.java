@@ -12,6 +12,7 @@ import com.atlassian.oai.validator.report.ValidationReport;
 import es.us.isa.idlreasonerchoco.analyzer.Analyzer;
 import es.us.isa.restest.configuration.pojos.TestParameter;
 import es.us.isa.restest.specification.OpenAPIParameter;
+import es.us.isa.restest.util.ValidationCache;
 import es.us.isa.idlreasonerchoco.configuration.IDLException;
 import io.swagger.v3.oas.models.PathItem.HttpMethod;
 import org.apache.logging.log4j.LogManager;
@@ -390,12 +391,7 @@ public class TestCase implements Serializable {
 	
 	// Export the test case to CSV
 	public void exportToCSV(String filePath) {
-		if (!checkIfExists(filePath)) // If the file doesn't exist, create it (only once)
-			createCSVwithHeader(filePath, "testCaseId,faulty,faultyReason,fulfillsDependencies,operationId,path,httpMethod,inputContentType,outputContentType," +
-					"headerParameters,pathParameters,queryParameters,formParameters,bodyParameter");
-
 		// Generate row, we need to escape all fields susceptible to contain characters such as ',', '\n', '"', etc.
-		String rowBeginning = id + "," + faulty + "," + escapeCsv(faultyReason) + "," + fulfillsDependencies + "," + operationId + "," + path + "," + method.toString() + "," + inputFormat + "," + outputFormat + ",";
 		StringBuilder rowEnding = new StringBuilder();
 		try {
 			for (Map.Entry<String, String> h: headerParameters.entrySet()) {
@@ -420,12 +416,53 @@ public class TestCase implements Serializable {
 		}
 		rowEnding.append(",").append(bodyParameter == null ? "" : escapeCsv(bodyParameter));
 
-		writeCSVRow(filePath, rowBeginning + rowEnding);
+		// If the file doesn't exist, create it (only once). The parameters are written as a single value, since they are already separated by commas
+		writeCSVFields(filePath, "testCaseId,faulty,faultyReason,fulfillsDependencies,operationId,path,httpMethod,inputContentType,outputContentType," +
+				"headerParameters,pathParameters,queryParameters,formParameters,bodyParameter",
+				id, faulty, escapeCsv(faultyReason), fulfillsDependencies, operationId, path, method, inputFormat, outputFormat, rowEnding);
 	}
 	
 	
 	
+	/**
+	 * Returns the errors found when validating the request of the test case against the OAS. Results are
+	 * cached (see {@link ValidationCache}), so validating an identical request again returns immediately.
+	 * @param validator the OpenAPI validator
+	 * @return the validation errors (unmodifiable), empty if the request is valid
+	 */
 	public List<String> getValidationErrors(OpenApiInteractionValidator validator) {
+		return ValidationCache.getInstance(validator).getValidationErrors(getRequestFingerprint(), () -> validateRequest(validator));
+	}
+
+	/**
+	 * Returns a string identifying the request of the test case, i.e., everything that is validated against
+	 * the OAS: operation, parameters, content type and body. Test cases sending the same request (e.g., with
+	 * different IDs or faulty flags) have the same fingerprint.
+	 * @return the fingerprint of the request
+	 */
+	public String getRequestFingerprint() {
+		StringBuilder fingerprint = new StringBuilder(200);
+		fingerprint.append(method).append(' ').append(path);
+		appendToFingerprint(fingerprint, 'p', pathParameters);
+		appendToFingerprint(fingerprint, 'q', queryParameters);
+		appendToFingerprint(fingerprint, 'h', headerParameters);
+		appendToFingerprint(fingerprint, 'f', formParameters);
+		fingerprint.append("|c").append(inputFormat)
+				.append("|b").append(bodyParameter == null ? "" : ValidationCache.hash(bodyParameter));
+		return fingerprint.toString();
+	}
+
+	// Parameters are sorted by name, and names and values are prefixed with their length, so that no two different sets of parameters look the same
+	private static void appendToFingerprint(StringBuilder fingerprint, char type, Map<String, String> parameters) {
+		fingerprint.append('|').append(type);
+		for (Map.Entry<String, String> parameter: new TreeMap<>(parameters).entrySet()) {
+			String value = String.valueOf(parameter.getValue());
+			fingerprint.append(parameter.getKey().length()).append(':').append(parameter.getKey())
+					.append(value.length()).append(':').append(value);
+		}
+	}
+
+	private List<String> validateRequest(OpenApiInteractionValidator validator) {
 		String fullPath = this.getPath();
 		for (Map.Entry<String, String> pathParam : this.getPathParameters().entrySet())
 			fullPath = fullPath.replace("{" + pathParam.getKey() + "}", pathParam.getValue());
@@ -8,10 +8,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static es.us.isa.restest.util.FileManager.readFile;
 import static java.lang.System.exit;
@@ -62,7 +69,19 @@ import static java.lang.System.exit;
  * <pre>apikey_1 = def, apikey_2 = jkl</pre> as auth keys.<br><br>
  *
  * <b>EVERY ARRAY OF AUTH KEYS MUST HAVE THE SAME SIZE.</b> If not, you will
- * get an exception.
+ * get an exception.<br><br>
+ *
+ * Each group of auth keys (e.g., <pre>apikey_1 = abc, apikey_2 = ghi</pre>) is
+ * handed out according to its load: the group with the most remaining quota is
+ * selected, or the least used one if their quotas are equal or unknown (which
+ * results in the order above). Quotas are optional, and they can be updated
+ * with the values reported by the API (see {@link #updateRemainingQuota(String, long)}).
+ * The value of an auth key cannot appear in more than one group. Groups are selected
+ * and claimed atomically without locks, so the AuthManager can be shared by several threads.<br><br>
+ *
+ * OAuth tokens are refreshed in the background some minutes before they expire,
+ * and only one refresh is performed at a time. Callers only wait for a refresh
+ * if there is no valid token yet.
  *
  */
 public class AuthManager {
@@ -78,12 +97,15 @@ public class AuthManager {
     private static final String OAUTH_HEADER_FORMAT = "oauth_header_format";
     private static final int EXPIRATION_THRESHOLD = 600;
 
+    public static final long UNKNOWN_QUOTA = Long.MAX_VALUE;
+
     // AuthManager variables
     private Map<String, List<String>> authProperties;
-    private int counter;
-    private int itCounter;  /* It resets to zero when the algorithm obtains an auth key for every parameter.
-    When this happens, the algorithm knows that it has provided all the auth params requested for an operation,
-    so it augments 'counter'. */
+    private final AtomicReference<GroupLoad> load = new AtomicReference<>(new GroupLoad(0));   // Usage and remaining quota of the groups of auth keys
+    private final Map<String, Integer> keyGroups;                      // Group of each auth key value
+    private final ThreadLocal<Map<String, String>> pendingAuthProperties = ThreadLocal.withInitial(HashMap::new);  /* Auth keys
+    of the group selected for the current thread not requested yet with getAuthProperty(). When they are all requested,
+    a new group is selected. */
 
     // OAuth JSON properties:
     private String refreshEndpoint;
@@ -94,27 +116,39 @@ public class AuthManager {
     private String oauthHeaderFormat;
 
     // Actual OAuth properties
-    private Long expiration;
-    private String oauthHeader; // Header containing access_token
+    private volatile long expiration;
+    private volatile String oauthHeader; // Header containing access_token
+    private final AtomicReference<CompletableFuture<Void>> refresh = new AtomicReference<>();  // Refresh in progress, if any
+    private ExecutorService refresher;      // Thread where tokens are refreshed
 
     private static final Logger logger = LogManager.getLogger(AuthManager.class);
 
     public AuthManager(String authRelativePath) {
         String authPath = AUTH_BASE_PATH + authRelativePath;
-        this.counter = 0;
-        this.itCounter = 0;
+        keyGroups = new HashMap<>();
         try {
             ObjectMapper objectMapper = new ObjectMapper();
-            authProperties = objectMapper.readValue(readFile(authPath), new TypeReference<Map<String, List<String>>>(){});
+            authProperties = objectMapper.readValue(readFile(authPath), new TypeReference<LinkedHashMap<String, List<String>>>(){});
         } catch (IOException e) {
             logger.error("Error parsing authProperties file: {}", authPath);
             logger.error("Exception: ", e);
             exit(1);
         }
+
+        int groups = authProperties.isEmpty() ? 0 : authProperties.values().iterator().next().size();
+        load.set(new GroupLoad(groups));
+        for (int i = 0; i < groups; i++) {
+            for (List<String> values: authProperties.values()) {
+                Integer previousGroup = keyGroups.put(values.get(i), i);
+                if (previousGroup != null && previousGroup != i)
+                    throw new IllegalArgumentException("The auth key " + values.get(i) + " belongs to groups " + previousGroup + " and " + i + " in file " + authPath);
+            }
+        }
     }
 
     public AuthManager(String oauthRelativePath, boolean oauth) {
         String authPath = AUTH_BASE_PATH + oauthRelativePath;
+        keyGroups = new HashMap<>();
         try {
             ObjectMapper objectMapper = new ObjectMapper();
             JsonNode oauthProperties = objectMapper.readTree(readFile(authPath));
@@ -130,16 +164,51 @@ public class AuthManager {
             throw new IllegalArgumentException(e);
         }
         expiration = nowInSeconds();
+        refresher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "oauth-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
+    /**
+     * Get the OAuth header. If the token is about to expire, it is refreshed in the background,
+     * and the current one is returned. This method only waits for the refresh if there is no
+     * token yet or if it has already expired.
+     * @return the OAuth header, or null if no token could be obtained
+     */
     public String getUpdatedOauthHeader() {
-        refreshTokenIfNeeded();
+        long now = nowInSeconds();
+        if (now > expiration - EXPIRATION_THRESHOLD) {
+            CompletableFuture<Void> inProgress = refreshTokenAsync();
+            if (oauthHeader == null || now >= expiration)
+                inProgress.join();
+        }
         return oauthHeader;
     }
 
-    private void refreshTokenIfNeeded() {
-        if (nowInSeconds() > expiration - EXPIRATION_THRESHOLD)
-            refreshToken();
+    // Start refreshing the token, unless it is already being refreshed. Returns the refresh in progress
+    private CompletableFuture<Void> refreshTokenAsync() {
+        while (true) {
+            CompletableFuture<Void> inProgress = refresh.get();
+            if (inProgress != null)
+                return inProgress;
+
+            CompletableFuture<Void> newRefresh = new CompletableFuture<>();
+            if (refresh.compareAndSet(null, newRefresh)) {
+                refresher.execute(() -> {
+                    try {
+                        refreshToken();
+                    } catch (RuntimeException e) {
+                        logger.error("Error refreshing OAuth token: {}", e.getMessage());
+                    } finally {
+                        refresh.set(null);
+                        newRefresh.complete(null);
+                    }
+                });
+                return newRefresh;
+            }
+        }
     }
 
     private void refreshToken() {
@@ -154,11 +223,12 @@ public class AuthManager {
         try {
             ObjectMapper objectMapper = new ObjectMapper();
             JsonNode oauthResponseProperties = objectMapper.readTree(oauthResponse);
-            expiration = nowInSeconds() + oauthResponseProperties.get(expiresInProperty).asLong();
+            long newExpiration = nowInSeconds() + oauthResponseProperties.get(expiresInProperty).asLong();
             oauthHeader = oauthHeaderFormat.replace(
                     RESPONSE_TOKEN_PROPERTY,
                     oauthResponseProperties.get(responseTokenProperty).textValue()
             );
+            expiration = newExpiration;     // Updated after the header, so that a valid expiration implies a valid header
         } catch (Exception e) {
             logger.error("Error parsing OAuth response: {}", oauthResponse);
             logger.warn("OAuth token not refreshed, will try again next time.");
@@ -170,21 +240,69 @@ public class AuthManager {
     }
 
     /**
-     * Get auth key.
+     * Get auth key. All the auth keys requested by the same thread belong to the same group, until all of
+     * them have been requested. Then, a new group is selected.
      * @param propertyName the name of the wanted auth key.
      * @return an auth key
      */
     public String getAuthProperty(String propertyName) {
-        itCounter = itCounter == authProperties.size()? 0 : itCounter;
-        if(itCounter == 0) {
-            int size = this.authProperties.entrySet().iterator().next().getValue().size();
-            this.counter = size == this.counter? 0 : this.counter;
+        Map<String, String> pending = pendingAuthProperties.get();
+        if (!pending.containsKey(propertyName)) {
+            pending.clear();
+            pending.putAll(getAuthProperties());
+        }
+        return pending.remove(propertyName);
+    }
+
+    /**
+     * Get all auth keys of the least loaded group (see the class description).
+     * @return the auth keys, by property name
+     */
+    public Map<String, String> getAuthProperties() {
+        int group = nextGroup();
+        Map<String, String> groupProperties = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> property: authProperties.entrySet())
+            groupProperties.put(property.getKey(), property.getValue().get(group));
+        return groupProperties;
+    }
+
+    // Select the least loaded group and claim it. If another thread changes the load in the meantime, the group is selected again
+    private int nextGroup() {
+        while (true) {
+            GroupLoad current = load.get();
+            int selected = current.leastLoadedGroup();
+            if (load.compareAndSet(current, current.claim(selected)))
+                return selected;
         }
+    }
 
-        String authProperty = this.authProperties.get(propertyName).get(counter);
-        if(itCounter == authProperties.size() - 1) counter++;
-        itCounter++;
-        return authProperty;
+    /**
+     * Set the quota (e.g., number of requests per day) of every group of auth keys.
+     * @param quota the quota, or {@link #UNKNOWN_QUOTA} if unknown
+     */
+    public void setQuota(long quota) {
+        load.updateAndGet(current -> current.withQuota(quota));
+    }
+
+    /**
+     * Update the remaining quota of the group of an auth key, e.g., with the value of a header
+     * like X-RateLimit-Remaining returned by the API.
+     * @param authProperty the value of any auth key of the group
+     * @param remaining the remaining quota
+     */
+    public void updateRemainingQuota(String authProperty, long remaining) {
+        Integer group = keyGroups.get(authProperty);
+        if (group != null)
+            load.updateAndGet(current -> current.withRemainingQuota(group, Math.max(0, remaining)));
+    }
+
+    /**
+     * @param authProperty the value of any auth key of the group
+     * @return the remaining quota of the group, or {@link #UNKNOWN_QUOTA} if unknown or if the key does not exist
+     */
+    public long getRemainingQuota(String authProperty) {
+        Integer group = keyGroups.get(authProperty);
+        return group != null ? load.get().remainingQuota[group] : UNKNOWN_QUOTA;
     }
 
     /**
@@ -198,4 +316,55 @@ public class AuthManager {
     public Long getExpiration() {
         return expiration;
     }
+
+    /*
+     * Usage and remaining quota of every group of auth keys. It is never modified: a new load replaces it with
+     * compareAndSet, so a group is selected and claimed at once, and its usage and quota are always consistent.
+     */
+    private static final class GroupLoad {
+        private final long[] issued;            // Number of times each group of auth keys has been handed out
+        private final long[] remainingQuota;    // Remaining quota of each group of auth keys (UNKNOWN_QUOTA if unknown)
+
+        private GroupLoad(int groups) {
+            issued = new long[groups];
+            remainingQuota = new long[groups];
+            Arrays.fill(remainingQuota, UNKNOWN_QUOTA);
+        }
+
+        private GroupLoad(long[] issued, long[] remainingQuota) {
+            this.issued = issued;
+            this.remainingQuota = remainingQuota;
+        }
+
+        // The group with the most remaining quota, or the least used one if equal
+        private int leastLoadedGroup() {
+            int selected = 0;
+            for (int i = 1; i < issued.length; i++) {
+                if (remainingQuota[i] > remainingQuota[selected] || (remainingQuota[i] == remainingQuota[selected] && issued[i] < issued[selected]))
+                    selected = i;
+            }
+            return selected;
+        }
+
+        private GroupLoad claim(int group) {
+            long[] newIssued = issued.clone();
+            long[] newRemainingQuota = remainingQuota.clone();
+            newIssued[group]++;
+            if (newRemainingQuota[group] != UNKNOWN_QUOTA)
+                newRemainingQuota[group] = Math.max(0, newRemainingQuota[group] - 1);
+            return new GroupLoad(newIssued, newRemainingQuota);
+        }
+
+        private GroupLoad withQuota(long quota) {
+            long[] newRemainingQuota = new long[remainingQuota.length];
+            Arrays.fill(newRemainingQuota, quota);
+            return new GroupLoad(issued, newRemainingQuota);
+        }
+
+        private GroupLoad withRemainingQuota(int group, long quota) {
+            long[] newRemainingQuota = remainingQuota.clone();
+            newRemainingQuota[group] = quota;
+            return new GroupLoad(issued, newRemainingQuota);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package es.us.isa.restest.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered appender of rows to a CSV file, kept open between rows. Values are encoded to UTF-8 straight
+ * into the buffer, which is written to the file when it is full or when {@link #flush()} is called. The
+ * appenders are pooled by {@link CSVManager}, which also flushes them periodically and when the JVM exits.
+ */
+class CSVAppender implements Closeable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private final FileOutputStream out;
+	private final ByteBuffer buffer;
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private boolean closed = false;
+
+	CSVAppender(File file, int bufferSize) throws IOException {
+		this.out = new FileOutputStream(file, true);
+		this.buffer = ByteBuffer.allocate(bufferSize);
+	}
+
+	/**
+	 * Appends a row to the file. The values are separated by commas and must be already escaped.
+	 * Null values are written as "null", like when concatenating them to a string.
+	 * @param values Values of the row
+	 */
+	synchronized void appendRow(Object... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0)
+				put((byte) ',');
+			Object value = values[i];
+			encode(value instanceof CharSequence ? (CharSequence) value : String.valueOf(value));
+		}
+		put((byte) '\n');
+	}
+
+	private void encode(CharSequence value) throws IOException {
+		CharBuffer chars = CharBuffer.wrap(value);
+		encoder.reset();
+		CoderResult result;
+		while ((result = encoder.encode(chars, buffer, true)).isOverflow())
+			writeBuffer();
+		if (result.isError())
+			result.throwException();
+		while (encoder.flush(buffer).isOverflow())
+			writeBuffer();
+	}
+
+	private void put(byte b) throws IOException {
+		if (!buffer.hasRemaining())
+			writeBuffer();
+		buffer.put(b);
+	}
+
+	// Write the contents of the buffer to the file
+	private void writeBuffer() throws IOException {
+		if (closed)
+			throw new IOException("The CSV appender is closed");
+		if (buffer.position() > 0) {
+			out.write(buffer.array(), 0, buffer.position());
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Writes the rows buffered so far to the file. It does nothing if the appender is closed.
+	 */
+	synchronized void flush() throws IOException {
+		if (!closed)
+			writeBuffer();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		try {
+			writeBuffer();
+		} finally {
+			closed = true;
+			out.close();
+		}
+	}
+}
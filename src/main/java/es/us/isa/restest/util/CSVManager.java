@@ -1,7 +1,12 @@
 package es.us.isa.restest.util;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.csv.CSVFormat;
@@ -12,9 +17,21 @@ import org.apache.logging.log4j.Logger;
 import static es.us.isa.restest.util.FileManager.createFileIfNotExists;
 import static es.us.isa.restest.util.FileManager.deleteFile;
 
+/**
+ * Rows are written to CSV files through pooled appenders (see {@link CSVAppender}): one buffered appender per
+ * file, kept open between rows. The rows buffered are written to the files when the buffer is full, every
+ * "csv.flush.interval" milliseconds, when {@link #flushAll()} is called (e.g., at the end of a test suite), and
+ * when the JVM exits. Files are flushed before being read through this class or {@link FileManager}.
+ */
 public class CSVManager {
 
+	public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
 	private static final Logger logger = LogManager.getLogger(CSVManager.class.getName());
+	private static final Map<String, Object> fileLocks = new ConcurrentHashMap<>();
+	private static final Map<String, CSVAppender> appenders = new ConcurrentHashMap<>();
+	private static ScheduledExecutorService flusher;		// Created when the first appender is opened
+	private static long flushInterval = DEFAULT_FLUSH_INTERVAL;	// If 0, rows are written to the file immediately
 	
 	/**
 	 * Returns a list with the values of the first column in the input CSV file
@@ -23,11 +40,9 @@ public class CSVManager {
 	 */
 	public static List<String> readValues(String path) {
 		List<String> values = new ArrayList<String>();
-		
-		Reader in;
-		try {
-			in = new FileReader(path);
-			
+		flush(path);
+
+		try (Reader in = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)) {
 			Iterable<CSVRecord> records = CSVFormat.EXCEL.parse(in);
 			for (CSVRecord record : records)
 			    values.add(record.get(0));
@@ -49,10 +64,9 @@ public class CSVManager {
 	 */
 	public static List<List<String>> readCSV(String path, char delimiter) {
 		List<List<String>> rows = new ArrayList<>();
+		flush(path);
 
-		Reader in;
-		try {
-			in = new FileReader(path);
+		try (Reader in = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)) {
 			Iterable<CSVRecord> records = CSVFormat.EXCEL.withDelimiter(delimiter).parse(in);
 			for (CSVRecord record : records) {
 				List<String> currentRow = new ArrayList<>();
@@ -98,25 +112,158 @@ public class CSVManager {
 	 * @param header Header to add to the first line. If null, no header will be added
 	 */
 	public static void createCSVwithHeader(String path, String header) {
-		deleteFile(path); // delete file if it exists
-		createFileIfNotExists(path);
-		writeCSVRow(path, header);
+		synchronized (getLock(path)) {
+			deleteFile(path); // delete file if it exists
+			createFileIfNotExists(path);
+			writeCSVRow(path, header);
+		}
 	}
 
 	public static void writeCSVRow(String path, String row) {
-		File csvFile = new File(path);
-		try(FileOutputStream oCsvFile = new FileOutputStream(csvFile, true)) {
-			row += "\n";
-			oCsvFile.write(row.getBytes());
+		append(path, row);
+	}
+
+	/**
+	 * Append a row to a CSV file. If the file does not exist, it is created with the given
+	 * header first. Both steps are performed atomically, so this method can be safely called
+	 * by several threads writing to the same file.
+	 * @param path Path of the CSV file. Parent folders must be already created
+	 * @param header Header to add to the first line if the file does not exist
+	 * @param row Row to append
+	 */
+	public static void writeCSVRow(String path, String header, String row) {
+		writeCSVFields(path, header, row);
+	}
+
+	/**
+	 * Append a row to a CSV file, given its values. Values are separated by commas and encoded
+	 * straight to the buffer of the file, so the row is never concatenated into a single string.
+	 * If the file does not exist, it is created with the given header first (atomically).
+	 * @param path Path of the CSV file. Parent folders must be already created
+	 * @param header Header to add to the first line if the file does not exist. If null, the
+	 *               row is appended without checking whether the file exists
+	 * @param values Values of the row, already escaped (see {@link org.apache.commons.text.StringEscapeUtils#escapeCsv(String)})
+	 */
+	public static void writeCSVFields(String path, String header, Object... values) {
+		synchronized (getLock(path)) {
+			if (header != null && !new File(path).exists())
+				createCSVwithHeader(path, header);
+			append(path, values);
+		}
+	}
+
+	private static void append(String path, Object... values) {
+		String key = getKey(path);
+		synchronized (getLock(path)) {
+			try {
+				CSVAppender appender = appenders.get(key);
+				if (appender == null) {
+					appender = new CSVAppender(new File(key), CSVAppender.DEFAULT_BUFFER_SIZE);
+					appenders.put(key, appender);
+					startFlusher();
+				}
+				appender.appendRow(values);
+				if (flushInterval <= 0)
+					appender.flush();
+			} catch (IOException e) {
+				logger.error("The line could not be written to the CSV: {}", path);
+				logger.error("Exception: ", e);
+				close(path);
+			}
+		}
+	}
+
+	/**
+	 * Write the rows buffered for a CSV file (if any) to the file
+	 * @param path Path of the CSV file
+	 */
+	public static void flush(String path) {
+		String key = getKey(path);
+		if (!appenders.containsKey(key))
+			return;
+		synchronized (getLock(path)) {
+			CSVAppender appender = appenders.get(key);
+			if (appender != null)
+				flush(key, appender);
+		}
+	}
+
+	/**
+	 * Write the rows buffered for all CSV files to the files. Should be called when a test suite finishes.
+	 */
+	public static void flushAll() {
+		appenders.forEach(CSVManager::flush);
+	}
+
+	private static void flush(String key, CSVAppender appender) {
+		try {
+			appender.flush();
 		} catch (IOException e) {
-			logger.error("The line could not be written to the CSV: {}", path);
+			logger.error("The CSV could not be flushed: {}", key);
 			logger.error("Exception: ", e);
 		}
+	}
+
+	/**
+	 * Write the rows buffered for a CSV file (if any) and close it. The file is opened again
+	 * if more rows are written to it. Must be called before deleting or overwriting the file.
+	 * @param path Path of the CSV file
+	 */
+	public static void close(String path) {
+		String key = getKey(path);
+		if (!appenders.containsKey(key))
+			return;
+		synchronized (getLock(path)) {
+			CSVAppender appender = appenders.remove(key);
+			if (appender == null)
+				return;
+			try {
+				appender.close();
+			} catch (IOException e) {
+				logger.error("The CSV could not be closed: {}", path);
+				logger.error("Exception: ", e);
+			}
+		}
+	}
+
+	/**
+	 * Write the rows buffered for all CSV files and close them
+	 */
+	public static void closeAll() {
+		new ArrayList<>(appenders.keySet()).forEach(CSVManager::close);
+	}
+
+	// Flush all files periodically, and close them when the JVM exits
+	private static synchronized void startFlusher() {
+		if (flusher != null)
+			return;
+
+		String intervalProperty = PropertyManager.readProperty("csv.flush.interval");
+		if (intervalProperty != null && !intervalProperty.trim().isEmpty())
+			flushInterval = Long.parseLong(intervalProperty.trim());
+
+		flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "csv-flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (flushInterval > 0)
+			flusher.scheduleWithFixedDelay(CSVManager::flushAll, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+		Runtime.getRuntime().addShutdownHook(new Thread(CSVManager::closeAll, "csv-closer"));
+	}
+
+	private static String getKey(String path) {
+		return new File(path).getAbsolutePath();
+	}
 
+	// Writes to the same file are serialized, so that rows written concurrently are not interleaved
+	private static Object getLock(String path) {
+		return fileLocks.computeIfAbsent(getKey(path), k -> new Object());
 	}
 
 	public static void collectionToCSV(String path, Collection<String> collection) {
-		try (FileWriter writer = new FileWriter(path)) {
+		close(path);
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8)) {
 			String collect = collection.stream().collect(Collectors.joining("\n"));
 			writer.write(collect);
 		} catch (IOException e) {
@@ -3,66 +3,188 @@ package es.us.isa.restest.util;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.IOException;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.io.OutputStream;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
 import javax.tools.StandardJavaFileManager;
-import javax.tools.StandardLocation;
 import javax.tools.ToolProvider;
 
 /**
- * 
+ * Compiles and loads test classes. Classes are compiled in memory (no .class files are
+ * written to disk) with a compiler and a file manager that are reused across calls, and
+ * each compiled class is loaded by its own class loader. Once a test class is no longer
+ * used, its class loader (and all classes loaded by it) can be garbage collected, so
+ * long iterative runs do not fill up the Metaspace.
+ *
  * @author Sergio Segura
  */
 public class ClassLoader {
 
 	private static final Logger logger = LogManager.getLogger(ClassLoader.class.getName());
 
-	public static Class<?> loadClass(String filePath, String className) {
+	private static JavaCompiler compiler;						// Reused by all compilations
+	private static StandardJavaFileManager standardFileManager;	// Reused by all compilations (it caches the classpath)
+	private static CompilationMetrics lastCompilationMetrics;
+
+	public static synchronized Class<?> loadClass(String filePath, String className) {
 		File sourceFile = new File(filePath);
 		Class<?> loadedClass= null;
-		
-		// Compile the source file 
+
+		// Compile the source file
 		try {
-		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
-		File parentDirectory = sourceFile.getParentFile();
-		fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(parentDirectory));
-		Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(Arrays.asList(sourceFile));
-		compiler.getTask(null, fileManager, null, null, null, compilationUnits).call();
-		fileManager.close();
-		
-		 // load the compiled class
-		 loadedClass = loadClass(parentDirectory, className);
-
-		} catch (IOException e) {
-			logger.error("Error loading class");
+			long start = System.currentTimeMillis();
+			InMemoryFileManager fileManager = new InMemoryFileManager(getStandardFileManager());
+			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+			Iterable<? extends JavaFileObject> compilationUnits = standardFileManager.getJavaFileObjectsFromFiles(Arrays.asList(sourceFile));
+			boolean compiled = compiler.getTask(null, fileManager, diagnostics, null, null, compilationUnits).call();
+			long compilationTime = System.currentTimeMillis() - start;
+
+			if (!compiled) {
+				for (Diagnostic<? extends JavaFileObject> diagnostic: diagnostics.getDiagnostics())
+					logger.error("Error compiling test class (line {}): {}", diagnostic.getLineNumber(), diagnostic.getMessage(null));
+				return null;
+			}
+
+			// load the compiled class
+			Map<String, byte[]> compiledClasses = fileManager.getCompiledClasses();
+			int numCompiledClasses = compiledClasses.size();
+			InMemoryClassLoader classLoader = new InMemoryClassLoader(compiledClasses, ClassLoader.class.getClassLoader());
+			loadedClass = classLoader.loadClass(className);
+
+			ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+			lastCompilationMetrics = new CompilationMetrics(className, compilationTime, numCompiledClasses, classLoading.getLoadedClassCount(), classLoading.getUnloadedClassCount());
+			logger.info("Test class {} compiled in {} ms ({} classes). Classes loaded in the JVM: {}, unloaded so far: {}", className, compilationTime,
+					lastCompilationMetrics.getCompiledClasses(), lastCompilationMetrics.getLoadedClasses(), lastCompilationMetrics.getUnloadedClasses());
+
+		} catch (ClassNotFoundException e) {
+			logger.error("Class not found");
 			logger.error("Exception: ", e);
 		} catch (NullPointerException e) {
 			logger.error("Error loading class. Make sure JDK is used");
 			logger.error("Exception: ", e);
 		}
-		
+
 		return loadedClass;
 	}
 
-	private static Class<?> loadClass(File parentDirectory, String className) {
-		Class<?> loadedClass= null;
-		try(URLClassLoader classLoader = URLClassLoader.newInstance(new URL[] { parentDirectory.toURI().toURL() })) {
-			loadedClass = classLoader.loadClass(className);
-		} catch (IOException e) {
-			logger.error("Error loading class");
-			logger.error("Exception: ", e);
-		} catch (ClassNotFoundException e) {
-			logger.error("Class not found");
-			logger.error("Exception: ", e);
+	private static StandardJavaFileManager getStandardFileManager() {
+		if (standardFileManager == null) {
+			compiler = ToolProvider.getSystemJavaCompiler();
+			standardFileManager = compiler.getStandardFileManager(null, null, null);
 		}
+		return standardFileManager;
+	}
 
-		return loadedClass;
+	/**
+	 * @return Metrics of the last compilation (null if no class has been compiled yet)
+	 */
+	public static synchronized CompilationMetrics getLastCompilationMetrics() {
+		return lastCompilationMetrics;
+	}
+
+	/**
+	 * Metrics of the compilation of a test class.
+	 */
+	public static class CompilationMetrics {
+
+		private final String className;
+		private final long compilationTime;		// In milliseconds
+		private final int compiledClasses;		// Classes generated by the compilation (including inner classes)
+		private final int loadedClasses;		// Classes currently loaded in the JVM
+		private final long unloadedClasses;		// Classes unloaded from the JVM since it started
+
+		public CompilationMetrics(String className, long compilationTime, int compiledClasses, int loadedClasses, long unloadedClasses) {
+			this.className = className;
+			this.compilationTime = compilationTime;
+			this.compiledClasses = compiledClasses;
+			this.loadedClasses = loadedClasses;
+			this.unloadedClasses = unloadedClasses;
+		}
+
+		public String getClassName() {
+			return className;
+		}
+
+		public long getCompilationTime() {
+			return compilationTime;
+		}
+
+		public int getCompiledClasses() {
+			return compiledClasses;
+		}
+
+		public int getLoadedClasses() {
+			return loadedClasses;
+		}
+
+		public long getUnloadedClasses() {
+			return unloadedClasses;
+		}
+	}
+
+	// File manager that keeps the bytecode of compiled classes in memory, instead of writing .class files
+	private static class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, ByteArrayOutputStream> compiledClasses = new HashMap<>();
+
+		private InMemoryFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+			return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+				@Override
+				public OutputStream openOutputStream() {
+					ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+					compiledClasses.put(className, bytecode);
+					return bytecode;
+				}
+			};
+		}
+
+		@Override
+		public void close() {
+			// The underlying file manager is reused, so it must not be closed
+		}
+
+		private Map<String, byte[]> getCompiledClasses() {
+			Map<String, byte[]> classes = new HashMap<>();
+			compiledClasses.forEach((name, bytecode) -> classes.put(name, bytecode.toByteArray()));
+			return classes;
+		}
+	}
+
+	// Disposable class loader for the classes of a single compilation
+	private static class InMemoryClassLoader extends java.lang.ClassLoader {
+
+		private final Map<String, byte[]> classes;
+
+		private InMemoryClassLoader(Map<String, byte[]> classes, java.lang.ClassLoader parent) {
+			super(parent);
+			this.classes = classes;
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytecode = classes.remove(name);	// Bytecode is no longer needed once the class is defined
+			if (bytecode == null)
+				throw new ClassNotFoundException(name);
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
 	}
 }
@@ -0,0 +1,225 @@
+package es.us.isa.restest.util;
+
+import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.testcases.TestResult;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Binary columnar format for test cases and test results, much faster to read than CSV for large test
+ * suites. A file (extension ".rtb") contains records of a single type, grouped in blocks: for every block,
+ * the values of each column are stored together. Operation IDs, paths, methods, content types, status codes
+ * and parameter names are dictionary-encoded. The dictionary and the offsets of the blocks are stored at the
+ * end of the file, so records are read block by block from a memory-mapped file (see {@link ColumnarStoreReader}).
+ * <br>
+ * Files are written by {@link ColumnarStoreWriter}, or converted from the CSV files of test cases and test
+ * results (see {@link #convertTestCases(String, String)} and {@link #convertTestResults(String, String)}).
+ */
+public class ColumnarStore {
+
+	public static final String EXTENSION = ".rtb";
+	public static final int DEFAULT_BLOCK_SIZE = 4096;				// Records per block
+	public static final int MAX_BLOCK_BYTES = 64 * 1024 * 1024;		// Blocks are written earlier if they get larger
+
+	static final int MAGIC = 0x52544342;	// "RTCB"
+	static final byte VERSION = 1;
+	static final int MIN_FILE_SIZE = 10 + 16 + 12;	// Header, empty footer and trailer
+	static final byte TEST_CASES = 1;
+	static final byte TEST_RESULTS = 2;
+	private static final int TEST_CASE_COLUMNS = 14;
+	private static final int TEST_RESULT_COLUMNS = 6;
+
+	private static final Logger logger = LogManager.getLogger(ColumnarStore.class.getName());
+
+	private ColumnarStore() {}
+
+	/**
+	 * @param csvPath Path of a CSV file of test cases or test results
+	 * @return The path of the equivalent file in binary columnar format (same path, with extension ".rtb")
+	 */
+	public static String getStorePath(String csvPath) {
+		if (csvPath.endsWith(EXTENSION))
+			return csvPath;
+		return (csvPath.endsWith(".csv") ? csvPath.substring(0, csvPath.length() - 4) : csvPath) + EXTENSION;
+	}
+
+	/**
+	 * @return true if the file in binary columnar format exists and is not older than the CSV file
+	 */
+	public static boolean isUpToDate(String csvPath, String storePath) {
+		File store = new File(storePath);
+		return store.exists() && store.lastModified() >= new File(csvPath).lastModified();
+	}
+
+	public static ColumnarStoreWriter<TestCase> openTestCaseWriter(String path) throws IOException {
+		return new ColumnarStoreWriter<>(path, TEST_CASES, TEST_CASE_COLUMNS, ColumnarStore::encodeTestCase);
+	}
+
+	public static ColumnarStoreWriter<TestResult> openTestResultWriter(String path) throws IOException {
+		return new ColumnarStoreWriter<>(path, TEST_RESULTS, TEST_RESULT_COLUMNS, ColumnarStore::encodeTestResult);
+	}
+
+	/**
+	 * Opens a file of test cases. The test cases are read while iterating, and the reader must be closed.
+	 */
+	public static ColumnarStoreReader<TestCase> openTestCaseReader(String path) throws IOException {
+		return new ColumnarStoreReader<>(path, TEST_CASES, ColumnarStore::decodeTestCase);
+	}
+
+	/**
+	 * Opens a file of test results. The test results are read while iterating, and the reader must be closed.
+	 */
+	public static ColumnarStoreReader<TestResult> openTestResultReader(String path) throws IOException {
+		return new ColumnarStoreReader<>(path, TEST_RESULTS, ColumnarStore::decodeTestResult);
+	}
+
+	public static List<TestCase> readTestCases(String path) throws IOException {
+		return readAll(openTestCaseReader(path));
+	}
+
+	public static List<TestResult> readTestResults(String path) throws IOException {
+		return readAll(openTestResultReader(path));
+	}
+
+	private static <T> List<T> readAll(ColumnarStoreReader<T> reader) throws IOException {
+		try (ColumnarStoreReader<T> r = reader) {
+			List<T> records = new ArrayList<>((int) Math.min(r.getRecordCount(), Integer.MAX_VALUE));
+			r.forEachRemaining(records::add);
+			return records;
+		}
+	}
+
+	/**
+	 * Converts a CSV file of test cases (see {@link TestCase#exportToCSV(String)}) to the binary columnar
+	 * format. The CSV file is read row by row, so it is never fully kept in memory.
+	 * @return The number of test cases converted
+	 */
+	public static long convertTestCases(String csvPath, String storePath) throws IOException {
+		try (ColumnarStoreWriter<TestCase> writer = openTestCaseWriter(storePath)) {
+			convert(csvPath, TestManager::parseTestCase, writer);
+			return writer.getRecordCount();
+		}
+	}
+
+	/**
+	 * Converts a CSV file of test results (see {@link TestResult#exportToCSV(String)}) to the binary columnar
+	 * format. The CSV file is read row by row, so it is never fully kept in memory.
+	 * @return The number of test results converted
+	 */
+	public static long convertTestResults(String csvPath, String storePath) throws IOException {
+		try (ColumnarStoreWriter<TestResult> writer = openTestResultWriter(storePath)) {
+			convert(csvPath, TestManager::parseTestResult, writer);
+			return writer.getRecordCount();
+		}
+	}
+
+	private static <T> void convert(String csvPath, Function<List<String>, T> parser, ColumnarStoreWriter<T> writer) throws IOException {
+		CSVManager.flush(csvPath);
+		try (Reader in = new InputStreamReader(new FileInputStream(csvPath), StandardCharsets.UTF_8)) {
+			Iterator<CSVRecord> records = CSVFormat.EXCEL.parse(in).iterator();
+			if (records.hasNext())
+				records.next();		// Header
+			while (records.hasNext()) {
+				List<String> row = new ArrayList<>();
+				records.next().forEach(row::add);
+				writer.write(parser.apply(row));
+			}
+		}
+	}
+
+	/**
+	 * Converts all the CSV files of test cases ("test-cases*.csv") and test results ("test-results*.csv") of a
+	 * directory to the binary columnar format, unless they were already converted after being modified.
+	 * @param dirPath Path of the directory
+	 * @return The number of files converted
+	 */
+	public static int convertDirectory(String dirPath) {
+		File[] files = new File(dirPath).listFiles((dir, name) -> name.endsWith(".csv") && (name.startsWith("test-cases") || name.startsWith("test-results")));
+		if (files == null)
+			throw new IllegalArgumentException("The specified path is not a directory or does not exist: " + dirPath);
+
+		int converted = 0;
+		for (File file: files) {
+			String csvPath = file.getPath();
+			String storePath = getStorePath(csvPath);
+			if (isUpToDate(csvPath, storePath))
+				continue;
+			try {
+				long records = file.getName().startsWith("test-cases") ? convertTestCases(csvPath, storePath) : convertTestResults(csvPath, storePath);
+				logger.info("{} records converted from {} to {}", records, csvPath, storePath);
+				converted++;
+			} catch (IOException | RuntimeException e) {
+				logger.error("The file {} could not be converted", csvPath);
+				logger.error("Exception: ", e);
+				FileManager.deleteFile(storePath);
+			}
+		}
+		return converted;
+	}
+
+	private static void encodeTestCase(TestCase tc, ColumnarStoreWriter<TestCase> writer) {
+		writer.string(tc.getId());
+		writer.bool(tc.getFaulty());
+		writer.string(tc.getFaultyReason());
+		writer.bool(tc.getFulfillsDependencies());
+		writer.dictionary(tc.getOperationId());
+		writer.dictionary(tc.getPath());
+		writer.dictionary(tc.getMethod() != null ? tc.getMethod().toString() : null);
+		writer.dictionary(tc.getInputFormat());
+		writer.dictionary(tc.getOutputFormat());
+		writer.map(tc.getHeaderParameters());
+		writer.map(tc.getPathParameters());
+		writer.map(tc.getQueryParameters());
+		writer.map(tc.getFormParameters());
+		writer.string(tc.getBodyParameter());
+	}
+
+	private static TestCase decodeTestCase(ColumnarStoreReader<TestCase> reader) {
+		String id = reader.string();
+		Boolean faulty = reader.bool();
+		String faultyReason = reader.string();
+		Boolean fulfillsDependencies = reader.bool();
+		String operationId = reader.dictionary();
+		String path = reader.dictionary();
+		String method = reader.dictionary();
+
+		TestCase tc = new TestCase(id, faulty, operationId, path, method != null ? HttpMethod.valueOf(method) : null);
+		tc.setFaultyReason(faultyReason);
+		tc.setFulfillsDependencies(fulfillsDependencies);
+		tc.setInputFormat(reader.dictionary());
+		tc.setOutputFormat(reader.dictionary());
+		tc.setHeaderParameters(reader.map());
+		tc.setPathParameters(reader.map());
+		tc.setQueryParameters(reader.map());
+		tc.setFormParameters(reader.map());
+		tc.setBodyParameter(reader.string());
+		return tc;
+	}
+
+	private static void encodeTestResult(TestResult tr, ColumnarStoreWriter<TestResult> writer) {
+		writer.string(tr.getId());
+		writer.dictionary(tr.getStatusCode());
+		writer.string(tr.getResponseBody());
+		writer.dictionary(tr.getOutputFormat());
+		writer.bool(tr.getPassed());
+		writer.string(tr.getFailReason());
+	}
+
+	private static TestResult decodeTestResult(ColumnarStoreReader<TestResult> reader) {
+		return new TestResult(reader.string(), reader.dictionary(), reader.string(), reader.dictionary(), reader.bool(), reader.string());
+	}
+}
@@ -0,0 +1,194 @@
+package es.us.isa.restest.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the records of a file in the binary columnar format of {@link ColumnarStore}. Blocks are memory-mapped
+ * and decoded one at a time while iterating, so the records of the file are never all kept in memory.
+ * @param <T> Type of the records
+ */
+public class ColumnarStoreReader<T> implements Iterator<T>, Closeable {
+
+	/**
+	 * Reads the values of a record, one call per column, in the order of the columns
+	 */
+	public interface RecordDecoder<T> {
+		T decode(ColumnarStoreReader<T> reader);
+	}
+
+	private final FileChannel channel;
+	private final RecordDecoder<T> decoder;
+	private final int columnCount;
+	private final long recordCount;
+	private final String[] dictionary;
+	private final long[] blockOffsets;
+	private final int[] blockLengths;
+	private final ByteBuffer[] columns;		// Values of every column in the current block
+	private int nextBlock = 0;
+	private int remainingInBlock = 0;
+	private int column = 0;					// Column of the value to read next
+
+	public ColumnarStoreReader(String path, byte recordType, RecordDecoder<T> decoder) throws IOException {
+		this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+		this.decoder = decoder;
+		try {
+			long size = channel.size();
+			if (size < ColumnarStore.MIN_FILE_SIZE)
+				throw new IOException("Not a RESTest columnar file: " + path);
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 10);
+			if (header.getInt() != ColumnarStore.MAGIC)
+				throw new IOException("Not a RESTest columnar file: " + path);
+			if (header.get() != ColumnarStore.VERSION)
+				throw new IOException("Unsupported version of RESTest columnar file: " + path);
+			if (header.get() != recordType)
+				throw new IOException("The file " + path + " does not contain the expected type of records");
+			columnCount = header.getInt();
+
+			ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - 12, 12);
+			long footerOffset = trailer.getLong();
+			if (trailer.getInt() != ColumnarStore.MAGIC)
+				throw new IOException("The file " + path + " is truncated");
+
+			ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, size - 12 - footerOffset);
+			recordCount = footer.getLong();
+			dictionary = new String[footer.getInt() + 1];		// Index 0 is null
+			for (int i = 1; i < dictionary.length; i++)
+				dictionary[i] = readUTF8(footer, footer.getInt());
+			int blockCount = footer.getInt();
+			blockOffsets = new long[blockCount];
+			blockLengths = new int[blockCount];
+			for (int i = 0; i < blockCount; i++) {
+				blockOffsets[i] = footer.getLong();
+				blockLengths[i] = footer.getInt();
+				footer.getInt();	// Number of records of the block
+			}
+			columns = new ByteBuffer[columnCount];
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (remainingInBlock == 0) {
+			if (nextBlock == blockOffsets.length)
+				return false;
+			mapBlock(nextBlock++);
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		column = 0;
+		remainingInBlock--;
+		return decoder.decode(this);
+	}
+
+	private void mapBlock(int block) {
+		try {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, blockOffsets[block], blockLengths[block]);
+			remainingInBlock = buffer.getInt();
+			int[] lengths = new int[columnCount];
+			for (int i = 0; i < columnCount; i++)
+				lengths[i] = buffer.getInt();
+			for (int i = 0; i < columnCount; i++) {
+				ByteBuffer columnBuffer = buffer.slice();
+				columnBuffer.limit(lengths[i]);
+				columns[i] = columnBuffer;
+				buffer.position(buffer.position() + lengths[i]);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("The block " + block + " could not be read", e);
+		}
+	}
+
+	/**
+	 * Reads a string (possibly null) from the next column
+	 */
+	public String string() {
+		ByteBuffer buffer = nextColumn();
+		int length = readVarint(buffer);
+		return length == 0 ? null : readUTF8(buffer, length - 1);
+	}
+
+	/**
+	 * Reads a string (possibly null) stored in the dictionary from the next column
+	 */
+	public String dictionary() {
+		return dictionary[readVarint(nextColumn())];
+	}
+
+	/**
+	 * Reads a Boolean (possibly null) from the next column
+	 */
+	public Boolean bool() {
+		byte value = nextColumn().get();
+		return value == 0 ? null : value == 2;
+	}
+
+	/**
+	 * Reads a map from the next column
+	 */
+	public Map<String, String> map() {
+		ByteBuffer buffer = nextColumn();
+		int size = readVarint(buffer);
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			String key = dictionary[readVarint(buffer)];
+			int length = readVarint(buffer);
+			map.put(key, length == 0 ? null : readUTF8(buffer, length - 1));
+		}
+		return map;
+	}
+
+	private ByteBuffer nextColumn() {
+		if (column == columnCount)
+			throw new IllegalStateException("The record has more values than columns (" + columnCount + ")");
+		return columns[column++];
+	}
+
+	private static int readVarint(ByteBuffer buffer) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	private static String readUTF8(ByteBuffer buffer, int length) {
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return The number of records of the file
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,206 @@
+package es.us.isa.restest.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes records (test cases or test results) to a file in the binary columnar format of {@link ColumnarStore}.
+ * Records are grouped in blocks, and the values of every column of a block are stored together. Strings
+ * with few distinct values (operation IDs, paths, parameter names...) are replaced by their index in a
+ * dictionary, which is written at the end of the file together with the offsets of the blocks.
+ * @param <T> Type of the records
+ */
+public class ColumnarStoreWriter<T> implements Closeable {
+
+	/**
+	 * Writes the values of a record, one call per column, in the order of the columns
+	 */
+	public interface RecordEncoder<T> {
+		void encode(T record, ColumnarStoreWriter<T> writer);
+	}
+
+	private final DataOutputStream out;
+	private final RecordEncoder<T> encoder;
+	private final int blockSize;
+	private final ColumnBuffer[] columns;
+	private final Map<String, Integer> dictionary = new HashMap<>();
+	private final List<String> dictionaryValues = new ArrayList<>();
+	private final List<long[]> blocks = new ArrayList<>();		// Offset, length and number of records of every block
+	private long position = 0;
+	private long recordCount = 0;
+	private int blockRecordCount = 0;
+	private int column = 0;										// Column of the value to write next
+
+	public ColumnarStoreWriter(String path, byte recordType, int columnCount, RecordEncoder<T> encoder) throws IOException {
+		this(path, recordType, columnCount, encoder, ColumnarStore.DEFAULT_BLOCK_SIZE);
+	}
+
+	public ColumnarStoreWriter(String path, byte recordType, int columnCount, RecordEncoder<T> encoder, int blockSize) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), 64 * 1024));
+		this.encoder = encoder;
+		this.blockSize = blockSize;
+		this.columns = new ColumnBuffer[columnCount];
+		for (int i = 0; i < columnCount; i++)
+			columns[i] = new ColumnBuffer();
+
+		out.writeInt(ColumnarStore.MAGIC);
+		out.writeByte(ColumnarStore.VERSION);
+		out.writeByte(recordType);
+		out.writeInt(columnCount);
+		position += 10;
+	}
+
+	public void write(T record) throws IOException {
+		column = 0;
+		encoder.encode(record, this);
+		if (column != columns.length)
+			throw new IllegalStateException("The record has " + column + " values, but there are " + columns.length + " columns");
+
+		recordCount++;
+		if (++blockRecordCount == blockSize || getBlockBytes() > ColumnarStore.MAX_BLOCK_BYTES)
+			writeBlock();
+	}
+
+	/**
+	 * Writes a string (possibly null) in the next column
+	 */
+	public void string(String value) {
+		nextColumn().writeString(value);
+	}
+
+	/**
+	 * Writes a string (possibly null) in the next column, replaced by its index in the dictionary
+	 */
+	public void dictionary(String value) {
+		nextColumn().writeVarint(dictionaryIndex(value));
+	}
+
+	/**
+	 * Writes a Boolean (possibly null) in the next column
+	 */
+	public void bool(Boolean value) {
+		nextColumn().write(value == null ? 0 : (value ? 2 : 1));
+	}
+
+	/**
+	 * Writes a map in the next column. Keys are stored in the dictionary
+	 */
+	public void map(Map<String, String> value) {
+		ColumnBuffer buffer = nextColumn();
+		buffer.writeVarint(value.size());
+		for (Map.Entry<String, String> entry: value.entrySet()) {
+			buffer.writeVarint(dictionaryIndex(entry.getKey()));
+			buffer.writeString(entry.getValue());
+		}
+	}
+
+	private ColumnBuffer nextColumn() {
+		if (column == columns.length)
+			throw new IllegalStateException("The record has more values than columns (" + columns.length + ")");
+		return columns[column++];
+	}
+
+	// Index of the value in the dictionary plus one (0 is null)
+	private int dictionaryIndex(String value) {
+		if (value == null)
+			return 0;
+		return dictionary.computeIfAbsent(value, v -> {
+			dictionaryValues.add(v);
+			return dictionaryValues.size();
+		});
+	}
+
+	private long getBlockBytes() {
+		long size = 0;
+		for (int i = 0; i < columns.length; i++)
+			size += columns[i].size();
+		return size;
+	}
+
+	// Block: number of records, length of every column and values of every column
+	private void writeBlock() throws IOException {
+		if (blockRecordCount == 0)
+			return;
+
+		long offset = position;
+		out.writeInt(blockRecordCount);
+		for (ColumnBuffer c: columns)
+			out.writeInt(c.size());
+		position += 4 + 4L * columns.length;
+		for (ColumnBuffer c: columns) {
+			c.writeTo(out);
+			position += c.size();
+			c.reset();
+		}
+
+		blocks.add(new long[] {offset, position - offset, blockRecordCount});
+		blockRecordCount = 0;
+	}
+
+	/**
+	 * Writes the last block and the footer (dictionary and block index), and closes the file
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			writeBlock();
+
+			// Footer: number of records, dictionary and block index, followed by its offset and the magic number
+			long footerOffset = position;
+			out.writeLong(recordCount);
+			out.writeInt(dictionaryValues.size());
+			for (String value: dictionaryValues) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+			out.writeInt(blocks.size());
+			for (long[] block: blocks) {
+				out.writeLong(block[0]);
+				out.writeInt((int) block[1]);
+				out.writeInt((int) block[2]);
+			}
+			out.writeLong(footerOffset);
+			out.writeInt(ColumnarStore.MAGIC);
+		} finally {
+			out.close();
+		}
+	}
+
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	// Values of a column in the current block
+	private static class ColumnBuffer extends ByteArrayOutputStream {
+
+		// Unsigned LEB128
+		private void writeVarint(int value) {
+			while ((value & ~0x7F) != 0) {
+				write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			write(value);
+		}
+
+		// Length plus one (0 is null), followed by the UTF-8 bytes
+		private void writeString(String value) {
+			if (value == null) {
+				writeVarint(0);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarint(bytes.length + 1);
+			write(bytes, 0, bytes.length);
+		}
+	}
+}
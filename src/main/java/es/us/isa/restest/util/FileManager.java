@@ -32,6 +32,7 @@ public class FileManager {
     }
 
     public static Boolean deleteFile(String path) {
+        CSVManager.close(path); // Rows buffered for the file would be written to the deleted file
         File file = new File(path);
         return file.delete();
     }
@@ -45,6 +46,7 @@ public class FileManager {
     }
 
     public static void deleteDir(String path) {
+        CSVManager.closeAll();
         File file = new File(path);
         try {
             FileUtils.deleteDirectory(file);
@@ -55,6 +57,7 @@ public class FileManager {
     }
 
     public static String readFile(String path) {
+        CSVManager.flush(path);
         try {
             return new String(Files.readAllBytes(Paths.get(path)));
         } catch (IOException e) {
@@ -64,6 +67,7 @@ public class FileManager {
     }
 
     public static void copyFile(String source, String destination) throws IOException {
+        CSVManager.flush(source);
         Files.copy(Paths.get(source), Paths.get(destination), StandardCopyOption.REPLACE_EXISTING);
     }
 
@@ -73,6 +77,7 @@ public class FileManager {
      * @param data the text to be written
      */
     public static void writeFile(String path, String data) {
+        CSVManager.close(path);
         try {
             Files.write(Paths.get(path), Collections.singleton(data));
         } catch (IOException e) {
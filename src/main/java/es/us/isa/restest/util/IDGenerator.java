@@ -6,21 +6,19 @@ package es.us.isa.restest.util;
  */
 import java.nio.ByteBuffer;
 import java.util.Date;
-import java.util.Random;
 import java.util.UUID;
 
 public class IDGenerator {
 
 	
 	static long seed = -1;
-	static Random rand = new Random();
 	
 	/**
-	 * @return a short ID (13 characters)
+	 * @return a short ID (13 characters), taken from the random stream of the current thread (see {@link SeedTree#current()})
 	 */
 	public static String generateId() {
 		byte[] bytes = new byte[16];
-		rand.nextBytes(bytes);
+		SeedTree.current().nextBytes(bytes);
 		UUID uuid = UUID.nameUUIDFromBytes(bytes);
 		long l = ByteBuffer.wrap(uuid.toString().getBytes()).getLong();
 		return Long.toString(l, Character.MAX_RADIX);
@@ -30,8 +28,9 @@ public class IDGenerator {
 		return String.valueOf(new Date().getTime());
 	}
 	
+	// Restarts the random stream of the current thread
 	public static void setSeed(long s) {
 		seed=s;
-		rand.setSeed(seed);
+		SeedTree.bind(SeedTree.newRandom(seed));
 	}
 }
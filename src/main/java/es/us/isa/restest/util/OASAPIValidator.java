@@ -5,26 +5,215 @@ import static com.atlassian.oai.validator.whitelist.rule.WhitelistRules.headerCo
 import static com.atlassian.oai.validator.whitelist.rule.WhitelistRules.messageContainsSubstring;
 import static com.atlassian.oai.validator.whitelist.rule.WhitelistRules.messageHasKey;
 
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
 import com.atlassian.oai.validator.OpenApiInteractionValidator;
 import com.atlassian.oai.validator.whitelist.ValidationErrorsWhitelist;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+/**
+ * Registry of OAS validators. Validators are built only once per specification (identified by its path)
+ * and can be shared by several threads, so that testing several APIs in the same JVM does not rebuild them
+ * back and forth. Validators of single operations ({@link #getOperationValidator(OpenAPISpecification, String, HttpMethod)})
+ * are built from a specification containing only that operation, so they are cheaper to build when only a
+ * few operations are tested.
+ */
 public class OASAPIValidator {
 
-	private static OpenApiInteractionValidator validator;						// OAS validator
-	private static OpenAPISpecification spec = null;							// OAS specification
-	
-	private static OASAPIValidator instance = null;							// Singleton object
-	
-	
-	private OASAPIValidator(OpenAPISpecification spec) {
-		
-		this.spec = spec;
-		
-		// Test case validator:
-		// Whitelist: Fix for swagger-validation library: formData parameters defined as string should not
-		// violate the schema when using numbers or booleans, since those are still strings.
+	private static final Map<String, OpenApiInteractionValidator> validators = new ConcurrentHashMap<>();				// Spec path -> validator
+	private static final Map<String, OpenApiInteractionValidator> operationValidators = new ConcurrentHashMap<>();	// Spec path + operation -> validator
+	private static final Map<String, Optional<ParameterValidator>> parameterValidators = new ConcurrentHashMap<>();	// Spec path + operation -> fast-path validator
+	private static final Map<String, ResponseValidator> responseValidators = new ConcurrentHashMap<>();				// Spec path -> validator of responses
+	private static final Map<String, OpenAPISpecification> specifications = new ConcurrentHashMap<>();				// Spec path -> specification
+	private static final Map<String, ResponseValueChecker> responseValueCheckers = new ConcurrentHashMap<>();		// Spec path + operation + status -> checker of the values of the response
+
+	private static final Logger logger = LogManager.getLogger(OASAPIValidator.class.getName());
+
+	private OASAPIValidator() {}
+
+	/**
+	 * Returns the validator of the whole specification, building it if this is the first time it is requested
+	 * @param oas The OAS specification
+	 * @return The validator
+	 */
+	public static OpenApiInteractionValidator getValidator(OpenAPISpecification oas) {
+		return getValidator(oas.getPath());
+	}
+
+	/**
+	 * Returns the validator of the specification located in <i>specPath</i>, building it if this is the first time it is requested
+	 * @param specPath File location (URL or file path) of the OAS specification
+	 * @return The validator
+	 */
+	public static OpenApiInteractionValidator getValidator(String specPath) {
+		return validators.computeIfAbsent(specPath, p -> withWhitelist(OpenApiInteractionValidator.createFor(p)).build());
+	}
+
+	/**
+	 * Returns a validator that only knows the given operation of the specification, building it if this is the
+	 * first time it is requested. If the operation cannot be extracted from the specification, the validator
+	 * of the whole specification is returned instead.
+	 * @param oas The OAS specification
+	 * @param path The path of the operation (e.g., "/pets/{id}")
+	 * @param method The HTTP method of the operation
+	 * @return The validator
+	 */
+	public static OpenApiInteractionValidator getOperationValidator(OpenAPISpecification oas, String path, HttpMethod method) {
+		return operationValidators.computeIfAbsent(oas.getPath() + ' ' + method + ' ' + path, k -> buildOperationValidator(oas, path, method));
+	}
+
+	/**
+	 * Returns the fast-path validator of the parameters of an operation (see {@link ParameterValidator}), compiling it
+	 * if this is the first time it is requested
+	 * @param oas The OAS specification
+	 * @param path The path of the operation (e.g., "/pets/{id}")
+	 * @param method The HTTP method of the operation
+	 * @return The validator, or null if the operation cannot be validated with a ParameterValidator (e.g., it has a request body)
+	 */
+	public static ParameterValidator getParameterValidator(OpenAPISpecification oas, String path, HttpMethod method) {
+		return parameterValidators.computeIfAbsent(oas.getPath() + ' ' + method + ' ' + path, k -> {
+			OpenAPI spec = oas.getSpecification();
+			PathItem pathItem = spec != null && spec.getPaths() != null ? spec.getPaths().get(path) : null;
+			if (pathItem == null || pathItem.readOperationsMap().get(method) == null)
+				return Optional.empty();
+			return Optional.ofNullable(ParameterValidator.compile(spec, pathItem, pathItem.readOperationsMap().get(method)));
+		}).orElse(null);
+	}
+
+	/**
+	 * Returns the validator used to check the responses of the API (see {@link es.us.isa.restest.writers.restassured.filters.ResponseValidationFilter}).
+	 * It is shared by all test classes of the JVM, so the specification is parsed only once. If the specification is a file
+	 * and it is modified, the validator is built again.
+	 * @param specUrlOrDefinition File location (URL or file path) of the OAS specification, or the specification itself
+	 * @return The validator
+	 */
+	public static OpenApiInteractionValidator getResponseValidator(String specUrlOrDefinition) {
+		long lastModified = new File(specUrlOrDefinition).lastModified();		// 0 if it is not a file
+		return responseValidators.compute(specUrlOrDefinition, (k, cached) ->
+				cached != null && cached.lastModified == lastModified ? cached : new ResponseValidator(OpenApiInteractionValidator.createFor(k).build(), lastModified)
+		).validator;
+	}
+
+	/**
+	 * Returns the checker of the value-level constraints of a response (see {@link ResponseValueChecker}), which must
+	 * be checked even if the shape of the response is known to be valid. If the response is not found in the
+	 * specification, or its headers have value-level constraints, the response must always be fully validated.
+	 * @param specPath File location (URL or file path) of the OAS specification
+	 * @param method The HTTP method of the operation
+	 * @param path The path of the operation (e.g., "/pets/{id}")
+	 * @param statusCode The status code of the response
+	 * @return The checker of the values of the response
+	 */
+	public static ResponseValueChecker getResponseValueChecker(String specPath, String method, String path, int statusCode) {
+		return responseValueCheckers.computeIfAbsent(specPath + ' ' + method + ' ' + path + ' ' + statusCode, k -> {
+			OpenAPI spec = specifications.computeIfAbsent(specPath, OpenAPISpecification::new).getSpecification();
+			PathItem pathItem = spec != null && spec.getPaths() != null ? spec.getPaths().get(path) : null;
+			io.swagger.v3.oas.models.Operation operation = pathItem != null ? pathItem.readOperationsMap().get(HttpMethod.valueOf(method.toUpperCase())) : null;
+			if (operation == null || operation.getResponses() == null)
+				return ResponseValueChecker.FULL_VALIDATION;
+
+			ApiResponse response = operation.getResponses().get(String.valueOf(statusCode));
+			if (response == null)
+				response = operation.getResponses().get(statusCode / 100 + "XX");
+			if (response == null)
+				response = operation.getResponses().getDefault();
+			if (response == null)
+				return ResponseValueChecker.FULL_VALIDATION;
+			if (response.getHeaders() != null && response.getHeaders().values().stream().anyMatch(h -> ResponseShapeCache.hasValueConstraints(h.getSchema())))
+				return ResponseValueChecker.FULL_VALIDATION;
+			if (response.getContent() == null)
+				return ResponseValueChecker.NONE;
+
+			// The body is checked against the schema of its media type only if all media types share the same schema
+			List<Schema> schemas = response.getContent().values().stream()
+					.map(MediaType::getSchema)
+					.filter(ResponseShapeCache::hasValueConstraints)
+					.collect(Collectors.toList());
+			if (schemas.isEmpty())
+				return ResponseValueChecker.NONE;
+			if (schemas.stream().anyMatch(schema -> schema != schemas.get(0)) || schemas.size() < response.getContent().size())
+				return ResponseValueChecker.FULL_VALIDATION;
+			return ResponseValueChecker.of(schemas.get(0));
+		});
+	}
+
+	/**
+	 * Returns the errors found when validating the request of a test case. The parameters are checked with the fast-path
+	 * validator of the operation first (see {@link #getParameterValidator(OpenAPISpecification, String, HttpMethod)}).
+	 * Only if it cannot confirm that the test case is valid, the test case is validated with the validator of the operation.
+	 * @param oas The OAS specification
+	 * @param testCase The test case
+	 * @return The validation errors, empty if the test case is valid
+	 */
+	public static List<String> getValidationErrors(OpenAPISpecification oas, TestCase testCase) {
+		ParameterValidator parameterValidator = getParameterValidator(oas, testCase.getPath(), testCase.getMethod());
+		if (parameterValidator != null && parameterValidator.isValid(testCase))
+			return Collections.emptyList();
+		return testCase.getValidationErrors(getOperationValidator(oas, testCase.getPath(), testCase.getMethod()));
+	}
+
+	/**
+	 * Removes all validators of the registry, so that they are built again (e.g., after the specification file has changed)
+	 */
+	public static void clear() {
+		validators.clear();
+		operationValidators.clear();
+		parameterValidators.clear();
+		responseValidators.clear();
+		specifications.clear();
+		responseValueCheckers.clear();
+	}
+
+	private static OpenApiInteractionValidator buildOperationValidator(OpenAPISpecification oas, String path, HttpMethod method) {
+		OpenAPI spec = oas.getSpecification();
+		PathItem pathItem = spec != null && spec.getPaths() != null ? spec.getPaths().get(path) : null;
+		if (pathItem == null || pathItem.readOperationsMap().get(method) == null)
+			return getValidator(oas);
+
+		// Same specification (servers, security, components...), but only with the given operation
+		PathItem operationPathItem = new PathItem()
+				.parameters(pathItem.getParameters())
+				.servers(pathItem.getServers());
+		operationPathItem.operation(method, pathItem.readOperationsMap().get(method));
+		OpenAPI operationSpec = new OpenAPI()
+				.openapi(spec.getOpenapi())
+				.info(spec.getInfo())
+				.servers(spec.getServers())
+				.security(spec.getSecurity())
+				.components(spec.getComponents())
+				.paths(new Paths().addPathItem(path, operationPathItem));
+
+		try {
+			return withWhitelist(OpenApiInteractionValidator.createForInlineApiSpecification(Json.mapper().writeValueAsString(operationSpec))).build();
+		} catch (JsonProcessingException e) {
+			// E.g., recursive schemas, which cannot be serialized once resolved
+			logger.warn("Operation {} {} could not be extracted from the specification, the whole specification will be used to validate it: {}", method, path, e.getMessage());
+			return getValidator(oas);
+		}
+	}
+
+	// Fix for swagger-validation library: formData parameters defined as string should not
+	// violate the schema when using numbers or booleans, since those are still strings.
+	private static OpenApiInteractionValidator.Builder withWhitelist(OpenApiInteractionValidator.Builder builder) {
 		ValidationErrorsWhitelist whitelist = ValidationErrorsWhitelist.create()
 				.withRule(
 						"Ignore non-strings for string-type formData parameters",
@@ -34,19 +223,18 @@ public class OASAPIValidator {
 								messageContainsSubstring("does not match any allowed primitive type (allowed: [\"string\"])")
 						)
 				);
-		this.validator = OpenApiInteractionValidator.createFor(spec.getPath()).withWhitelist(whitelist).build();
+		return builder.withWhitelist(whitelist);
 	}
-	
-	
-	public static OpenApiInteractionValidator getValidator(OpenAPISpecification oas) {
-		
-		if (instance==null || !spec.equals(oas)) {
-			spec = oas;
-			instance = new OASAPIValidator(oas);
+
+	// Validator of responses, and modification time of the specification when it was built
+	private static class ResponseValidator {
+		private final OpenApiInteractionValidator validator;
+		private final long lastModified;
+
+		private ResponseValidator(OpenApiInteractionValidator validator, long lastModified) {
+			this.validator = validator;
+			this.lastModified = lastModified;
 		}
-		
-		return validator;
-		
 	}
-	
+
 }
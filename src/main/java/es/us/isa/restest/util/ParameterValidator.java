@@ -0,0 +1,280 @@
+package es.us.isa.restest.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import es.us.isa.restest.specification.OpenAPIParameter;
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+/**
+ * Lightweight validator of the query, path and header parameters of an operation. The constraints of every
+ * parameter (type, enum, minimum/maximum, minLength/maxLength and pattern) are compiled once, so validating
+ * a test case only requires a few primitive checks, without building a request or resolving the specification.
+ * <br>
+ * It is a fast path in front of {@link com.atlassian.oai.validator.OpenApiInteractionValidator}: it only
+ * confirms that a test case is valid. If it cannot confirm it (invalid values, request body, unsupported
+ * constraints...), the test case must be validated with the OpenApiInteractionValidator, which also provides
+ * the validation errors. Operations with request body, security requirements or complex parameter schemas
+ * (arrays, objects, formats, combinators...) cannot be compiled (see {@link #compile(OpenAPI, PathItem, Operation)}).
+ */
+public class ParameterValidator {
+
+	private static final BigDecimal INT32_MIN = BigDecimal.valueOf(Integer.MIN_VALUE);
+	private static final BigDecimal INT32_MAX = BigDecimal.valueOf(Integer.MAX_VALUE);
+	private static final BigDecimal INT64_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+	private static final BigDecimal INT64_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+	private final CompiledParameter[] queryParameters;
+	private final CompiledParameter[] pathParameters;
+	private final CompiledParameter[] headerParameters;
+
+	private ParameterValidator(List<CompiledParameter> queryParameters, List<CompiledParameter> pathParameters, List<CompiledParameter> headerParameters) {
+		this.queryParameters = queryParameters.toArray(new CompiledParameter[0]);
+		this.pathParameters = pathParameters.toArray(new CompiledParameter[0]);
+		this.headerParameters = headerParameters.toArray(new CompiledParameter[0]);
+	}
+
+	/**
+	 * Compiles the parameters of an operation
+	 * @param spec The OAS specification (to check global security requirements)
+	 * @param pathItem The path of the operation (to get parameters shared by all operations of the path)
+	 * @param operation The operation
+	 * @return The validator, or null if the operation cannot be validated with this validator
+	 */
+	public static ParameterValidator compile(OpenAPI spec, PathItem pathItem, Operation operation) {
+		if (operation.getRequestBody() != null || hasSecurity(spec, operation))
+			return null;
+
+		// Operation parameters override path parameters with the same name and location
+		Map<String, Parameter> parameters = new LinkedHashMap<>();
+		if (pathItem.getParameters() != null)
+			pathItem.getParameters().forEach(p -> parameters.put(p.getIn() + ':' + p.getName(), p));
+		if (operation.getParameters() != null)
+			operation.getParameters().forEach(p -> parameters.put(p.getIn() + ':' + p.getName(), p));
+
+		List<CompiledParameter> queryParameters = new ArrayList<>();
+		List<CompiledParameter> pathParameters = new ArrayList<>();
+		List<CompiledParameter> headerParameters = new ArrayList<>();
+		for (Parameter p: parameters.values()) {
+			CompiledParameter compiledParameter = CompiledParameter.compile(p);
+			if (compiledParameter == null)
+				return null;
+
+			switch (p.getIn()) {
+				case "query":
+					queryParameters.add(compiledParameter);
+					break;
+				case "path":
+					pathParameters.add(compiledParameter);
+					break;
+				case "header":
+					headerParameters.add(compiledParameter);
+					break;
+				default:		// cookie
+					return null;
+			}
+		}
+
+		return new ParameterValidator(queryParameters, pathParameters, headerParameters);
+	}
+
+	/**
+	 * @param testCase The test case
+	 * @return true if the parameters of the test case are valid. false if they are not, or if it cannot be
+	 * decided with this validator (e.g., the test case has a body)
+	 */
+	public boolean isValid(TestCase testCase) {
+		if (testCase.getBodyParameter() != null || !testCase.getFormParameters().isEmpty())
+			return false;
+
+		for (CompiledParameter p: queryParameters) {
+			if (!p.isValid(testCase.getQueryParameters().get(p.name)))
+				return false;
+		}
+
+		for (CompiledParameter p: pathParameters) {
+			String value = testCase.getPathParameters().get(p.name);
+			if (value == null || !isSafePathValue(value) || !p.isValid(value))
+				return false;
+		}
+
+		for (CompiledParameter p: headerParameters) {
+			if (!p.isValid(getHeader(testCase.getHeaderParameters(), p.name)))
+				return false;
+		}
+
+		return true;
+	}
+
+	private static boolean hasSecurity(OpenAPI spec, Operation operation) {
+		if (operation.getSecurity() != null)
+			return !operation.getSecurity().isEmpty();
+		return spec != null && spec.getSecurity() != null && !spec.getSecurity().isEmpty();
+	}
+
+	// Path parameters are inserted in the path without encoding. These characters could change the path matched
+	private static boolean isSafePathValue(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '/' || c == '?' || c == '#' || c == '%' || c == ';' || Character.isWhitespace(c))
+				return false;
+		}
+		return true;
+	}
+
+	// Header names are case-insensitive
+	private static String getHeader(Map<String, String> headers, String name) {
+		String value = headers.get(name);
+		if (value != null)
+			return value;
+		for (Map.Entry<String, String> header: headers.entrySet()) {
+			if (header.getKey().equalsIgnoreCase(name))
+				return header.getValue();
+		}
+		return null;
+	}
+
+	// Constraints of a single parameter
+	private static class CompiledParameter {
+
+		private enum Type { STRING, INTEGER, NUMBER, BOOLEAN }
+
+		private String name;
+		private boolean required;
+		private Type type;
+		private String[] enumValues;
+		private BigDecimal minimum;
+		private BigDecimal maximum;
+		private boolean exclusiveMinimum;
+		private boolean exclusiveMaximum;
+		private int minLength = -1;
+		private int maxLength = -1;
+		private Pattern pattern;
+
+		// Returns null if the schema of the parameter has any constraint not supported
+		private static CompiledParameter compile(Parameter p) {
+			Schema<?> schema = p.getSchema();
+			if (schema == null || schema instanceof ComposedSchema || schema.get$ref() != null || schema.getNot() != null
+					|| schema.getMultipleOf() != null || "array".equals(schema.getType()) || Boolean.TRUE.equals(p.getAllowEmptyValue()) || p.getContent() != null)
+				return null;
+
+			// Same constraints used to generate the values of the parameter. Enum values may not be strings (e.g., integers)
+			OpenAPIParameter features = new OpenAPIParameter(p);
+			CompiledParameter compiledParameter = new CompiledParameter();
+			compiledParameter.name = features.getName();
+			compiledParameter.required = features.getRequired();
+
+			String format = features.getFormat();
+			if ("string".equals(features.getType()) && format == null)
+				compiledParameter.type = Type.STRING;
+			else if ("integer".equals(features.getType()) && (format == null || "int32".equals(format) || "int64".equals(format))) {
+				compiledParameter.type = Type.INTEGER;
+				compiledParameter.minimum = "int32".equals(format) ? INT32_MIN : INT64_MIN;
+				compiledParameter.maximum = "int32".equals(format) ? INT32_MAX : INT64_MAX;
+			} else if ("number".equals(features.getType()) && (format == null || "double".equals(format)))
+				compiledParameter.type = Type.NUMBER;
+			else if ("boolean".equals(features.getType()) && format == null)
+				compiledParameter.type = Type.BOOLEAN;
+			else
+				return null;
+
+			if (features.getEnumValues() != null && !features.getEnumValues().isEmpty())
+				compiledParameter.enumValues = ((List<?>) features.getEnumValues()).stream().map(String::valueOf).toArray(String[]::new);
+			if (features.getMin() != null && (compiledParameter.minimum == null || features.getMin().compareTo(compiledParameter.minimum) >= 0)) {
+				compiledParameter.minimum = features.getMin();
+				compiledParameter.exclusiveMinimum = Boolean.TRUE.equals(schema.getExclusiveMinimum());
+			}
+			if (features.getMax() != null && (compiledParameter.maximum == null || features.getMax().compareTo(compiledParameter.maximum) <= 0)) {
+				compiledParameter.maximum = features.getMax();
+				compiledParameter.exclusiveMaximum = Boolean.TRUE.equals(schema.getExclusiveMaximum());
+			}
+			if (features.getMinLength() != null)
+				compiledParameter.minLength = features.getMinLength();
+			if (features.getMaxLength() != null)
+				compiledParameter.maxLength = features.getMaxLength();
+			if (features.getPattern() != null) {
+				try {
+					compiledParameter.pattern = Pattern.compile(features.getPattern());
+				} catch (PatternSyntaxException e) {
+					return null;
+				}
+			}
+
+			return compiledParameter;
+		}
+
+		private boolean isValid(String value) {
+			if (value == null)
+				return !required;
+			if (value.isEmpty())		// Empty values are left to the OpenApiInteractionValidator
+				return false;
+
+			if (enumValues != null && !contains(enumValues, value))
+				return false;
+
+			switch (type) {
+				case STRING:
+					return isValidString(value);
+				case INTEGER:
+					return isValidNumber(value, true);
+				case NUMBER:
+					return isValidNumber(value, false);
+				case BOOLEAN:
+					return "true".equals(value) || "false".equals(value);
+				default:
+					return false;
+			}
+		}
+
+		private boolean isValidString(String value) {
+			if (minLength >= 0 || maxLength >= 0) {
+				int length = value.codePointCount(0, value.length());
+				if ((minLength >= 0 && length < minLength) || (maxLength >= 0 && length > maxLength))
+					return false;
+			}
+			// As in JSON schema, the pattern may match any part of the value
+			return pattern == null || pattern.matcher(value).find();
+		}
+
+		private boolean isValidNumber(String value, boolean integer) {
+			BigDecimal number;
+			try {
+				number = integer ? new BigDecimal(new BigInteger(value)) : new BigDecimal(value);
+			} catch (NumberFormatException e) {
+				return false;
+			}
+
+			if (minimum != null) {
+				int comparison = number.compareTo(minimum);
+				if (comparison < 0 || (exclusiveMinimum && comparison == 0))
+					return false;
+			}
+			if (maximum != null) {
+				int comparison = number.compareTo(maximum);
+				if (comparison > 0 || (exclusiveMaximum && comparison == 0))
+					return false;
+			}
+			return true;
+		}
+
+		private static boolean contains(String[] values, String value) {
+			for (String v: values) {
+				if (v.equals(value))
+					return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package es.us.isa.restest.util;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of the response shapes known to be valid against an OAS. The shape of a JSON response
+ * ({@link #fingerprint(byte[])}) is its structure: the properties of every object and the type of every value,
+ * but not the values themselves. Responses of an operation and status code with a shape already validated
+ * do not need to be validated again. If the schema of the response has value-level constraints (enums,
+ * formats, patterns, ranges... see {@link #hasValueConstraints(Schema)}), only their values need to be
+ * checked (see {@link ResponseValueChecker}). There is a cache per validator (see {@link #getInstance(OpenApiInteractionValidator)}).
+ */
+public class ResponseShapeCache {
+
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	private static final int MAX_SHAPE_LENGTH = 64;			// Longer shapes of nested values are replaced by their hash
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private static final Map<OpenApiInteractionValidator, ResponseShapeCache> instances = new WeakHashMap<>();
+	private static final JsonFactory jsonFactory = new JsonFactory();
+
+	private final Map<String, Boolean> validShapes;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public ResponseShapeCache(int maxSize) {
+		this.validShapes = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cache of the given validator, creating it if it does not exist yet
+	 */
+	public static synchronized ResponseShapeCache getInstance(OpenApiInteractionValidator validator) {
+		return instances.computeIfAbsent(validator, v -> new ResponseShapeCache(DEFAULT_MAX_SIZE));
+	}
+
+	/**
+	 * @param key Operation, status code and shape of the response (see {@link #getKey(String, int, String, String)})
+	 * @return true if a response with the same key has already been validated and it was valid
+	 */
+	public boolean isValid(String key) {
+		boolean valid;
+		synchronized (validShapes) {
+			valid = validShapes.get(key) != null;
+		}
+		if (valid)
+			hits.increment();
+		else
+			misses.increment();
+		return valid;
+	}
+
+	/**
+	 * Records that a response with the given key is valid
+	 */
+	public void addValid(String key) {
+		synchronized (validShapes) {
+			validShapes.put(key, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * @param operation Method and path of the operation (e.g., "GET /pets/{id}")
+	 * @param statusCode Status code of the response
+	 * @param contentType Content type of the response
+	 * @param shape Shape of the response body (see {@link #fingerprint(byte[])})
+	 * @return The key of the response in the cache
+	 */
+	public static String getKey(String operation, int statusCode, String contentType, String shape) {
+		return operation + '|' + statusCode + '|' + contentType + '|' + shape;
+	}
+
+	/**
+	 * Computes the shape of a JSON body in a single streaming pass, without building a tree. Object properties
+	 * are sorted, and every array is reduced to the set of distinct shapes of its items, so the shape does not
+	 * depend on the order of properties or on the number of items.
+	 * @param body The body of the response
+	 * @return The shape (a hash), or null if the body is not JSON
+	 */
+	public static String fingerprint(byte[] body) {
+		if (body == null || body.length == 0)
+			return "empty";
+
+		try (JsonParser parser = jsonFactory.createParser(body)) {
+			JsonToken token = parser.nextToken();
+			if (token == null)
+				return "empty";
+			String shape = shape(parser, token);
+			if (parser.nextToken() != null)		// Not a single JSON value
+				return null;
+			return ValidationCache.hash(shape);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	// Shape of the value starting at the current token. The parser is left at the last token of the value
+	private static String shape(JsonParser parser, JsonToken token) throws IOException {
+		switch (token) {
+			case START_OBJECT:
+				Map<String, String> properties = new TreeMap<>();
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String name = parser.getCurrentName();
+					properties.put(name, shape(parser, parser.nextToken()));
+				}
+				StringBuilder object = new StringBuilder("{");
+				for (Map.Entry<String, String> property: properties.entrySet())
+					object.append(property.getKey().length()).append(':').append(property.getKey()).append('=').append(property.getValue()).append(',');
+				return compact(object.append('}').toString());
+			case START_ARRAY:
+				Set<String> items = new TreeSet<>();
+				JsonToken itemToken;
+				while ((itemToken = parser.nextToken()) != JsonToken.END_ARRAY)
+					items.add(shape(parser, itemToken));
+				return compact("[" + String.join(",", items) + "]");
+			case VALUE_STRING:
+				return "s";
+			case VALUE_NUMBER_INT:
+				return "i";
+			case VALUE_NUMBER_FLOAT:
+				return "n";
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				return "b";
+			case VALUE_NULL:
+				return "0";
+			default:
+				throw new IOException("Unexpected token: " + token);
+		}
+	}
+
+	// Nested shapes only need a cheap hash (64-bit FNV-1a), since the shape of the whole body is hashed with SHA-256
+	private static String compact(String shape) {
+		if (shape.length() <= MAX_SHAPE_LENGTH)
+			return shape;
+
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = 0; i < shape.length(); i++) {
+			hash ^= shape.charAt(i);
+			hash *= FNV_PRIME;
+		}
+		return "#" + shape.length() + ':' + Long.toHexString(hash);
+	}
+
+	/**
+	 * @param schema Schema of a response
+	 * @return true if the values of the response (not only its shape) may make it invalid, i.e., the schema or any
+	 * of its nested schemas have enums, formats, patterns, minimum/maximum, length or number of items constraints
+	 */
+	public static boolean hasValueConstraints(Schema<?> schema) {
+		return hasValueConstraints(schema, Collections.newSetFromMap(new IdentityHashMap<>()));
+	}
+
+	private static boolean hasValueConstraints(Schema<?> schema, Set<Schema<?>> visited) {
+		if (schema == null || !visited.add(schema))		// Resolved schemas may be recursive
+			return false;
+
+		if ((schema.getEnum() != null && !schema.getEnum().isEmpty()) || schema.getFormat() != null || schema.getPattern() != null
+				|| schema.getMinimum() != null || schema.getMaximum() != null || schema.getMultipleOf() != null
+				|| schema.getMinLength() != null || schema.getMaxLength() != null || schema.getMinItems() != null
+				|| schema.getMaxItems() != null || Boolean.TRUE.equals(schema.getUniqueItems()))
+			return true;
+
+		List<Schema> nested = new ArrayList<>();
+		if (schema.getProperties() != null)
+			nested.addAll(schema.getProperties().values());
+		if (schema.getAdditionalProperties() instanceof Schema)
+			nested.add((Schema) schema.getAdditionalProperties());
+		if (schema instanceof ArraySchema)
+			nested.add(((ArraySchema) schema).getItems());
+		if (schema.getNot() != null)
+			nested.add(schema.getNot());
+		if (schema instanceof ComposedSchema) {
+			ComposedSchema composedSchema = (ComposedSchema) schema;
+			if (composedSchema.getAllOf() != null)
+				nested.addAll(composedSchema.getAllOf());
+			if (composedSchema.getAnyOf() != null)
+				nested.addAll(composedSchema.getAnyOf());
+			if (composedSchema.getOneOf() != null)
+				nested.addAll(composedSchema.getOneOf());
+		}
+
+		for (Schema<?> s: nested) {
+			if (hasValueConstraints(s, visited))
+				return true;
+		}
+		return false;
+	}
+
+	public void clear() {
+		synchronized (validShapes) {
+			validShapes.clear();
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	public int size() {
+		synchronized (validShapes) {
+			return validShapes.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ResponseShapeCache[size=%d, hits=%d, misses=%d]", size(), getHits(), getMisses());
+	}
+}
@@ -0,0 +1,304 @@
+package es.us.isa.restest.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Checks the values of a JSON response against the value-level constraints of its schema (enums, patterns, ranges,
+ * lengths, number of items and formats, see {@link ResponseShapeCache#hasValueConstraints(Schema)}), without
+ * validating its structure. It is used on responses whose shape is already known to be valid (see
+ * {@link ResponseShapeCache}), so that only the constrained values are checked, in a single streaming pass.
+ * <br>
+ * The checks are at least as strict as those of the validator: if a value cannot be checked (e.g., it has a format
+ * not supported, or it is constrained by a oneOf, anyOf or not schema), the check fails, and the response must be
+ * fully validated.
+ */
+public class ResponseValueChecker {
+
+	/** Checker of responses without value-level constraints */
+	public static final ResponseValueChecker NONE = new ResponseValueChecker(null, false);
+
+	/** Checker of responses that must always be fully validated (e.g., because their headers have value-level constraints) */
+	public static final ResponseValueChecker FULL_VALIDATION = new ResponseValueChecker(null, true);
+
+	private static final JsonFactory jsonFactory = new JsonFactory();
+	private static final BigDecimal MIN_INT32 = BigDecimal.valueOf(Integer.MIN_VALUE);
+	private static final BigDecimal MAX_INT32 = BigDecimal.valueOf(Integer.MAX_VALUE);
+	private static final BigDecimal MIN_INT64 = BigDecimal.valueOf(Long.MIN_VALUE);
+	private static final BigDecimal MAX_INT64 = BigDecimal.valueOf(Long.MAX_VALUE);
+	private static final BigDecimal MAX_FLOAT = new BigDecimal(Float.MAX_VALUE);
+	private static final BigDecimal MAX_DOUBLE = new BigDecimal(Double.MAX_VALUE);
+	private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+	private static final Pattern DATE_TIME = Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?(Z|[+-]\\d{2}:\\d{2})");
+
+	private final Node root;						// null if no value needs to be checked
+	private final boolean fullValidation;
+
+	private ResponseValueChecker(Node root, boolean fullValidation) {
+		this.root = root;
+		this.fullValidation = fullValidation;
+	}
+
+	/**
+	 * Builds the checker of the responses with the given schema
+	 * @param schema Schema of the response body (resolved)
+	 * @return The checker, {@link #NONE} if the schema has no value-level constraints
+	 */
+	public static ResponseValueChecker of(Schema<?> schema) {
+		Node root = build(schema, new IdentityHashMap<>());
+		return root != null ? new ResponseValueChecker(root, false) : NONE;
+	}
+
+	/**
+	 * @return true if the responses must always be fully validated, so checking their values is useless
+	 */
+	public boolean requiresFullValidation() {
+		return fullValidation;
+	}
+
+	/**
+	 * @param body The body of the response, whose shape must be valid
+	 * @return true if all values of the body satisfy the constraints of the schema, false if any does not, or if
+	 * it cannot be checked (then the response must be fully validated)
+	 */
+	public boolean check(byte[] body) {
+		if (fullValidation)
+			return false;
+		if (root == null || body == null || body.length == 0)
+			return true;
+
+		try (JsonParser parser = jsonFactory.createParser(body)) {
+			JsonToken token = parser.nextToken();
+			return token == null || check(parser, token, root);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	// Checks the value starting at the current token. The parser is left at the last token of the value
+	private static boolean check(JsonParser parser, JsonToken token, Node node) throws IOException {
+		if (node == null) {
+			parser.skipChildren();
+			return true;
+		}
+		if (token == JsonToken.VALUE_NULL)			// Nulls are part of the shape
+			return true;
+		if (node.fullValidation)
+			return false;
+
+		switch (token) {
+			case START_OBJECT:
+				if (node.enumValues != null)
+					return false;
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					Node property = node.properties.get(parser.getCurrentName());
+					if (!check(parser, parser.nextToken(), property != null ? property : node.additionalProperties))
+						return false;
+				}
+				return true;
+			case START_ARRAY:
+				if (node.enumValues != null)
+					return false;
+				Set<String> items = node.uniqueItems ? new HashSet<>() : null;
+				int count = 0;
+				JsonToken itemToken;
+				while ((itemToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+					if (!check(parser, itemToken, node.items))
+						return false;
+					if (items != null && (!itemToken.isScalarValue() || !items.add(canonical(parser, itemToken))))
+						return false;
+					count++;
+				}
+				return (node.minItems == null || count >= node.minItems) && (node.maxItems == null || count <= node.maxItems);
+			case VALUE_STRING:
+				return node.checkString(parser.getText());
+			case VALUE_NUMBER_INT:
+			case VALUE_NUMBER_FLOAT:
+				return node.checkNumber(parser.getDecimalValue());
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				return node.enumValues == null || node.enumValues.contains(parser.getText());
+			default:
+				return false;
+		}
+	}
+
+	// Value of a scalar token, prefixed by its type, so that equal numbers (e.g., 1 and 1.0) have the same value
+	private static String canonical(JsonParser parser, JsonToken token) throws IOException {
+		if (token.isNumeric())
+			return "n" + canonical(parser.getDecimalValue());
+		return (token == JsonToken.VALUE_STRING ? "s" : "b") + parser.getText();
+	}
+
+	private static String canonical(BigDecimal number) {
+		return number.stripTrailingZeros().toPlainString();
+	}
+
+	// Node of the schema whose values, or the values of its nested schemas, have value-level constraints (null otherwise)
+	private static Node build(Schema<?> schema, Map<Schema<?>, Node> nodes) {
+		if (schema == null || !ResponseShapeCache.hasValueConstraints(schema))
+			return null;
+		Node node = nodes.get(schema);
+		if (node != null)								// Resolved schemas may be recursive
+			return node;
+
+		node = new Node(schema);
+		nodes.put(schema, node);
+		if (schema.getProperties() != null) {
+			for (Map.Entry<String, Schema> property: schema.getProperties().entrySet()) {
+				Node propertyNode = build(property.getValue(), nodes);
+				if (propertyNode != null)
+					node.properties.put(property.getKey(), propertyNode);
+			}
+		}
+		if (schema.getAdditionalProperties() instanceof Schema)
+			node.additionalProperties = build((Schema<?>) schema.getAdditionalProperties(), nodes);
+		if (schema instanceof ArraySchema)
+			node.items = build(((ArraySchema) schema).getItems(), nodes);
+		if (schema.getNot() != null || (schema instanceof ComposedSchema && isComposed((ComposedSchema) schema)))
+			node.fullValidation = true;					// The constraints depend on which subschemas are matched
+		return node;
+	}
+
+	private static boolean isComposed(ComposedSchema schema) {
+		return (schema.getAllOf() != null && !schema.getAllOf().isEmpty()) || (schema.getAnyOf() != null && !schema.getAnyOf().isEmpty())
+				|| (schema.getOneOf() != null && !schema.getOneOf().isEmpty());
+	}
+
+	private static class Node {
+		private final Map<String, Node> properties = new HashMap<>();
+		private Node additionalProperties;
+		private Node items;
+		private boolean fullValidation;
+		private Set<String> enumValues;
+		private Pattern pattern;
+		private final String format;
+		private final BigDecimal minimum;
+		private final BigDecimal maximum;
+		private final boolean exclusiveMinimum;
+		private final boolean exclusiveMaximum;
+		private final BigDecimal multipleOf;
+		private final Integer minLength;
+		private final Integer maxLength;
+		private final Integer minItems;
+		private final Integer maxItems;
+		private final boolean uniqueItems;
+
+		private Node(Schema<?> schema) {
+			List<?> enumeration = schema.getEnum();
+			if (enumeration != null && !enumeration.isEmpty()) {
+				enumValues = new HashSet<>();
+				for (Object value: enumeration)
+					enumValues.add(value instanceof Number ? canonical(new BigDecimal(value.toString())) : String.valueOf(value));
+			}
+			if (schema.getPattern() != null) {
+				try {
+					pattern = Pattern.compile(schema.getPattern());
+				} catch (PatternSyntaxException e) {
+					fullValidation = true;
+				}
+			}
+			format = schema.getFormat();
+			minimum = schema.getMinimum();
+			maximum = schema.getMaximum();
+			exclusiveMinimum = Boolean.TRUE.equals(schema.getExclusiveMinimum());
+			exclusiveMaximum = Boolean.TRUE.equals(schema.getExclusiveMaximum());
+			multipleOf = schema.getMultipleOf();
+			minLength = schema.getMinLength();
+			maxLength = schema.getMaxLength();
+			minItems = schema.getMinItems();
+			maxItems = schema.getMaxItems();
+			uniqueItems = Boolean.TRUE.equals(schema.getUniqueItems());
+		}
+
+		private boolean checkString(String value) {
+			if (enumValues != null && !enumValues.contains(value))
+				return false;
+			if (minLength != null || maxLength != null) {
+				int length = value.codePointCount(0, value.length());
+				if ((minLength != null && length < minLength) || (maxLength != null && length > maxLength))
+					return false;
+			}
+			return (pattern == null || pattern.matcher(value).find()) && checkStringFormat(value);
+		}
+
+		private boolean checkStringFormat(String value) {
+			if (format == null)
+				return true;
+			switch (format) {
+				case "int32":				// Numeric formats only apply to numbers
+				case "int64":
+				case "float":
+				case "double":
+				case "binary":
+				case "password":
+					return true;
+				case "byte":
+					try {
+						Base64.getDecoder().decode(value);
+						return true;
+					} catch (IllegalArgumentException e) {
+						return false;
+					}
+				case "date":
+					try {
+						return DATE.matcher(value).matches() && LocalDate.parse(value) != null;
+					} catch (DateTimeParseException e) {
+						return false;
+					}
+				case "date-time":
+					try {
+						return DATE_TIME.matcher(value).matches() && OffsetDateTime.parse(value) != null;
+					} catch (DateTimeParseException e) {
+						return false;
+					}
+				default:					// Not supported, the response must be fully validated
+					return false;
+			}
+		}
+
+		private boolean checkNumber(BigDecimal value) {
+			if (enumValues != null && !enumValues.contains(canonical(value)))
+				return false;
+			if (minimum != null && (exclusiveMinimum ? value.compareTo(minimum) <= 0 : value.compareTo(minimum) < 0))
+				return false;
+			if (maximum != null && (exclusiveMaximum ? value.compareTo(maximum) >= 0 : value.compareTo(maximum) > 0))
+				return false;
+			if (multipleOf != null && (multipleOf.signum() <= 0 || value.remainder(multipleOf).signum() != 0))
+				return false;
+			if (format == null)
+				return true;
+			switch (format) {
+				case "int32":
+					return value.compareTo(MIN_INT32) >= 0 && value.compareTo(MAX_INT32) <= 0;
+				case "int64":
+					return value.compareTo(MIN_INT64) >= 0 && value.compareTo(MAX_INT64) <= 0;
+				case "float":
+					return value.abs().compareTo(MAX_FLOAT) <= 0;
+				case "double":
+					return value.abs().compareTo(MAX_DOUBLE) <= 0;
+				default:					// String formats do not apply to numbers
+					return true;
+			}
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package es.us.isa.restest.util;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Central source of randomness, based on {@link SplittableRandom}. Every component that needs random numbers
+ * gets its own stream, derived from a root seed, so that nothing is shared between threads:
+ * <ul>
+ *     <li>Test case generators take their seed from the root ({@link #nextSeed()}), and derive from it the seeds
+ *     of each operation and of each test data generator, always in the same order.</li>
+ *     <li>Code that has no stream of its own (e.g., mutation operators or stateful data matching) uses the stream
+ *     bound to the current thread ({@link #current()}). Generators bind their stream while they generate test cases
+ *     ({@link #bind(Random)}), so those numbers are taken from the stream of the operation being generated.
+ *     New test data generators take their default seed from that stream too.</li>
+ * </ul>
+ * If the root seed is fixed ({@link #setSeed(long)}), the same test suite is generated in every run, regardless of
+ * the number of threads used.
+ */
+public class SeedTree {
+
+	private static SplittableRandom root = new SplittableRandom();
+	private static final ThreadLocal<Random> threadRandom = ThreadLocal.withInitial(() -> newRandom(nextSeed()));
+	private static final Random current = new ThreadBoundRandom();
+
+	private SeedTree() {}
+
+	/**
+	 * Set the root seed. The stream of the calling thread is reset too, so that the numbers it takes
+	 * from {@link #current()} are also reproducible
+	 * @param seed The root seed
+	 */
+	public static synchronized void setSeed(long seed) {
+		root = new SplittableRandom(seed);
+		threadRandom.set(newRandom(root.nextLong()));
+	}
+
+	/**
+	 * @return A new seed taken from the root, to be used for a new independent stream (e.g., a test case generator)
+	 */
+	public static synchronized long nextSeed() {
+		return root.nextLong();
+	}
+
+	/**
+	 * Create a stream of random numbers. The returned object is a {@link Random}, so that it can be used wherever
+	 * a Random is expected, but it is backed by a {@link SplittableRandom}. Like the latter, it is not thread-safe.
+	 * @param seed The seed of the stream
+	 * @return The stream
+	 */
+	public static Random newRandom(long seed) {
+		return new SplittableRandomAdapter(seed);
+	}
+
+	/**
+	 * @return A view of the stream bound to the thread that uses it (by default, a new stream seeded from the root).
+	 * It can be kept in static fields and shared by several threads, since every thread reads its own stream
+	 */
+	public static Random current() {
+		return current;
+	}
+
+	/**
+	 * Bind a stream to the current thread, so that it is used by {@link #current()}
+	 * @param random The stream
+	 * @return The stream previously bound to the thread, to restore it when done
+	 */
+	public static Random bind(Random random) {
+		Random previous = threadRandom.get();
+		threadRandom.set(random);
+		return previous;
+	}
+
+	// Random whose numbers are taken from a SplittableRandom. Random.setSeed() restarts the SplittableRandom
+	private static class SplittableRandomAdapter extends Random {
+
+		private static final long serialVersionUID = 1L;
+
+		private transient SplittableRandom source;
+
+		private SplittableRandomAdapter(long seed) {
+			super(seed);		// Calls setSeed()
+		}
+
+		@Override
+		public void setSeed(long seed) {
+			source = new SplittableRandom(seed);
+		}
+
+		@Override
+		protected int next(int bits) {
+			return source.nextInt() >>> (32 - bits);
+		}
+
+		@Override
+		public int nextInt() {
+			return source.nextInt();
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return source.nextInt(bound);
+		}
+
+		@Override
+		public long nextLong() {
+			return source.nextLong();
+		}
+
+		@Override
+		public double nextDouble() {
+			return source.nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return source.nextBoolean();
+		}
+	}
+
+	// Random that delegates in the stream bound to the calling thread. Its seed cannot be set (use bind() instead)
+	private static class ThreadBoundRandom extends Random {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void setSeed(long seed) {
+			// Ignored, the seed of the streams is set when they are created
+		}
+
+		@Override
+		protected int next(int bits) {
+			return threadRandom.get().nextInt() >>> (32 - bits);
+		}
+
+		@Override
+		public int nextInt() {
+			return threadRandom.get().nextInt();
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return threadRandom.get().nextInt(bound);
+		}
+
+		@Override
+		public long nextLong() {
+			return threadRandom.get().nextLong();
+		}
+
+		@Override
+		public double nextDouble() {
+			return threadRandom.get().nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return threadRandom.get().nextBoolean();
+		}
+	}
+}
@@ -34,10 +34,8 @@ public class TestManager {
     public static List<TestResult> getTestResults(String csvPath) {
         List<List<String>> csvRows = readCSV(csvPath, false);
         List<TestResult> testResults = new ArrayList<>();
-        for (List<String> csvRow: csvRows) {
-            TestResult tr = new TestResult(csvRow.get(0), csvRow.get(1), csvRow.get(2), csvRow.get(3), Boolean.parseBoolean(csvRow.get(4)), csvRow.get(5));
-            testResults.add(tr);
-        }
+        for (List<String> csvRow: csvRows)
+            testResults.add(parseTestResult(csvRow));
         return testResults;
     }
 
@@ -56,8 +54,7 @@ public class TestManager {
 
         List<TestResult> testResults = new ArrayList<>();
         for (int i=start; i<stop; i++) {
-            TestResult tr = new TestResult(csvRows.get(i).get(0), csvRows.get(i).get(1), csvRows.get(i).get(2), csvRows.get(i).get(3), Boolean.parseBoolean(csvRows.get(i).get(4)), csvRows.get(i).get(5));
-            testResults.add(tr);
+            testResults.add(parseTestResult(csvRows.get(i)));
         }
 
         return testResults;
@@ -85,22 +82,37 @@ public class TestManager {
     public static List<TestCase> getTestCases(String csvPath) {
         List<List<String>> csvRows = readCSV(csvPath, false);
         List<TestCase> testCases = new ArrayList<>();
-        for(List<String> csvRow: csvRows) {
-            TestCase tc = new TestCase(csvRow.get(0), Boolean.parseBoolean(csvRow.get(1)), csvRow.get(4),
-                    csvRow.get(5), HttpMethod.valueOf(csvRow.get(6)));
-            tc.setFaultyReason(csvRow.get(2));
-            tc.setFulfillsDependencies(Boolean.parseBoolean(csvRow.get(3)));
-            tc.setInputFormat(csvRow.get(7));
-            tc.setBodyParameter(csvRow.get(13).equals("") ? null : csvRow.get(13));
-            tc.setPathParameters(stringParamsToMap(csvRow.get(10)));
-            tc.setQueryParameters(stringParamsToMap(csvRow.get(11)));
-            tc.setHeaderParameters(stringParamsToMap(csvRow.get(9)));
-            tc.setFormParameters(stringParamsToMap(csvRow.get(12)));
-            testCases.add(tc);
-        }
+        for(List<String> csvRow: csvRows)
+            testCases.add(parseTestCase(csvRow));
         return testCases;
     }
 
+    /**
+     * @param csvRow Row of a CSV file of test results (see {@link TestResult#exportToCSV(String)})
+     * @return The TestResult object
+     */
+    public static TestResult parseTestResult(List<String> csvRow) {
+        return new TestResult(csvRow.get(0), csvRow.get(1), csvRow.get(2), csvRow.get(3), Boolean.parseBoolean(csvRow.get(4)), csvRow.get(5));
+    }
+
+    /**
+     * @param csvRow Row of a CSV file of test cases (see {@link TestCase#exportToCSV(String)})
+     * @return The TestCase object
+     */
+    public static TestCase parseTestCase(List<String> csvRow) {
+        TestCase tc = new TestCase(csvRow.get(0), Boolean.parseBoolean(csvRow.get(1)), csvRow.get(4),
+                csvRow.get(5), HttpMethod.valueOf(csvRow.get(6)));
+        tc.setFaultyReason(csvRow.get(2));
+        tc.setFulfillsDependencies(Boolean.parseBoolean(csvRow.get(3)));
+        tc.setInputFormat(csvRow.get(7));
+        tc.setBodyParameter(csvRow.get(13).equals("") ? null : csvRow.get(13));
+        tc.setPathParameters(stringParamsToMap(csvRow.get(10)));
+        tc.setQueryParameters(stringParamsToMap(csvRow.get(11)));
+        tc.setHeaderParameters(stringParamsToMap(csvRow.get(9)));
+        tc.setFormParameters(stringParamsToMap(csvRow.get(12)));
+        return tc;
+    }
+
     private static Map<String, String> stringParamsToMap(String stringParameters) {
         Map<String, String> parameters = new HashMap<>();
         if (stringParameters.equals(""))
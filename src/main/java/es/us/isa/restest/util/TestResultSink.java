@@ -0,0 +1,130 @@
+package es.us.isa.restest.util;
+
+import es.us.isa.restest.testcases.TestResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Exports test results to CSV in the background, so that the threads executing test cases (e.g., the
+ * RESTest filters) do not perform any file I/O. Test results are enqueued in a lock-free queue, and written
+ * in batches by a single writer thread. If "data.tests.testresults.inflight" test results are waiting to be
+ * written, the threads submitting more results wait until there is room for them (back-pressure).
+ * {@link #flush()} must be called before reading the CSV files (e.g., when a test suite finishes).
+ */
+public class TestResultSink {
+
+	public static final int DEFAULT_MAX_IN_FLIGHT = 10000;
+	private static final int MAX_BATCH_SIZE = 256;			// Room is made for more results after every batch
+	private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private static final Logger logger = LogManager.getLogger(TestResultSink.class.getName());
+	private static final Queue<PendingResult> queue = new ConcurrentLinkedQueue<>();
+	private static final AtomicLong submitted = new AtomicLong();
+	private static final AtomicLong written = new AtomicLong();
+	private static Semaphore inFlight;
+	private static volatile Thread writer;				// Started when the first test result is submitted
+	private static volatile boolean writerIdle = false;
+
+	private TestResultSink() {}
+
+	/**
+	 * Enqueues a test result to be appended to a CSV file. It only waits if the maximum number of
+	 * test results waiting to be written is reached.
+	 * @param path Path of the CSV file
+	 * @param testResult Test result to export
+	 */
+	public static void submit(String path, TestResult testResult) {
+		Thread writerThread = writer != null ? writer : startWriter();
+		inFlight.acquireUninterruptibly();
+		submitted.incrementAndGet();
+		queue.offer(new PendingResult(path, testResult));
+		if (writerIdle)
+			LockSupport.unpark(writerThread);
+	}
+
+	/**
+	 * Waits until all test results submitted so far are written, and writes the rows buffered
+	 * for all CSV files to the files (see {@link CSVManager#flushAll()}).
+	 */
+	public static void flush() {
+		Thread writerThread = writer;
+		if (writerThread != null && writerThread != Thread.currentThread()) {
+			long target = submitted.get();
+			while (written.get() < target) {
+				LockSupport.unpark(writerThread);
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+		}
+		CSVManager.flushAll();
+	}
+
+	/**
+	 * @return The number of test results waiting to be written
+	 */
+	public static long getPendingCount() {
+		return submitted.get() - written.get();
+	}
+
+	private static synchronized Thread startWriter() {
+		if (writer == null) {
+			String inFlightProperty = PropertyManager.readProperty("data.tests.testresults.inflight");
+			int maxInFlight = inFlightProperty != null && !inFlightProperty.trim().isEmpty() ? Integer.parseInt(inFlightProperty.trim()) : DEFAULT_MAX_IN_FLIGHT;
+			inFlight = new Semaphore(maxInFlight);
+
+			Thread thread = new Thread(TestResultSink::write, "test-result-writer");
+			thread.setDaemon(true);
+			thread.start();
+			// Test results still in the queue are written when the JVM exits
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				flush();
+				CSVManager.closeAll();
+			}, "test-result-flusher"));
+			writer = thread;
+		}
+		return writer;
+	}
+
+	// Writes the test results enqueued in batches, waiting for more when the queue is empty
+	private static void write() {
+		while (true) {
+			int batchSize = 0;
+			PendingResult result;
+			while (batchSize < MAX_BATCH_SIZE && (result = queue.poll()) != null) {
+				try {
+					result.testResult.exportToCSV(result.path);
+				} catch (RuntimeException e) {
+					logger.error("The test result {} could not be exported to CSV: {}", result.testResult.getId(), result.path);
+					logger.error("Exception: ", e);
+				}
+				batchSize++;
+			}
+
+			if (batchSize > 0) {
+				written.addAndGet(batchSize);
+				inFlight.release(batchSize);
+			} else {
+				writerIdle = true;
+				if (queue.isEmpty())		// Results enqueued before setting the flag would not wake up the writer
+					LockSupport.parkNanos(IDLE_WAIT);
+				writerIdle = false;
+			}
+		}
+	}
+
+	private static class PendingResult {
+		private final String path;
+		private final TestResult testResult;
+
+		private PendingResult(String path, TestResult testResult) {
+			this.path = path;
+			this.testResult = testResult;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package es.us.isa.restest.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of validating a whole test suite against the specification (see {@link TestSuiteValidator}): errors of
+ * every invalid test case, and number of invalid test cases per operation and of errors per error key
+ * (e.g., "validation.request.parameter.query.missing").
+ */
+public class TestSuiteValidationResult {
+
+	private int nTestCases = 0;
+	private final Map<String, List<String>> invalidTestCases = new LinkedHashMap<>();		// Test case ID -> errors
+	private final Map<String, Integer> invalidCountPerOperation = new LinkedHashMap<>();	// Operation ID -> number of invalid test cases
+	private final Map<String, Integer> errorCountPerKey = new LinkedHashMap<>();			// Error key -> number of errors
+
+	void add(String testCaseId, String operationId, List<String> errors) {
+		nTestCases++;
+		if (errors.isEmpty())
+			return;
+
+		invalidTestCases.put(testCaseId, errors);
+		invalidCountPerOperation.merge(operationId, 1, Integer::sum);
+		for (String error: errors)
+			errorCountPerKey.merge(getErrorKey(error), 1, Integer::sum);
+	}
+
+	// Errors have the format "key: message"
+	private static String getErrorKey(String error) {
+		int separator = error.indexOf(": ");
+		return separator == -1 ? error : error.substring(0, separator);
+	}
+
+	public int getTestCaseCount() {
+		return nTestCases;
+	}
+
+	public int getInvalidCount() {
+		return invalidTestCases.size();
+	}
+
+	public boolean isValid() {
+		return invalidTestCases.isEmpty();
+	}
+
+	/**
+	 * @param testCaseId The ID of the test case
+	 * @return The errors of the test case, empty if it is valid
+	 */
+	public List<String> getValidationErrors(String testCaseId) {
+		return invalidTestCases.getOrDefault(testCaseId, Collections.emptyList());
+	}
+
+	/**
+	 * @return The errors of every invalid test case, by test case ID, in the same order as the test suite
+	 */
+	public Map<String, List<String>> getInvalidTestCases() {
+		return Collections.unmodifiableMap(invalidTestCases);
+	}
+
+	public Map<String, Integer> getInvalidCountPerOperation() {
+		return Collections.unmodifiableMap(invalidCountPerOperation);
+	}
+
+	public Map<String, Integer> getErrorCountPerKey() {
+		return Collections.unmodifiableMap(errorCountPerKey);
+	}
+
+	@Override
+	public String toString() {
+		return getInvalidCount() + " out of " + nTestCases + " test cases do not conform to the specification. Invalid test cases per operation: "
+				+ invalidCountPerOperation + ". Errors per key: " + errorCountPerKey;
+	}
+}
@@ -0,0 +1,72 @@
+package es.us.isa.restest.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.testcases.TestCase;
+
+/**
+ * Validates whole test suites against the specification, validating several test cases at the same time. Test
+ * cases are validated as in {@link OASAPIValidator#getValidationErrors(OpenAPISpecification, TestCase)}, whose
+ * validators are shared by all threads.
+ */
+public class TestSuiteValidator {
+
+	private final OpenAPISpecification spec;
+	private final int parallelism;				// Number of test cases validated at the same time
+
+	public TestSuiteValidator(OpenAPISpecification spec) {
+		this(spec, Runtime.getRuntime().availableProcessors());
+	}
+
+	public TestSuiteValidator(OpenAPISpecification spec, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be greater than 0");
+		this.spec = spec;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Validate a test suite
+	 * @param testCases The test cases
+	 * @return The errors of every invalid test case and aggregated statistics
+	 */
+	public TestSuiteValidationResult validate(Collection<TestCase> testCases) {
+		List<TestCase> testCaseList = new ArrayList<>(testCases);
+		List<List<String>> errors;
+
+		if (parallelism == 1 || testCaseList.size() < 2)
+			errors = testCaseList.stream().map(tc -> OASAPIValidator.getValidationErrors(spec, tc)).collect(Collectors.toList());
+		else {
+			// Parallel streams run in the pool that invokes them, so the parallelism can be bounded
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				errors = pool.submit(() -> testCaseList.parallelStream().map(tc -> OASAPIValidator.getValidationErrors(spec, tc)).collect(Collectors.toList())).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Validation of the test suite interrupted", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				throw new IllegalStateException("Error validating the test suite", e.getCause());
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		// Results are collected in the same order as the test cases
+		TestSuiteValidationResult result = new TestSuiteValidationResult();
+		for (int i = 0; i < testCaseList.size(); i++)
+			result.add(testCaseList.get(i).getId(), testCaseList.get(i).getOperationId(), errors.get(i));
+		return result;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+}
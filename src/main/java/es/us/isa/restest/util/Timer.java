@@ -10,13 +10,15 @@ public class Timer {
 
     private static Map<String, List<Long>> counters = new HashMap<>();
 
-    public static Map<String, List<Long>> getCounters() {
+    public static synchronized Map<String, List<Long>> getCounters() {
         return counters;
     }
 
-    public static void resetCounters() { counters = new HashMap<>(); }
+    public static synchronized void resetCounters() { counters = new HashMap<>(); }
 
-    public static void startCounting(TestStep step) {
+    // Methods are synchronized, since different steps may be measured at the same time by different threads
+    // (e.g., test suite generation and execution in pipelined runs). A step must be always measured by the same thread
+    public static synchronized void startCounting(TestStep step) {
         counters.putIfAbsent(step.name, new ArrayList<>());
         List<Long> stepMeasures = counters.get(step.name);
         if (stepMeasures.size() > 0 && stepMeasures.get(stepMeasures.size()-1) < 0)
@@ -25,13 +27,18 @@ public class Timer {
         stepMeasures.add(-new Date().getTime());
     }
 
-    public static void stopCounting(TestStep step) {
+    public static synchronized void stopCounting(TestStep step) {
         Long stopTime = new Date().getTime();
         List<Long> stepMeasures = counters.get(step.name);
         stepMeasures.set(stepMeasures.size()-1, stopTime+stepMeasures.get(stepMeasures.size()-1));
     }
 
-    public static void exportToCSV(String path, Integer iterations) {
+    // Adds a measure taken without the timer (e.g., the time spent in a step interleaved with another one)
+    public static synchronized void addMeasure(TestStep step, long time) {
+        counters.computeIfAbsent(step.name, k -> new ArrayList<>()).add(time);
+    }
+
+    public static synchronized void exportToCSV(String path, Integer iterations) {
         if (!checkIfExists(path)) { // If the file doesn't exist, create it (only once)
             StringBuilder header = new StringBuilder();
             boolean first = true;
@@ -75,6 +82,7 @@ public class Timer {
     public enum TestStep {
         TEST_CASE_GENERATION("Test case generation"),
         TEST_SUITE_GENERATION("Test suite generation"),
+        TEST_SUITE_COMPILATION("Test suite compilation"),
         TEST_SUITE_EXECUTION("Test suite execution"),
         ALL("Whole process");
 
@@ -0,0 +1,20 @@
+package es.us.isa.restest.util;
+
+/**
+ * Wraps a {@link RESTestException} with an unchecked exception, so that it can be thrown
+ * from iterators and streams (e.g., when test cases are generated lazily).
+ */
+public class UncheckedRESTestException extends RuntimeException {
+
+	private static final long serialVersionUID = -4216705532287329153L;
+
+	public UncheckedRESTestException(RESTestException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	@Override
+	public RESTestException getCause() {
+		return (RESTestException) super.getCause();
+	}
+
+}
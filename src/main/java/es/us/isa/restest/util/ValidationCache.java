@@ -0,0 +1,153 @@
+package es.us.isa.restest.util;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of the errors found when validating requests against an OAS. Requests
+ * are identified by a fingerprint (see {@link es.us.isa.restest.testcases.TestCase#getRequestFingerprint()}),
+ * so validating the same request twice (e.g., while trying to generate a faulty test case)
+ * only runs the validator once. There is a cache per validator (see {@link #getInstance(OpenApiInteractionValidator)}).
+ */
+public class ValidationCache {
+
+	public static final int DEFAULT_MAX_SIZE = 10000;
+
+	private static final Map<OpenApiInteractionValidator, ValidationCache> instances = new WeakHashMap<>();
+	private static int maxSize = DEFAULT_MAX_SIZE;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final Logger logger = LogManager.getLogger(ValidationCache.class.getName());
+
+	private final Map<String, List<String>> errors;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public ValidationCache(int maxSize) {
+		this.errors = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cache of the given validator, creating it if it does not exist yet
+	 */
+	public static synchronized ValidationCache getInstance(OpenApiInteractionValidator validator) {
+		return instances.computeIfAbsent(validator, v -> new ValidationCache(maxSize));
+	}
+
+	/**
+	 * Maximum number of requests cached per validator. Only applies to the caches created afterwards
+	 */
+	public static synchronized void setMaxSize(int maxSize) {
+		ValidationCache.maxSize = maxSize;
+	}
+
+	/**
+	 * Logs the size and hit rate of the caches used so far, e.g., at the end of a run, so that the
+	 * maximum size can be tuned (see {@link #setMaxSize(int)})
+	 */
+	public static void logStatistics() {
+		List<ValidationCache> caches;
+		synchronized (ValidationCache.class) {
+			caches = new ArrayList<>(instances.values());
+		}
+		for (ValidationCache cache: caches) {
+			if (cache.getHits() + cache.getMisses() > 0)
+				logger.info("Request validation cache: {}", cache);
+		}
+	}
+
+	/**
+	 * Returns the validation errors of a request, validating it only if it is not cached. Validation
+	 * is performed outside the lock, so the same request may be validated twice if two threads
+	 * validate it at the same time.
+	 * @param fingerprint Fingerprint of the request
+	 * @param validation Validation of the request, run if the request is not cached
+	 * @return Validation errors (unmodifiable)
+	 */
+	public List<String> getValidationErrors(String fingerprint, Supplier<List<String>> validation) {
+		List<String> requestErrors;
+		synchronized (errors) {
+			requestErrors = errors.get(fingerprint);
+		}
+
+		if (requestErrors != null) {
+			hits.increment();
+			return requestErrors;
+		}
+
+		misses.increment();
+		requestErrors = Collections.unmodifiableList(validation.get());
+		synchronized (errors) {
+			errors.put(fingerprint, requestErrors);
+		}
+		return requestErrors;
+	}
+
+	public void clear() {
+		synchronized (errors) {
+			errors.clear();
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	public int size() {
+		synchronized (errors) {
+			return errors.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	// Ratio (0-1) of validations answered from the cache
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ValidationCache[size=%d, hits=%d, misses=%d, hitRate=%.2f]", size(), getHits(), getMisses(), getHitRate());
+	}
+
+	/**
+	 * Returns the hexadecimal SHA-256 hash of a string (e.g., a request body), to be used in fingerprints
+	 */
+	public static String hash(String s) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+			char[] hex = new char[digest.length * 2];
+			for (int i = 0; i < digest.length; i++) {
+				hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+				hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xf];
+			}
+			return new String(hex);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not supported", e);
+		}
+	}
+}
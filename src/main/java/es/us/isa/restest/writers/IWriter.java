@@ -1,6 +1,9 @@
 package es.us.isa.restest.writers;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 
 import es.us.isa.restest.testcases.TestCase;
 
@@ -15,4 +18,15 @@ public interface IWriter {
 	 */
 	void write(Collection<TestCase> testCases);
 
+	/**
+	 * Writes the test cases returned by an iterator (e.g., test cases generated lazily). Writers that
+	 * can write test cases one at a time should override this method, so that they are not kept in memory.
+	 * @param testCases The domain-independent test cases to be instantiated
+	 */
+	default void write(Iterator<TestCase> testCases) {
+		List<TestCase> testCaseList = new ArrayList<>();
+		testCases.forEachRemaining(testCaseList::add);
+		write(testCaseList);
+	}
+
 }
\ No newline at end of file
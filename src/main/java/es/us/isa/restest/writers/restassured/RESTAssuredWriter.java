@@ -1,10 +1,15 @@
 package es.us.isa.restest.writers.restassured;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map.Entry;
 
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
+import es.us.isa.restest.execution.RequestScheduler;
 import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.testcases.TestCase;
 import es.us.isa.restest.writers.IWriter;
@@ -44,6 +49,8 @@ public class RESTAssuredWriter implements IWriter {
 	private boolean logToFile;						// If 'true', REST-Assured requests and responses will be logged into external files
 	private boolean statefulFilter;					// If 'true', stateful filter will be used in written classes
 	private String proxy;							// Proxy to use for all requests in format host:port
+	private int maxRequestsPerHost = -1;			// Maximum number of concurrent requests to the API (-1 = no limit). Only useful if tests run in parallel
+	private RequestScheduler requestScheduler;		// If not null, requests are sent according to its rate limits
 
 	private String APIName;							// API name (necessary for folder name of exported data)
 
@@ -67,33 +74,45 @@ public class RESTAssuredWriter implements IWriter {
 	 */
 	@Override
 	public void write(Collection<TestCase> testCases) {
-		
-		// Initializing content
-		String contentFile = "";
-		
-		// Generating imports
-		contentFile += generateImports(packageName);
-		
-		// Generate className
-		contentFile += generateClassName(className);
-		
-		// Generate attributes
-		contentFile += generateAttributes(specPath);
-		
-		// Generate variables to be used.
-		contentFile += generateSetUp(baseURI);
+		write(testCases.iterator());
+	}
+
+	/**
+	 * Writes the test cases one at a time, as they are returned by the iterator, so they do not
+	 * need to be kept in memory (e.g., test cases generated lazily with
+	 * {@link es.us.isa.restest.generators.AbstractTestCaseGenerator#generateIterator()}).
+	 * @param testCases The test cases to be written
+	 */
+	@Override
+	public void write(Iterator<TestCase> testCases) {
+
+		try (Writer testClass = new BufferedWriter(new FileWriter(targetDirJava + "/" + className + ".java"))) {
+
+			// Generating imports
+			testClass.write(generateImports(packageName));
+
+			// Generate className
+			testClass.write(generateClassName(className));
+
+			// Generate attributes
+			testClass.write(generateAttributes(specPath));
+
+			// Generate variables to be used.
+			testClass.write(generateSetUp(baseURI));
+
+			// Generate tests
+			int ntest=1;
+			while (testCases.hasNext())
+				testClass.write(generateTest(testCases.next(),ntest++));
+
+			// Close class
+			testClass.write("}\n");
+
+		} catch(IOException ex) {
+			logger.error("Error writing test file");
+			logger.error("Exception: ", ex);
+		}
 
-		// Generate tests
-		int ntest=1;
-		for(TestCase t: testCases)
-			contentFile += generateTest(t,ntest++);
-		
-		// Close class
-		contentFile += "}\n";
-		
-		//Save to file
-		saveToFile(targetDirJava,className,contentFile);
-		
 		/* Test Compile
 		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 		compiler.run(System.in, System.out, System.err, TEST_LOCATION + this.specification.getInfo().getTitle().replaceAll(" ", "") + "Test.java");
@@ -130,7 +149,17 @@ public class RESTAssuredWriter implements IWriter {
 
 		// Coverage filter (optional)
 		if (enableStats || enableOutputCoverage)
-			content += 	"import es.us.isa.restest.writers.restassured.filters.CSVFilter;\n";
+			content += 	"import es.us.isa.restest.writers.restassured.filters.CSVFilter;\n"
+					+	"import es.us.isa.restest.execution.Shard;\n";
+
+		// Concurrency limit filter (optional)
+		if (maxRequestsPerHost > 0)
+			content += 	"import es.us.isa.restest.writers.restassured.filters.ConcurrencyLimitFilter;\n";
+
+		// Rate limit filter (optional)
+		if (requestScheduler != null)
+			content +=	"import es.us.isa.restest.execution.RequestScheduler;\n"
+					+	"import es.us.isa.restest.writers.restassured.filters.RateLimitFilter;\n";
 
 		if (logToFile) {
 			content +=	"import java.io.PrintStream;\n"
@@ -182,9 +211,17 @@ public class RESTAssuredWriter implements IWriter {
 		if (allureReport)
 			content += "\tprivate static final AllureRestAssured allureFilter = new AllureRestAssured();\n";
 
+		if (maxRequestsPerHost > 0)
+			content += "\tprivate static final ConcurrencyLimitFilter concurrencyLimitFilter = new ConcurrencyLimitFilter(" + maxRequestsPerHost + ");\n";
+
+		if (requestScheduler != null) // The scheduler is shared with other test classes with the same rate limits
+			content += "\tprivate static final RateLimitFilter rateLimitFilter = new RateLimitFilter(RequestScheduler.getInstance("
+					+ requestScheduler.getRequestsPerSecond() + ", " + requestScheduler.getMaxInFlight() + ", \""
+					+ escapeJava(requestScheduler.getOperationLimits()) + "\", " + requestScheduler.getMax429Retries() + "));\n";
+
 		if (enableStats || enableOutputCoverage) { // This is only needed to export output data to the proper folder
 			content += "\tprivate static final String APIName = \"" + APIName + "\";\n"
-					+  "\tprivate static final String testId = \"" + testId + "\";\n"
+					+  "\tprivate static final String testId = Shard.testId(\"" + testId + "\");\n" // Results of each shard are written to different files
 					+  "\tprivate static final CSVFilter csvFilter = new CSVFilter(APIName, testId);\n";
 		}
 
@@ -238,6 +275,12 @@ public class RESTAssuredWriter implements IWriter {
 
 		content += "\t}\n\n";
 
+		// Responses validated asynchronously must be exported before the test class finishes
+		content += "\t@AfterClass\n"
+				+  "\tpublic static void tearDown() {\n"
+				+  "\t\tvalidationFilter.awaitPendingValidations();\n"
+				+  "\t}\n\n";
+
 		return content;
 	}
 
@@ -434,6 +477,10 @@ public class RESTAssuredWriter implements IWriter {
 		if (statefulFilter && t.getMethod().equals(HttpMethod.GET)) {
 			content += "\t\t\t\t.filter(statefulFilter)\n";
 		}
+		if (maxRequestsPerHost > 0) // Concurrency limit filter (must be after all oracles)
+			content += "\t\t\t\t.filter(concurrencyLimitFilter)\n";
+		if (requestScheduler != null) // Rate limit filter (must be the last one, since it may send the request again)
+			content += "\t\t\t\t.filter(rateLimitFilter)\n";
 
 		return content;
 	}
@@ -455,7 +502,8 @@ public class RESTAssuredWriter implements IWriter {
 
 
 	private String generatePostResponseValidation(TestCase t) {
-		return "\t\t\tSystem.out.println(\"Test passed.\");\n";
+		return "\t\t\tvalidationFilter.awaitVerdict();\n"		// Only waits if the response is validated asynchronously
+				+  "\t\t\tSystem.out.println(\"Test passed.\");\n";
 	}
 
 	private String generateTryBlockEnd() {
@@ -465,16 +513,6 @@ public class RESTAssuredWriter implements IWriter {
 				+  "\t\t}\n";
 	}
 		
-	private void saveToFile(String path, String className, String contentFile) {
-		try(FileWriter testClass = new FileWriter(path + "/" + className + ".java")) {
-			testClass.write(contentFile);
-			testClass.flush();
-		} catch(Exception ex) {
-			logger.error("Error writing test file");
-			logger.error("Exception: ", ex);
-		} 
-	}
-
 	public boolean OAIValidation() {
 		return OAIValidation;
 	}
@@ -582,4 +620,20 @@ public class RESTAssuredWriter implements IWriter {
 	public void setProxy(String proxy) {
 		this.proxy = proxy;
 	}
+
+	public int getMaxRequestsPerHost() {
+		return maxRequestsPerHost;
+	}
+
+	public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+		this.maxRequestsPerHost = maxRequestsPerHost;
+	}
+
+	public RequestScheduler getRequestScheduler() {
+		return requestScheduler;
+	}
+
+	public void setRequestScheduler(RequestScheduler requestScheduler) {
+		this.requestScheduler = requestScheduler;
+	}
 }
@@ -0,0 +1,61 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import es.us.isa.restest.util.AuthManager;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * REST-Assured filter that reads the remaining quota of the auth keys used in a request
+ * from a response header (e.g., X-RateLimit-Remaining), and reports it to the
+ * {@link AuthManager}, so that it hands out the keys with the most remaining quota.
+ * Requests whose auth keys are not managed by the AuthManager, and responses without
+ * the header, are ignored.
+ */
+public class AuthQuotaFilter implements Filter {
+
+    public static final String DEFAULT_QUOTA_HEADER = "X-RateLimit-Remaining";
+
+    private final AuthManager authManager;
+    private final String quotaHeader;
+
+    public AuthQuotaFilter(AuthManager authManager, String quotaHeader) {
+        this.authManager = authManager;
+        this.quotaHeader = quotaHeader;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        String remaining = response.getHeader(quotaHeader);
+        String authProperty = getAuthProperty(requestSpec);
+        if (remaining != null && authProperty != null) {
+            try {
+                authManager.updateRemainingQuota(authProperty, Long.parseLong(remaining.trim()));
+            } catch (NumberFormatException ignored) {
+                // Not a number of requests, the quota is not updated
+            }
+        }
+
+        return response;
+    }
+
+    // Value of the first auth key found in the request (all keys of a request belong to the same group)
+    private String getAuthProperty(FilterableRequestSpecification requestSpec) {
+        for (String authPropertyName: authManager.getAuthPropertyNames()) {
+            String value = requestSpec.getQueryParams().get(authPropertyName);
+            if (value == null)
+                value = requestSpec.getHeaders().getValue(authPropertyName);
+            if (value != null)
+                return value;
+        }
+        return null;
+    }
+
+    public String getQuotaHeader() {
+        return quotaHeader;
+    }
+}
@@ -6,6 +6,8 @@ import io.restassured.response.Response;
 import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.FilterableResponseSpecification;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * This class is an RestAssured filter that exports the test results to a CSV file.
  */
@@ -23,8 +25,18 @@ public class CSVFilter extends RESTestFilter implements OrderedFilter {
     public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
         Response response = ctx.next(requestSpec, responseSpec);
 
-        // Export output data after receiving API response
-        exportTestResultToCSV(response, true, "none");
+        // Export output data after receiving API response. If the response is being validated asynchronously,
+        // it is exported once it is known to be valid (otherwise, the validation filter exports it)
+        CompletableFuture<String> verdict = getPendingValidation();
+        if (verdict == null)
+            exportTestResultToCSV(response, true, "none");
+        else {
+            String testResultId = getTestResultId();
+            addPendingTask(verdict.thenAccept(failReason -> {
+                if (failReason == null)
+                    exportTestResultToCSV(testResultId, response, true, "none");
+            }));
+        }
 
         return response;
     }
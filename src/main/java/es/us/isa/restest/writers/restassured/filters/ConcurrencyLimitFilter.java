@@ -0,0 +1,85 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * REST-Assured filter that limits the number of requests sent concurrently to the
+ * same base URI. It is used when test cases are executed in parallel, so that the
+ * API under test is not flooded with more requests than it can handle. The limit is
+ * shared by all the filters (and threads) of the JVM targeting the same base URI:
+ * the first filter sending a request to a base URI sets its limit, and filters with
+ * a different limit log a warning and use that one.
+ * <p>
+ * This filter must be added after all other filters, so that it only wraps the
+ * HTTP request and not the oracles.
+ */
+public class ConcurrencyLimitFilter implements OrderedFilter {
+
+    private static final Map<String, HostPermits> permitsPerBaseURI = new ConcurrentHashMap<>();
+    private static final Logger logger = LogManager.getLogger(ConcurrencyLimitFilter.class.getName());
+
+    private final int maxRequestsPerHost;
+
+    public ConcurrencyLimitFilter(int maxRequestsPerHost) {
+        if (maxRequestsPerHost < 1)
+            throw new IllegalArgumentException("The maximum number of concurrent requests per host must be greater than 0");
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Semaphore permits = getPermits(requestSpec.getBaseUri(), maxRequestsPerHost);
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to send a request to " + requestSpec.getBaseUri());
+        }
+
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Permits of the base URI, created with the given limit if there are none yet
+    static Semaphore getPermits(String baseUri, int maxRequestsPerHost) {
+        HostPermits hostPermits = permitsPerBaseURI.computeIfAbsent(baseUri, k -> new HostPermits(maxRequestsPerHost));
+        if (hostPermits.maxRequests != maxRequestsPerHost && hostPermits.conflictLogged.compareAndSet(false, true))
+            logger.warn("The maximum number of concurrent requests to {} is {}, ignoring the limit of {}", baseUri, hostPermits.maxRequests, maxRequestsPerHost);
+        return hostPermits.permits;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    @Override
+    public int getOrder() {
+        return Integer.MAX_VALUE; // Lowest priority of all filters, so it runs right before sending the request and right after receiving the response
+    }
+
+    private static class HostPermits {
+        private final Semaphore permits;
+        private final int maxRequests;
+        private final AtomicBoolean conflictLogged = new AtomicBoolean();   // Conflicting limits are only logged once per base URI
+
+        private HostPermits(int maxRequests) {
+            this.permits = new Semaphore(maxRequests, true);
+            this.maxRequests = maxRequests;
+        }
+    }
+}
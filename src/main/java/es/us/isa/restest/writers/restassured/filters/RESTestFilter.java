@@ -3,23 +3,32 @@ package es.us.isa.restest.writers.restassured.filters;
 import com.google.protobuf.Api;
 import es.us.isa.restest.testcases.TestResult;
 import es.us.isa.restest.util.PropertyManager;
+import es.us.isa.restest.util.TestResultSink;
 import io.restassured.response.Response;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST-Assured filter to be extended by all RESTest filters.
  * This class implements a method to export a REST-Assured response to a TestResult
  * in CSV. Such method must be called before throwing the exception corresponding
- * to the oracle being violated.
+ * to the oracle being violated. Test results are written in the background (see
+ * {@link TestResultSink}), so the thread executing the test case does not wait for it.
  */
 public class RESTestFilter {
 
     protected String APIName;
     protected String testId;
-    protected String testResultId;
+    private volatile String testResultsPath;    // Path of the CSV file of test results, built when the first one is exported
+
+    // Data of the test case being executed. Filters are shared by all tests of a test class (static
+    // fields), so this data is kept per thread in order to execute test cases concurrently
+    private final TestCaseData defaultTestCaseData = new TestCaseData();
+    private final ThreadLocal<TestCaseData> testCaseData = ThreadLocal.withInitial(defaultTestCaseData::copy);
 
-    protected Boolean testCaseIsFaulty; // Whether this test case is faulty or not
-    protected Boolean dependenciesFulfilled; // Whether this test case fulfills all inter-parameter dependencies or not
-    protected String faultyReason; // Why the test case is faulty
+    // Shared by all filters, so that the CSV filter can wait for the verdict of the response validation filter
+    private static final ThreadLocal<PendingValidation> pendingValidation = new ThreadLocal<>();
 
 
     public RESTestFilter() {
@@ -27,9 +36,9 @@ public class RESTestFilter {
     }
 
     public RESTestFilter(Boolean testCaseIsFaulty, Boolean dependenciesFulfilled, String faultyReason) {
-        this.testCaseIsFaulty = testCaseIsFaulty;
-        this.dependenciesFulfilled = dependenciesFulfilled;
-        this.faultyReason = faultyReason;
+        defaultTestCaseData.testCaseIsFaulty = testCaseIsFaulty;
+        defaultTestCaseData.dependenciesFulfilled = dependenciesFulfilled;
+        defaultTestCaseData.faultyReason = faultyReason;
     }
 
     public RESTestFilter(String APIName) {
@@ -44,29 +53,94 @@ public class RESTestFilter {
     }
 
     protected void exportTestResultToCSV(Response response, Boolean passed, String failReason) {
-        String testDataFile = PropertyManager.readProperty("data.tests.dir") + "/" + APIName + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_" + testId + ".csv";
+        exportTestResultToCSV(getTestResultId(), response, passed, failReason);
+    }
+
+    // Same as above, but it can be called from a thread other than the one executing the test case
+    protected void exportTestResultToCSV(String testResultId, Response response, Boolean passed, String failReason) {
         TestResult tr = new TestResult(testResultId, Integer.toString(response.statusCode()), response.asString(), response.contentType(), passed, failReason);
-        tr.exportToCSV(testDataFile);
+        TestResultSink.submit(getTestResultsPath(), tr);
+    }
+
+    private String getTestResultsPath() {
+        String path = testResultsPath;
+        if (path == null) {
+            path = PropertyManager.readProperty("data.tests.dir") + "/" + APIName + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_" + testId + ".csv";
+            testResultsPath = path;
+        }
+        return path;
+    }
+
+    /**
+     * Verdict of the asynchronous OAS validation of the last response received by the current thread (see
+     * {@link ResponseValidationFilter}), completed with the fail reason, or with null if the response is valid.
+     * null if the response is not being validated asynchronously.
+     */
+    protected static CompletableFuture<String> getPendingValidation() {
+        PendingValidation validation = pendingValidation.get();
+        return validation != null ? validation.verdict : null;
+    }
+
+    /**
+     * @param verdict Verdict of the validation, or null if the last response is not being validated asynchronously
+     * @param pendingTasks Tasks of the validating filter, which tasks depending on the verdict are added to
+     */
+    protected static void setPendingValidation(CompletableFuture<String> verdict, Set<CompletableFuture<?>> pendingTasks) {
+        if (verdict == null)
+            pendingValidation.remove();
+        else
+            pendingValidation.set(new PendingValidation(verdict, pendingTasks));
+    }
+
+    /**
+     * Registers a task depending on the verdict of the pending validation (e.g. exporting the test result),
+     * so that {@link ResponseValidationFilter#awaitPendingValidations()} also waits for it.
+     */
+    protected static void addPendingTask(CompletableFuture<?> task) {
+        PendingValidation validation = pendingValidation.get();
+        if (validation != null) {
+            validation.pendingTasks.add(task);
+            task.whenComplete((result, e) -> validation.pendingTasks.remove(task));
+        }
     }
 
     protected void saveTestResultAndThrowException(Response response, String message) {
-        if (APIName != null && testResultId != null)
+        if (APIName != null && getTestResultId() != null)
             exportTestResultToCSV(response, false, message);
         throw new RuntimeException(message);
     }
 
+    /**
+     * Updates the data of the test case to be executed by the current thread.
+     */
     public void updateFaultyData(Boolean testCaseIsFaulty, Boolean dependenciesFulfilled, String faultyReason) {
-        this.testCaseIsFaulty = testCaseIsFaulty;
-        this.dependenciesFulfilled = dependenciesFulfilled;
-        this.faultyReason = faultyReason;
+        TestCaseData data = testCaseData.get();
+        data.testCaseIsFaulty = testCaseIsFaulty;
+        data.dependenciesFulfilled = dependenciesFulfilled;
+        data.faultyReason = faultyReason;
+    }
+
+    protected Boolean getTestCaseIsFaulty() {
+        return testCaseData.get().testCaseIsFaulty;
+    }
+
+    protected Boolean getDependenciesFulfilled() {
+        return testCaseData.get().dependenciesFulfilled;
+    }
+
+    protected String getFaultyReason() {
+        return testCaseData.get().faultyReason;
     }
 
     public String getTestResultId() {
-        return testResultId;
+        return testCaseData.get().testResultId;
     }
 
+    /**
+     * Sets the ID of the test result of the test case to be executed by the current thread.
+     */
     public void setTestResultId(String testResultId) {
-        this.testResultId = testResultId;
+        testCaseData.get().testResultId = testResultId;
     }
 
     public String getAPIName() {
@@ -75,9 +149,37 @@ public class RESTestFilter {
 
     public void setAPIName(String APIName) {
         this.APIName = APIName;
+        this.testResultsPath = null;
     }
 
     public void setTestId(String testId) {
         this.testId = testId;
+        this.testResultsPath = null;
+    }
+
+    private static class PendingValidation {
+        private final CompletableFuture<String> verdict;
+        private final Set<CompletableFuture<?>> pendingTasks;
+
+        private PendingValidation(CompletableFuture<String> verdict, Set<CompletableFuture<?>> pendingTasks) {
+            this.verdict = verdict;
+            this.pendingTasks = pendingTasks;
+        }
+    }
+
+    private static class TestCaseData {
+        private String testResultId;
+        private Boolean testCaseIsFaulty;       // Whether this test case is faulty or not
+        private Boolean dependenciesFulfilled;  // Whether this test case fulfills all inter-parameter dependencies or not
+        private String faultyReason;            // Why the test case is faulty
+
+        private TestCaseData copy() {
+            TestCaseData data = new TestCaseData();
+            data.testResultId = testResultId;
+            data.testCaseIsFaulty = testCaseIsFaulty;
+            data.dependenciesFulfilled = dependenciesFulfilled;
+            data.faultyReason = faultyReason;
+            return data;
+        }
     }
 }
@@ -0,0 +1,94 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import es.us.isa.restest.execution.RequestScheduler;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * REST-Assured filter that sends requests according to the budget of a
+ * {@link RequestScheduler} (requests per second and requests in flight). If the API
+ * answers with a 429 (Too Many Requests) status code, the scheduler backs off for the
+ * time indicated in the Retry-After header (or an exponentially increasing time, if
+ * absent), and the request is sent again, up to a maximum number of retries.
+ * <p>
+ * This filter must be added after all other filters, so that retried requests go
+ * through the oracles only once.
+ */
+public class RateLimitFilter implements OrderedFilter {
+
+    private static final long DEFAULT_BACK_OFF_MILLIS = 1000;
+
+    private final RequestScheduler scheduler;
+
+    public RateLimitFilter(RequestScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        String operation = requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath();
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                scheduler.acquire(operation);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting to send a request to " + operation);
+            }
+
+            Response response;
+            try {
+                response = ctx.next(requestSpec, responseSpec);
+            } finally {
+                scheduler.release(operation);
+            }
+
+            if (response.getStatusCode() != 429 || attempt >= scheduler.getMax429Retries())
+                return response;
+
+            scheduler.backOff(operation, getRetryAfterMillis(response.getHeader("Retry-After"), attempt));
+        }
+    }
+
+    /**
+     * Returns the time to wait before retrying a request, according to the value of the
+     * Retry-After header, which may be a number of seconds or an HTTP date. If the header
+     * is absent or malformed, the time doubles with every attempt, starting at one second.
+     * @param retryAfter Value of the Retry-After header (may be null)
+     * @param attempt Number of previous attempts
+     * @return Time to wait, in milliseconds
+     */
+    public static long getRetryAfterMillis(String retryAfter, int attempt) {
+        if (retryAfter != null && !retryAfter.trim().isEmpty()) {
+            String value = retryAfter.trim();
+            try {
+                return Math.max(0, Long.parseLong(value) * 1000);
+            } catch (NumberFormatException e) {
+                try {
+                    ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                    return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+                } catch (DateTimeParseException ignored) {
+                    // Fall back to exponential back-off
+                }
+            }
+        }
+        return DEFAULT_BACK_OFF_MILLIS << Math.min(attempt, 10);
+    }
+
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public int getOrder() {
+        return Integer.MAX_VALUE; // Lowest priority of all filters, so it runs right before sending the request and right after receiving the response
+    }
+}
@@ -5,13 +5,24 @@ import com.atlassian.oai.validator.model.Request;
 import com.atlassian.oai.validator.report.ValidationReport;
 import com.atlassian.oai.validator.restassured.RestAssuredRequest;
 import com.atlassian.oai.validator.restassured.RestAssuredResponse;
+import es.us.isa.restest.util.OASAPIValidator;
 import es.us.isa.restest.util.PropertyManager;
+import es.us.isa.restest.util.ResponseShapeCache;
+import es.us.isa.restest.util.ResponseValueChecker;
 import io.restassured.filter.FilterContext;
 import io.restassured.filter.OrderedFilter;
 import io.restassured.response.Response;
 import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.atlassian.oai.validator.util.StringUtils.requireNonEmpty;
@@ -23,41 +34,181 @@ import static com.atlassian.oai.validator.util.StringUtils.requireNonEmpty;
  * to the API in order to create faulty test cases. Request body validation errors
  * (e.g. omitting a required property) will be whitelisted, while other errors will
  * be emitted as warnings.
+ * <br>
+ * Depending on the property "response.validation.mode", responses are validated in the thread
+ * that sends the request (sync), or by a bounded pool of threads shared by all filters. In the
+ * latter case, the test case either waits for the verdict before finishing (async, see
+ * {@link #awaitVerdict()}), or it does not wait at all (deferred): the verdict is only exported
+ * to CSV, and {@link #awaitPendingValidations()} must be called when the test suite finishes.
+ * <br>
+ * If "response.validation.shapecache" is true, responses whose shape has already been validated for the
+ * same operation and status code are not validated again (see {@link ResponseShapeCache}). Only their values
+ * are checked against the value-level constraints of the response (see {@link ResponseValueChecker}).
  *
  * @author Alberto Martin-Lopez
  */
 public class ResponseValidationFilter extends RESTestFilter implements OrderedFilter {
+
+    public enum Mode { SYNC, ASYNC, DEFERRED }
+
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    private static ThreadPoolExecutor validationPool;      // Shared by all filters, created the first time a response is validated asynchronously
+
+    private final String specUrlOrDefinition;
     private final OpenApiInteractionValidator validator;
+    private final ResponseShapeCache shapeCache;        // null if the shapes of valid responses are not cached
     private final Boolean enabled = Boolean.parseBoolean(PropertyManager.readProperty("response.body.analysis"));
     private final Boolean limit = Boolean.parseBoolean(PropertyManager.readProperty("response.body.limit"));
     private final Long bodySizeLimit = Long.parseLong(PropertyManager.readProperty("response.body.size"));
+    private final Mode mode = parseMode(PropertyManager.readProperty("response.validation.mode"));
+    private final Boolean checkValueConstraints = !"false".equalsIgnoreCase(PropertyManager.readProperty("response.validation.shapecache.values"));
+    private final Set<CompletableFuture<?>> pendingValidations = ConcurrentHashMap.newKeySet();
+
+    private static final Logger logger = LogManager.getLogger(ResponseValidationFilter.class.getName());
 
     public ResponseValidationFilter(final String specUrlOrDefinition) {
         requireNonEmpty(specUrlOrDefinition, "A spec is required");
 
-        this.validator = OpenApiInteractionValidator.createFor(specUrlOrDefinition).build();
+        this.specUrlOrDefinition = specUrlOrDefinition;
+        // Shared by all filters of the same spec, so that the spec is not parsed again by every test class
+        this.validator = OASAPIValidator.getResponseValidator(specUrlOrDefinition);
+        this.shapeCache = Boolean.parseBoolean(PropertyManager.readProperty("response.validation.shapecache")) ? ResponseShapeCache.getInstance(validator) : null;
     }
 
     @Override
     public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
         final Response response = ctx.next(requestSpec, responseSpec);
         final Request restAssuredRequest = RestAssuredRequest.of(requestSpec);
+        setPendingValidation(null, null);
 
-        if (enabled && (!limit || response.getBody().asString().length() < bodySizeLimit))
-            filterValidation(response, restAssuredRequest.getPath(), restAssuredRequest.getMethod().toString());
+        // The size of the body is measured in bytes, without decoding it
+        if (enabled && (!limit || response.getBody().asByteArray().length < bodySizeLimit)) {
+            String method = restAssuredRequest.getMethod().toString();
+            if (mode == Mode.SYNC) {
+                String errors = validate(response, restAssuredRequest.getPath(), method, requestSpec.getUserDefinedPath(), getTestResultId());
+                if (errors != null)
+                    throw new RuntimeException(errors);
+            } else
+                validateAsync(response, restAssuredRequest.getPath(), method, requestSpec.getUserDefinedPath());
+        }
 
         return response;
     }
 
     // If OAS validation error is found, throw exception
     public void filterValidation(Response response, String path, String method) {
+        String errors = validate(response, path, method, null, getTestResultId());
+        if (errors != null)
+            throw new RuntimeException(errors);
+    }
+
+    // Returns the OAS validation errors found (null if none), after exporting them to CSV
+    private String validate(Response response, String path, String method, String operationPath, String testResultId) {
+        ResponseValueChecker valueChecker = getValueChecker(method, operationPath, response.statusCode());
+        String shapeKey = getShapeKey(response, method, operationPath, valueChecker);
+        // Responses whose shape is known to be valid are not validated again, unless their values are not valid
+        if (shapeKey != null && shapeCache.isValid(shapeKey) && valueChecker.check(response.getBody().asByteArray()))
+            return null;
+
         final ValidationReport validationReport = validator.validateResponse(path, Request.Method.valueOf(method), RestAssuredResponse.of(response));
-        if (validationReport.hasErrors()) {
-            String errors = "OAS disconformity: " + getMessagesSummary(validationReport);
-            if (APIName != null && testResultId != null)
-                exportTestResultToCSV(response, false, errors);
+        if (!validationReport.hasErrors()) {
+            if (shapeKey != null)
+                shapeCache.addValid(shapeKey);
+            return null;
+        }
+
+        String errors = "OAS disconformity: " + getMessagesSummary(validationReport);
+        if (APIName != null && testResultId != null)
+            exportTestResultToCSV(testResultId, response, false, errors);
+        return errors;
+    }
+
+    /*
+     * Checker of the value-level constraints of the response, unless the cache is disabled, the operation is
+     * unknown, or "response.validation.shapecache.values" is false (then the values are not checked)
+     */
+    private ResponseValueChecker getValueChecker(String method, String operationPath, int statusCode) {
+        if (shapeCache == null || operationPath == null || !checkValueConstraints)
+            return ResponseValueChecker.NONE;
+        return OASAPIValidator.getResponseValueChecker(specUrlOrDefinition, method, operationPath, statusCode);
+    }
+
+    /*
+     * Key of the response in the shape cache, or null if it must be fully validated: the cache is disabled, the
+     * operation is unknown, the body is not JSON, or the values of the response cannot be checked without
+     * validating it (see {@link ResponseValueChecker#requiresFullValidation()})
+     */
+    private String getShapeKey(Response response, String method, String operationPath, ResponseValueChecker valueChecker) {
+        if (shapeCache == null || operationPath == null || valueChecker.requiresFullValidation())
+            return null;
+
+        String shape = ResponseShapeCache.fingerprint(response.getBody().asByteArray());
+        return shape != null ? ResponseShapeCache.getKey(method + " " + operationPath, response.statusCode(), response.contentType(), shape) : null;
+    }
+
+    private void validateAsync(Response response, String path, String method, String operationPath) {
+        String testResultId = getTestResultId();
+        CompletableFuture<String> verdict = CompletableFuture.supplyAsync(() -> {
+            try {
+                String errors = validate(response, path, method, operationPath, testResultId);
+                if (errors != null && mode == Mode.DEFERRED)
+                    logger.warn("Test {} failed: {}", testResultId, errors);
+                return errors;
+            } catch (RuntimeException e) {
+                logger.warn("The response of test {} could not be validated: {}", testResultId, e.getMessage());
+                return "OAS validation error: " + e.getMessage();
+            }
+        }, getValidationPool());
+
+        pendingValidations.add(verdict);
+        verdict.whenComplete((errors, e) -> pendingValidations.remove(verdict));
+        setPendingValidation(verdict, pendingValidations);
+    }
+
+    /**
+     * Waits for the verdict of the asynchronous validation of the last response received by the current
+     * thread, and throws an exception if it is not valid. It does nothing in sync and deferred modes.
+     */
+    public void awaitVerdict() {
+        CompletableFuture<String> verdict = getPendingValidation();
+        setPendingValidation(null, null);
+        if (verdict == null || mode != Mode.ASYNC)
+            return;
+
+        String errors = verdict.join();
+        if (errors != null)
             throw new RuntimeException(errors);
+    }
+
+    /**
+     * Waits until all responses being validated asynchronously by this filter are validated and exported to CSV
+     * (including valid responses, exported by the {@link CSVFilter} once the verdict is known)
+     */
+    public void awaitPendingValidations() {
+        CompletableFuture.allOf(pendingValidations.toArray(new CompletableFuture[0])).join();
+    }
+
+    // When the queue of the pool is full, responses are validated by the thread that received them
+    private static synchronized ThreadPoolExecutor getValidationPool() {
+        if (validationPool == null) {
+            String threadsProperty = PropertyManager.readProperty("response.validation.threads");
+            String queueProperty = PropertyManager.readProperty("response.validation.queue");
+            int threads = threadsProperty != null && !threadsProperty.trim().isEmpty() ? Integer.parseInt(threadsProperty.trim()) : Runtime.getRuntime().availableProcessors();
+            int queueSize = queueProperty != null && !queueProperty.trim().isEmpty() ? Integer.parseInt(queueProperty.trim()) : DEFAULT_QUEUE_SIZE;
+
+            validationPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+                Thread thread = new Thread(r, "response-validation");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+            validationPool.allowCoreThreadTimeOut(true);
         }
+        return validationPool;
+    }
+
+    private static Mode parseMode(String mode) {
+        return mode == null || mode.trim().isEmpty() ? Mode.SYNC : Mode.valueOf(mode.trim().toUpperCase());
     }
 
     private String getMessagesSummary(ValidationReport validationReport) {
@@ -68,6 +219,10 @@ public class ResponseValidationFilter extends RESTestFilter implements OrderedFi
                 .collect(Collectors.joining(" --- "));
     }
 
+    public Mode getMode() {
+        return mode;
+    }
+
     @Override
     public int getOrder() {
         return Integer.MAX_VALUE-3; // Fourth lowest priority of all filters, so it runs fourth-to-last before sending the request and fourth after sending it
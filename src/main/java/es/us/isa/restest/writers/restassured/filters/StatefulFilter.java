@@ -14,16 +14,19 @@ import org.apache.logging.log4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.atlassian.oai.validator.util.StringUtils.requireNonEmpty;
 
 public class StatefulFilter extends RESTestFilter implements OrderedFilter {
 
     private String specDirPath;
-    private String operationMethod;
-    private String operationPath;
+    private final ThreadLocal<String> operation = new ThreadLocal<>();  // Method and path of the operation being tested by the current thread
     private ObjectMapper objectMapper;
 
+    // One lock per JSON file, since several filters (and threads) may update the same file concurrently
+    private static final Map<String, Object> fileLocks = new ConcurrentHashMap<>();
+
     private static final Logger logger = LogManager.getLogger(StatefulFilter.class.getName());
 
     public StatefulFilter(String specDirPath) {
@@ -41,13 +44,17 @@ public class StatefulFilter extends RESTestFilter implements OrderedFilter {
             String body = response.getBody().asString();
             Map<String, Map<String, List<JsonNode>>> allValues = new HashMap<>();
 
+            String operationKey = operation.get();
+
             try {
-                if (jsonFile.exists())
-                    allValues = objectMapper.readValue(jsonFile, new TypeReference<Map<String, Map<String, List<JsonNode>>>>() {});
-                allValues.putIfAbsent(operationMethod + operationPath, new HashMap<>());
                 JsonNode bodyNode = objectMapper.readTree(body);
-                addResponseBodyValues(allValues.get(operationMethod + operationPath), bodyNode, "");
-                objectMapper.writeValue(jsonFile, allValues);
+                synchronized (fileLocks.computeIfAbsent(jsonFile.getAbsolutePath(), k -> new Object())) {
+                    if (jsonFile.exists())
+                        allValues = objectMapper.readValue(jsonFile, new TypeReference<Map<String, Map<String, List<JsonNode>>>>() {});
+                    allValues.putIfAbsent(operationKey, new HashMap<>());
+                    addResponseBodyValues(allValues.get(operationKey), bodyNode, "");
+                    objectMapper.writeValue(jsonFile, allValues);
+                }
             } catch (IOException e) {
                 logger.warn("The response body could not be saved to JSON: {}", e.getMessage());
             }
@@ -74,9 +81,11 @@ public class StatefulFilter extends RESTestFilter implements OrderedFilter {
 
     }
 
+    /**
+     * Sets the operation to be tested by the current thread.
+     */
     public void setOperation(String operationMethod, String operationPath) {
-        this.operationMethod = operationMethod;
-        this.operationPath = operationPath;
+        operation.set(operationMethod + operationPath);
     }
 
     @Override
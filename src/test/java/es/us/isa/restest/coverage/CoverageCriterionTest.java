@@ -0,0 +1,107 @@
+package es.us.isa.restest.coverage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static es.us.isa.restest.coverage.CriterionType.*;
+import static org.junit.Assert.*;
+
+public class CoverageCriterionTest {
+
+    private CoverageCriterion criterion;
+
+    @Before
+    public void setUp() {
+        criterion = new CoverageCriterion(PARAMETER_VALUE);
+        criterion.setRootPath("/pets->GET->status");
+        criterion.setElements(Arrays.asList("sold", "available", "pending", "sold"));
+    }
+
+    @Test
+    public void testSetElements() {
+        assertEquals("Repeated elements should be counted once", 3, criterion.getElementsCount());
+        assertEquals("No element should be covered", 0, criterion.getCoveredElementsCount());
+        assertEquals("Elements should be sorted", Arrays.asList("available", "pending", "sold"), Arrays.asList(criterion.getElements().keySet().toArray()));
+        assertEquals("Coverage should be 0", 0, criterion.getCoverage(), 0);
+    }
+
+    @Test
+    public void testCoverElement() {
+        criterion.coverElement("sold");
+        criterion.coverElement("pending");
+
+        assertEquals("Wrong number of covered elements", 2, criterion.getCoveredElementsCount());
+        assertTrue("The element should be covered", criterion.isCovered("sold"));
+        assertFalse("The element should not be covered", criterion.isCovered("available"));
+        assertEquals("Wrong covered elements", Arrays.asList("pending", "sold"), Arrays.asList(criterion.getCoveredElements().keySet().toArray()));
+        assertEquals("Wrong coverage", 200f / 3, criterion.getCoverage(), 0.001);
+    }
+
+    @Test
+    public void testCoverElementTwice() {
+        criterion.coverElement("sold");
+        criterion.coverElement("sold");
+
+        assertEquals("Covering an element twice should count it once", 1, criterion.getCoveredElementsCount());
+    }
+
+    @Test
+    public void testCoverUnknownElement() {
+        criterion.coverElement("lost");
+        criterion.coverElement(null);
+
+        assertEquals("Unknown elements should be ignored", 0, criterion.getCoveredElementsCount());
+        assertEquals("Unknown elements should not be added", 3, criterion.getElementsCount());
+        assertFalse("Unknown elements should not be covered", criterion.isCovered("lost"));
+    }
+
+    @Test
+    public void testGetElementsReturnsCopy() {
+        Map<String, Boolean> elements = criterion.getElements();
+        elements.put("sold", true);
+        elements.put("lost", true);
+
+        assertEquals("Changes to the elements returned should not affect the criterion", 0, criterion.getCoveredElementsCount());
+        assertEquals("Changes to the elements returned should not affect the criterion", 3, criterion.getElementsCount());
+        assertFalse("Changes to the elements returned should not affect the criterion", criterion.getElements().get("sold"));
+    }
+
+    @Test
+    public void testSetElementsWithCoverage() {
+        Map<String, Boolean> elements = new LinkedHashMap<>();
+        elements.put("GET", true);
+        elements.put("POST", false);
+        elements.put("DELETE", true);
+        CoverageCriterion operations = new CoverageCriterion(OPERATION);
+        operations.setElements(elements);
+
+        assertEquals("Wrong number of covered elements", 2, operations.getCoveredElementsCount());
+        assertFalse("The element should not be covered", operations.isCovered("POST"));
+    }
+
+    @Test
+    public void testCopyWithoutCoverage() {
+        criterion.coverElement("sold");
+        CoverageCriterion copy = criterion.copyWithoutCoverage();
+        copy.coverElement("available");
+
+        assertEquals("The copy should have the same elements", criterion.getElements().keySet(), copy.getElements().keySet());
+        assertEquals("The copy should have the same rootPath", criterion.getRootPath(), copy.getRootPath());
+        assertFalse("The coverage of the original should not be copied", copy.isCovered("sold"));
+        assertFalse("The coverage of the copy should not affect the original", criterion.isCovered("available"));
+        assertEquals("The coverage of the copy should not affect the original", 1, criterion.getCoveredElementsCount());
+    }
+
+    @Test
+    public void testEmptyCriterion() {
+        CoverageCriterion empty = new CoverageCriterion(PATH);
+        empty.coverElement("/pets");
+
+        assertEquals("Criteria without elements should be fully covered", 100, empty.getCoverage(), 0);
+        assertEquals("Criteria without elements should have no covered elements", 0, empty.getCoveredElementsCount());
+    }
+}
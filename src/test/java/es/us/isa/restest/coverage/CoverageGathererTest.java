@@ -89,4 +89,23 @@ public class CoverageGathererTest {
         System.out.println("As long as this is printed, this test cases passes (no exceptions thrown).");
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void coverageCriterionIndexTest() {
+        String oasPath = "src/test/resources/Bikewise/swagger.yaml";
+        CoverageGatherer covGath = new CoverageGatherer(new OpenAPISpecification(oasPath));
+
+        for (CoverageCriterion criterion: covGath.getCoverageCriteria()) {
+            CoverageCriterion expected = covGath.getCoverageCriteria().stream()
+                    .filter(c -> c.getType() == criterion.getType() && c.getRootPath().equals(criterion.getRootPath()))
+                    .findFirst().get();
+            assertSame("The index should return the first criterion with the same type and rootPath", expected, covGath.getCoverageCriterion(criterion.getType(), criterion.getRootPath()));
+        }
+        assertNull("The criterion should not exist", covGath.getCoverageCriterion(OPERATION, "/nonexistent"));
+
+        CoverageCriterion newCriterion = new CoverageCriterion(OPERATION);
+        newCriterion.setRootPath("/nonexistent");
+        covGath.getCoverageCriteria().add(newCriterion);
+        assertSame("The index should include the criteria added to the list", newCriterion, covGath.getCoverageCriterion(OPERATION, "/nonexistent"));
+    }
+}
@@ -168,4 +168,44 @@ public class CoverageMeterTest {
 
         assertTrue("The new coverage should be lower than the old one", covMeter.getTotalCoverage() < oldCoverage);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void aPosterioriCoverageTest() {
+        TestCase tc4 = new TestCase(generateId(), false, "getOrderById", "/store/order/{orderId}", HttpMethod.GET);
+        tc4.addPathParameter("orderId", "1");
+        TestCase tc5 = new TestCase(generateId(), false, "deleteOrder", "/store/order/{orderId}", HttpMethod.DELETE); // Without test result
+        covMeter.addTestSuite(List.of(tc4, tc5));
+        covMeter.addTestResults(List.of(new TestResult(tc4.getId(), "404", "{}", "application/json")), List.of(tc4, tc5));
+
+        CoverageMeter aPosterioriCovMeter = covMeter.getAPosteriorCoverageMeter();
+
+        assertEquals("Wrong number of test cases", 4, aPosterioriCovMeter.getTestSuite().size());
+        assertEquals("Wrong number of test results", 4, aPosterioriCovMeter.getTestResults().size());
+        assertEquals("The input coverage of operations with test results should be the same", covMeter.getCriterionCoverage(PARAMETER, "/pet/findByStatus->GET"), aPosterioriCovMeter.getCriterionCoverage(PARAMETER, "/pet/findByStatus->GET"), 0);
+        assertEquals("Operations without successful responses should not be covered a posteriori", 0, aPosterioriCovMeter.getCriterionCoverage(OPERATION, "/store/order/{orderId}"), 0);
+        assertEquals("The output coverage should be the same", covMeter.getCoveredOutputElements(), aPosterioriCovMeter.getCoveredOutputElements());
+        assertTrue("The a posteriori input coverage should be lower", aPosterioriCovMeter.getInputCoverage() < covMeter.getInputCoverage());
+    }
+
+    @Test
+    public void applyDeltaTest() {
+        TestCase tc4 = new TestCase(generateId(), false, "getOrderById", "/store/order/{orderId}", HttpMethod.GET);
+        tc4.addPathParameter("orderId", "1");
+        TestResult tr4 = new TestResult(tc4.getId(), "404", "{}", "application/json");
+        covMeter.addTestSuite(List.of(tc4));
+        covMeter.addTestResults(List.of(tr4), List.of(tc4));
+        CoverageMeter aPosterioriCovMeter = covMeter.getAPosteriorCoverageMeter();
+
+        // Same test cases and test results, in two batches
+        CoverageMeter incrementalCovMeter = covMeter.copyWithoutCoverage();
+        assertEquals("The copy should not have covered elements", 0, incrementalCovMeter.getCoveredTotalElements());
+        incrementalCovMeter.applyDelta(testSuite, testResults);
+        incrementalCovMeter.applyDelta(List.of(tc4), List.of(tr4));
+
+        assertEquals("Wrong a priori coverage", covMeter.getCoveredTotalElements(), incrementalCovMeter.getCoveredTotalElements());
+        assertEquals("Wrong a posteriori input coverage", aPosterioriCovMeter.getCoveredInputElements(), incrementalCovMeter.getAPosteriorCoverageMeter().getCoveredInputElements());
+        assertEquals("Wrong a posteriori output coverage", aPosterioriCovMeter.getCoveredOutputElements(), incrementalCovMeter.getAPosteriorCoverageMeter().getCoveredOutputElements());
+        assertTrue("The test cases should not be kept", incrementalCovMeter.getTestSuite().isEmpty());
+        assertTrue("The test results should not be kept", incrementalCovMeter.getTestResults().isEmpty());
+    }
+}
@@ -0,0 +1,43 @@
+package es.us.isa.restest.coverage;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ResponseBodyPropertiesExtractorTest {
+
+    @Test
+    public void extractPropertiesTest() throws IOException {
+        StringBuilder body = new StringBuilder("{\"name\": \"a\", \"tags\": [\"x\", \"y\"], \"items\": [");
+        for (int i = 0; i < 1000; i++)
+            body.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append(", \"owner\": {\"login\": \"b\"}").append(i == 999 ? ", \"extra\": null" : "").append("}");
+        body.append("], \"matrix\": [[{\"a\": 1}]], \"ids\": [1, {\"ignored\": true}]}");
+
+        List<String> properties = new ArrayList<>();
+        ResponseBodyPropertiesExtractor.forEachProperty(body.toString(), (rootPath, property) -> properties.add(rootPath + property));
+
+        assertEquals("Wrong properties", List.of("{name", "{tags", "{items", "{items[{id", "{items[{owner", "{items[{owner{login", "{items[{extra", "{matrix", "{ids"), properties);
+    }
+
+    @Test
+    public void extractArrayPropertiesTest() throws IOException {
+        List<String> properties = new ArrayList<>();
+        ResponseBodyPropertiesExtractor.forEachProperty("[{\"a\": \"b\", \"c\": \"d\"}, {\"a\": \"e\"}, 1]", (rootPath, property) -> properties.add(rootPath + property));
+        assertEquals("Wrong properties", List.of("[{a", "[{c"), properties);
+    }
+
+    @Test
+    public void extractPropertiesInvalidJSONTest() {
+        List<String> properties = new ArrayList<>();
+        try {
+            ResponseBodyPropertiesExtractor.forEachProperty("{\"a\": 1, \"b\": <html>", (rootPath, property) -> properties.add(rootPath + property));
+            fail("An exception should be thrown");
+        } catch (IOException e) {
+            assertTrue("No properties should be covered if the body is not valid JSON", properties.isEmpty());
+        }
+    }
+}
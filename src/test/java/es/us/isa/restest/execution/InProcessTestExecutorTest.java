@@ -0,0 +1,59 @@
+package es.us.isa.restest.execution;
+
+import com.sun.net.httpserver.HttpServer;
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InProcessTestExecutorTest {
+
+    private HttpServer proxyServer;
+    private final List<String> proxiedRequests = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        // Local server acting as an HTTP proxy: requests are received with the absolute URI of the target API
+        proxyServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        proxyServer.createContext("/", exchange -> {
+            proxiedRequests.add(exchange.getRequestURI().toString());
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        proxyServer.start();
+    }
+
+    @After
+    public void tearDown() {
+        proxyServer.stop(0);
+    }
+
+    @Test
+    public void testExecuteThroughProxy() {
+        InProcessTestExecutor executor = new InProcessTestExecutor("src/test/resources/AnApiOfIceAndFire/swagger.yaml", "http://anapioficeandfire.invalid", false);
+        executor.setProxy("localhost:" + proxyServer.getAddress().getPort());
+
+        TestCase testCase = new TestCase("test_proxy", false, "getBooks", "/api/books", HttpMethod.GET);
+        ExecutionResult result = executor.execute(Collections.singletonList(testCase), "proxyTest");
+
+        assertEquals("The test case should be executed", 1, result.getRunCount());
+        assertEquals("The request should be sent through the proxy", 1, proxiedRequests.size());
+        assertTrue("The proxy should receive the absolute URI of the API", proxiedRequests.get(0).startsWith("http://anapioficeandfire.invalid/api/books"));
+    }
+}
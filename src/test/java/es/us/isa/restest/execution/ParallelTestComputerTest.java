@@ -0,0 +1,55 @@
+package es.us.isa.restest.execution;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParallelTestComputerTest {
+
+    @Test
+    public void testParallelExecutionIsBoundedByWorkers() {
+        SlowTests.running.set(0);
+        SlowTests.maxRunning.set(0);
+        SlowTests.overlap = new CountDownLatch(2);
+
+        Result result = new JUnitCore().run(new ParallelTestComputer(2), SlowTests.class);
+
+        assertEquals("All tests should be run", 6, result.getRunCount());
+        assertEquals("No test should fail", 0, result.getFailureCount());
+        assertTrue("At most 2 tests should run at the same time", SlowTests.maxRunning.get() <= 2);
+        assertTrue("More than 1 test should have run at the same time", SlowTests.maxRunning.get() > 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroWorkers() {
+        new ParallelTestComputer(0);
+    }
+
+    public static class SlowTests {
+
+        static final AtomicInteger running = new AtomicInteger();
+        static final AtomicInteger maxRunning = new AtomicInteger();
+        static CountDownLatch overlap;      // The first 2 tests wait for each other, so they run at the same time if there are 2 workers
+
+        private void run() throws InterruptedException {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            overlap.countDown();
+            overlap.await(10, TimeUnit.SECONDS);
+            Thread.sleep(50);
+            running.decrementAndGet();
+        }
+
+        @Test public void test1() throws InterruptedException { run(); }
+        @Test public void test2() throws InterruptedException { run(); }
+        @Test public void test3() throws InterruptedException { run(); }
+        @Test public void test4() throws InterruptedException { run(); }
+        @Test public void test5() throws InterruptedException { run(); }
+        @Test public void test6() throws InterruptedException { run(); }
+    }
+}
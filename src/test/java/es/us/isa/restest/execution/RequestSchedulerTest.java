@@ -0,0 +1,76 @@
+package es.us.isa.restest.execution;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RequestSchedulerTest {
+
+    @Test
+    public void testTokenBucketRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(20, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++)
+            bucket.acquire();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("11 tokens at 20 tokens/s (1 token burst) should take at least 500 ms, but took " + elapsed, elapsed >= 450);
+    }
+
+    @Test
+    public void testTokenBucketPause() {
+        TokenBucket bucket = new TokenBucket(1000);
+        assertEquals("A token should be available", 0, bucket.tryAcquire());
+        bucket.pause(1, TimeUnit.SECONDS);
+        assertTrue("No token should be available while the bucket is paused", bucket.tryAcquire() > 0);
+    }
+
+    @Test
+    public void testOperationLimits() {
+        RequestScheduler scheduler = new RequestScheduler(-1, -1, "GET /search:5:-1; post /playlists:1:1", 3);
+        assertEquals("There should be a bucket per operation", 2, scheduler.getOperationRates().size());
+        assertEquals("The rate of 'GET /search' should be 5", 5, scheduler.getOperationRates().get("GET /search").getTokensPerSecond(), 0.001);
+        assertTrue("The method of the operation should be normalized", scheduler.getOperationRates().containsKey("POST /playlists"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongOperationLimits() {
+        new RequestScheduler(-1, -1, "GET /search:5", 3);
+    }
+
+    @Test
+    public void testMaxInFlight() throws InterruptedException {
+        RequestScheduler scheduler = new RequestScheduler(-1, 2, null, 3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        ExecutorService executor = RequestScheduler.newExecutor(8, false);
+        for (int i = 0; i < 16; i++) {
+            executor.submit(() -> {
+                try {
+                    scheduler.acquire("GET /search");
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    inFlight.decrementAndGet();
+                    scheduler.release("GET /search");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue("All requests should finish", executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals("At most 2 requests should be in flight", 2, maxInFlight.get());
+    }
+
+    @Test
+    public void testSharedInstance() {
+        assertSame("Schedulers with the same configuration should be shared",
+                RequestScheduler.getInstance(10, 5, "GET /search:5:-1", 3),
+                RequestScheduler.getInstance(10, 5, "GET /search:5:-1", 3));
+    }
+}
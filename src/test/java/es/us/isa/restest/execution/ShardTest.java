@@ -0,0 +1,99 @@
+package es.us.isa.restest.execution;
+
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ShardTest {
+
+    private static final List<String> OPERATIONS = Arrays.asList("getRoot", "findBookById", "findCharacterById", "findHouseById", "search-books");
+
+    @Test
+    public void testEveryOperationBelongsToOneShard() {
+        Shard[] shards = { new Shard(0, 3, OPERATIONS), new Shard(1, 3, OPERATIONS), new Shard(2, 3, OPERATIONS) };
+
+        for (String operationId: OPERATIONS) {
+            long count = Arrays.stream(shards).filter(shard -> shard.contains(operationId)).count();
+            assertEquals("Operation " + operationId + " should belong to exactly one shard", 1, count);
+        }
+
+        for (Shard shard: shards) {
+            long count = OPERATIONS.stream().filter(shard::contains).count();
+            assertTrue("Operations should be balanced among shards", count == 1 || count == 2);
+        }
+    }
+
+    @Test
+    public void testPartitionDoesNotDependOnOperationOrder() {
+        Shard shard = new Shard(1, 2, OPERATIONS);
+        Shard reversedShard = new Shard(1, 2, Arrays.asList("search-books", "findHouseById", "findCharacterById", "findBookById", "getRoot"));
+
+        for (String operationId: OPERATIONS)
+            assertEquals("The partition should be the same in all processes", shard.contains(operationId), reversedShard.contains(operationId));
+        assertNotEquals("Unknown operations should be assigned to exactly one shard", shard.contains("unknown"), new Shard(0, 2, OPERATIONS).contains("unknown"));
+    }
+
+    @Test
+    public void testContainsTestCase() {
+        Shard shard = new Shard(0, 2, OPERATIONS);
+
+        assertEquals("Test case IDs should be matched by the alphanumeric characters of the operation ID",
+                shard.contains("search-books"), shard.containsTestCase("test_1a2b3c_searchbooks"));
+        assertFalse("Test case IDs with a wrong format should not be matched", shard.containsTestCase("test1"));
+
+        TestCase tc1 = new TestCase("test_1_findBookById", false, "findBookById", "/api/books/{id}", HttpMethod.GET);
+        TestCase tc2 = new TestCase("test_2_getRoot", false, "getRoot", "/api", HttpMethod.GET);
+        assertEquals("Only the test cases of the shard should be kept", shard.contains("findBookById") ? 1 : 0,
+                shard.filter(Arrays.asList(tc1)).size());
+        assertEquals("Only the test cases of the shard should be kept", (shard.contains("findBookById") ? 1 : 0) + (shard.contains("getRoot") ? 1 : 0),
+                shard.filter(Arrays.asList(tc1, tc2)).size());
+    }
+
+    @Test
+    public void testShardFilter() {
+        List<String> operations = Arrays.asList("getRoot", "findBookById");
+        Result result0 = new JUnitCore().run(Request.aClass(GeneratedTests.class).filterWith(new ShardFilter(new Shard(0, 2, operations))));
+        Result result1 = new JUnitCore().run(Request.aClass(GeneratedTests.class).filterWith(new ShardFilter(new Shard(1, 2, operations))));
+
+        assertEquals("All test methods should be run by one of the shards", 3, result0.getRunCount() + result1.getRunCount());
+        assertTrue("Both shards should run some test methods", result0.getRunCount() > 0 && result1.getRunCount() > 0);
+    }
+
+    @Test
+    public void testTestId() {
+        Shard.setCurrent(null);
+        assertEquals("The test ID should not change if the suite is not sharded", "experiment", Shard.testId("experiment"));
+
+        Shard.setCurrent(new Shard(1, 2, OPERATIONS));
+        try {
+            assertEquals("The test ID should end with the suffix of the shard", "experiment_shard1", Shard.testId("experiment"));
+            assertEquals("The suffix should not be added twice", "experiment_shard1", Shard.testId("experiment_shard1"));
+        } finally {
+            Shard.setCurrent(null);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongIndex() {
+        new Shard(2, 2, OPERATIONS);
+    }
+
+    @Test
+    public void testParse() {
+        assertArrayEquals("The shard should be parsed", new int[] { 1, 4 }, Shard.parse("1/4"));
+    }
+
+    public static class GeneratedTests {
+        @Test public void test_1a_getRoot() { }
+        @Test public void test_2b_findBookById() { }
+        @Test public void test_3c_findBookById() { }
+    }
+}
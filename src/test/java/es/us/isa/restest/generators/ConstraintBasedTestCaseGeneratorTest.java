@@ -13,6 +13,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -22,6 +23,47 @@ public class ConstraintBasedTestCaseGeneratorTest {
 	
 	// BIKEWISE
 
+    @Test
+    public void bikewiseParallelTestCaseGeneration() throws RESTestException {
+        // Load specification
+        String OAISpecPath = "src/test/resources/Bikewise/swagger.yaml";
+        String testConf = "src/test/resources/Bikewise/fullConf.yaml";
+        OpenAPISpecification spec = new OpenAPISpecification(OAISpecPath);
+
+        // Load configuration
+        TestConfigurationObject conf = TestConfigurationIO.loadConfiguration(testConf, spec);
+
+        // Create generator
+        AbstractTestCaseGenerator generator = new ConstraintBasedTestCaseGenerator(spec, conf, 5);
+        generator.setParallelism(3);
+
+        Collection<TestCase> testCases = generator.generate();
+
+        assertEquals("Incorrect number of test cases", 20, testCases.size());
+        assertEquals("Incorrect number of valid test cases (according to the generator counter)", 20, generator.getnTotalNominal());
+        assertEquals("Incorrect number of valid test cases (according to the OAS validator)", 20, GeneratorTestHelper.numberOfValidTestCases(testCases, spec));
+    }
+
+    @Test
+    public void bikewiseLazyTestCaseGeneration() throws RESTestException {
+        // Load specification
+        String OAISpecPath = "src/test/resources/Bikewise/swagger.yaml";
+        String testConf = "src/test/resources/Bikewise/fullConf.yaml";
+        OpenAPISpecification spec = new OpenAPISpecification(OAISpecPath);
+
+        // Load configuration
+        TestConfigurationObject conf = TestConfigurationIO.loadConfiguration(testConf, spec);
+
+        // Create generator
+        AbstractTestCaseGenerator generator = new ConstraintBasedTestCaseGenerator(spec, conf, 5);
+
+        List<TestCase> testCases = generator.stream().collect(Collectors.toList());
+
+        assertEquals("Incorrect number of test cases", 20, testCases.size());
+        assertEquals("Incorrect number of test cases (according to the generator counter)", 20, generator.getnTotalTests());
+        assertEquals("Incorrect number of valid test cases (according to the OAS validator)", 20, GeneratorTestHelper.numberOfValidTestCases(testCases, spec));
+    }
+
     @Test
     public void bikewiseFullTestCaseGeneratorNoConstraints() throws RESTestException {
         // Load specification
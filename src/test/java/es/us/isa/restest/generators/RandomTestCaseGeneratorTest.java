@@ -6,21 +6,167 @@ import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.testcases.TestCase;
 import es.us.isa.restest.writers.restassured.RESTAssuredWriter;
+import es.us.isa.restest.util.AuthManager;
 import es.us.isa.restest.util.RESTestException;
+import es.us.isa.restest.util.SeedTree;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 public class RandomTestCaseGeneratorTest {
 
 	// PET STORE
 
+	@Test
+	public void petstoreParallelTestCaseGeneration() throws RESTestException {
+		// Load specification
+		String OAISpecPath = "src/test/resources/Petstore/swagger.yaml";
+		String testConf = "src/test/resources/Petstore/fullConf.yaml";
+		OpenAPISpecification spec = new OpenAPISpecification(OAISpecPath);
+
+		// Load configuration
+		TestConfigurationObject conf = TestConfigurationIO
+				.loadConfiguration(testConf, spec);
+
+		int numTestCases = 3;
+
+		// Test cases generated sequentially, to compare with
+		AbstractTestCaseGenerator sequentialGenerator = new RandomTestCaseGenerator(spec, conf, numTestCases);
+		sequentialGenerator.setFaultyRatio(0.5f);
+		Collection<TestCase> sequentialTestCases = sequentialGenerator.generate();
+
+		// Test cases generated in parallel
+		AbstractTestCaseGenerator generator = new RandomTestCaseGenerator(spec, conf, numTestCases);
+		generator.setFaultyRatio(0.5f);
+		generator.setParallelism(4);
+		Collection<TestCase> testCases = generator.generate();
+
+		assertEquals("Incorrect number of test cases", sequentialTestCases.size(), testCases.size());
+		assertEquals("Test cases should be generated in the same order as in the sequential generation",
+				sequentialTestCases.stream().map(TestCase::getOperationId).collect(Collectors.toList()),
+				testCases.stream().map(TestCase::getOperationId).collect(Collectors.toList()));
+		assertEquals("Incorrect number of test cases (according to the generator counter)", testCases.size(), generator.getnTotalTests());
+		assertEquals("Incorrect number of faulty test cases (according to the generator counter)", testCases.stream().filter(TestCase::getFaulty).count(), generator.getnTotalFaulty());
+	}
+
+	@Test
+	public void restcountriesReproducibleParallelTestCaseGeneration() throws RESTestException {
+		// Load specification
+		String OAISpecPath = "src/test/resources/Restcountries/openapi.yaml";
+		String testConf = "src/test/resources/Restcountries/fullConf.yaml";
+		OpenAPISpecification spec = new OpenAPISpecification(OAISpecPath);
+
+		// Load configuration
+		TestConfigurationObject conf = TestConfigurationIO
+				.loadConfiguration(testConf, spec);
+
+		int numTestCases = 5;
+
+		// Two runs with the same seed
+		List<List<String>> runs = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			SeedTree.setSeed(42);
+			AbstractTestCaseGenerator generator = new RandomTestCaseGenerator(spec, conf, numTestCases);
+			generator.setFaultyRatio(0.5f);
+			generator.setParallelism(4);
+			runs.add(generator.generate().stream()
+					.map(tc -> describeWithoutAuthKeys(tc, generator.getAuthManager()))
+					.collect(Collectors.toList()));
+		}
+
+		assertEquals("Test cases generated in parallel with the same seed should be the same", runs.get(0), runs.get(1));
+	}
+
+	@Test
+	public void restcountriesReproducibleWithDifferentParallelismTestCaseGeneration() throws RESTestException {
+		// Load specification
+		String OAISpecPath = "src/test/resources/Restcountries/openapi.yaml";
+		String testConf = "src/test/resources/Restcountries/fullConf.yaml";
+		OpenAPISpecification spec = new OpenAPISpecification(OAISpecPath);
+
+		// Load configuration
+		TestConfigurationObject conf = TestConfigurationIO
+				.loadConfiguration(testConf, spec);
+
+		int numTestCases = 5;
+
+		// Same seed, different parallelism
+		List<List<String>> runs = new ArrayList<>();
+		for (int parallelism: new int[] {2, 4}) {
+			SeedTree.setSeed(42);
+			AbstractTestCaseGenerator generator = new RandomTestCaseGenerator(spec, conf, numTestCases);
+			generator.setFaultyRatio(0.5f);
+			generator.setParallelism(parallelism);
+			runs.add(generator.generate().stream()
+					.map(tc -> describeWithoutAuthKeys(tc, generator.getAuthManager()))
+					.collect(Collectors.toList()));
+		}
+
+		assertEquals("Test cases generated in parallel with the same seed should be the same whatever the parallelism", runs.get(0), runs.get(1));
+	}
+
+	// Auth keys are handed out to the test cases of operations generated in parallel in the order of the threads
+	private static String describeWithoutAuthKeys(TestCase tc, AuthManager authManager) {
+		Map<String, String> queryParameters = new TreeMap<>(tc.getQueryParameters());
+		queryParameters.keySet().removeAll(authManager.getAuthPropertyNames());
+		return tc.getId() + " " + tc.getFaulty() + " " + queryParameters + " " + tc.getPathParameters() + " " + tc.getHeaderParameters() + " " + tc.getBodyParameter();
+	}
+
+	@Test
+	public void petstoreLazyTestCaseGeneration() throws RESTestException {
+		// Load specification
+		String OAISpecPath = "src/test/resources/Petstore/swagger.yaml";
+		String testConf = "src/test/resources/Petstore/fullConf.yaml";
+		OpenAPISpecification spec = new OpenAPISpecification(OAISpecPath);
+
+		// Load configuration
+		TestConfigurationObject conf = TestConfigurationIO
+				.loadConfiguration(testConf, spec);
+
+		int numTestCases = 3;
+
+		// Test cases generated eagerly, to compare with
+		Collection<TestCase> testCases = new RandomTestCaseGenerator(spec, conf, numTestCases).generate();
+
+		// Test cases generated lazily
+		AbstractTestCaseGenerator generator = new RandomTestCaseGenerator(spec, conf, numTestCases);
+		Iterator<TestCase> iterator = generator.generateIterator();
+		assertEquals("No test case should be generated until requested", 0, generator.getnTotalTests());
+		assertTrue("There should be test cases to generate", iterator.hasNext());
+		TestCase first = iterator.next();
+		assertEquals("Only the requested test case should be generated", 1, generator.getnTotalTests());
+
+		List<String> operations = new ArrayList<>();
+		operations.add(first.getOperationId());
+		iterator.forEachRemaining(tc -> operations.add(tc.getOperationId()));
+
+		assertEquals("Incorrect number of test cases", testCases.size(), operations.size());
+		assertEquals("Test cases should be generated in the same order", testCases.stream().map(TestCase::getOperationId).collect(Collectors.toList()), operations);
+		assertFalse("The iterator should be exhausted", iterator.hasNext());
+
+		// Streams
+		assertEquals("Incorrect number of test cases", testCases.size(), new RandomTestCaseGenerator(spec, conf, numTestCases).stream().count());
+
+		// Write RESTAssured test cases as they are generated
+		String basePath = spec.getSpecification().getServers().get(0).getUrl();
+		RESTAssuredWriter writer = new RESTAssuredWriter(OAISpecPath, testConf, "src/generation/java/restassured", "PetstoreLazyTest",
+				"restassured", basePath.toLowerCase(), false);
+		writer.write(new RandomTestCaseGenerator(spec, conf, numTestCases).generateIterator());
+		assertTrue("The test class should be written", new File("src/generation/java/restassured/PetstoreLazyTest.java").exists());
+	}
+
 	@Test
 	public void petstoreTestCaseGeneratorWithFilters() throws RESTestException {
 		// Load specification
@@ -0,0 +1,183 @@
+package es.us.isa.restest.runners;
+
+import com.sun.net.httpserver.HttpServer;
+import es.us.isa.restest.reporting.StatsReportManager;
+import es.us.isa.restest.util.PropertyManager;
+import es.us.isa.restest.util.RESTestException;
+import es.us.isa.restest.util.TestResultSink;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static es.us.isa.restest.util.FileManager.checkIfExists;
+import static es.us.isa.restest.util.FileManager.deleteDir;
+import static org.junit.Assert.*;
+
+public class RESTestIterativeRunnerTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void resetSingleton() throws SecurityException, NoSuchFieldException, IllegalArgumentException, IllegalAccessException {
+        Field properties = PropertyManager.class.getDeclaredField("globalProperties");
+        properties.setAccessible(true);
+        properties.set(null, null);
+
+        Field experimentProperties = PropertyManager.class.getDeclaredField("userProperties");
+        experimentProperties.setAccessible(true);
+        experimentProperties.set(null, null);
+    }
+
+    @After
+    public void stopServer() {
+        if (server != null)
+            server.stop(0);
+    }
+
+    @Test
+    public void testPipelinedRunner() throws RESTestException {
+        String testDataDir = "target/test-data/anApiOfIceAndFirePipelined";
+        deleteDir(testDataDir);
+        deleteDir("target/coverage-data/anApiOfIceAndFirePipelined");
+        deleteDir("src/generation/java/anApiOfIceAndFirePipelined");
+
+        RESTestIterativeRunner runner = new RESTestIterativeRunner("src/test/resources/AnApiOfIceAndFire/iceandfire_pipelined.properties");
+        runner.run();
+
+        assertTrue("At least 12 test cases should be generated", runner.getNumberOfTestCases() >= 12);
+        assertTrue("The time report should be generated", checkIfExists(testDataDir + "/time.csv"));
+
+        File[] testCaseFiles = new File(testDataDir).listFiles((dir, name) -> name.startsWith(PropertyManager.readProperty("data.tests.testcases.file")));
+        assertNotNull("The test cases should be exported to CSV", testCaseFiles);
+        assertTrue("All batches should be reported", testCaseFiles.length > 1);
+
+        File[] testClasses = new File("src/generation/java/anApiOfIceAndFirePipelined").listFiles((dir, name) -> name.endsWith(".java"));
+        assertNotNull("The test classes should be written", testClasses);
+        assertEquals("A test class should be written for each batch", testCaseFiles.length, testClasses.length);
+    }
+
+    @Test(timeout = 120000)
+    public void testPipelinedRunnerWithExecution() throws RESTestException, IOException {
+        String experimentName = "anApiOfIceAndFirePipelinedExecution";
+        String testDataDir = "target/test-data/" + experimentName;
+        deleteDir(testDataDir);
+        deleteDir("target/coverage-data/" + experimentName);
+
+        RESTestIterativeRunner runner = new RESTestIterativeRunner(createLocalProperties(experimentName, 24));
+        runner.run();
+
+        assertTrue("At least 24 test cases should be generated", runner.getNumberOfTestCases() >= 24);
+        assertTrue("The test cases should be executed", requests.get() >= 24);
+
+        File[] testCaseFiles = new File(testDataDir).listFiles((dir, name) -> name.startsWith(PropertyManager.readProperty("data.tests.testcases.file")) && name.endsWith(".csv"));
+        File[] testResultFiles = new File(testDataDir).listFiles((dir, name) -> name.startsWith(PropertyManager.readProperty("data.tests.testresults.file")) && name.endsWith(".csv"));
+        assertNotNull("The test cases should be exported to CSV", testCaseFiles);
+        assertNotNull("The test results should be exported to CSV", testResultFiles);
+        assertTrue("All batches should be reported", testCaseFiles.length > 1);
+        assertEquals("The test results of every batch should be exported", testCaseFiles.length, testResultFiles.length);
+        assertTrue("The coverage of every batch should be reported", checkIfExists("target/coverage-data/" + experimentName));
+    }
+
+    @Test(timeout = 120000)
+    public void testStreamedInProcessRunner() throws RESTestException, IOException {
+        String experimentName = "anApiOfIceAndFireStreamed";
+        String testDataDir = "target/test-data/" + experimentName;
+        deleteDir(testDataDir);
+        deleteDir("target/coverage-data/" + experimentName);
+
+        // Without pipelining nor coverage, test cases are executed and exported to CSV as they are generated
+        Properties streamed = new Properties();
+        streamed.setProperty("pipeline.enabled", "false");
+        streamed.setProperty("coverage.input", "false");
+        streamed.setProperty("coverage.output", "false");
+        RESTestIterativeRunner runner = new RESTestIterativeRunner(createLocalProperties(experimentName, 24, streamed));
+        runner.run();
+        TestResultSink.flush();
+
+        File[] testCaseFiles = new File(testDataDir).listFiles((dir, name) -> name.startsWith(PropertyManager.readProperty("data.tests.testcases.file")) && name.endsWith(".csv"));
+        assertNotNull("The test cases should be exported to CSV", testCaseFiles);
+        int exportedTestCases = 0;
+        for (File testCaseFile: testCaseFiles)
+            exportedTestCases += Files.readAllLines(testCaseFile.toPath()).size() - 1;
+
+        assertTrue("At least 24 test cases should be generated", runner.getNumberOfTestCases() >= 24);
+        assertEquals("Every test case generated should be executed", runner.getNumberOfTestCases(), requests.get());
+        assertEquals("Every test case generated should be exported to CSV", runner.getNumberOfTestCases(), exportedTestCases);
+    }
+
+    @Test(timeout = 120000, expected = RESTestException.class)
+    public void testPipelinedRunnerReportingFails() throws RESTestException, IOException {
+        String experimentName = "anApiOfIceAndFirePipelinedFailure";
+        deleteDir("target/test-data/" + experimentName);
+        deleteDir("target/coverage-data/" + experimentName);
+
+        RESTestIterativeRunner runner = new RESTestIterativeRunner(createLocalProperties(experimentName, 100));
+        runner.workflow.statsReportManager = new StatsReportManager("target/test-data/" + experimentName, "target/coverage-data/" + experimentName) {
+            @Override
+            public void generateReport(String testId, boolean executeTestCases) {
+                throw new IllegalStateException("Reporting failure");
+            }
+        };
+        runner.run(); // Must not block when the queue of executed batches is full
+    }
+
+    // Properties of an experiment that executes the test cases in-process against a local server answering 200 to every request
+    private String createLocalProperties(String experimentName, int totalTestCases) throws IOException {
+        return createLocalProperties(experimentName, totalTestCases, new Properties());
+    }
+
+    private String createLocalProperties(String experimentName, int totalTestCases, Properties extraProperties) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        String dir = "target/test-data/" + experimentName + "-conf";
+        Files.createDirectories(Paths.get(dir));
+        String spec = new String(Files.readAllBytes(Paths.get("src/test/resources/AnApiOfIceAndFire/swagger.yaml")), StandardCharsets.UTF_8)
+                .replace("host: anapioficeandfire.com", "host: localhost:" + server.getAddress().getPort());
+        Files.write(Paths.get(dir, "swagger.yaml"), spec.getBytes(StandardCharsets.UTF_8));
+
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream("src/test/resources/AnApiOfIceAndFire/iceandfire_pipelined.properties")) {
+            properties.load(in);
+        }
+        properties.setProperty("oas.path", dir + "/swagger.yaml");
+        properties.setProperty("experiment.name", experimentName);
+        properties.setProperty("test.target.dir", "src/generation/java/" + experimentName);
+        properties.setProperty("test.target.package", experimentName);
+        properties.setProperty("experiment.execute", "true");
+        properties.setProperty("execution.mode", "inprocess");
+        properties.setProperty("numtotaltestcases", String.valueOf(totalTestCases));
+        properties.setProperty("pipeline.queuesize", "1");
+        properties.putAll(extraProperties);
+
+        String propertiesPath = dir + "/" + experimentName + ".properties";
+        try (OutputStream out = new FileOutputStream(propertiesPath)) {
+            properties.store(out, null);
+        }
+        return propertiesPath;
+    }
+}
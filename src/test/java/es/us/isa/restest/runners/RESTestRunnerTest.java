@@ -3,6 +3,7 @@ package es.us.isa.restest.runners;
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.coverage.CoverageGatherer;
 import es.us.isa.restest.coverage.CoverageMeter;
+import es.us.isa.restest.execution.InProcessTestExecutor;
 import es.us.isa.restest.generators.RandomTestCaseGenerator;
 import es.us.isa.restest.reporting.AllureReportManager;
 import es.us.isa.restest.reporting.StatsReportManager;
@@ -19,6 +20,7 @@ import java.util.ArrayList;
 import static es.us.isa.restest.configuration.TestConfigurationIO.loadConfiguration;
 import static es.us.isa.restest.util.FileManager.*;
 import static es.us.isa.restest.util.FileManager.checkIfExists;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class RESTestRunnerTest {
@@ -77,4 +79,47 @@ public class RESTestRunnerTest {
         assertTrue(checkIfExists("target/coverage-data/RunnerTest"));
         assertTrue(checkIfExists("target/test-data/RunnerTest"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRunnerInProcess() throws RESTestException {
+        deleteDir("src/generation/java/runnerInProcessTest");
+        createDir("src/generation/java/runnerInProcessTest");
+
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/YouTube/swagger_betty.yaml");
+        String confPath = "src/test/resources/YouTube/testConf_betty.yaml";
+        TestConfigurationObject conf = loadConfiguration(confPath, spec);
+        String testId = IDGenerator.generateId();
+
+        String basePath = spec.getSpecification().getServers().get(0).getUrl();
+        RESTAssuredWriter writer = new RESTAssuredWriter("src/test/resources/YouTube/swagger_betty.yaml", confPath, "src/generation/java/runnerInProcessTest", "RunnerInProcessTest", "runnerInProcessTest", basePath, false);
+
+        InProcessTestExecutor executor = new InProcessTestExecutor("src/test/resources/YouTube/swagger_betty.yaml", basePath, false);
+        executor.setEnableStats(true);
+        executor.setAPIName("RunnerInProcessTest");
+
+        RandomTestCaseGenerator generator = new RandomTestCaseGenerator(spec, conf, 2);
+
+        String testDataDir = PropertyManager.readProperty("data.tests.dir") + "/RunnerInProcessTest";
+        String coverageDataDir = PropertyManager.readProperty("data.coverage.dir") + "/RunnerInProcessTest";
+
+        deleteDir(testDataDir);
+        deleteDir(coverageDataDir);
+
+        createDir(testDataDir);
+        createDir(coverageDataDir);
+
+        StatsReportManager statsReportManager = new StatsReportManager(testDataDir, coverageDataDir);
+        statsReportManager.setCoverageMeter(new CoverageMeter(new CoverageGatherer(spec)));
+
+        RESTestWorkflow runner = new RESTestWorkflow("RunnerInProcessTest", "src/generation/java/runnerInProcessTest", "runnerInProcessTest", spec, confPath, generator, writer, null, statsReportManager);
+        runner.setExecuteTestCases(true);
+        runner.setInProcessExecutor(executor);
+        runner.setTestId(testId);
+
+        runner.run();
+
+        assertFalse("No test class should be written when executing in-process", checkIfExists("src/generation/java/runnerInProcessTest/RunnerInProcessTest.java"));
+        assertTrue("The test results should be exported to CSV", checkIfExists(testDataDir + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_" + testId + ".csv"));
+        assertTrue(checkIfExists("target/coverage-data/RunnerInProcessTest"));
+    }
+}
@@ -0,0 +1,110 @@
+package es.us.isa.restest.runners;
+
+import es.us.isa.restest.execution.Shard;
+import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.util.CSVManager;
+import es.us.isa.restest.util.PropertyManager;
+import es.us.isa.restest.util.RESTestException;
+import es.us.isa.restest.util.TestManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static es.us.isa.restest.util.FileManager.checkIfExists;
+import static es.us.isa.restest.util.FileManager.deleteDir;
+import static org.junit.Assert.*;
+
+public class RESTestShardMergerTest {
+
+    private static final String PROPERTIES = "src/test/resources/AnApiOfIceAndFire/iceandfire_sharded.properties";
+
+    @Before
+    public void resetSingleton() throws SecurityException, NoSuchFieldException, IllegalArgumentException, IllegalAccessException {
+        Field properties = PropertyManager.class.getDeclaredField("globalProperties");
+        properties.setAccessible(true);
+        properties.set(null, null);
+
+        Field experimentProperties = PropertyManager.class.getDeclaredField("userProperties");
+        experimentProperties.setAccessible(true);
+        experimentProperties.set(null, null);
+    }
+
+    @After
+    public void clearShard() {
+        System.clearProperty("shard.index");
+        System.clearProperty("shard.count");
+        Shard.setCurrent(null);
+    }
+
+    @Test
+    public void testShardedRunAndMerge() throws RESTestException {
+        String testDataDir = "target/test-data/anApiOfIceAndFireSharded";
+        deleteDir(testDataDir);
+        deleteDir("target/coverage-data/anApiOfIceAndFireSharded");
+        deleteDir("src/generation/java/anApiOfIceAndFireSharded");
+
+        int generated = 0;
+        for (int i = 0; i < 2; i++) {
+            System.setProperty("shard.index", String.valueOf(i));
+            RESTestRunner runner = new RESTestRunner(PROPERTIES);
+            runner.run();
+            generated += runner.getNumberOfTestCases();
+
+            assertTrue("Every shard should write its own test cases", checkIfExists(testDataDir + "/" + PropertyManager.readProperty("data.tests.testcases.file") + "_anApiOfIceAndFireSharded_shard" + i + ".csv"));
+            assertTrue("Every shard should write its own test class", checkIfExists("src/generation/java/anApiOfIceAndFireSharded/AnApiOfIceAndFireTest_shard" + i + ".java"));
+        }
+        assertEquals("One test case should be generated for each operation", 4, generated);
+
+        Collection<TestCase> testCases = new RESTestShardMerger(PROPERTIES).merge();
+
+        String mergedPath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testcases.file") + "_anApiOfIceAndFireSharded.csv";
+        assertTrue("The test cases of all shards should be merged", checkIfExists(mergedPath));
+        assertEquals("The test cases of all shards should be merged", generated, testCases.size());
+
+        List<TestCase> mergedTestCases = TestManager.getTestCases(mergedPath);
+        Set<String> operations = new HashSet<>();
+        mergedTestCases.forEach(tc -> operations.add(tc.getOperationId()));
+        assertEquals("The merged file should contain all test cases", generated, mergedTestCases.size());
+        assertEquals("The merged file should contain all operations", 4, operations.size());
+        assertTrue("The coverage report of the whole suite should be generated", checkIfExists("target/coverage-data/anApiOfIceAndFireSharded/" + PropertyManager.readProperty("data.coverage.computation.priori.file") + "_anApiOfIceAndFireSharded.csv"));
+    }
+
+    @Test
+    public void testWholeSuiteRunAndMerge() throws RESTestException, IOException {
+        String testDataDir = "target/test-data/anApiOfIceAndFireSharded";
+        deleteDir(testDataDir);
+        deleteDir("target/coverage-data/anApiOfIceAndFireSharded");
+        deleteDir("src/generation/java/anApiOfIceAndFireSharded");
+
+        // Test class and test cases file of the whole suite, whose test cases are then executed by each shard (see ShardFilter)
+        System.setProperty("shard.count", "1");
+        RESTestRunner runner = new RESTestRunner(PROPERTIES);
+        runner.run();
+        int generated = runner.getNumberOfTestCases();
+        String wholeSuitePath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testcases.file") + "_anApiOfIceAndFireSharded.csv";
+        assertTrue("The test cases of the whole suite should be written to a single file", checkIfExists(wholeSuitePath));
+        System.clearProperty("shard.count");
+
+        CSVManager.flush(wholeSuitePath);
+
+        // Shard file of a previous run with a different test ID
+        List<String> lines = Files.readAllLines(Paths.get(wholeSuitePath), StandardCharsets.UTF_8);
+        Files.write(Paths.get(testDataDir + "/" + PropertyManager.readProperty("data.tests.testcases.file") + "_previousRun_shard0.csv"), lines.subList(0, 2), StandardCharsets.UTF_8);
+
+        Collection<TestCase> testCases = new RESTestShardMerger(PROPERTIES).merge();
+
+        assertEquals("The test cases of the whole suite should be used if the shards did not write their own", generated, testCases.size());
+        assertEquals("The test cases file of the whole suite should not be modified", lines, Files.readAllLines(Paths.get(wholeSuitePath), StandardCharsets.UTF_8));
+        assertTrue("The coverage report of the whole suite should be generated", checkIfExists("target/coverage-data/anApiOfIceAndFireSharded/" + PropertyManager.readProperty("data.coverage.computation.priori.file") + "_anApiOfIceAndFireSharded.csv"));
+    }
+}
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.Assert.*;
 
@@ -14,6 +15,7 @@ import static org.junit.Assert.*;
 public class AuthManagerTest {
 
     final String AUTH_KEYS = "Sample/apikeys.json";
+    final String AUTH_KEYS_DUPLICATED = "Sample/apikeys_duplicated.json";
     final String OAUTH_DATA = "Sample/oauth.json";
     final String OAUTH_DATA_WRONG = "Sample/oauth_wrong.json";
     final String OAUTH_DATA_SHORT_EXPIRATION = "Sample/oauth_short_expiration.json";
@@ -35,6 +37,50 @@ public class AuthManagerTest {
         assertEquals("hello4", "jkl", authProperties.get("apikey_2"));
     }
 
+    @Test
+    public void testGetAuthKeysByRemainingQuota() {
+        AuthManager authManager = new AuthManager(AUTH_KEYS);
+        authManager.setQuota(100);
+        authManager.updateRemainingQuota("ghi", 10);
+
+        Map<String, String> authProperties = authManager.getAuthProperties();
+        assertEquals("The group with the most remaining quota should be selected", "def", authProperties.get("apikey_1"));
+        assertEquals("The group with the most remaining quota should be selected", "jkl", authProperties.get("apikey_2"));
+        assertEquals("The remaining quota should be decreased", 99, authManager.getRemainingQuota("def"));
+        assertEquals("The remaining quota should not be decreased", 10, authManager.getRemainingQuota("abc"));
+        assertEquals("Unknown keys have no quota", AuthManager.UNKNOWN_QUOTA, authManager.getRemainingQuota("xyz"));
+    }
+
+    @Test
+    public void testGetAuthKeysConcurrently() throws InterruptedException {
+        AuthManager authManager = new AuthManager(AUTH_KEYS);
+        authManager.setQuota(1000);
+        Map<String, Integer> timesUsed = new ConcurrentHashMap<>();
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    Map<String, String> authProperties = authManager.getAuthProperties();
+                    timesUsed.merge(authProperties.get("apikey_1") + authProperties.get("apikey_2"), 1, Integer::sum);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread: threads)
+            thread.join();
+
+        assertEquals("Auth keys of different groups handed out together", 2, timesUsed.size());
+        assertEquals("Incorrect number of auth keys handed out", 400, timesUsed.get("abcghi") + timesUsed.get("defjkl"));
+        assertEquals("Remaining quota does not match the keys handed out", 2000 - 400, authManager.getRemainingQuota("abc") + authManager.getRemainingQuota("def"));
+        assertEquals("Groups should be handed out evenly", 200, (int) timesUsed.get("abcghi"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicatedAuthKeys() {
+        new AuthManager(AUTH_KEYS_DUPLICATED);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testOauthBadJson() {
         AuthManager authManager = new AuthManager(AUTH_KEYS, true);
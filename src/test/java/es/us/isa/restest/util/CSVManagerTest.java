@@ -5,6 +5,9 @@ import org.junit.Test;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static es.us.isa.restest.util.CSVManager.*;
 import static es.us.isa.restest.util.FileManager.*;
@@ -54,6 +57,28 @@ public class CSVManagerTest {
         assertTrue("The CSV should contain the row just added", fileContent.contains(row));
     }
 
+    @Test
+    public void testConcurrentWriteCSVRowWithHeader() throws InterruptedException {
+        String path = "src/test/resources/csvData/csvManagerConcurrentSample.csv";
+        deleteFile(path);
+        String header = "testResultId,passed";
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            String row = "test_" + i + ",true";
+            executor.submit(() -> writeCSVRow(path, header, row));
+        }
+        executor.shutdown();
+        assertTrue("The rows should be written in less than a minute", executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        List<List<String>> csv = readCSV(path);
+        deleteFile(path);
+        assertEquals("The CSV should contain the header and all rows", 201, csv.size());
+        assertEquals("The header should be in the first row", "testResultId", csv.get(0).get(0));
+        assertEquals("The header should appear only once", 1, csv.stream().filter(r -> r.get(0).equals("testResultId")).count());
+        assertTrue("All rows should be complete", csv.stream().allMatch(r -> r.size() == 2));
+    }
+
     @Test
     public void testCollectionToCSV() {
         String path = "src/test/resources/csvData/csvCollectionSample.csv";
@@ -69,4 +94,23 @@ public class CSVManagerTest {
         assertTrue("The CSV should contain the introduced values", readValues.containsAll(collection));
 
     }
+
+    @Test
+    public void testWriteCSVFieldsBuffered() {
+        String path = "src/test/resources/csvData/csvManagerBufferedSample.csv";
+        deleteFile(path);
+        String header = "testResultId,responseBody,passed";
+
+        for (int i = 0; i < 5000; i++) // More rows than fit in the buffer
+            writeCSVFields(path, header, "test_" + i, "\"{\"\"name\"\": \"\"Jos\u00e9, \u00d1and\u00fa\"\"}\"", true); // Quotes escaped as in TestResult.exportToCSV
+
+        List<List<String>> csv = readCSV(path);
+        deleteFile(path);
+        assertFalse("The file should be deleted", checkIfExists(path));
+        assertEquals("The CSV should contain the header and all rows", 5001, csv.size());
+        assertEquals("The header should be in the first row", "testResultId", csv.get(0).get(0));
+        assertEquals("The values should be separated by commas", "test_4999", csv.get(5000).get(0));
+        assertEquals("The escaped value should be encoded in UTF-8", "{\"name\": \"Jos\u00e9, \u00d1and\u00fa\"}", csv.get(5000).get(1));
+        assertEquals("Values of other types should be written as strings", "true", csv.get(5000).get(2));
+    }
 }
@@ -0,0 +1,65 @@
+package es.us.isa.restest.util;
+
+import org.junit.Test;
+
+import java.io.FileWriter;
+import java.io.IOException;
+
+import static es.us.isa.restest.util.FileManager.*;
+import static org.junit.Assert.*;
+
+public class ClassLoaderTest {
+
+    private static final String DIR = "src/generation/java/classLoaderTest";
+
+    private String writeClass(String className) throws IOException {
+        createDir(DIR);
+        String path = DIR + "/" + className + ".java";
+        try (FileWriter writer = new FileWriter(path)) {
+            writer.write("package classLoaderTest;\n\npublic class " + className + " {\n\tpublic static class Inner {}\n}\n");
+        }
+        return path;
+    }
+
+    @Test
+    public void testLoadClassInMemory() throws IOException {
+        deleteDir(DIR);
+        String path = writeClass("LoadedClass");
+
+        Class<?> loadedClass = ClassLoader.loadClass(path, "classLoaderTest.LoadedClass");
+
+        assertNotNull("The class should be loaded", loadedClass);
+        assertEquals("Wrong class name", "classLoaderTest.LoadedClass", loadedClass.getName());
+        assertFalse("No .class file should be written to disk", checkIfExists(DIR + "/LoadedClass.class"));
+        assertEquals("The inner class should be loaded by the same class loader", loadedClass.getClassLoader(), loadedClass.getClasses()[0].getClassLoader());
+
+        ClassLoader.CompilationMetrics metrics = ClassLoader.getLastCompilationMetrics();
+        assertEquals("Wrong class name in metrics", "classLoaderTest.LoadedClass", metrics.getClassName());
+        assertEquals("The class and its inner class should be compiled", 2, metrics.getCompiledClasses());
+        assertTrue("The number of loaded classes should be positive", metrics.getLoadedClasses() > 0);
+        deleteDir(DIR);
+    }
+
+    @Test
+    public void testOneClassLoaderPerClass() throws IOException {
+        deleteDir(DIR);
+        Class<?> firstClass = ClassLoader.loadClass(writeClass("FirstClass"), "classLoaderTest.FirstClass");
+        Class<?> secondClass = ClassLoader.loadClass(writeClass("SecondClass"), "classLoaderTest.SecondClass");
+
+        assertNotSame("Each class should be loaded by its own class loader", firstClass.getClassLoader(), secondClass.getClassLoader());
+        deleteDir(DIR);
+    }
+
+    @Test
+    public void testCompilationError() throws IOException {
+        deleteDir(DIR);
+        createDir(DIR);
+        String path = DIR + "/WrongClass.java";
+        try (FileWriter writer = new FileWriter(path)) {
+            writer.write("package classLoaderTest;\n\npublic class WrongClass {\n\tint x = \"string\";\n}\n");
+        }
+
+        assertNull("A class that does not compile should not be loaded", ClassLoader.loadClass(path, "classLoaderTest.WrongClass"));
+        deleteDir(DIR);
+    }
+}
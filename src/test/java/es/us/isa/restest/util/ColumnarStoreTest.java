@@ -0,0 +1,95 @@
+package es.us.isa.restest.util;
+
+import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.testcases.TestResult;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static es.us.isa.restest.util.FileManager.*;
+import static org.junit.Assert.*;
+
+public class ColumnarStoreTest {
+
+    private static final String DIR = "src/test/resources/csvData/";
+
+    @Test
+    public void testWriteAndReadTestCases() throws IOException {
+        String path = DIR + "columnarStoreTestCases" + ColumnarStore.EXTENSION;
+        createDir(DIR);
+
+        List<TestCase> testCases = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) { // More test cases than fit in a block
+            TestCase tc = new TestCase("test_" + i, i % 2 == 0, "getPet", "/pets/{id}", HttpMethod.GET);
+            tc.addPathParameter("id", String.valueOf(i));
+            tc.addQueryParameter("name", "Jos\u00e9, \"" + i + "\"");
+            tc.setBodyParameter(i % 3 == 0 ? null : "{\"id\": " + i + "}");
+            testCases.add(tc);
+        }
+
+        try (ColumnarStoreWriter<TestCase> writer = ColumnarStore.openTestCaseWriter(path)) {
+            for (TestCase tc: testCases)
+                writer.write(tc);
+        }
+
+        try (ColumnarStoreReader<TestCase> reader = ColumnarStore.openTestCaseReader(path)) {
+            assertEquals("Wrong number of test cases", 10000, reader.getRecordCount());
+            for (TestCase expected: testCases) {
+                assertTrue("The file should contain more test cases", reader.hasNext());
+                TestCase actual = reader.next();
+                assertEquals("Wrong ID", expected.getId(), actual.getId());
+                assertEquals("Wrong faulty value", expected.getFaulty(), actual.getFaulty());
+                assertEquals("Wrong method", expected.getMethod(), actual.getMethod());
+                assertEquals("Wrong path parameters", expected.getPathParameters(), actual.getPathParameters());
+                assertEquals("Wrong query parameters", expected.getQueryParameters(), actual.getQueryParameters());
+                assertEquals("Wrong body", expected.getBodyParameter(), actual.getBodyParameter());
+            }
+            assertFalse("The file should not contain more test cases", reader.hasNext());
+        } finally {
+            deleteFile(path);
+        }
+    }
+
+    @Test
+    public void testConvertTestResults() throws IOException {
+        String csvPath = DIR + "columnarStoreTestResults.csv";
+        String storePath = ColumnarStore.getStorePath(csvPath);
+        createDir(DIR);
+        deleteFile(csvPath);
+
+        for (int i = 0; i < 100; i++)
+            new TestResult("test_" + i, i % 2 == 0 ? "200" : "400", "{\"name\": \"a,\\nb\"}", "application/json", i % 2 == 0, i % 2 == 0 ? "none" : "Status code 400").exportToCSV(csvPath);
+
+        assertEquals("Wrong number of test results converted", 100, ColumnarStore.convertTestResults(csvPath, storePath));
+        assertTrue("The binary file should be up to date", ColumnarStore.isUpToDate(csvPath, storePath));
+
+        List<TestResult> expected = TestManager.getTestResults(csvPath);
+        List<TestResult> actual = ColumnarStore.readTestResults(storePath);
+        deleteFile(csvPath);
+        deleteFile(storePath);
+
+        assertEquals("Wrong number of test results", expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("Wrong ID", expected.get(i).getId(), actual.get(i).getId());
+            assertEquals("Wrong status code", expected.get(i).getStatusCode(), actual.get(i).getStatusCode());
+            assertEquals("Wrong body", expected.get(i).getResponseBody(), actual.get(i).getResponseBody());
+            assertEquals("Wrong passed value", expected.get(i).getPassed(), actual.get(i).getPassed());
+            assertEquals("Wrong fail reason", expected.get(i).getFailReason(), actual.get(i).getFailReason());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadWrongRecordType() throws IOException {
+        String path = DIR + "columnarStoreWrongType" + ColumnarStore.EXTENSION;
+        createDir(DIR);
+        ColumnarStore.openTestResultWriter(path).close();
+        try {
+            ColumnarStore.openTestCaseReader(path);
+        } finally {
+            deleteFile(path);
+        }
+    }
+}
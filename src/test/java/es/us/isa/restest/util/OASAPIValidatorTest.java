@@ -1,9 +1,24 @@
 package es.us.isa.restest.util;
 
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
 import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static es.us.isa.restest.util.OASAPIValidator.getOperationValidator;
+import static es.us.isa.restest.util.OASAPIValidator.getResponseValidator;
 import static es.us.isa.restest.util.OASAPIValidator.getValidator;
+import static org.junit.Assert.*;
 
 public class OASAPIValidatorTest {
 
@@ -13,4 +28,51 @@ public class OASAPIValidatorTest {
 
         System.out.println("As long as this is printed, this test cases passes (no exceptions thrown).");
     }
+
+    @Test
+    public void testValidatorBuiltOncePerSpec() {
+        OpenApiInteractionValidator restcountriesValidator = getValidator(new OpenAPISpecification("src/test/resources/Restcountries/openapi.yaml"));
+        OpenApiInteractionValidator folderValidator = getValidator(new OpenAPISpecification("src/test/resources/Folder/openapi.yaml"));
+
+        assertSame("The validator was built again", restcountriesValidator, getValidator(new OpenAPISpecification("src/test/resources/Restcountries/openapi.yaml")));
+        assertNotSame("Two specifications share the same validator", restcountriesValidator, folderValidator);
+    }
+
+    @Test
+    public void testValidatorSharedByThreads() {
+        Map<OpenApiInteractionValidator, Boolean> validators = new ConcurrentHashMap<>();
+        IntStream.range(0, 8).parallel().forEach(i -> validators.put(getValidator("src/test/resources/Restcountries/openapi.yaml"), true));
+
+        assertEquals("More than one validator was built for the same specification", 1, validators.size());
+    }
+
+    @Test
+    public void testOperationValidator() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Restcountries/openapi.yaml");
+        OpenApiInteractionValidator validator = getOperationValidator(spec, "/v2/alpha", HttpMethod.GET);
+        assertSame("The operation validator was built again", validator, getOperationValidator(spec, "/v2/alpha", HttpMethod.GET));
+
+        TestCase validTestCase = new TestCase("test1", false, "v2Alphacodes", "/v2/alpha", HttpMethod.GET);
+        validTestCase.addQueryParameter("codes", "es;fr");
+        assertTrue("The test case should be valid", validTestCase.isValid(validator));
+
+        TestCase invalidTestCase = new TestCase("test2", true, "v2Alphacodes", "/v2/alpha", HttpMethod.GET);
+        invalidTestCase.addQueryParameter("fields", "name");
+        assertFalse("The test case should be invalid (missing required parameter)", invalidTestCase.isValid(validator));
+    }
+
+    @Test
+    public void testResponseValidatorSharedUntilSpecIsModified() throws IOException {
+        Path specCopy = Files.createTempFile("restcountries", ".yaml");
+        try {
+            Files.copy(Paths.get("src/test/resources/Restcountries/openapi.yaml"), specCopy, StandardCopyOption.REPLACE_EXISTING);
+            OpenApiInteractionValidator validator = getResponseValidator(specCopy.toString());
+            assertSame("The response validator was built again", validator, getResponseValidator(specCopy.toString()));
+
+            assertTrue(specCopy.toFile().setLastModified(specCopy.toFile().lastModified() + 10000));
+            assertNotSame("The response validator was not built again after modifying the spec", validator, getResponseValidator(specCopy.toString()));
+        } finally {
+            Files.deleteIfExists(specCopy);
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package es.us.isa.restest.util;
+
+import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ParameterValidatorTest {
+
+	private static Operation createOperation() {
+		return new Operation()
+				.addParametersItem(new Parameter().name("id").in("path").required(true).schema(new StringSchema().pattern("^[a-z]+$").maxLength(5)))
+				.addParametersItem(new Parameter().name("limit").in("query").schema(new IntegerSchema().minimum(BigDecimal.ONE).maximum(BigDecimal.valueOf(100))))
+				.addParametersItem(new Parameter().name("sort").in("query").required(true).schema(new StringSchema()._enum(Arrays.asList("asc", "desc"))))
+				.addParametersItem(new Parameter().name("X-Version").in("header").schema(new IntegerSchema().format("int32")));
+	}
+
+	private static TestCase createTestCase() {
+		TestCase tc = new TestCase("test1", false, "getPet", "/pets/{id}", HttpMethod.GET);
+		tc.addPathParameter("id", "abc");
+		tc.addQueryParameter("limit", "10");
+		tc.addQueryParameter("sort", "asc");
+		tc.addHeaderParameter("x-version", "2");
+		return tc;
+	}
+
+	@Test
+	public void validParametersTest() {
+		ParameterValidator validator = ParameterValidator.compile(new OpenAPI(), new PathItem(), createOperation());
+		assertNotNull("The operation should be compiled", validator);
+		assertTrue("The test case should be valid", validator.isValid(createTestCase()));
+
+		TestCase tc = createTestCase();
+		tc.getQueryParameters().remove("limit");
+		assertTrue("Optional parameters may be missing", validator.isValid(tc));
+	}
+
+	@Test
+	public void invalidParametersTest() {
+		ParameterValidator validator = ParameterValidator.compile(new OpenAPI(), new PathItem(), createOperation());
+
+		TestCase tc = createTestCase();
+		tc.getQueryParameters().remove("sort");
+		assertFalse("Missing required parameter", validator.isValid(tc));
+
+		tc = createTestCase();
+		tc.addQueryParameter("sort", "random");
+		assertFalse("Value not in enum", validator.isValid(tc));
+
+		tc = createTestCase();
+		tc.addQueryParameter("limit", "101");
+		assertFalse("Value above maximum", validator.isValid(tc));
+
+		tc = createTestCase();
+		tc.addQueryParameter("limit", "1.5");
+		assertFalse("Not an integer", validator.isValid(tc));
+
+		tc = createTestCase();
+		tc.addPathParameter("id", "abcdef");
+		assertFalse("Value longer than maxLength", validator.isValid(tc));
+
+		tc = createTestCase();
+		tc.addPathParameter("id", "ABC");
+		assertFalse("Value not matching pattern", validator.isValid(tc));
+
+		tc = createTestCase();
+		tc.addHeaderParameter("x-version", "3000000000");
+		assertFalse("Value out of int32 range", validator.isValid(tc));
+	}
+
+	@Test
+	public void unsupportedOperationsTest() {
+		assertNull("Operations with body should not be compiled",
+				ParameterValidator.compile(new OpenAPI(), new PathItem(), createOperation().requestBody(new RequestBody())));
+		assertNull("Array parameters should not be compiled",
+				ParameterValidator.compile(new OpenAPI(), new PathItem(), createOperation().addParametersItem(new Parameter().name("tags").in("query").schema(new ArraySchema().items(new StringSchema())))));
+		assertNull("String formats should not be compiled",
+				ParameterValidator.compile(new OpenAPI(), new PathItem(), createOperation().addParametersItem(new Parameter().name("date").in("query").schema(new StringSchema().format("date")))));
+	}
+
+	@Test
+	public void sameResultAsOpenApiInteractionValidatorTest() {
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Restcountries/openapi.yaml");
+		ParameterValidator validator = OASAPIValidator.getParameterValidator(spec, "/v2/alpha", HttpMethod.GET);
+		assertNotNull("The operation should be compiled", validator);
+
+		TestCase validTestCase = new TestCase("test1", false, "v2Alphacodes", "/v2/alpha", HttpMethod.GET);
+		validTestCase.addQueryParameter("codes", "es;fr");
+		TestCase invalidTestCase = new TestCase("test2", true, "v2Alphacodes", "/v2/alpha", HttpMethod.GET);
+		invalidTestCase.addQueryParameter("fields", "name");
+
+		assertEquals(validTestCase.isValid(OASAPIValidator.getValidator(spec)), validator.isValid(validTestCase));
+		assertEquals(invalidTestCase.isValid(OASAPIValidator.getValidator(spec)), validator.isValid(invalidTestCase));
+	}
+}
@@ -0,0 +1,79 @@
+package es.us.isa.restest.util;
+
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static es.us.isa.restest.util.ResponseShapeCache.fingerprint;
+import static es.us.isa.restest.util.ResponseShapeCache.hasValueConstraints;
+import static org.junit.Assert.*;
+
+public class ResponseShapeCacheTest {
+
+	private static byte[] json(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void sameShapeTest() {
+		assertEquals("Same properties and types in different order should have the same shape",
+				fingerprint(json("{\"id\": 1, \"name\": \"Rex\", \"tags\": [\"a\", \"b\"]}")),
+				fingerprint(json("{\"tags\": [\"c\"], \"name\": \"Tom\", \"id\": 2}")));
+		assertEquals("Arrays with a different number of items of the same shape should have the same shape",
+				fingerprint(json("[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}]")),
+				fingerprint(json("[{\"id\": 4}]")));
+	}
+
+	@Test
+	public void differentShapeTest() {
+		assertNotEquals("Different types should have different shapes",
+				fingerprint(json("{\"id\": 1}")), fingerprint(json("{\"id\": \"1\"}")));
+		assertNotEquals("Integers and decimals should have different shapes",
+				fingerprint(json("{\"id\": 1}")), fingerprint(json("{\"id\": 1.5}")));
+		assertNotEquals("Missing properties should have different shapes",
+				fingerprint(json("{\"id\": 1, \"name\": \"Rex\"}")), fingerprint(json("{\"id\": 1}")));
+		assertNotEquals("Properties split across array items should have a different shape",
+				fingerprint(json("[{\"a\": 1, \"b\": 2}]")), fingerprint(json("[{\"a\": 1}, {\"b\": 2}]")));
+	}
+
+	@Test
+	public void nestedShapeTest() {
+		String longProperties = "\"aaaaaaaaaaaaaaaaaaaa\": 1, \"bbbbbbbbbbbbbbbbbbbb\": 2, \"cccccccccccccccccccc\": ";
+		assertEquals("Long nested shapes should be hashed consistently",
+				fingerprint(json("{\"nested\": {" + longProperties + "3}}")), fingerprint(json("{\"nested\": {" + longProperties + "4}}")));
+		assertNotEquals("Long nested shapes with different types should have different shapes",
+				fingerprint(json("{\"nested\": {" + longProperties + "3}}")), fingerprint(json("{\"nested\": {" + longProperties + "\"3\"}}")));
+	}
+
+	@Test
+	public void notJsonTest() {
+		assertNull("Non-JSON bodies should have no shape", fingerprint(json("<html></html>")));
+	}
+
+	@Test
+	public void cacheTest() {
+		ResponseShapeCache cache = new ResponseShapeCache(10);
+		String key = ResponseShapeCache.getKey("GET /pets", 200, "application/json", fingerprint(json("{\"id\": 1}")));
+
+		assertFalse("The shape should not be cached yet", cache.isValid(key));
+		cache.addValid(key);
+		assertTrue("The shape should be cached", cache.isValid(key));
+		assertFalse("The shape should not be cached for other status codes",
+				cache.isValid(ResponseShapeCache.getKey("GET /pets", 404, "application/json", fingerprint(json("{\"id\": 1}")))));
+	}
+
+	@Test
+	public void valueConstraintsTest() {
+		ObjectSchema withoutConstraints = new ObjectSchema();
+		withoutConstraints.addProperties("name", new StringSchema());
+		assertFalse("The schema has no value-level constraints", hasValueConstraints(withoutConstraints));
+
+		ObjectSchema withEnum = new ObjectSchema();
+		withEnum.addProperties("status", new ArraySchema().items(new StringSchema()._enum(Arrays.asList("available", "sold"))));
+		assertTrue("The schema has an enum in a nested schema", hasValueConstraints(withEnum));
+	}
+}
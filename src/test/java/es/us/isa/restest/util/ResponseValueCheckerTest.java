@@ -0,0 +1,88 @@
+package es.us.isa.restest.util;
+
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ResponseValueCheckerTest {
+
+	private static byte[] json(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void noConstraintsTest() {
+		ObjectSchema schema = new ObjectSchema();
+		schema.addProperties("name", new StringSchema());
+		schema.addProperties("id", new Schema<>().type("integer"));
+
+		assertSame("Schemas without value-level constraints should need no checker", ResponseValueChecker.NONE, ResponseValueChecker.of(schema));
+		assertTrue("Values should be valid if there are no constraints", ResponseValueChecker.NONE.check(json("{\"name\": \"a\"}")));
+	}
+
+	@Test
+	public void numericFormatsTest() {
+		ObjectSchema schema = new ObjectSchema();
+		schema.addProperties("id", new IntegerSchema().format("int32"));
+		ResponseValueChecker checker = ResponseValueChecker.of(schema);
+
+		assertFalse("Numeric formats should not require full validation", checker.requiresFullValidation());
+		assertTrue("The value fits in an int32", checker.check(json("{\"id\": 2147483647}")));
+		assertFalse("The value does not fit in an int32", checker.check(json("{\"id\": 2147483648}")));
+	}
+
+	@Test
+	public void nestedConstraintsTest() {
+		ObjectSchema item = new ObjectSchema();
+		item.addProperties("status", new StringSchema()._enum(Arrays.asList("available", "sold")));
+		item.addProperties("code", new StringSchema().pattern("^[A-Z]{2}$").maxLength(2));
+		item.addProperties("stock", new IntegerSchema().minimum(BigDecimal.ZERO).maximum(BigDecimal.TEN));
+		item.addProperties("free", new StringSchema());
+		ObjectSchema schema = new ObjectSchema();
+		schema.addProperties("items", new ArraySchema().items(item).maxItems(2));
+		ResponseValueChecker checker = ResponseValueChecker.of(schema);
+
+		assertTrue("All values satisfy the constraints",
+				checker.check(json("{\"items\": [{\"status\": \"sold\", \"code\": \"ES\", \"stock\": 10, \"free\": \"x\"}, {\"status\": null, \"stock\": 0}]}")));
+		assertFalse("The value is not in the enum", checker.check(json("{\"items\": [{\"status\": \"lost\"}]}")));
+		assertFalse("The value does not match the pattern", checker.check(json("{\"items\": [{\"code\": \"es\"}]}")));
+		assertFalse("The value is above the maximum", checker.check(json("{\"items\": [{\"stock\": 11}]}")));
+		assertFalse("The array has too many items", checker.check(json("{\"items\": [{}, {}, {}]}")));
+	}
+
+	@Test
+	public void uniqueItemsTest() {
+		ArraySchema schema = new ArraySchema().items(new IntegerSchema());
+		schema.setUniqueItems(true);
+		ResponseValueChecker checker = ResponseValueChecker.of(schema);
+
+		assertTrue("All items are different", checker.check(json("[1, 2, 3]")));
+		assertFalse("Equal numbers are repeated", checker.check(json("[1, 2, 1.0]")));
+	}
+
+	@Test
+	public void unsupportedConstraintsTest() {
+		ObjectSchema schema = new ObjectSchema();
+		schema.addProperties("email", new StringSchema().format("email"));
+		ComposedSchema oneOf = new ComposedSchema();
+		oneOf.addOneOfItem(new StringSchema().minLength(1));
+		oneOf.addOneOfItem(new IntegerSchema());
+		schema.addProperties("value", oneOf);
+		ResponseValueChecker checker = ResponseValueChecker.of(schema);
+
+		assertTrue("Properties not present do not need to be checked", checker.check(json("{}")));
+		assertFalse("Formats not supported cannot be checked", checker.check(json("{\"email\": \"a@b.com\"}")));
+		assertFalse("Values of oneOf schemas cannot be checked", checker.check(json("{\"value\": \"a\"}")));
+		assertFalse("Responses that must be fully validated are never checked", ResponseValueChecker.FULL_VALIDATION.check(json("{}")));
+	}
+}
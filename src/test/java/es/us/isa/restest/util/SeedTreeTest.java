@@ -0,0 +1,61 @@
+package es.us.isa.restest.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SeedTreeTest {
+
+	@Test
+	public void sameRootSeedTest() {
+		SeedTree.setSeed(28);
+		long seed1 = SeedTree.nextSeed();
+		int value1 = SeedTree.current().nextInt();
+
+		SeedTree.setSeed(28);
+		long seed2 = SeedTree.nextSeed();
+		int value2 = SeedTree.current().nextInt();
+
+		assertEquals("The seeds are not equal", seed1, seed2);
+		assertEquals("The values of the current thread are not equal", value1, value2);
+	}
+
+	@Test
+	public void newRandomSetSeedTest() {
+		Random random = SeedTree.newRandom(28);
+		long value1 = random.nextLong();
+
+		random.setSeed(28);
+		long value2 = random.nextLong();
+
+		assertEquals("The values are not equal", value1, value2);
+	}
+
+	@Test
+	public void bindTest() {
+		Random bound = SeedTree.newRandom(28);
+		Random previous = SeedTree.bind(bound);
+		double value1 = SeedTree.current().nextDouble();
+		assertSame("The previous stream was not restored", bound, SeedTree.bind(previous));
+
+		double value2 = SeedTree.newRandom(28).nextDouble();
+		assertEquals("The value was not taken from the bound stream", value2, value1, 0);
+	}
+
+	@Test
+	public void threadsDoNotShareStreamTest() throws InterruptedException {
+		SeedTree.bind(SeedTree.newRandom(28));
+		long[] otherThreadValue = new long[1];
+		Thread thread = new Thread(() -> {
+			SeedTree.bind(SeedTree.newRandom(28));
+			otherThreadValue[0] = SeedTree.current().nextLong();
+		});
+		thread.start();
+		thread.join();
+
+		assertEquals("The stream of this thread was used by another thread", otherThreadValue[0], SeedTree.current().nextLong());
+	}
+
+}
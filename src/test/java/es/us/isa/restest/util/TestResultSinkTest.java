@@ -0,0 +1,39 @@
+package es.us.isa.restest.util;
+
+import es.us.isa.restest.testcases.TestResult;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static es.us.isa.restest.util.CSVManager.readCSV;
+import static es.us.isa.restest.util.FileManager.*;
+import static org.junit.Assert.*;
+
+public class TestResultSinkTest {
+
+    @Test
+    public void testSubmitConcurrently() throws InterruptedException {
+        String path = "src/test/resources/csvData/testResultSinkSample.csv";
+        createDir("src/test/resources/csvData");
+        deleteFile(path);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            TestResult tr = new TestResult("test_" + i, "200", "{\"name\": \"a, b\"}", "application/json", true, "none");
+            executor.submit(() -> TestResultSink.submit(path, tr));
+        }
+        executor.shutdown();
+        assertTrue("The test results should be submitted in less than a minute", executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        TestResultSink.flush();
+        assertEquals("No test results should be pending after flushing", 0, TestResultSink.getPendingCount());
+        List<List<String>> csv = readCSV(path);
+        deleteFile(path);
+        assertEquals("The CSV should contain the header and all test results", 1001, csv.size());
+        assertEquals("The header should be in the first row", "testResultId", csv.get(0).get(0));
+        assertTrue("All rows should be complete", csv.stream().allMatch(r -> r.size() == 6));
+    }
+}
@@ -0,0 +1,57 @@
+package es.us.isa.restest.util;
+
+import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestSuiteValidatorTest {
+
+	private static List<TestCase> createTestSuite() {
+		List<TestCase> testCases = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			TestCase tc = new TestCase("test" + i, i % 4 == 0, "v2Alphacodes", "/v2/alpha", HttpMethod.GET);
+			if (i % 4 != 0)		// Every fourth test case misses the required parameter
+				tc.addQueryParameter("codes", "es;fr");
+			testCases.add(tc);
+		}
+		TestCase tc = new TestCase("testAll", false, "v2All", "/v2/all", HttpMethod.GET);
+		tc.addQueryParameter("fields", "name");
+		testCases.add(tc);
+		return testCases;
+	}
+
+	@Test
+	public void validateTestSuiteInParallelTest() {
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Restcountries/openapi.yaml");
+		List<TestCase> testCases = createTestSuite();
+
+		TestSuiteValidationResult result = new TestSuiteValidator(spec, 4).validate(testCases);
+
+		assertEquals("Wrong number of test cases", 21, result.getTestCaseCount());
+		assertEquals("Wrong number of invalid test cases", 5, result.getInvalidCount());
+		assertEquals("Wrong number of invalid test cases of the operation", Integer.valueOf(5), result.getInvalidCountPerOperation().get("v2Alphacodes"));
+		assertNull("The operation should not have invalid test cases", result.getInvalidCountPerOperation().get("v2All"));
+		assertTrue("Wrong error key", result.getErrorCountPerKey().containsKey("validation.request.parameter.query.missing"));
+		assertTrue("The test case should be valid", result.getValidationErrors("test1").isEmpty());
+		assertFalse("The test case should be invalid", result.getValidationErrors("test4").isEmpty());
+		assertEquals("Invalid test cases are not in order", "test0", result.getInvalidTestCases().keySet().iterator().next());
+	}
+
+	@Test
+	public void sameResultSequentialAndParallelTest() {
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Restcountries/openapi.yaml");
+		List<TestCase> testCases = createTestSuite();
+
+		TestSuiteValidationResult sequentialResult = new TestSuiteValidator(spec, 1).validate(testCases);
+		TestSuiteValidationResult parallelResult = new TestSuiteValidator(spec, 4).validate(testCases);
+
+		assertEquals("The errors are not the same", sequentialResult.getInvalidTestCases(), parallelResult.getInvalidTestCases());
+		assertEquals("The stats are not the same", sequentialResult.getErrorCountPerKey(), parallelResult.getErrorCountPerKey());
+	}
+}
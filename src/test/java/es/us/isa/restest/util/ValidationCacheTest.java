@@ -0,0 +1,70 @@
+package es.us.isa.restest.util;
+
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ValidationCacheTest {
+
+	@Test
+	public void cacheHitTest() {
+		ValidationCache cache = new ValidationCache(10);
+		AtomicInteger validations = new AtomicInteger();
+
+		List<String> errors1 = cache.getValidationErrors("GET /pets", () -> { validations.incrementAndGet(); return Collections.singletonList("error"); });
+		List<String> errors2 = cache.getValidationErrors("GET /pets", () -> { validations.incrementAndGet(); return Collections.emptyList(); });
+
+		assertEquals("The request was validated twice", 1, validations.get());
+		assertEquals("The cached errors are not the same", errors1, errors2);
+		assertEquals("Wrong number of hits", 1, cache.getHits());
+		assertEquals("Wrong number of misses", 1, cache.getMisses());
+		assertEquals("Wrong hit rate", 0.5, cache.getHitRate(), 0);
+	}
+
+	@Test
+	public void lruEvictionTest() {
+		ValidationCache cache = new ValidationCache(2);
+		cache.getValidationErrors("a", Collections::emptyList);
+		cache.getValidationErrors("b", Collections::emptyList);
+		cache.getValidationErrors("a", Collections::emptyList);		// "b" is now the least recently used
+		cache.getValidationErrors("c", Collections::emptyList);
+
+		assertEquals("Wrong cache size", 2, cache.size());
+		AtomicInteger validations = new AtomicInteger();
+		cache.getValidationErrors("a", () -> { validations.incrementAndGet(); return Collections.emptyList(); });
+		cache.getValidationErrors("b", () -> { validations.incrementAndGet(); return Collections.emptyList(); });
+		assertEquals("The least recently used request was not evicted", 1, validations.get());
+	}
+
+	@Test
+	public void hashTest() {
+		assertEquals("Wrong SHA-256 hash", "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", ValidationCache.hash("abc"));
+		assertEquals("Wrong SHA-256 hash of the empty string", "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", ValidationCache.hash(""));
+	}
+
+	@Test
+	public void requestFingerprintTest() {
+		TestCase tc1 = new TestCase("test1", false, "getPets", "/pets/{id}", HttpMethod.GET);
+		tc1.addPathParameter("id", "1");
+		tc1.addQueryParameter("limit", "10");
+		tc1.addQueryParameter("offset", "0");
+
+		TestCase tc2 = new TestCase("test2", true, "getPets", "/pets/{id}", HttpMethod.GET);
+		tc2.addQueryParameter("offset", "0");
+		tc2.addQueryParameter("limit", "10");
+		tc2.addPathParameter("id", "1");
+
+		TestCase tc3 = new TestCase("test3", false, "getPets", "/pets/{id}", HttpMethod.GET);
+		tc3.addPathParameter("id", "1");
+		tc3.addQueryParameter("limit", "10, offset=0");
+
+		assertEquals("Test cases with the same request have different fingerprints", tc1.getRequestFingerprint(), tc2.getRequestFingerprint());
+		assertNotEquals("Test cases with different requests have the same fingerprint", tc1.getRequestFingerprint(), tc3.getRequestFingerprint());
+	}
+}
@@ -0,0 +1,31 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import org.junit.Test;
+
+import java.util.concurrent.Semaphore;
+
+import static es.us.isa.restest.writers.restassured.filters.ConcurrencyLimitFilter.getPermits;
+import static org.junit.Assert.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    @Test
+    public void testPermitsSharedByBaseURI() {
+        Semaphore permits = getPermits("http://shared.example.org", 3);
+        assertSame("Filters targeting the same base URI should share their permits", permits, getPermits("http://shared.example.org", 3));
+        assertNotSame("Filters targeting different base URIs should not share their permits", permits, getPermits("http://other.example.org", 3));
+        assertEquals("The permits should allow the maximum number of concurrent requests", 3, permits.availablePermits());
+    }
+
+    @Test
+    public void testConflictingLimit() {
+        Semaphore permits = getPermits("http://conflict.example.org", 2);
+        assertSame("The first limit of a base URI should be kept", permits, getPermits("http://conflict.example.org", 5));
+        assertEquals("The first limit of a base URI should be kept", 2, permits.availablePermits());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroRequestsPerHost() {
+        new ConcurrencyLimitFilter(0);
+    }
+}
@@ -0,0 +1,31 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static es.us.isa.restest.writers.restassured.filters.RateLimitFilter.getRetryAfterMillis;
+import static org.junit.Assert.*;
+
+public class RateLimitFilterTest {
+
+    @Test
+    public void testRetryAfterSeconds() {
+        assertEquals("Retry-After in seconds should be converted to milliseconds", 120000, getRetryAfterMillis("120", 0));
+    }
+
+    @Test
+    public void testRetryAfterDate() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30));
+        long millis = getRetryAfterMillis(date, 0);
+        assertTrue("Retry-After as HTTP date should be around 30 seconds, but was " + millis, millis > 25000 && millis <= 30000);
+    }
+
+    @Test
+    public void testRetryAfterAbsent() {
+        assertEquals("Without Retry-After, the first back-off should be 1 second", 1000, getRetryAfterMillis(null, 0));
+        assertEquals("Without Retry-After, the back-off should double with every attempt", 4000, getRetryAfterMillis("not a date", 2));
+    }
+}
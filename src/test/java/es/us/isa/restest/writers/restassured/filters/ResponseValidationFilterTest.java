@@ -1,10 +1,24 @@
 package es.us.isa.restest.writers.restassured.filters;
 
+import com.sun.net.httpserver.HttpServer;
+import es.us.isa.restest.util.PropertyManager;
+import es.us.isa.restest.util.TestResultSink;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static es.us.isa.restest.util.CSVManager.readCSV;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 public class ResponseValidationFilterTest {
@@ -53,4 +67,68 @@ public class ResponseValidationFilterTest {
 
         fail("This test should not validate the response");
     }
+
+    @Test
+    public void shouldExportAllValidResponsesInDeferredMode() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+
+        Properties properties = getGlobalProperties();
+        String previousMode = properties.getProperty("response.validation.mode");
+        properties.setProperty("response.validation.mode", "deferred");
+        try {
+            String apiName = "responseValidationFilterDeferred";
+            String testResultsPath = PropertyManager.readProperty("data.tests.dir") + "/" + apiName + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_deferred.csv";
+            File testResultsFile = new File(testResultsPath);
+            testResultsFile.delete();
+            testResultsFile.getParentFile().mkdirs();
+
+            CSVFilter csvFilter = new CSVFilter(apiName, "deferred");
+            ResponseValidationFilter deferredFilter = new ResponseValidationFilter(OAI_JSON_URL);
+            deferredFilter.setAPIName(apiName);
+            deferredFilter.setTestId("deferred");
+            assertEquals("The filter should validate responses in deferred mode", ResponseValidationFilter.Mode.DEFERRED, deferredFilter.getMode());
+
+            int requests = 50;
+            for (int i = 0; i < requests; i++) {
+                csvFilter.setTestResultId("test_" + i);
+                deferredFilter.setTestResultId("test_" + i);
+                RestAssured
+                        .given()
+                        .baseUri("http://localhost:" + server.getAddress().getPort())
+                        .filter(csvFilter)
+                        .filter(deferredFilter)
+                        .when()
+                        .get("/api/characters");
+            }
+
+            deferredFilter.awaitPendingValidations();
+            TestResultSink.flush();
+
+            List<String> ids = readCSV(testResultsPath, false).stream()
+                    .map(row -> row.get(0))
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals("All valid responses should be exported once their validation finishes", requests, ids.size());
+            assertEquals("Every test result should be exported once", requests, ids.stream().distinct().count());
+        } finally {
+            properties.setProperty("response.validation.mode", previousMode);
+            server.stop(0);
+        }
+    }
+
+    private static Properties getGlobalProperties() throws NoSuchFieldException, IllegalAccessException {
+        PropertyManager.readProperty("response.validation.mode"); // Loads the global properties
+        Field properties = PropertyManager.class.getDeclaredField("globalProperties");
+        properties.setAccessible(true);
+        return (Properties) properties.get(null);
+    }
 }